@@ -14,6 +14,7 @@ import org.gitlab4j.api.GitLabApi.ApiVersion;
 import org.gitlab4j.api.models.Group;
 import org.gitlab4j.api.models.Project;
 import org.gitlab4j.api.models.User;
+import org.gitlab4j.api.utils.BlobCache;
 
 /**
  * This class is the base class for all the sub API classes. It provides implementations of
@@ -151,6 +152,10 @@ public abstract class AbstractApi implements Constants {
         return (gitLabApi.getApiClient());
     }
 
+    protected BlobCache getBlobCache() {
+        return (gitLabApi.getBlobCache());
+    }
+
     /**
      * Encode a string to be used as in-path argument for a gitlab api request.
      *
@@ -456,6 +461,25 @@ public abstract class AbstractApi implements Constants {
         }
     }
 
+    /**
+     * Perform an HTTP PUT call with the specified StreamingOutput and path objects, returning
+     * a ClientResponse instance with the data returned from the endpoint.
+     *
+     * @param expectedStatus the HTTP status that should be returned from the server
+     * @param stream the StreamingOutput that will be used for the PUT data
+     * @param mediaType the content-type for the streamed data
+     * @param pathArgs variable list of arguments used to build the URI
+     * @return a ClientResponse instance with the data returned from the endpoint
+     * @throws GitLabApiException if any exception occurs during execution
+     */
+    protected Response putWithStream(Response.Status expectedStatus, StreamingOutput stream, String mediaType, Object... pathArgs) throws GitLabApiException {
+        try {
+            return validate(getApiClient().put(stream, mediaType, pathArgs), expectedStatus);
+        } catch (Exception e) {
+            throw handle(e);
+        }
+    }
+
 
     /**
      * Perform a file upload using the HTTP PUT method with the specified File instance and path objects,
@@ -0,0 +1,436 @@
+package org.gitlab4j.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.gitlab4j.api.Constants.Encoding;
+import org.gitlab4j.api.models.Commit;
+import org.gitlab4j.api.models.CommitAction;
+import org.gitlab4j.api.models.CommitAction.Action;
+import org.gitlab4j.api.utils.JacksonJson;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * <p>This class builds a commit with any number of actions whose content is streamed into the request body.
+ * Content taken from a Path or InputStream is Base64 encoded directly into the body as each action is written
+ * with a JsonGenerator, so neither the raw bytes nor the encoded content are ever held in memory.</p>
+ *
+ * <p>When the actions exceed the configured maximum number of actions or estimated payload size of a single
+ * commit, they are split into several commits that are created one after the other on the branch. The commit
+ * message of each is suffixed with its part number, for example "Vendor dependencies (part 2 of 3)". If creating
+ * one of the commits fails, the commits created before it remain on the branch.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   List&lt;Commit&gt; commits = gitLabApi.getCommitsApi().createCommitBuilder(projectId, "codegen", "Regenerate clients")
+ *       .withStartBranch("main")
+ *       .create("clients/java/Api.java", Paths.get("build/generated/Api.java"))
+ *       .update("clients/README.md", Paths.get("build/generated/README.md"))
+ *       .delete("clients/java/OldApi.java")
+ *       .commit();
+ * </pre>
+ */
+public class CommitBuilder {
+
+    private static final ObjectMapper objectMapper = new JacksonJson().getObjectMapper();
+
+    // The estimated size of the JSON of an action besides its paths and content
+    private static final long ACTION_OVERHEAD_BYTES = 200;
+
+    private final CommitsApi commitsApi;
+    private final Object projectIdOrPath;
+    private final String branch;
+    private final String commitMessage;
+
+    private String startBranch;
+    private String authorEmail;
+    private String authorName;
+    private int maxActionsPerCommit = 1000;
+    private long maxPayloadBytes = 50L * 1024 * 1024;
+
+    private final List<PendingAction> actions = new ArrayList<>();
+
+    CommitBuilder(CommitsApi commitsApi, Object projectIdOrPath, String branch, String commitMessage) {
+
+        if (branch == null) {
+            throw new IllegalArgumentException("branch cannot be null");
+        }
+
+        if (commitMessage == null) {
+            throw new IllegalArgumentException("commit_message cannot be null");
+        }
+
+        this.commitsApi = commitsApi;
+        this.projectIdOrPath = projectIdOrPath;
+        this.branch = branch;
+        this.commitMessage = commitMessage;
+    }
+
+    /**
+     * Set the name of the branch to start the new branch from, only used by the first commit.
+     *
+     * @param startBranch the name of the branch to start the new branch from
+     * @return this CommitBuilder instance
+     */
+    public CommitBuilder withStartBranch(String startBranch) {
+        this.startBranch = startBranch;
+        return (this);
+    }
+
+    /**
+     * Set the commit author's email address.
+     *
+     * @param authorEmail the commit author's email address
+     * @return this CommitBuilder instance
+     */
+    public CommitBuilder withAuthorEmail(String authorEmail) {
+        this.authorEmail = authorEmail;
+        return (this);
+    }
+
+    /**
+     * Set the commit author's name.
+     *
+     * @param authorName the commit author's name
+     * @return this CommitBuilder instance
+     */
+    public CommitBuilder withAuthorName(String authorName) {
+        this.authorName = authorName;
+        return (this);
+    }
+
+    /**
+     * Set the maximum number of actions in a single commit, defaults to 1000.
+     *
+     * @param maxActionsPerCommit the maximum number of actions in a single commit
+     * @return this CommitBuilder instance
+     */
+    public CommitBuilder withMaxActionsPerCommit(int maxActionsPerCommit) {
+        this.maxActionsPerCommit = Math.max(1, maxActionsPerCommit);
+        return (this);
+    }
+
+    /**
+     * Set the maximum estimated size of the request body of a single commit, defaults to 50 MiB. An action
+     * that is larger than this by itself is sent in a commit of its own.
+     *
+     * @param maxPayloadBytes the maximum estimated size of the request body of a single commit
+     * @return this CommitBuilder instance
+     */
+    public CommitBuilder withMaxPayloadBytes(long maxPayloadBytes) {
+        this.maxPayloadBytes = Math.max(1, maxPayloadBytes);
+        return (this);
+    }
+
+    /**
+     * Adds an action to create a file with the content of the specified Path.
+     *
+     * @param filePath the path of the file in the repository
+     * @param content the Path of the file to read the content from
+     * @return this CommitBuilder instance
+     * @throws GitLabApiException if the size of the content cannot be determined
+     */
+    public CommitBuilder create(String filePath, Path content) throws GitLabApiException {
+        return (addAction(Action.CREATE, filePath, content));
+    }
+
+    /**
+     * Adds an action to create a file with the content read from the specified InputStream. The InputStream
+     * is closed once it has been written.
+     *
+     * @param filePath the path of the file in the repository
+     * @param content the InputStream to read the content from
+     * @param length the number of bytes of content, or -1 if not known in which case the action is sent
+     *               in a commit of its own
+     * @return this CommitBuilder instance
+     */
+    public CommitBuilder create(String filePath, InputStream content, long length) {
+        return (addAction(Action.CREATE, filePath, null, content, length));
+    }
+
+    /**
+     * Adds an action to update a file with the content of the specified Path.
+     *
+     * @param filePath the path of the file in the repository
+     * @param content the Path of the file to read the content from
+     * @return this CommitBuilder instance
+     * @throws GitLabApiException if the size of the content cannot be determined
+     */
+    public CommitBuilder update(String filePath, Path content) throws GitLabApiException {
+        return (addAction(Action.UPDATE, filePath, content));
+    }
+
+    /**
+     * Adds an action to update a file with the content read from the specified InputStream. The InputStream
+     * is closed once it has been written.
+     *
+     * @param filePath the path of the file in the repository
+     * @param content the InputStream to read the content from
+     * @param length the number of bytes of content, or -1 if not known in which case the action is sent
+     *               in a commit of its own
+     * @return this CommitBuilder instance
+     */
+    public CommitBuilder update(String filePath, InputStream content, long length) {
+        return (addAction(Action.UPDATE, filePath, null, content, length));
+    }
+
+    /**
+     * Adds an action to delete a file.
+     *
+     * @param filePath the path of the file in the repository
+     * @return this CommitBuilder instance
+     */
+    public CommitBuilder delete(String filePath) {
+        return (withAction(new CommitAction().withAction(Action.DELETE).withFilePath(filePath)));
+    }
+
+    /**
+     * Adds an action to move a file.
+     *
+     * @param previousPath the current path of the file in the repository
+     * @param filePath the new path of the file in the repository
+     * @return this CommitBuilder instance
+     */
+    public CommitBuilder move(String previousPath, String filePath) {
+        return (withAction(new CommitAction().withAction(Action.MOVE).withPreviousPath(previousPath).withFilePath(filePath)));
+    }
+
+    /**
+     * Adds a CommitAction, its content, if any, is sent as is.
+     *
+     * @param action the CommitAction to add
+     * @return this CommitBuilder instance
+     */
+    public CommitBuilder withAction(CommitAction action) {
+
+        Action actionType = action.getAction();
+        if ((actionType == Action.CREATE || actionType == Action.UPDATE) && action.getContent() == null) {
+            throw new IllegalArgumentException("Content cannot be null for create or update actions.");
+        }
+
+        long size = ACTION_OVERHEAD_BYTES + length(action.getFilePath()) + length(action.getPreviousPath()) + length(action.getContent());
+        actions.add(new PendingAction(action, null, null, size));
+        return (this);
+    }
+
+    /**
+     * Get the number of actions added to this builder.
+     *
+     * @return the number of actions added to this builder
+     */
+    public int getActionCount() {
+        return (actions.size());
+    }
+
+    /**
+     * Creates the commits holding the actions, more than one if the actions are split.
+     *
+     * <pre><code>GitLab Endpoint: POST /projects/:id/repository/commits</code></pre>
+     *
+     * @return the created commits, in the order they were created
+     * @throws GitLabApiException if any exception occurs during execution, the commits created before
+     *          the failure remain on the branch
+     */
+    public List<Commit> commit() throws GitLabApiException {
+
+        if (actions.isEmpty()) {
+            throw new GitLabApiException("actions cannot be null or empty.");
+        }
+
+        List<Commit> commits = new ArrayList<>();
+        try {
+
+            for (StreamingOutput payload : createPayloads()) {
+                Response response = commitsApi.post(Response.Status.CREATED, payload, MediaType.APPLICATION_JSON,
+                        "projects", commitsApi.getProjectIdOrPath(projectIdOrPath), "repository", "commits");
+                commits.add(response.readEntity(Commit.class));
+            }
+
+        } finally {
+
+            // The InputStreams of the actions that were not written because a commit failed are still open
+            for (PendingAction action : actions) {
+                action.closeContentStream();
+            }
+        }
+
+        return (commits);
+    }
+
+    /**
+     * Splits the actions into commits and creates the request body of each.
+     *
+     * @return the request bodies of the commits, in the order they are to be created
+     */
+    List<StreamingOutput> createPayloads() {
+
+        List<List<PendingAction>> parts = new ArrayList<>();
+        List<PendingAction> part = new ArrayList<>();
+        long partSize = 0;
+        for (PendingAction action : actions) {
+
+            if (!part.isEmpty() && (part.size() >= maxActionsPerCommit || partSize + action.size > maxPayloadBytes)) {
+                parts.add(part);
+                part = new ArrayList<>();
+                partSize = 0;
+            }
+
+            part.add(action);
+            partSize += action.size;
+        }
+
+        parts.add(part);
+
+        List<StreamingOutput> payloads = new ArrayList<>(parts.size());
+        for (int i = 0; i < parts.size(); i++) {
+            String message = (parts.size() == 1 ? commitMessage :
+                    commitMessage + " (part " + (i + 1) + " of " + parts.size() + ")");
+
+            // The branch exists once the first commit has been created
+            payloads.add(new CommitPayloadOutput(message, (i == 0 ? startBranch : null), parts.get(i)));
+        }
+
+        return (Collections.unmodifiableList(payloads));
+    }
+
+    private CommitBuilder addAction(Action actionType, String filePath, Path content) throws GitLabApiException {
+
+        try {
+            return (addAction(actionType, filePath, content, null, Files.size(content)));
+        } catch (IOException ioe) {
+            throw new GitLabApiException(ioe);
+        }
+    }
+
+    private CommitBuilder addAction(Action actionType, String filePath, Path contentPath, InputStream contentStream, long length) {
+
+        if (filePath == null) {
+            throw new IllegalArgumentException("filePath cannot be null");
+        }
+
+        if (contentPath == null && contentStream == null) {
+            throw new IllegalArgumentException("Content cannot be null for create or update actions.");
+        }
+
+        // Base64 encodes each 3 bytes as 4 characters, an unknown length fills a commit
+        long size = (length < 0 ? maxPayloadBytes : ACTION_OVERHEAD_BYTES + length(filePath) + (length + 2) / 3 * 4);
+        CommitAction action = new CommitAction().withAction(actionType).withFilePath(filePath).withEncoding(Encoding.BASE64);
+        actions.add(new PendingAction(action, contentPath, contentStream, size));
+        return (this);
+    }
+
+    private static long length(String value) {
+        return (value != null ? value.length() : 0);
+    }
+
+    /**
+     * An action along with the source of its content, if it is streamed, and the estimated size of its JSON.
+     */
+    private static class PendingAction {
+
+        private final CommitAction action;
+        private final Path contentPath;
+        private final InputStream contentStream;
+        private final long size;
+
+        PendingAction(CommitAction action, Path contentPath, InputStream contentStream, long size) {
+            this.action = action;
+            this.contentPath = contentPath;
+            this.contentStream = contentStream;
+            this.size = size;
+        }
+
+        boolean isStreamed() {
+            return (contentPath != null || contentStream != null);
+        }
+
+        void closeContentStream() {
+
+            if (contentStream == null) {
+                return;
+            }
+
+            try {
+                contentStream.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    /**
+     * Writes the request body of a single commit, streaming the content of each action into it.
+     */
+    private class CommitPayloadOutput implements StreamingOutput {
+
+        private final String message;
+        private final String start;
+        private final List<PendingAction> partActions;
+
+        CommitPayloadOutput(String message, String start, List<PendingAction> partActions) {
+            this.message = message;
+            this.start = start;
+            this.partActions = partActions;
+        }
+
+        @Override
+        public void write(OutputStream output) throws IOException, WebApplicationException {
+
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            generator.writeStartObject();
+            writeField(generator, "branch", branch);
+            writeField(generator, "commit_message", message);
+            writeField(generator, "start_branch", start);
+            writeField(generator, "author_email", authorEmail);
+            writeField(generator, "author_name", authorName);
+
+            generator.writeArrayFieldStart("actions");
+            for (PendingAction pending : partActions) {
+
+                if (!pending.isStreamed()) {
+                    objectMapper.writeValue(generator, pending.action);
+                    continue;
+                }
+
+                CommitAction action = pending.action;
+                generator.writeStartObject();
+                writeField(generator, "action", action.getAction().toValue());
+                writeField(generator, "file_path", action.getFilePath());
+                writeField(generator, "encoding", action.getEncoding().toValue());
+                generator.writeFieldName("content");
+                try (InputStream in = (pending.contentPath != null ? Files.newInputStream(pending.contentPath) : pending.contentStream)) {
+                    generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, in, -1);
+                }
+
+                generator.writeEndObject();
+            }
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.flush();
+        }
+
+        private void writeField(JsonGenerator generator, String name, String value) throws IOException {
+            if (value != null) {
+                generator.writeStringField(name, value);
+            }
+        }
+    }
+}
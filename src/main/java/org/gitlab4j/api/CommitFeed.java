@@ -0,0 +1,434 @@
+package org.gitlab4j.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.gitlab4j.api.models.Commit;
+
+/**
+ * <p>This class provides an incremental feed of the commits of a project's branch or tag. A high-water mark, the
+ * SHA and committed date of the newest commit returned, is kept for each (project, ref) pair so that each call
+ * to {@link #getNewCommits(Object, String)} only fetches the commits added since the previous call.</p>
+ *
+ * <p>The commits are listed from the current head of the ref, pinned to its SHA so that pushes during a sync
+ * do not shift the pages, using "since" set to the date of the mark. Paging stops as soon as the mark is reached,
+ * and the new commits are returned oldest first. Up to a configurable number of commits are held in memory,
+ * the pages of a larger backlog are fetched again one at a time as they are returned, so the memory used stays
+ * bounded no matter how far behind the mark is.</p>
+ *
+ * <p>The mark advances as the commits are consumed and is saved when the returned Stream is exhausted or closed,
+ * so a consumer that fails part way through resumes after the last commit it consumed. When a file is specified
+ * the marks are persisted to it, otherwise they are only held in memory.</p>
+ *
+ * <p>Commits that are not ancestors of the mark but have a committed date before it, such as those of a
+ * branch merged after the mark was set, are not returned as they fall outside of "since".</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   CommitFeed feed = new CommitFeed(gitLabApi, Paths.get("/var/lib/analytics/commit-marks.properties"));
+ *   try (Stream&lt;Commit&gt; commits = feed.getNewCommits("group/project", "main")) {
+ *       commits.forEach(commit -&gt; analyze(commit));
+ *   }
+ * </pre>
+ */
+public class CommitFeed {
+
+    private final GitLabApi gitLabApi;
+    private final Path markFile;
+    private final Map<String, Mark> marks = new ConcurrentHashMap<>();
+    private final Map<String, Integer> projectIds = new ConcurrentHashMap<>();
+
+    private volatile int itemsPerPage = 100;
+    private volatile int maxBufferedCommits = 1000;
+
+    /**
+     * Create a CommitFeed that holds its marks in memory only.
+     *
+     * @param gitLabApi the GitLabApi instance to fetch the commits with
+     */
+    public CommitFeed(GitLabApi gitLabApi) {
+        this(gitLabApi, null);
+    }
+
+    /**
+     * Create a CommitFeed that persists its marks to the specified file, loading any marks already saved in it.
+     *
+     * @param gitLabApi the GitLabApi instance to fetch the commits with
+     * @param markFile the file to persist the marks to, if null the marks are only held in memory
+     * @throws IllegalArgumentException if the mark file exists but cannot be read
+     */
+    public CommitFeed(GitLabApi gitLabApi, Path markFile) {
+
+        this.gitLabApi = gitLabApi;
+        this.markFile = markFile;
+
+        if (markFile != null && Files.isRegularFile(markFile)) {
+            try {
+                loadMarks();
+            } catch (IOException ioe) {
+                throw new IllegalArgumentException("Unable to read commit mark file: " + markFile, ioe);
+            }
+        }
+    }
+
+    /**
+     * Set the number of commits fetched per page, defaults to 100 which is also the most GitLab returns per page.
+     *
+     * @param itemsPerPage the number of commits fetched per page
+     * @return this CommitFeed instance
+     */
+    public CommitFeed withItemsPerPage(int itemsPerPage) {
+        this.itemsPerPage = Math.max(1, Math.min(100, itemsPerPage));
+        return (this);
+    }
+
+    /**
+     * Set the number of new commits held in memory while they are being fetched, defaults to 1000. The pages
+     * of any commits beyond this are fetched again when they are returned.
+     *
+     * @param maxBufferedCommits the number of new commits held in memory
+     * @return this CommitFeed instance
+     */
+    public CommitFeed withMaxBufferedCommits(int maxBufferedCommits) {
+        this.maxBufferedCommits = Math.max(0, maxBufferedCommits);
+        return (this);
+    }
+
+    /**
+     * Get the high-water mark for the specified project and ref.
+     *
+     * @param projectIdOrPath the project in the form of an Integer(ID), String(path), or Project instance
+     * @param ref the name of the branch or tag
+     * @return the high-water mark, or null if no commits have been returned for the project and ref
+     * @throws GitLabApiException if the project is not specified
+     */
+    public Mark getMark(Object projectIdOrPath, String ref) throws GitLabApiException {
+        return (marks.get(getKey(projectIdOrPath, ref)));
+    }
+
+    /**
+     * Set the high-water mark for the specified project and ref, for example to start a feed at a known commit.
+     *
+     * @param projectIdOrPath the project in the form of an Integer(ID), String(path), or Project instance
+     * @param ref the name of the branch or tag
+     * @param mark the new high-water mark, null removes the mark so that all commits are returned
+     * @throws GitLabApiException if the project is not specified or the marks cannot be saved
+     */
+    public void setMark(Object projectIdOrPath, String ref, Mark mark) throws GitLabApiException {
+
+        String key = getKey(projectIdOrPath, ref);
+        if (mark != null) {
+            marks.put(key, mark);
+        } else {
+            marks.remove(key);
+        }
+
+        try {
+            saveMarks();
+        } catch (IOException ioe) {
+            throw new GitLabApiException(ioe);
+        }
+    }
+
+    /**
+     * Get a Stream of the commits added to the ref since the previous call, oldest first. The Stream should
+     * be closed to save the mark if it is not consumed to the end.
+     *
+     * <pre><code>GitLab Endpoint: GET /projects/:id/repository/commits</code></pre>
+     *
+     * @param projectIdOrPath the project in the form of an Integer(ID), String(path), or Project instance
+     * @param ref the name of the branch or tag
+     * @return a Stream of the new commits, oldest first
+     * @throws GitLabApiException if any exception occurs
+     */
+    public Stream<Commit> getNewCommits(Object projectIdOrPath, String ref) throws GitLabApiException {
+
+        if (ref == null) {
+            throw new RuntimeException("ref cannot be null");
+        }
+
+        String key = getKey(projectIdOrPath, ref);
+        Mark mark = marks.get(key);
+
+        // Pin the listing to the current head so the pages do not shift while they are being read
+        CommitsApi commitsApi = gitLabApi.getCommitsApi();
+        String head = commitsApi.getCommit(projectIdOrPath, ref).getId();
+        if (mark != null && head.equals(mark.getSha())) {
+            return (Stream.empty());
+        }
+
+        Date since = (mark != null ? mark.getDate() : null);
+        int perPage = itemsPerPage;
+        int maxBuffered = maxBufferedCommits;
+
+        // Walk the pages newest first until the mark is reached, keeping only the most recently read
+        // pages in memory, as they hold the oldest commits which are returned first
+        List<List<Commit>> pages = new ArrayList<>();
+        int buffered = 0;
+        int firstBufferedPage = 0;
+        for (int page = 1; ; page++) {
+
+            List<Commit> commits = commitsApi.getCommits(projectIdOrPath, head, since, null, null, page, perPage);
+            int markIndex = indexOf(commits, mark);
+            if (markIndex >= 0) {
+                commits = commits.subList(0, markIndex);
+            }
+
+            pages.add(commits);
+            buffered += commits.size();
+            while (buffered > maxBuffered && firstBufferedPage < pages.size() - 1) {
+                buffered -= pages.get(firstBufferedPage).size();
+                pages.set(firstBufferedPage++, null);
+            }
+
+            if (markIndex >= 0 || commits.size() < perPage) {
+                break;
+            }
+        }
+
+        NewCommitIterator iterator = new NewCommitIterator(commitsApi, projectIdOrPath, head, since, perPage, pages, key);
+        Spliterator<Commit> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return (StreamSupport.stream(spliterator, false).onClose(iterator::saveMark));
+    }
+
+    private static int indexOf(List<Commit> commits, Mark mark) {
+
+        if (mark != null) {
+            for (int i = 0; i < commits.size(); i++) {
+                if (mark.getSha().equals(commits.get(i).getId())) {
+                    return (i);
+                }
+            }
+        }
+
+        return (-1);
+    }
+
+    private String getKey(Object projectIdOrPath, String ref) throws GitLabApiException {
+        return (getProjectId(projectIdOrPath) + ":" + ref);
+    }
+
+    /**
+     * Get the ID of a project, so the marks of a project are the same whether it is specified by ID or by path.
+     * The ID of a project specified by path is only looked up the first time.
+     */
+    private Integer getProjectId(Object projectIdOrPath) throws GitLabApiException {
+
+        Object idOrPath = gitLabApi.getCommitsApi().getProjectIdOrPath(projectIdOrPath);
+        if (idOrPath instanceof Integer) {
+            return ((Integer) idOrPath);
+        }
+
+        String path = idOrPath.toString().toLowerCase(Locale.ROOT);
+        if (!path.isEmpty() && path.chars().allMatch(Character::isDigit)) {
+            return (Integer.valueOf(path));
+        }
+
+        Integer projectId = projectIds.get(path);
+        if (projectId == null) {
+            projectId = gitLabApi.getProjectApi().getProject(projectIdOrPath).getId();
+            projectIds.put(path, projectId);
+        }
+
+        return (projectId);
+    }
+
+    private void loadMarks() throws IOException {
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(markFile)) {
+            properties.load(in);
+        }
+
+        for (String key : properties.stringPropertyNames()) {
+            Mark mark = Mark.parse(properties.getProperty(key));
+            if (mark != null) {
+                marks.put(key, mark);
+            }
+        }
+    }
+
+    private synchronized void saveMarks() throws IOException {
+
+        if (markFile == null) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        for (Map.Entry<String, Mark> entry : marks.entrySet()) {
+            properties.setProperty(entry.getKey(), entry.getValue().toString());
+        }
+
+        // Write to a temporary file and move it into place so a crash never leaves a partially written file
+        Path parent = markFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tempFile = Files.createTempFile(parent, markFile.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                properties.store(out, "GitLab4J commit feed marks");
+            }
+
+            Files.move(tempFile, markFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Returns the new commits oldest first, starting with the last page read and fetching the pages that
+     * were dropped from memory again as they are reached.
+     */
+    private class NewCommitIterator implements Iterator<Commit> {
+
+        private final CommitsApi commitsApi;
+        private final Object projectIdOrPath;
+        private final String head;
+        private final Date since;
+        private final int perPage;
+        private final List<List<Commit>> pages;
+        private final String key;
+
+        private int pageIndex;
+        private List<Commit> page = Collections.emptyList();
+        private int index = -1;
+        private Mark lastMark;
+        private boolean saved;
+
+        NewCommitIterator(CommitsApi commitsApi, Object projectIdOrPath, String head, Date since,
+                int perPage, List<List<Commit>> pages, String key) {
+            this.commitsApi = commitsApi;
+            this.projectIdOrPath = projectIdOrPath;
+            this.head = head;
+            this.since = since;
+            this.perPage = perPage;
+            this.pages = pages;
+            this.key = key;
+            this.pageIndex = pages.size();
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            while (index < 0) {
+
+                if (pageIndex == 0) {
+                    saveMark();
+                    return (false);
+                }
+
+                page = getPage(--pageIndex);
+                pages.set(pageIndex, null);
+                index = page.size() - 1;
+            }
+
+            return (true);
+        }
+
+        @Override
+        public Commit next() {
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Commit commit = page.get(index--);
+            lastMark = new Mark(commit.getId(), commit.getCommittedDate());
+            marks.put(key, lastMark);
+            return (commit);
+        }
+
+        private List<Commit> getPage(int index) {
+
+            List<Commit> commits = pages.get(index);
+            if (commits != null) {
+                return (commits);
+            }
+
+            // The page was dropped from memory, it is not the last page so it holds no commits at or before the mark
+            try {
+                return (commitsApi.getCommits(projectIdOrPath, head, since, null, null, index + 1, perPage));
+            } catch (GitLabApiException glae) {
+                throw new RuntimeException(glae);
+            }
+        }
+
+        void saveMark() {
+
+            if (saved || lastMark == null) {
+                return;
+            }
+
+            saved = true;
+            try {
+                saveMarks();
+            } catch (IOException ioe) {
+                throw new RuntimeException(new GitLabApiException(ioe));
+            }
+        }
+    }
+
+    /**
+     * The high-water mark of a feed, the SHA and committed date of the newest commit returned.
+     */
+    public static class Mark {
+
+        private final String sha;
+        private final Date date;
+
+        public Mark(String sha, Date date) {
+
+            if (sha == null) {
+                throw new IllegalArgumentException("sha cannot be null");
+            }
+
+            this.sha = sha;
+            this.date = date;
+        }
+
+        public String getSha() {
+            return (sha);
+        }
+
+        public Date getDate() {
+            return (date);
+        }
+
+        @Override
+        public String toString() {
+            return (date != null ? sha + " " + date.getTime() : sha);
+        }
+
+        static Mark parse(String value) {
+
+            if (value == null || value.trim().isEmpty()) {
+                return (null);
+            }
+
+            String[] parts = value.trim().split(" ");
+            try {
+                return (new Mark(parts[0], parts.length > 1 ? new Date(Long.parseLong(parts[1])) : null));
+            } catch (NumberFormatException nfe) {
+                return (new Mark(parts[0], null));
+            }
+        }
+    }
+}
@@ -597,4 +597,19 @@ public class CommitsApi extends AbstractApi {
                 "projects", getProjectIdOrPath(projectIdOrPath), "repository", "commits");
         return (response.readEntity(Commit.class));
     }
+
+    /**
+     * Create a CommitBuilder to build a commit with any number of actions whose content is streamed into the
+     * request body. Actions exceeding the limits of a single commit are split into several chained commits.
+     *
+     * <pre><code>GitLab Endpoint: POST /projects/:id/repository/commits</code></pre>
+     *
+     * @param projectIdOrPath the project in the form of an Integer(ID), String(path), or Project instance
+     * @param branch name of the branch to commit into. To create a new branch, also set the start branch on the builder
+     * @param commitMessage the commit message
+     * @return a CommitBuilder to add the actions to
+     */
+    public CommitBuilder createCommitBuilder(Object projectIdOrPath, String branch, String commitMessage) {
+        return (new CommitBuilder(this, projectIdOrPath, branch, commitMessage));
+    }
 }
@@ -0,0 +1,162 @@
+package org.gitlab4j.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * <p>This filter negotiates compressed responses and compresses large request entities for a GitLabApiClient.</p>
+ *
+ * <p>When compressed responses are enabled the Accept-Encoding header is added to each request, the
+ * gzip or deflate encoded responses are decoded as they are read by the GZipEncoder and DeflateEncoder
+ * registered along with this filter, so the JSON parser reads from the decompressing stream.</p>
+ *
+ * <p>When request compression is enabled, textual request entities that grow larger than the configured
+ * threshold are sent gzip compressed. The entity is buffered up to the threshold so that small entities
+ * are sent as is.</p>
+ */
+@Priority(Priorities.ENTITY_CODER + 100)
+class CompressionFilter implements ClientRequestFilter, WriterInterceptor {
+
+    static final String ACCEPT_ENCODING_VALUE = "gzip, deflate";
+    static final String GZIP_ENCODING = "gzip";
+
+    private final GitLabApiClient apiClient;
+
+    CompressionFilter(GitLabApiClient apiClient) {
+        this.apiClient = apiClient;
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext) throws IOException {
+
+        MultivaluedMap<String, Object> headers = requestContext.getHeaders();
+        if (apiClient.isCompressedResponsesEnabled() && !headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            headers.putSingle(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING_VALUE);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+
+        int threshold = apiClient.getRequestCompressionThreshold();
+        if (threshold < 0 || !isCompressible(context.getMediaType()) ||
+                context.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            context.proceed();
+            return;
+        }
+
+        ThresholdGzipStream stream = new ThresholdGzipStream(context, threshold);
+        context.setOutputStream(stream);
+        context.proceed();
+        stream.finish();
+    }
+
+    /**
+     * Returns true if entities of the media type are worth compressing, multipart uploads and binary
+     * entities are not compressed.
+     *
+     * @param mediaType the media type of the entity
+     * @return true if entities of the media type are worth compressing
+     */
+    static boolean isCompressible(MediaType mediaType) {
+
+        if (mediaType == null) {
+            return (false);
+        }
+
+        String subtype = mediaType.getSubtype().toLowerCase();
+        return ("text".equalsIgnoreCase(mediaType.getType()) ||
+                "json".equals(subtype) || subtype.endsWith("+json") ||
+                "x-www-form-urlencoded".equals(subtype));
+    }
+
+    /**
+     * This stream buffers the entity until it grows larger than the threshold, then sets the
+     * Content-Encoding header and gzip compresses the entity from then on.
+     */
+    private static class ThresholdGzipStream extends OutputStream {
+
+        private final WriterInterceptorContext context;
+        private final OutputStream out;
+        private final int threshold;
+        private ByteArrayOutputStream buffer;
+        private GZIPOutputStream gzip;
+        private boolean finished;
+
+        ThresholdGzipStream(WriterInterceptorContext context, int threshold) {
+            this.context = context;
+            this.out = context.getOutputStream();
+            this.threshold = threshold;
+            this.buffer = new ByteArrayOutputStream(Math.min(threshold, 8192) + 1);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+
+            if (gzip != null) {
+                gzip.write(b, off, len);
+                return;
+            }
+
+            buffer.write(b, off, len);
+            if (buffer.size() > threshold) {
+
+                // The headers are sent with the first byte written to the entity stream, so they can still be changed
+                context.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+                context.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                gzip = new GZIPOutputStream(out, 8192);
+                buffer.writeTo(gzip);
+                buffer = null;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (gzip != null) {
+                gzip.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                finish();
+            } finally {
+                out.close();
+            }
+        }
+
+        void finish() throws IOException {
+
+            if (finished) {
+                return;
+            }
+
+            finished = true;
+            if (gzip != null) {
+                gzip.finish();
+            } else {
+                buffer.writeTo(out);
+                buffer = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package org.gitlab4j.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.gitlab4j.api.models.Diff;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * <p>This class reads the diffs of a compare or merge request changes response one at a time as they are parsed,
+ * so that only a single file's diff is held in memory no matter how many files the response contains.</p>
+ *
+ * <p>The diffs can be filtered by a path glob, a diff is returned if either its old or new path matches. When the
+ * paths of a diff precede its diff text in the response, which is the order GitLab sends them in, the diff text
+ * of a file that does not match is skipped without being bound into a String.</p>
+ *
+ * <p>The glob syntax supports "*" to match any characters except "/", "**" to match any characters including "/",
+ * "?" to match a single character except "/", and "{a,b}" to match either of the alternatives. For example,
+ * "src/main/**&#47;*.{java,kt}" matches all Java and Kotlin sources below "src/main".</p>
+ */
+public class DiffStreamReader implements Iterator<Diff>, Closeable {
+
+    private static final String OLD_PATH = "old_path";
+    private static final String NEW_PATH = "new_path";
+    private static final String DIFF = "diff";
+
+    private final ObjectMapper mapper;
+    private final InputStream in;
+    private final JsonParser parser;
+    private final String arrayProperty;
+    private final Pattern pathPattern;
+
+    private boolean started;
+    private boolean finished;
+    private boolean closed;
+    private Diff next;
+
+    /**
+     * Creates a DiffStreamReader reading the diffs held in the specified array property of the JSON response.
+     *
+     * @param mapper the ObjectMapper to bind the diffs with
+     * @param in the input stream of the JSON response, it is closed when this reader is closed, exhausted or fails
+     * @param arrayProperty the name of the property holding the array of diffs, "diffs" for a compare response
+     *                      and "changes" for a merge request changes response
+     * @param pathGlob the glob the old or new path of a diff must match, or null to return all diffs
+     * @throws IOException if any error occurs creating the parser
+     */
+    public DiffStreamReader(ObjectMapper mapper, InputStream in, String arrayProperty, String pathGlob) throws IOException {
+        this.mapper = mapper;
+        this.in = in;
+        this.parser = mapper.getFactory().createParser(in);
+        this.pathPattern = (pathGlob != null ? globToPattern(pathGlob) : null);
+        this.arrayProperty = arrayProperty;
+    }
+
+    @Override
+    public boolean hasNext() {
+
+        if (next != null) {
+            return (true);
+        }
+
+        try {
+            next = readNext();
+        } catch (IOException ioe) {
+            closeQuietly();
+            throw new UncheckedIOException(ioe);
+        } catch (RuntimeException re) {
+            closeQuietly();
+            throw re;
+        }
+
+        // Release the connection as soon as all the diffs have been read
+        if (next == null) {
+            closeQuietly();
+        }
+
+        return (next != null);
+    }
+
+    @Override
+    public Diff next() {
+
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        Diff diff = next;
+        next = null;
+        return (diff);
+    }
+
+    /**
+     * Closes the parser and the underlying input stream, releasing the connection.
+     */
+    @Override
+    public void close() throws IOException {
+
+        finished = true;
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        try {
+            parser.close();
+        } finally {
+            in.close();
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignore) {
+        }
+    }
+
+    /**
+     * Returns a sequential Stream of the diffs read by this reader, closing the Stream closes this reader.
+     *
+     * @return a Stream of the diffs read by this reader
+     */
+    public Stream<Diff> stream() {
+        Spliterator<Diff> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return (StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }));
+    }
+
+    /**
+     * Returns true if the path matches the path glob of this reader, paths always match when there is no glob.
+     *
+     * @param path the path to check
+     * @return true if the path matches the path glob of this reader
+     */
+    boolean matches(String path) {
+        return (pathPattern == null || (path != null && pathPattern.matcher(path).matches()));
+    }
+
+    private Diff readNext() throws IOException {
+
+        if (finished) {
+            return (null);
+        }
+
+        if (!started) {
+            started = true;
+            if (!moveToArray()) {
+                finished = true;
+                return (null);
+            }
+        }
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            ObjectNode node = readDiff();
+            if (node != null) {
+                return (mapper.treeToValue(node, Diff.class));
+            }
+        }
+
+        finished = true;
+        return (null);
+    }
+
+    /**
+     * Positions the parser on the start of the diffs array, skipping all other properties of the response.
+     */
+    private boolean moveToArray() throws IOException {
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Invalid response, expected a JSON object");
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (arrayProperty.equals(name) && token == JsonToken.START_ARRAY) {
+                return (true);
+            }
+
+            parser.skipChildren();
+        }
+
+        return (false);
+    }
+
+    /**
+     * Reads a single diff object, returns null if its paths do not match the path glob.
+     */
+    private ObjectNode readDiff() throws IOException {
+
+        ObjectNode node = mapper.createObjectNode();
+        boolean skipDiff = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+            String name = parser.getCurrentName();
+            parser.nextToken();
+
+            // The paths are known not to match, so the diff text is skipped by the next call to nextToken()
+            if (DIFF.equals(name) && pathPattern != null && node.has(OLD_PATH) && node.has(NEW_PATH) && !pathsMatch(node)) {
+                skipDiff = true;
+                continue;
+            }
+
+            node.set(name, parser.readValueAsTree());
+        }
+
+        return (skipDiff || !pathsMatch(node) ? null : node);
+    }
+
+    private boolean pathsMatch(ObjectNode node) {
+        return (matches(node.path(OLD_PATH).asText(null)) || matches(node.path(NEW_PATH).asText(null)));
+    }
+
+    /**
+     * Converts a path glob to a regular expression Pattern.
+     *
+     * @param glob the glob to convert
+     * @return the Pattern matching the same paths as the glob
+     */
+    static Pattern globToPattern(String glob) {
+
+        StringBuilder regex = new StringBuilder(glob.length() * 2);
+        int braceDepth = 0;
+        for (int i = 0; i < glob.length(); i++) {
+
+            char c = glob.charAt(i);
+            switch (c) {
+            case '*':
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    i++;
+                    if (i + 1 < glob.length() && glob.charAt(i + 1) == '/') {
+                        // "**/" also matches no directories at all
+                        i++;
+                        regex.append("(?:.*/)?");
+                    } else {
+                        regex.append(".*");
+                    }
+                } else {
+                    regex.append("[^/]*");
+                }
+                break;
+
+            case '?':
+                regex.append("[^/]");
+                break;
+
+            case '{':
+                braceDepth++;
+                regex.append("(?:");
+                break;
+
+            case '}':
+                if (braceDepth > 0) {
+                    braceDepth--;
+                    regex.append(')');
+                } else {
+                    regex.append("\\}");
+                }
+                break;
+
+            case ',':
+                regex.append(braceDepth > 0 ? "|" : ",");
+                break;
+
+            default:
+                if ("\\.[]()^$+|".indexOf(c) >= 0) {
+                    regex.append('\\');
+                }
+
+                regex.append(c);
+            }
+        }
+
+        if (braceDepth > 0) {
+            throw new IllegalArgumentException("Unclosed '{' in path glob: " + glob);
+        }
+
+        return (Pattern.compile(regex.toString()));
+    }
+}
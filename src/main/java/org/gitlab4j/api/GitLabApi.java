@@ -16,6 +16,7 @@ import org.gitlab4j.api.models.OauthTokenResponse;
 import org.gitlab4j.api.models.Session;
 import org.gitlab4j.api.models.User;
 import org.gitlab4j.api.models.Version;
+import org.gitlab4j.api.utils.BlobCache;
 import org.gitlab4j.api.utils.MaskingLoggingFilter;
 import org.gitlab4j.api.utils.Oauth2LoginStreamingOutput;
 import org.gitlab4j.api.utils.SecretString;
@@ -50,6 +51,7 @@ public class GitLabApi {
     private Map<String, Object> clientConfigProperties;
     private int defaultPerPage = DEFAULT_PER_PAGE;
     private Session session;
+    private BlobCache blobCache;
 
     private ApplicationsApi applicationsApi;
     private ApplicationSettingsApi applicationSettingsApi;
@@ -115,6 +117,15 @@ public class GitLabApi {
         }
 
         gitLabApi.defaultPerPage = this.defaultPerPage;
+        gitLabApi.blobCache = this.blobCache;
+        gitLabApi.setMetrics(getMetrics());
+        gitLabApi.setTracer(getTracer());
+        gitLabApi.setTokenPool(getTokenPool());
+        gitLabApi.setReadReplicaRouter(getReadReplicaRouter());
+        gitLabApi.setRouteGuard(getRouteGuard());
+        gitLabApi.setRequestHedger(getRequestHedger());
+        gitLabApi.setCompressedResponses(getCompressedResponses());
+        gitLabApi.setRequestCompressionThreshold(getRequestCompressionThreshold());
         return (gitLabApi);
     }
 
@@ -577,6 +588,21 @@ public class GitLabApi {
         apiClient = new GitLabApiClient(apiVersion, hostUrl, tokenType, authToken, secretToken, clientConfigProperties);
     }
 
+    /**
+     * Constructs a view of the specified GitLabApi instance that communicates through the specified client.
+     *
+     * @param parent the GitLabApi instance to create the view of
+     * @param apiClient the GitLabApiClient view to communicate through
+     */
+    private GitLabApi(GitLabApi parent, GitLabApiClient apiClient) {
+        this.apiVersion = parent.apiVersion;
+        this.gitLabServerUrl = parent.gitLabServerUrl;
+        this.clientConfigProperties = parent.clientConfigProperties;
+        this.defaultPerPage = parent.defaultPerPage;
+        this.blobCache = parent.blobCache;
+        this.apiClient = apiClient;
+    }
+
     /**
      * Enable the logging of the requests to and the responses from the GitLab server API
      * using the GitLab4J shared Logger instance and Level.FINE as the level.
@@ -776,6 +802,44 @@ public class GitLabApi {
         apiClient.setSudoAsId(sudoAsId);
     }
 
+    /**
+     * <p>Get a lightweight view of this GitLabApi instance that performs all calls as the user with the specified
+     * user ID by sending the Sudo header. The view shares the Jersey client, and therefore the connection pool,
+     * of this instance along with its logging, metrics, and tracing settings. Views are cheap to create and
+     * safe to use concurrently, so multi-tenant workloads can run as different users at the same time
+     * without calling sudo() on a shared instance or paying for duplicate().</p>
+     *
+     * <p>Unlike setSudoAsId(), the user ID is not validated up front, a call made as a user that does
+     * not exist will fail with the error returned by the GitLab server. Sudo requires an admin token.</p>
+     *
+     * @param userId the ID of the user to perform calls as
+     * @return a GitLabApi view that performs all calls as the specified user
+     */
+    public GitLabApi asUser(Integer userId) {
+
+        if (userId == null || userId.intValue() <= 0) {
+            throw new IllegalArgumentException("userId must be a positive integer");
+        }
+
+        return (new GitLabApi(this, new GitLabApiClient(apiClient, userId, null)));
+    }
+
+    /**
+     * Get a lightweight view of this GitLabApi instance that performs all calls as the user with the
+     * specified username by sending the Sudo header. See {@link #asUser(Integer)} for details.
+     *
+     * @param username the username of the user to perform calls as
+     * @return a GitLabApi view that performs all calls as the specified user
+     */
+    public GitLabApi asUser(String username) {
+
+        if (username == null || username.trim().length() == 0) {
+            throw new IllegalArgumentException("username cannot be empty");
+        }
+
+        return (new GitLabApi(this, new GitLabApiClient(apiClient, null, username.trim())));
+    }
+
     /**
      * Get the current sudo as ID, will return null if not in sudo mode.
      *
@@ -848,6 +912,271 @@ public class GitLabApi {
         this.defaultPerPage = defaultPerPage;
     }
 
+    /**
+     * Get the BlobCache used to cache repository blob content, will return null if blob caching is not enabled.
+     *
+     * @return the BlobCache used to cache repository blob content, or null if blob caching is not enabled
+     */
+    public BlobCache getBlobCache() {
+        return (blobCache);
+    }
+
+    /**
+     * Set the BlobCache used to cache repository blob content. When set, RepositoryApi.getRawBlobContent()
+     * and RepositoryFileApi.getFile() will serve content for an already seen blob SHA from the cache, after
+     * checking with a HEAD request that the blob is accessible to this instance.
+     *
+     * @param blobCache the BlobCache to use, null will disable blob caching
+     */
+    public void setBlobCache(BlobCache blobCache) {
+        this.blobCache = blobCache;
+    }
+
+    /**
+     * Get the GitLabApiMetrics instance that is notified about each HTTP call, will return null if metrics are not enabled.
+     *
+     * @return the GitLabApiMetrics instance that is notified about each HTTP call, or null if metrics are not enabled
+     */
+    public GitLabApiMetrics getMetrics() {
+        return (apiClient.getMetrics());
+    }
+
+    /**
+     * Set the GitLabApiMetrics instance that is notified about each HTTP call made to the GitLab server API.
+     *
+     * @param metrics the GitLabApiMetrics instance to notify, null will disable metrics
+     */
+    public void setMetrics(GitLabApiMetrics metrics) {
+        apiClient.setMetrics(metrics);
+    }
+
+    /**
+     * Enable metrics for the HTTP calls made to the GitLab server API.
+     *
+     * @param metrics the GitLabApiMetrics instance to notify
+     * @return this GitLabApi instance
+     */
+    public GitLabApi withMetrics(GitLabApiMetrics metrics) {
+        setMetrics(metrics);
+        return (this);
+    }
+
+    /**
+     * Get the GitLabApiTracer instance used to trace each HTTP call, will return null if tracing is not enabled.
+     *
+     * @return the GitLabApiTracer instance used to trace each HTTP call, or null if tracing is not enabled
+     */
+    public GitLabApiTracer getTracer() {
+        return (apiClient.getTracer());
+    }
+
+    /**
+     * Set the GitLabApiTracer instance used to trace each HTTP call made to the GitLab server API.
+     * Each call is traced as a span and propagated to the server with the W3C traceparent header.
+     *
+     * @param tracer the GitLabApiTracer instance to use, null will disable tracing
+     */
+    public void setTracer(GitLabApiTracer tracer) {
+        apiClient.setTracer(tracer);
+    }
+
+    /**
+     * Enable tracing of the HTTP calls made to the GitLab server API.
+     *
+     * @param tracer the GitLabApiTracer instance to use
+     * @return this GitLabApi instance
+     */
+    public GitLabApi withTracer(GitLabApiTracer tracer) {
+        setTracer(tracer);
+        return (this);
+    }
+
+    /**
+     * Get the TokenPool that requests are spread across, will return null if a token pool is not in use.
+     *
+     * @return the TokenPool that requests are spread across, or null if a token pool is not in use
+     */
+    public TokenPool getTokenPool() {
+        return (apiClient.getTokenPool());
+    }
+
+    /**
+     * Set the TokenPool that requests are spread across. Each request is sent with the token in the pool
+     * that has the most rate limit budget left, and tokens that are revoked or have expired are taken
+     * out of rotation.
+     *
+     * @param tokenPool the TokenPool to spread requests across, null will use the auth token of this instance
+     */
+    public void setTokenPool(TokenPool tokenPool) {
+        apiClient.setTokenPool(tokenPool);
+    }
+
+    /**
+     * Spread the requests made to the GitLab server API across the tokens in the specified TokenPool.
+     *
+     * @param tokenPool the TokenPool to spread requests across
+     * @return this GitLabApi instance
+     */
+    public GitLabApi withTokenPool(TokenPool tokenPool) {
+        setTokenPool(tokenPool);
+        return (this);
+    }
+
+    /**
+     * Get the ReadReplicaRouter that GET and HEAD requests are routed through, will return null if read
+     * replica routing is not enabled.
+     *
+     * @return the ReadReplicaRouter that GET and HEAD requests are routed through, or null if not enabled
+     */
+    public ReadReplicaRouter getReadReplicaRouter() {
+        return (apiClient.getReadReplicaRouter());
+    }
+
+    /**
+     * Set the ReadReplicaRouter that GET and HEAD requests are routed through, all other requests are sent
+     * to the server this instance was created for. The previous ReadReplicaRouter, if any, is closed once
+     * no other GitLabApi instance, such as one created by {@link #duplicate()}, uses it.
+     *
+     * @param readReplicaRouter the ReadReplicaRouter to route GET and HEAD requests through, null will
+     * send all requests to the primary
+     */
+    public void setReadReplicaRouter(ReadReplicaRouter readReplicaRouter) {
+        apiClient.setReadReplicaRouter(readReplicaRouter);
+    }
+
+    /**
+     * Route the GET and HEAD requests made to the GitLab server API through the specified ReadReplicaRouter.
+     *
+     * @param readReplicaRouter the ReadReplicaRouter to route GET and HEAD requests through
+     * @return this GitLabApi instance
+     */
+    public GitLabApi withReadReplicaRouter(ReadReplicaRouter readReplicaRouter) {
+        setReadReplicaRouter(readReplicaRouter);
+        return (this);
+    }
+
+    /**
+     * Get the RouteGuard that isolates groups of routes from each other with bulkheads and circuit breakers,
+     * will return null if not enabled.
+     *
+     * @return the RouteGuard that isolates groups of routes from each other, or null if not enabled
+     */
+    public RouteGuard getRouteGuard() {
+        return (apiClient.getRouteGuard());
+    }
+
+    /**
+     * Set the RouteGuard that isolates groups of routes from each other with bulkheads and circuit breakers.
+     * Requests rejected by the RouteGuard throw a GitLabApiException caused by a RequestRejectedException.
+     *
+     * @param routeGuard the RouteGuard that isolates groups of routes from each other, null to disable
+     */
+    public void setRouteGuard(RouteGuard routeGuard) {
+        apiClient.setRouteGuard(routeGuard);
+    }
+
+    /**
+     * Isolate groups of routes from each other with the bulkheads and circuit breakers of the specified RouteGuard.
+     *
+     * @param routeGuard the RouteGuard that isolates groups of routes from each other
+     * @return this GitLabApi instance
+     */
+    public GitLabApi withRouteGuard(RouteGuard routeGuard) {
+        setRouteGuard(routeGuard);
+        return (this);
+    }
+
+    /**
+     * Get the RequestHedger that hedges GET and HEAD requests, will return null if not enabled.
+     *
+     * @return the RequestHedger that hedges GET and HEAD requests, or null if not enabled
+     */
+    public RequestHedger getRequestHedger() {
+        return (apiClient.getRequestHedger());
+    }
+
+    /**
+     * Set the RequestHedger that hedges GET and HEAD requests, sending a duplicate request when a
+     * response is slower than usual for its route.
+     *
+     * @param requestHedger the RequestHedger that hedges GET and HEAD requests, null to disable
+     */
+    public void setRequestHedger(RequestHedger requestHedger) {
+        apiClient.setRequestHedger(requestHedger);
+    }
+
+    /**
+     * Hedge the GET and HEAD requests made to the GitLab server API with the specified RequestHedger.
+     *
+     * @param requestHedger the RequestHedger that hedges GET and HEAD requests
+     * @return this GitLabApi instance
+     */
+    public GitLabApi withRequestHedger(RequestHedger requestHedger) {
+        setRequestHedger(requestHedger);
+        return (this);
+    }
+
+    /**
+     * Returns true if gzip or deflate compressed responses are requested from the GitLab server.
+     *
+     * @return true if compressed responses are requested from the GitLab server
+     */
+    public boolean getCompressedResponses() {
+        return (apiClient.isCompressedResponsesEnabled());
+    }
+
+    /**
+     * Set whether gzip or deflate compressed responses are requested from the GitLab server with the
+     * Accept-Encoding header. Compressed responses are decompressed as they are parsed, so large listings
+     * are never held in memory uncompressed.
+     *
+     * @param compressedResponses true to request compressed responses
+     */
+    public void setCompressedResponses(boolean compressedResponses) {
+        apiClient.setCompressedResponsesEnabled(compressedResponses);
+    }
+
+    /**
+     * Request gzip or deflate compressed responses from the GitLab server.
+     *
+     * @return this GitLabApi instance
+     */
+    public GitLabApi withCompressedResponses() {
+        setCompressedResponses(true);
+        return (this);
+    }
+
+    /**
+     * Get the size in bytes above which JSON, form and text request entities are sent gzip compressed.
+     *
+     * @return the size in bytes above which request entities are compressed, or -1 if request compression is disabled
+     */
+    public int getRequestCompressionThreshold() {
+        return (apiClient.getRequestCompressionThreshold());
+    }
+
+    /**
+     * Set the size in bytes above which JSON, form and text request entities, such as commit actions and
+     * file contents, are sent gzip compressed. Request compression is disabled by default, as the GitLab
+     * server, or a proxy in front of it, must accept gzip encoded request bodies.
+     *
+     * @param requestCompressionThreshold the size in bytes above which request entities are compressed, -1 to disable
+     */
+    public void setRequestCompressionThreshold(int requestCompressionThreshold) {
+        apiClient.setRequestCompressionThreshold(requestCompressionThreshold);
+    }
+
+    /**
+     * Send JSON, form and text request entities larger than the specified size gzip compressed.
+     *
+     * @param requestCompressionThreshold the size in bytes above which request entities are compressed
+     * @return this GitLabApi instance
+     */
+    public GitLabApi withRequestCompressionThreshold(int requestCompressionThreshold) {
+        setRequestCompressionThreshold(requestCompressionThreshold);
+        return (this);
+    }
+
     /**
      * Return the GitLabApiClient associated with this instance. This is used by all the sub API classes
      * to communicate with the GitLab API.
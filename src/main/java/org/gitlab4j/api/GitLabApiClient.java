@@ -10,6 +10,8 @@ import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,11 +40,14 @@ import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.ClientProperties;
 import org.glassfish.jersey.client.JerseyClientBuilder;
+import org.glassfish.jersey.client.RequestEntityProcessing;
 import org.glassfish.jersey.media.multipart.Boundary;
 import org.glassfish.jersey.media.multipart.FormDataMultiPart;
 import org.glassfish.jersey.media.multipart.MultiPart;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
 import org.glassfish.jersey.media.multipart.file.FileDataBodyPart;
+import org.glassfish.jersey.message.DeflateEncoder;
+import org.glassfish.jersey.message.GZipEncoder;
 
 
 /**
@@ -55,8 +60,11 @@ public class GitLabApiClient {
     protected static final String AUTHORIZATION_HEADER  = "Authorization";
     protected static final String X_GITLAB_TOKEN_HEADER = "X-Gitlab-Token";
 
+    // The number of times the request being made on this thread has been retried, set by retry()
+    private static final ThreadLocal<Integer> retryCount = new ThreadLocal<>();
+
     private ClientConfig clientConfig;
-    private Client apiClient;
+    private volatile Client apiClient;
     private String baseUrl;
     private String hostUrl;
     private TokenType tokenType = TokenType.PRIVATE;
@@ -66,6 +74,21 @@ public class GitLabApiClient {
     private SSLContext openSslContext;
     private HostnameVerifier openHostnameVerifier;
     private Integer sudoAsId;
+    private String sudoAsUsername;
+    private final GitLabApiClient parent;
+    private volatile GitLabApiMetrics metrics;
+    private MaskingLoggingFilter loggingFilter;
+    private boolean metricsFilterRegistered;
+    private volatile GitLabApiTracer tracer;
+    private boolean tracingFilterRegistered;
+    private volatile TokenPool tokenPool;
+    private boolean tokenPoolFilterRegistered;
+    private volatile ReadReplicaRouter readReplicaRouter;
+    private volatile RouteGuard routeGuard;
+    private volatile RequestHedger requestHedger;
+    private volatile boolean compressedResponses;
+    private volatile int requestCompressionThreshold = -1;
+    private boolean compressionFilterRegistered;
 
     /**
      * Construct an instance to communicate with a GitLab API server using the specified GitLab API version,
@@ -207,6 +230,8 @@ public class GitLabApiClient {
      */
     public GitLabApiClient(ApiVersion apiVersion, String hostUrl, TokenType tokenType, String authToken, String secretToken, Map<String, Object> clientConfigProperties) {
 
+        this.parent = null;
+
         // Remove the trailing "/" from the hostUrl if present
         this.hostUrl = (hostUrl.endsWith("/") ? hostUrl.replaceAll("/$", "") : hostUrl);
         this.baseUrl = this.hostUrl;
@@ -240,6 +265,29 @@ public class GitLabApiClient {
         clientConfig.register(MultiPartFeature.class);
     }
 
+    /**
+     * Construct a lightweight view of the specified client that performs all calls as the specified
+     * user. The view shares the Jersey Client, and therefore the connection pool, of the parent client
+     * along with its logging, metrics, and tracing settings, only the sudo identity differs.
+     *
+     * @param parent the GitLabApiClient to create the view of
+     * @param sudoAsId the ID of the user to sudo as, or null
+     * @param sudoAsUsername the username of the user to sudo as, used if sudoAsId is null
+     */
+    GitLabApiClient(GitLabApiClient parent, Integer sudoAsId, String sudoAsUsername) {
+
+        // Always share the root client so views of views do not form a chain
+        this.parent = (parent.parent != null ? parent.parent : parent);
+        this.clientConfig = this.parent.clientConfig;
+        this.hostUrl = this.parent.hostUrl;
+        this.baseUrl = this.parent.baseUrl;
+        this.tokenType = this.parent.tokenType;
+        this.authToken = this.parent.authToken;
+        this.secretToken = this.parent.secretToken;
+        this.sudoAsId = sudoAsId;
+        this.sudoAsUsername = sudoAsUsername;
+    }
+
     /**
      * Enable the logging of the requests to and the responses from the GitLab server API.
      *
@@ -252,7 +300,12 @@ public class GitLabApiClient {
      */
     void enableRequestResponseLogging(Logger logger, Level level, int maxEntityLength, List<String> maskedHeaderNames) {
 
-        MaskingLoggingFilter loggingFilter = new MaskingLoggingFilter(logger, level, maxEntityLength, maskedHeaderNames);
+        if (parent != null) {
+            parent.enableRequestResponseLogging(logger, level, maxEntityLength, maskedHeaderNames);
+            return;
+        }
+
+        loggingFilter = new MaskingLoggingFilter(logger, level, maxEntityLength, maskedHeaderNames);
         clientConfig.register(loggingFilter);
 
         // Recreate the Client instance if already created.
@@ -261,6 +314,357 @@ public class GitLabApiClient {
         }
     }
 
+    /**
+     * Get the MaskingLoggingFilter most recently enabled for this client, will return null if
+     * request/response logging is not enabled.
+     *
+     * @return the MaskingLoggingFilter most recently enabled for this client
+     */
+    MaskingLoggingFilter getLoggingFilter() {
+        return (parent != null ? parent.getLoggingFilter() : loggingFilter);
+    }
+
+    /**
+     * Get the GitLabApiMetrics instance that is notified about each HTTP call, will return null
+     * if metrics are not enabled.
+     *
+     * @return the GitLabApiMetrics instance that is notified about each HTTP call
+     */
+    GitLabApiMetrics getMetrics() {
+        return (parent != null ? parent.getMetrics() : metrics);
+    }
+
+    /**
+     * Set the GitLabApiMetrics instance that is notified about each HTTP call.
+     *
+     * @param metrics the GitLabApiMetrics instance to notify, null will disable metrics
+     */
+    synchronized void setMetrics(GitLabApiMetrics metrics) {
+
+        if (parent != null) {
+            parent.setMetrics(metrics);
+            return;
+        }
+
+        this.metrics = metrics;
+        if (metrics == null || metricsFilterRegistered) {
+            return;
+        }
+
+        clientConfig.register(new GitLabApiMetricsFilter(this));
+        metricsFilterRegistered = true;
+
+        // Recreate the Client instance if already created.
+        if (apiClient != null) {
+            createApiClient();
+        }
+    }
+
+    /**
+     * Get the GitLabApiTracer instance used to trace each HTTP call, will return null if tracing is not enabled.
+     *
+     * @return the GitLabApiTracer instance used to trace each HTTP call
+     */
+    GitLabApiTracer getTracer() {
+        return (parent != null ? parent.getTracer() : tracer);
+    }
+
+    /**
+     * Set the GitLabApiTracer instance used to trace each HTTP call.
+     *
+     * @param tracer the GitLabApiTracer instance to use, null will disable tracing
+     */
+    synchronized void setTracer(GitLabApiTracer tracer) {
+
+        if (parent != null) {
+            parent.setTracer(tracer);
+            return;
+        }
+
+        this.tracer = tracer;
+        if (tracer == null || tracingFilterRegistered) {
+            return;
+        }
+
+        clientConfig.register(new GitLabApiTracingFilter(this));
+        tracingFilterRegistered = true;
+
+        // Recreate the Client instance if already created.
+        if (apiClient != null) {
+            createApiClient();
+        }
+    }
+
+    /**
+     * Get the TokenPool that requests are spread across, will return null if a token pool is not in use.
+     *
+     * @return the TokenPool that requests are spread across
+     */
+    TokenPool getTokenPool() {
+        return (parent != null ? parent.getTokenPool() : tokenPool);
+    }
+
+    /**
+     * Set the TokenPool that requests are spread across, when set requests are sent with a token from the
+     * pool instead of the auth token of this client.
+     *
+     * @param tokenPool the TokenPool to spread requests across, null will use the auth token of this client
+     */
+    synchronized void setTokenPool(TokenPool tokenPool) {
+
+        if (parent != null) {
+            parent.setTokenPool(tokenPool);
+            return;
+        }
+
+        this.tokenPool = tokenPool;
+        if (tokenPool == null || tokenPoolFilterRegistered) {
+            return;
+        }
+
+        clientConfig.register(new TokenPoolFilter(this));
+        tokenPoolFilterRegistered = true;
+
+        // Recreate the Client instance if already created.
+        if (apiClient != null) {
+            createApiClient();
+        }
+    }
+
+    /**
+     * Get the ReadReplicaRouter that GET and HEAD requests are routed through, will return null if
+     * read replica routing is not enabled.
+     *
+     * @return the ReadReplicaRouter that GET and HEAD requests are routed through
+     */
+    ReadReplicaRouter getReadReplicaRouter() {
+        return (parent != null ? parent.getReadReplicaRouter() : readReplicaRouter);
+    }
+
+    /**
+     * Set the ReadReplicaRouter that GET and HEAD requests are routed through, starting its health checks.
+     * The health checks of the previous ReadReplicaRouter, if any, are stopped once no other client uses it.
+     *
+     * @param readReplicaRouter the ReadReplicaRouter to route GET and HEAD requests through, null will
+     * send all requests to the primary
+     */
+    synchronized void setReadReplicaRouter(ReadReplicaRouter readReplicaRouter) {
+
+        if (parent != null) {
+            parent.setReadReplicaRouter(readReplicaRouter);
+            return;
+        }
+
+        ReadReplicaRouter previous = this.readReplicaRouter;
+        if (previous == readReplicaRouter) {
+            return;
+        }
+
+        this.readReplicaRouter = readReplicaRouter;
+        if (readReplicaRouter != null) {
+            readReplicaRouter.acquire(tokenType, authToken);
+        }
+
+        if (previous != null) {
+            previous.release();
+        }
+    }
+
+    /**
+     * Returns true if compressed responses are requested with the Accept-Encoding header.
+     *
+     * @return true if compressed responses are requested
+     */
+    boolean isCompressedResponsesEnabled() {
+        return (parent != null ? parent.isCompressedResponsesEnabled() : compressedResponses);
+    }
+
+    /**
+     * Set whether compressed responses are requested with the Accept-Encoding header, compressed
+     * responses are decompressed as they are read.
+     *
+     * @param compressedResponses true to request compressed responses
+     */
+    synchronized void setCompressedResponsesEnabled(boolean compressedResponses) {
+
+        if (parent != null) {
+            parent.setCompressedResponsesEnabled(compressedResponses);
+            return;
+        }
+
+        this.compressedResponses = compressedResponses;
+        if (compressedResponses) {
+            registerCompressionFilter();
+        }
+    }
+
+    /**
+     * Get the size in bytes above which textual request entities are sent gzip compressed.
+     *
+     * @return the size in bytes above which request entities are compressed, or -1 if request compression is disabled
+     */
+    int getRequestCompressionThreshold() {
+        return (parent != null ? parent.getRequestCompressionThreshold() : requestCompressionThreshold);
+    }
+
+    /**
+     * Set the size in bytes above which textual request entities are sent gzip compressed.
+     *
+     * @param requestCompressionThreshold the size in bytes above which request entities are compressed, -1 to disable
+     */
+    synchronized void setRequestCompressionThreshold(int requestCompressionThreshold) {
+
+        if (parent != null) {
+            parent.setRequestCompressionThreshold(requestCompressionThreshold);
+            return;
+        }
+
+        this.requestCompressionThreshold = (requestCompressionThreshold < 0 ? -1 : requestCompressionThreshold);
+        if (requestCompressionThreshold >= 0) {
+            registerCompressionFilter();
+        }
+    }
+
+    private void registerCompressionFilter() {
+
+        if (compressionFilterRegistered) {
+            return;
+        }
+
+        clientConfig.register(new CompressionFilter(this));
+        clientConfig.register(GZipEncoder.class);
+        clientConfig.register(DeflateEncoder.class);
+        compressionFilterRegistered = true;
+
+        // Recreate the Client instance if already created.
+        if (apiClient != null) {
+            createApiClient();
+        }
+    }
+
+    /**
+     * Get the RouteGuard that isolates groups of routes from each other, will return null if not enabled.
+     *
+     * @return the RouteGuard that isolates groups of routes from each other
+     */
+    RouteGuard getRouteGuard() {
+        return (parent != null ? parent.getRouteGuard() : routeGuard);
+    }
+
+    /**
+     * Set the RouteGuard that isolates groups of routes from each other.
+     *
+     * @param routeGuard the RouteGuard that isolates groups of routes from each other, null to disable
+     */
+    synchronized void setRouteGuard(RouteGuard routeGuard) {
+
+        if (parent != null) {
+            parent.setRouteGuard(routeGuard);
+            return;
+        }
+
+        this.routeGuard = routeGuard;
+    }
+
+    /**
+     * Get the RequestHedger that hedges GET and HEAD requests, will return null if not enabled.
+     *
+     * @return the RequestHedger that hedges GET and HEAD requests
+     */
+    RequestHedger getRequestHedger() {
+        return (parent != null ? parent.getRequestHedger() : requestHedger);
+    }
+
+    /**
+     * Set the RequestHedger that hedges GET and HEAD requests.
+     *
+     * @param requestHedger the RequestHedger that hedges GET and HEAD requests, null to disable
+     */
+    synchronized void setRequestHedger(RequestHedger requestHedger) {
+
+        if (parent != null) {
+            parent.setRequestHedger(requestHedger);
+            return;
+        }
+
+        this.requestHedger = requestHedger;
+    }
+
+    /**
+     * Perform a request within the bulkhead and circuit breaker of its route group if a RouteGuard is set.
+     *
+     * @param url the URL of the request
+     * @param call performs the request
+     * @return the Response for the request
+     */
+    private Response guard(URL url, Supplier<Response> call) {
+        RouteGuard guard = getRouteGuard();
+        return (guard != null ? guard.execute(url, () -> send(call)) : send(call));
+    }
+
+    /**
+     * Perform an HTTP call, ending its span if it is traced and fails before a response is received,
+     * as the response filters are not called in that case.
+     *
+     * @param call performs the HTTP call
+     * @return the Response for the HTTP call
+     */
+    private static Response send(Supplier<Response> call) {
+        try {
+            return (call.get());
+        } catch (RuntimeException re) {
+            GitLabApiTracingFilter.failed(re);
+            throw re;
+        }
+    }
+
+    /**
+     * Perform a request as a retry of an earlier request for the same call, such as a read retried on the
+     * primary or a duplicate read sent by a RequestHedger, so it is reported as a retry to the GitLabApiTracer
+     * and GitLabApiMetrics. The request must be made on the calling thread.
+     *
+     * @param call performs the request
+     * @return the Response for the request
+     */
+    static Response retry(Supplier<Response> call) {
+
+        Integer previous = retryCount.get();
+        retryCount.set(previous != null ? previous + 1 : 1);
+        try {
+            return (call.get());
+        } finally {
+            if (previous != null) {
+                retryCount.set(previous);
+            } else {
+                retryCount.remove();
+            }
+        }
+    }
+
+    /**
+     * Perform a read-only request, hedging it if a RequestHedger is set and routing it to a read node
+     * if a ReadReplicaRouter is set.
+     *
+     * @param url the URL of the request on the primary
+     * @param call the function that performs the request for a URL
+     * @return the Response for the request
+     */
+    private Response read(URL url, Function<URL, Response> call) {
+
+        // Each HTTP call is sent on its own so a failed call to a read node is ended before the retry
+        Function<URL, Response> sentCall = readUrl -> send(() -> call.apply(readUrl));
+        Supplier<Response> routedCall = () -> {
+            ReadReplicaRouter router = getReadReplicaRouter();
+            return (router != null ? router.execute(baseUrl, url, sentCall) : sentCall.apply(url));
+        };
+
+        // A duplicate request acquires its own permit from the RouteGuard rather than sharing the original's
+        return (guard(url, () -> {
+            RequestHedger hedger = getRequestHedger();
+            return (hedger != null ? hedger.execute(url, routedCall, () -> guard(url, routedCall)) : routedCall.get());
+        }));
+    }
+
     /**
      * Get the auth token being used by this client.
      *
@@ -303,6 +707,16 @@ public class GitLabApiClient {
      */
     void setSudoAsId(Integer sudoAsId) {
         this.sudoAsId = sudoAsId;
+        this.sudoAsUsername = null;
+    }
+
+    /**
+     * Get the username of the user to sudo as, only set on a view created for a username.
+     *
+     * @return the username of the user to sudo as, or null
+     */
+    String getSudoAsUsername() {
+        return (sudoAsUsername);
     }
 
     /**
@@ -383,7 +797,7 @@ public class GitLabApiClient {
      * @return a ClientResponse instance with the data returned from the endpoint
      */
     protected Response get(MultivaluedMap<String, String> queryParams, URL url) {
-        return (invocation(url, queryParams).get());
+        return (read(url, readUrl -> invocation(readUrl, queryParams).get()));
     }
 
     /**
@@ -411,7 +825,7 @@ public class GitLabApiClient {
      * @return a ClientResponse instance with the data returned from the endpoint
      */
     protected Response getWithAccepts(MultivaluedMap<String, String> queryParams, URL url, String accepts) {
-        return (invocation(url, queryParams, accepts).get());
+        return (read(url, readUrl -> invocation(readUrl, queryParams, accepts).get()));
     }
 
     /**
@@ -437,7 +851,7 @@ public class GitLabApiClient {
      * @return a ClientResponse instance with the data returned from the endpoint
      */
     protected Response head(MultivaluedMap<String, String> queryParams, URL url) {
-        return (invocation(url, queryParams).head());
+        return (read(url, readUrl -> invocation(readUrl, queryParams).head()));
     }
 
     /**
@@ -478,9 +892,9 @@ public class GitLabApiClient {
      */
     protected Response post(Form formData, URL url) {
         if (formData instanceof GitLabApiForm)
-            return (invocation(url, null).post(Entity.entity(formData.asMap(), MediaType.APPLICATION_FORM_URLENCODED_TYPE)));
+            return (guard(url, () -> invocation(url, null).post(Entity.entity(formData.asMap(), MediaType.APPLICATION_FORM_URLENCODED_TYPE))));
         else
-            return (invocation(url, null).post(Entity.entity(formData, MediaType.APPLICATION_FORM_URLENCODED_TYPE)));
+            return (guard(url, () -> invocation(url, null).post(Entity.entity(formData, MediaType.APPLICATION_FORM_URLENCODED_TYPE))));
     }
 
     /**
@@ -492,7 +906,7 @@ public class GitLabApiClient {
      * @return a ClientResponse instance with the data returned from the endpoint
      */
     protected Response post(MultivaluedMap<String, String> queryParams, URL url) {
-        return (invocation(url, queryParams).post(null));
+        return (guard(url, () -> invocation(url, queryParams).post(null)));
     }
 
     /**
@@ -507,7 +921,7 @@ public class GitLabApiClient {
     protected Response post(Object payload, Object... pathArgs) throws IOException {
         URL url = getApiUrl(pathArgs);
         Entity<?> entity = Entity.entity(payload, MediaType.APPLICATION_JSON);
-        return (invocation(url, null).post(entity));
+        return (guard(url, () -> invocation(url, null).post(entity)));
     }
 
     /**
@@ -522,7 +936,7 @@ public class GitLabApiClient {
      */
     protected Response post(StreamingOutput stream, String mediaType, Object... pathArgs) throws IOException {
         URL url = getApiUrl(pathArgs);
-        return (invocation(url, null).post(Entity.entity(stream, mediaType)));
+        return (guard(url, () -> streamingInvocation(url).post(Entity.entity(stream, mediaType))));
     }
 
     /**
@@ -589,7 +1003,7 @@ public class GitLabApiClient {
                 new FileDataBodyPart(name, fileToUpload);
             multiPart.bodyPart(filePart);
             final Entity<?> entity = Entity.entity(multiPart, Boundary.addBoundary(multiPart.getMediaType()));
-            return (invocation(url, null).post(entity));
+            return (guard(url, () -> invocation(url, null).post(entity)));
         }
     }
 
@@ -624,7 +1038,7 @@ public class GitLabApiClient {
         try (MultiPart multiPart = new FormDataMultiPart()) {
             multiPart.bodyPart(new FileDataBodyPart(name, fileToUpload, MediaType.APPLICATION_OCTET_STREAM_TYPE));
             final Entity<?> entity = Entity.entity(multiPart, Boundary.addBoundary(multiPart.getMediaType()));
-            return (invocation(url, null).put(entity));
+            return (guard(url, () -> invocation(url, null).put(entity)));
         }
     }
 
@@ -653,9 +1067,9 @@ public class GitLabApiClient {
     protected Response put(MultivaluedMap<String, String> queryParams, URL url) {
         if (queryParams == null || queryParams.isEmpty()) {
             Entity<?> empty = Entity.text("");
-            return (invocation(url, null).put(empty));
+            return (guard(url, () -> invocation(url, null).put(empty)));
         } else {
-            return (invocation(url, null).put(Entity.entity(queryParams, MediaType.APPLICATION_FORM_URLENCODED_TYPE)));
+            return (guard(url, () -> invocation(url, null).put(Entity.entity(queryParams, MediaType.APPLICATION_FORM_URLENCODED_TYPE))));
         }
     }
 
@@ -683,9 +1097,24 @@ public class GitLabApiClient {
      */
     protected Response put(Form formData, URL url) {
         if (formData instanceof GitLabApiForm)
-            return (invocation(url, null).put(Entity.entity(formData.asMap(), MediaType.APPLICATION_FORM_URLENCODED_TYPE)));
+            return (guard(url, () -> invocation(url, null).put(Entity.entity(formData.asMap(), MediaType.APPLICATION_FORM_URLENCODED_TYPE))));
         else
-            return (invocation(url, null).put(Entity.entity(formData, MediaType.APPLICATION_FORM_URLENCODED_TYPE)));
+            return (guard(url, () -> invocation(url, null).put(Entity.entity(formData, MediaType.APPLICATION_FORM_URLENCODED_TYPE))));
+    }
+
+    /**
+     * Perform an HTTP PUT call with the specified StreamingOutput, MediaType, and path objects, returning
+     * a ClientResponse instance with the data returned from the endpoint.
+     *
+     * @param stream the StreamingOutput instance that contains the PUT data
+     * @param mediaType the content-type of the PUT data
+     * @param pathArgs variable list of arguments used to build the URI
+     * @return a ClientResponse instance with the data returned from the endpoint
+     * @throws IOException if an error occurs while constructing the URL
+     */
+    protected Response put(StreamingOutput stream, String mediaType, Object... pathArgs) throws IOException {
+        URL url = getApiUrl(pathArgs);
+        return (guard(url, () -> streamingInvocation(url).put(Entity.entity(stream, mediaType))));
     }
 
     /**
@@ -710,7 +1139,19 @@ public class GitLabApiClient {
      * @return a Response instance with the data returned from the endpoint
      */
     protected Response delete(MultivaluedMap<String, String> queryParams, URL url) {
-        return (invocation(url, queryParams).delete());
+        return (guard(url, () -> invocation(url, queryParams).delete()));
+    }
+
+    /**
+     * Get an Invocation.Builder for a request whose body is a StreamingOutput. The body is sent with chunked
+     * transfer encoding, so it is written to the connection as it is produced instead of being buffered
+     * in memory to compute its length.
+     *
+     * @param url the URL of the request
+     * @return an Invocation.Builder for the request
+     */
+    private Invocation.Builder streamingInvocation(URL url) {
+        return (invocation(url, null).property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED));
     }
 
     protected Invocation.Builder invocation(URL url, MultivaluedMap<String, String> queryParams) {
@@ -731,22 +1172,48 @@ public class GitLabApiClient {
         return (apiClient);
     }
 
-    protected Invocation.Builder invocation(URL url, MultivaluedMap<String, String> queryParams, String accept) {
+    /**
+     * Get the Jersey Client used to make the HTTP calls, creating it if needed. A view created for another
+     * user returns the Client of its parent.
+     *
+     * @return the Jersey Client used to make the HTTP calls
+     */
+    protected Client getClient() {
 
-        if (apiClient == null) {
-            createApiClient();
+        if (parent != null) {
+            return (parent.getClient());
         }
 
-        WebTarget target = apiClient.target(url.toExternalForm()).property(ClientProperties.FOLLOW_REDIRECTS, true);
+        Client client = apiClient;
+        return (client != null ? client : createApiClient());
+    }
+
+    protected Invocation.Builder invocation(URL url, MultivaluedMap<String, String> queryParams, String accept) {
+
+        WebTarget target = getClient().target(url.toExternalForm()).property(ClientProperties.FOLLOW_REDIRECTS, true);
         if (queryParams != null) {
             for (Map.Entry<String, List<String>> param : queryParams.entrySet()) {
                 target = target.queryParam(param.getKey(), param.getValue().toArray());
             }
         }
 
+        // If a token pool is in use, send the request with the token that has the most rate limit budget left
+        TokenPool pool = getTokenPool();
+        String token = (pool != null ? pool.acquire() : authToken);
+
         String authHeader = (tokenType == TokenType.OAUTH2_ACCESS ? AUTHORIZATION_HEADER : PRIVATE_TOKEN_HEADER);
-        String authValue = (tokenType == TokenType.OAUTH2_ACCESS ? "Bearer " + authToken : authToken);
+        String authValue = (tokenType == TokenType.OAUTH2_ACCESS ? "Bearer " + token : token);
         Invocation.Builder builder = target.request();
+        if (pool != null) {
+            builder = builder.property(TokenPoolFilter.TOKEN_PROPERTY, token);
+        }
+
+        // Report a request made by retry() as a retry to the tracer and metrics
+        Integer retries = retryCount.get();
+        if (retries != null) {
+            builder = builder.property(GitLabApiTracingFilter.RETRY_COUNT_PROPERTY, retries);
+        }
+
         if (accept == null || accept.trim().length() == 0) {
             builder = builder.header(authHeader, authValue);
         } else {
@@ -756,6 +1223,8 @@ public class GitLabApiClient {
         // If sudo as ID is set add the Sudo header
         if (sudoAsId != null && sudoAsId.intValue() > 0)
             builder = builder.header(SUDO_HEADER,  sudoAsId);
+        else if (sudoAsUsername != null)
+            builder = builder.header(SUDO_HEADER,  sudoAsUsername);
 
         return (builder);
     }
@@ -766,7 +1235,7 @@ public class GitLabApiClient {
      * @return true if the API is setup to ignore SSL certificate errors, otherwise returns false
      */
     public boolean getIgnoreCertificateErrors() {
-        return (ignoreCertificateErrors);
+        return (parent != null ? parent.getIgnoreCertificateErrors() : ignoreCertificateErrors);
     }
 
     /**
@@ -776,6 +1245,11 @@ public class GitLabApiClient {
      */
     public void setIgnoreCertificateErrors(boolean ignoreCertificateErrors) {
 
+        if (parent != null) {
+            parent.setIgnoreCertificateErrors(ignoreCertificateErrors);
+            return;
+        }
+
         if (this.ignoreCertificateErrors == ignoreCertificateErrors) {
             return;
         }
@@ -0,0 +1,72 @@
+package org.gitlab4j.api;
+
+/**
+ * <p>This interface defines a listener that is notified about every HTTP call made to the GitLab API.
+ * Implementations can be used to feed an application's metrics library with client side latency,
+ * status codes, bytes transferred and paging activity.</p>
+ *
+ * <p>Calls are identified by the HTTP method and a normalized route template, for example
+ * <code>projects/:id/merge_requests</code> rather than <code>projects/42/merge_requests?page=3</code>,
+ * which keeps the number of distinct keys small. All methods have empty default implementations so
+ * that implementations only need to override the ones they are interested in.</p>
+ *
+ * <p>Methods are called on the thread that performs the HTTP call and should return quickly,
+ * any RuntimeException thrown by an implementation is logged and otherwise ignored.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   HistogramMetrics metrics = new HistogramMetrics();
+ *   gitLabApi.setMetrics(metrics);
+ * </pre>
+ *
+ * @see HistogramMetrics
+ */
+public interface GitLabApiMetrics {
+
+    /**
+     * Called when the response headers of an HTTP call have been received.
+     *
+     * @param method the HTTP method, Ex. GET
+     * @param route the normalized route template, Ex. projects/:id/merge_requests
+     * @param status the HTTP status code of the response
+     * @param elapsedNanos the time in nanoseconds from sending the request to receiving the response headers
+     * @param requestBytes the number of bytes in the request body, 0 if there was no request body
+     */
+    default void requestCompleted(String method, String route, int status, long elapsedNanos, long requestBytes) {
+    }
+
+    /**
+     * Called when the response body of an HTTP call has been fully read or closed. The read time
+     * includes the time spent deserializing the body while it is being read.
+     *
+     * @param method the HTTP method, Ex. GET
+     * @param route the normalized route template, Ex. projects/:id/merge_requests
+     * @param responseBytes the number of bytes read from the response body
+     * @param readNanos the time in nanoseconds spent reading and deserializing the response body
+     */
+    default void responseRead(String method, String route, long responseBytes, long readNanos) {
+    }
+
+    /**
+     * Called each time a Pager has fetched a page of items.
+     *
+     * @param route the normalized route template, Ex. projects/:id/merge_requests
+     * @param pageNumber the number of the page that was fetched, starting at 1
+     * @param itemCount the number of items on the page
+     */
+    default void pageFetched(String route, int pageNumber, int itemCount) {
+    }
+
+    /**
+     * Called when an HTTP call is sent as a retry of an earlier call for the same request, for example a read
+     * retried on the primary after a read replica failed, or a duplicate read sent by a RequestHedger. The
+     * call is also reported to {@link #requestCompleted(String, String, int, long, long)} when it completes.
+     *
+     * @param method the HTTP method, Ex. GET
+     * @param route the normalized route template, Ex. projects/:id/merge_requests
+     * @param retryCount the number of times the request has been retried, including this call
+     */
+    default void requestRetried(String method, String route, int retryCount) {
+    }
+}
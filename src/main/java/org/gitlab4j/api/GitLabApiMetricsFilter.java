@@ -0,0 +1,299 @@
+package org.gitlab4j.api;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+import javax.annotation.Priority;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * This filter measures each HTTP call made by a GitLabApiClient and reports the measurements
+ * to the GitLabApiMetrics instance currently set on the client.
+ */
+@Priority(Integer.MIN_VALUE)
+class GitLabApiMetricsFilter implements ClientRequestFilter, ClientResponseFilter, WriterInterceptor {
+
+    private static final String START_TIME_PROPERTY = GitLabApiMetricsFilter.class.getName() + ".startTime";
+    private static final String REQUEST_BYTES_PROPERTY = GitLabApiMetricsFilter.class.getName() + ".requestBytes";
+
+    // Path segments that are always followed by an identifier
+    private static final Set<String> ID_PARENTS = new HashSet<>(Arrays.asList("projects", "groups", "users", "namespaces"));
+
+    // Path segments that are followed by a named identifier, mapped to the name used in the template
+    private static final Map<String, String> NAMED_PARENTS = new HashMap<>();
+    static {
+        NAMED_PARENTS.put("files", ":file_path");
+        NAMED_PARENTS.put("branches", ":branch");
+        NAMED_PARENTS.put("protected_branches", ":branch");
+        NAMED_PARENTS.put("tags", ":tag_name");
+        NAMED_PARENTS.put("commits", ":sha");
+        NAMED_PARENTS.put("blobs", ":sha");
+        NAMED_PARENTS.put("raw_blobs", ":sha");
+        NAMED_PARENTS.put("wikis", ":slug");
+        NAMED_PARENTS.put("variables", ":key");
+        NAMED_PARENTS.put("labels", ":name");
+    }
+
+    private final GitLabApiClient apiClient;
+
+    GitLabApiMetricsFilter(GitLabApiClient apiClient) {
+        this.apiClient = apiClient;
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext) throws IOException {
+
+        GitLabApiMetrics metrics = apiClient.getMetrics();
+        if (metrics == null) {
+            return;
+        }
+
+        requestContext.setProperty(START_TIME_PROPERTY, System.nanoTime());
+
+        Object retryCount = requestContext.getProperty(GitLabApiTracingFilter.RETRY_COUNT_PROPERTY);
+        if (retryCount != null) {
+            try {
+                metrics.requestRetried(requestContext.getMethod(), toRouteTemplate(requestContext.getUri().getRawPath()), (Integer) retryCount);
+            } catch (RuntimeException re) {
+                GitLabApi.getLogger().log(Level.FINE, "GitLabApiMetrics.requestRetried() failed", re);
+            }
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext writerInterceptorContext) throws IOException, WebApplicationException {
+
+        if (apiClient.getMetrics() == null) {
+            writerInterceptorContext.proceed();
+            return;
+        }
+
+        CountingOutputStream out = new CountingOutputStream(writerInterceptorContext.getOutputStream());
+        writerInterceptorContext.setOutputStream(out);
+        try {
+            writerInterceptorContext.proceed();
+        } finally {
+            writerInterceptorContext.setProperty(REQUEST_BYTES_PROPERTY, out.count);
+        }
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) throws IOException {
+
+        GitLabApiMetrics metrics = apiClient.getMetrics();
+        Object startTime = requestContext.getProperty(START_TIME_PROPERTY);
+        if (metrics == null || startTime == null) {
+            return;
+        }
+
+        long elapsedNanos = System.nanoTime() - (Long) startTime;
+        Object requestBytes = requestContext.getProperty(REQUEST_BYTES_PROPERTY);
+        String method = requestContext.getMethod();
+        String route = toRouteTemplate(requestContext.getUri().getRawPath());
+
+        try {
+            metrics.requestCompleted(method, route, responseContext.getStatus(), elapsedNanos,
+                    (requestBytes != null ? (Long) requestBytes : 0L));
+        } catch (RuntimeException re) {
+            GitLabApi.getLogger().log(Level.FINE, "GitLabApiMetrics.requestCompleted() failed", re);
+        }
+
+        if (responseContext.hasEntity()) {
+            responseContext.setEntityStream(new MeasuredInputStream(responseContext.getEntityStream(), metrics, method, route));
+        }
+    }
+
+    /**
+     * Converts the path of a request URI into a route template by stripping the API namespace and
+     * replacing identifiers with named placeholders, Ex. "/api/v4/projects/42/merge_requests/7"
+     * becomes "projects/:id/merge_requests/:id".
+     *
+     * @param path the raw path of the request URI
+     * @return the route template for the path
+     */
+    static String toRouteTemplate(String path) {
+
+        if (path == null) {
+            return ("");
+        }
+
+        int apiIndex = path.indexOf("/api/v");
+        if (apiIndex >= 0) {
+            int slash = path.indexOf('/', apiIndex + 6);
+            path = (slash >= 0 ? path.substring(slash + 1) : "");
+        }
+
+        StringBuilder route = new StringBuilder(path.length());
+        String previous = null;
+        for (String segment : path.split("/")) {
+
+            if (segment.isEmpty()) {
+                continue;
+            }
+
+            String replacement;
+            if (previous != null && NAMED_PARENTS.containsKey(previous)) {
+                replacement = NAMED_PARENTS.get(previous);
+            } else if (previous != null && ID_PARENTS.contains(previous)) {
+                replacement = ":id";
+            } else if (isNumeric(segment) || segment.indexOf('%') >= 0) {
+                replacement = ":id";
+            } else if (segment.length() >= 40 && isHex(segment)) {
+                replacement = ":sha";
+            } else {
+                replacement = segment;
+            }
+
+            if (route.length() > 0) {
+                route.append('/');
+            }
+
+            route.append(replacement);
+
+            // Only raw segments select the placeholder for the following segment
+            previous = (replacement.equals(segment) ? segment : null);
+        }
+
+        return (route.toString());
+    }
+
+    private static boolean isNumeric(String segment) {
+
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return (false);
+            }
+        }
+
+        return (true);
+    }
+
+    private static boolean isHex(String segment) {
+
+        for (int i = 0; i < segment.length(); i++) {
+            if (Character.digit(segment.charAt(i), 16) < 0) {
+                return (false);
+            }
+        }
+
+        return (true);
+    }
+
+    /**
+     * Counts the bytes written to the request body.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    /**
+     * Counts the bytes read from the response body and the time spent reading them, reporting both
+     * when the end of the body is reached or the stream is closed, whichever comes first.
+     */
+    private static class MeasuredInputStream extends FilterInputStream {
+
+        private final GitLabApiMetrics metrics;
+        private final String method;
+        private final String route;
+        private long count;
+        private long startTime;
+        private boolean reported;
+
+        MeasuredInputStream(InputStream in, GitLabApiMetrics metrics, String method, String route) {
+            super(in);
+            this.metrics = metrics;
+            this.method = method;
+            this.route = route;
+        }
+
+        @Override
+        public int read() throws IOException {
+
+            start();
+            int b = in.read();
+            if (b < 0) {
+                report();
+            } else {
+                count++;
+            }
+
+            return (b);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+
+            start();
+            int n = in.read(b, off, len);
+            if (n < 0) {
+                report();
+            } else {
+                count += n;
+            }
+
+            return (n);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                report();
+            }
+        }
+
+        private void start() {
+            if (startTime == 0) {
+                startTime = System.nanoTime();
+            }
+        }
+
+        private void report() {
+
+            if (reported) {
+                return;
+            }
+
+            reported = true;
+            long readNanos = (startTime != 0 ? System.nanoTime() - startTime : 0);
+            try {
+                metrics.responseRead(method, route, count, readNanos);
+            } catch (RuntimeException re) {
+                GitLabApi.getLogger().log(Level.FINE, "GitLabApiMetrics.responseRead() failed", re);
+            }
+        }
+    }
+}
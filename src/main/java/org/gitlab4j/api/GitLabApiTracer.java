@@ -0,0 +1,90 @@
+package org.gitlab4j.api;
+
+/**
+ * <p>This interface defines the hooks used to trace the HTTP calls made to the GitLab API, it is
+ * meant to be implemented as a thin adapter over an application's tracing library.</p>
+ *
+ * <p>For each HTTP call a span is started with the HTTP method and normalized route template as its
+ * name, Ex. "GET projects/:id/merge_requests", and the W3C <code>traceparent</code> header returned
+ * by {@link Span#getTraceParent()} is added to the request. The span is ended as soon as the response
+ * headers are received, and a child span named "read" covers reading and deserializing the response
+ * body. This separates the latency of the GitLab server from the time spent on the client.</p>
+ *
+ * <p>The iteration of a Pager is traced as a single "list" span, which ends when the last page has
+ * been returned, a page fails to be fetched, or a Stream from the Pager is closed. Each page fetched is
+ * traced as a child "page" span, which holds the number of the page and covers reading its items.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   gitLabApi.setTracer((name, parent) -&gt; new MySpanAdapter(tracer, name, parent));
+ * </pre>
+ */
+@FunctionalInterface
+public interface GitLabApiTracer {
+
+    /** The attribute holding the HTTP method. */
+    public static final String HTTP_METHOD = "http.method";
+
+    /** The attribute holding the normalized route template. */
+    public static final String HTTP_ROUTE = "http.route";
+
+    /** The attribute holding the full request URL. */
+    public static final String HTTP_URL = "http.url";
+
+    /** The attribute holding the HTTP status code of the response. */
+    public static final String HTTP_STATUS_CODE = "http.status_code";
+
+    /** The attribute holding the number of times the request was retried. */
+    public static final String RETRY_COUNT = "gitlab4j.retry_count";
+
+    /** The attribute holding the number of bytes read from the response body. */
+    public static final String RESPONSE_BYTES = "gitlab4j.response_bytes";
+
+    /** The attribute holding the number of the page fetched by a Pager. */
+    public static final String PAGE_NUMBER = "gitlab4j.page_number";
+
+    /**
+     * Start a new span.
+     *
+     * @param name the name of the span
+     * @param parent the parent span, or null if the span should be parented by the tracing library's current context
+     * @return the started span, must not be null
+     */
+    Span startSpan(String name, Span parent);
+
+    /**
+     * A span started by a GitLabApiTracer.
+     */
+    public interface Span {
+
+        /**
+         * Get the value of the W3C traceparent header that propagates this span to the GitLab server,
+         * Ex. "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01". Returning null disables propagation.
+         *
+         * @return the value of the W3C traceparent header, or null
+         */
+        String getTraceParent();
+
+        /**
+         * Set an attribute on the span.
+         *
+         * @param key the attribute key
+         * @param value the attribute value
+         */
+        void setAttribute(String key, Object value);
+
+        /**
+         * Record an error that caused the traced operation to fail.
+         *
+         * @param error the error that caused the traced operation to fail
+         */
+        default void setError(Throwable error) {
+        }
+
+        /**
+         * End the span.
+         */
+        void end();
+    }
+}
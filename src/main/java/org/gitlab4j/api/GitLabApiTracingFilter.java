@@ -0,0 +1,219 @@
+package org.gitlab4j.api;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.logging.Level;
+
+import javax.annotation.Priority;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+
+import org.gitlab4j.api.GitLabApiTracer.Span;
+
+/**
+ * This filter opens a span for each HTTP call made by a GitLabApiClient using the GitLabApiTracer
+ * currently set on the client, and propagates the span to the GitLab server with the W3C traceparent header.
+ */
+@Priority(Integer.MIN_VALUE + 1)
+class GitLabApiTracingFilter implements ClientRequestFilter, ClientResponseFilter {
+
+    static final String TRACEPARENT_HEADER = "traceparent";
+
+    private static final String SPAN_PROPERTY = GitLabApiTracingFilter.class.getName() + ".span";
+
+    /** The property a retrying caller can set on a request to report how many times it was retried. */
+    static final String RETRY_COUNT_PROPERTY = GitLabApiTracingFilter.class.getName() + ".retryCount";
+
+    // The span that HTTP calls made on the current thread will be children of, set by Pager and RequestHedger
+    private static final ThreadLocal<Span> parentSpan = new ThreadLocal<>();
+
+    // The span of the HTTP call in flight on the current thread, used to end it if the call fails
+    private static final ThreadLocal<Span> inFlightSpan = new ThreadLocal<>();
+
+    private final GitLabApiClient apiClient;
+
+    GitLabApiTracingFilter(GitLabApiClient apiClient) {
+        this.apiClient = apiClient;
+    }
+
+    /**
+     * Get the span that HTTP calls made on the current thread will be children of.
+     *
+     * @return the parent span, or null if not set
+     */
+    static Span getParentSpan() {
+        return (parentSpan.get());
+    }
+
+    /**
+     * Set the span that HTTP calls made on the current thread will be children of.
+     *
+     * @param span the parent span, null to clear the parent span
+     * @return the previous parent span, which should be restored when done
+     */
+    static Span setParentSpan(Span span) {
+
+        Span previous = parentSpan.get();
+        if (span == null) {
+            parentSpan.remove();
+        } else {
+            parentSpan.set(span);
+        }
+
+        return (previous);
+    }
+
+    /**
+     * Ends the span of an HTTP call on the current thread that failed before a response was received.
+     *
+     * @param error the error that caused the HTTP call to fail
+     */
+    static void failed(Throwable error) {
+
+        Span span = inFlightSpan.get();
+        if (span == null) {
+            return;
+        }
+
+        inFlightSpan.remove();
+        try {
+            span.setError(error);
+            span.end();
+        } catch (RuntimeException re) {
+            GitLabApi.getLogger().log(Level.FINE, "Ending a failed span failed", re);
+        }
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext) throws IOException {
+
+        GitLabApiTracer tracer = apiClient.getTracer();
+        if (tracer == null) {
+            return;
+        }
+
+        String method = requestContext.getMethod();
+        String route = GitLabApiMetricsFilter.toRouteTemplate(requestContext.getUri().getRawPath());
+        Object retryCount = requestContext.getProperty(RETRY_COUNT_PROPERTY);
+
+        try {
+
+            Span span = tracer.startSpan(method + " " + route, parentSpan.get());
+            span.setAttribute(GitLabApiTracer.HTTP_METHOD, method);
+            span.setAttribute(GitLabApiTracer.HTTP_ROUTE, route);
+            span.setAttribute(GitLabApiTracer.HTTP_URL, requestContext.getUri().toString());
+            span.setAttribute(GitLabApiTracer.RETRY_COUNT, (retryCount != null ? retryCount : 0));
+
+            String traceParent = span.getTraceParent();
+            if (traceParent != null) {
+                requestContext.getHeaders().putSingle(TRACEPARENT_HEADER, traceParent);
+            }
+
+            requestContext.setProperty(SPAN_PROPERTY, span);
+
+            // A span still in flight belongs to an HTTP call that failed without being reported, end it
+            Span stale = inFlightSpan.get();
+            if (stale != null) {
+                stale.end();
+            }
+
+            inFlightSpan.set(span);
+
+        } catch (RuntimeException re) {
+            GitLabApi.getLogger().log(Level.FINE, "Starting a span failed", re);
+        }
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) throws IOException {
+
+        Span span = (Span) requestContext.getProperty(SPAN_PROPERTY);
+        if (span == null) {
+            return;
+        }
+
+        inFlightSpan.remove();
+        GitLabApiTracer tracer = apiClient.getTracer();
+        try {
+
+            span.setAttribute(GitLabApiTracer.HTTP_STATUS_CODE, responseContext.getStatus());
+            span.end();
+
+            if (tracer != null && responseContext.hasEntity()) {
+                Span readSpan = tracer.startSpan("read", span);
+                responseContext.setEntityStream(new TracedInputStream(responseContext.getEntityStream(), readSpan));
+            }
+
+        } catch (RuntimeException re) {
+            GitLabApi.getLogger().log(Level.FINE, "Ending a span failed", re);
+        }
+    }
+
+    /**
+     * Ends the "read" span when the end of the response body is reached or the stream is closed.
+     */
+    private static class TracedInputStream extends FilterInputStream {
+
+        private final Span span;
+        private long count;
+        private boolean ended;
+
+        TracedInputStream(InputStream in, Span span) {
+            super(in);
+            this.span = span;
+        }
+
+        @Override
+        public int read() throws IOException {
+
+            int b = in.read();
+            if (b < 0) {
+                end();
+            } else {
+                count++;
+            }
+
+            return (b);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+
+            int n = in.read(b, off, len);
+            if (n < 0) {
+                end();
+            } else {
+                count += n;
+            }
+
+            return (n);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                end();
+            }
+        }
+
+        private void end() {
+
+            if (ended) {
+                return;
+            }
+
+            ended = true;
+            try {
+                span.setAttribute(GitLabApiTracer.RESPONSE_BYTES, count);
+                span.end();
+            } catch (RuntimeException re) {
+                GitLabApi.getLogger().log(Level.FINE, "Ending a span failed", re);
+            }
+        }
+    }
+}
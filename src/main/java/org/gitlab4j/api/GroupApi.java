@@ -327,6 +327,20 @@ public class GroupApi extends AbstractApi {
         return (getSubGroups(groupIdOrPath, skipGroups, allAvailable, search, orderBy, sortOrder, statistics, owned, getDefaultPerPage()).stream());
     }
 
+    /**
+     * Get a GroupHierarchyCrawler that crawls a group and all of its descendant subgroups, and optionally
+     * their projects, into an in-memory GroupTree.
+     *
+     * <pre><code>GitLab Endpoint: GET /groups/:id/subgroups</code></pre>
+     *
+     * @param groupIdOrPath the group ID, path of the group, or a Group instance holding the group ID or path, required
+     * @return a GroupHierarchyCrawler for the specified group
+     * @since GitLab 10.3.0
+     */
+    public GroupHierarchyCrawler getHierarchyCrawler(Object groupIdOrPath) {
+        return (new GroupHierarchyCrawler(this, groupIdOrPath));
+    }
+
     /**
      * Get a list of projects belonging to the specified group ID and filter.
      *
@@ -0,0 +1,184 @@
+package org.gitlab4j.api;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.gitlab4j.api.GroupTree.Node;
+import org.gitlab4j.api.models.Group;
+import org.gitlab4j.api.models.GroupProjectsFilter;
+import org.gitlab4j.api.models.Project;
+import org.gitlab4j.api.utils.DaemonThreadFactory;
+
+/**
+ * <p>This class crawls a group and all of its descendant subgroups into a {@link GroupTree}. The hierarchy is
+ * expanded breadth-first: the subgroups of all the groups of a level are listed concurrently on a bounded pool
+ * of threads before the next level is expanded. The projects of each group can optionally be collected at the
+ * same time, on the same pool, and projects listed by several groups are deduplicated by project ID.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   GroupTree tree = gitLabApi.getGroupApi().getHierarchyCrawler("acme")
+ *       .withMaxConcurrency(8)
+ *       .withProjects(true)
+ *       .crawl();
+ *   GroupTree.Node runtime = tree.getNode("acme/platform/runtime");
+ * </pre>
+ */
+public class GroupHierarchyCrawler {
+
+    private final GroupApi groupApi;
+    private final Object groupIdOrPath;
+
+    private int maxConcurrency = 4;
+    private int itemsPerPage;
+    private boolean collectProjects;
+    private GroupProjectsFilter projectsFilter = new GroupProjectsFilter();
+
+    GroupHierarchyCrawler(GroupApi groupApi, Object groupIdOrPath) {
+        this.groupApi = groupApi;
+        this.groupIdOrPath = groupIdOrPath;
+        this.itemsPerPage = groupApi.getDefaultPerPage();
+    }
+
+    /**
+     * Set the maximum number of concurrent requests, defaults to 4.
+     *
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @return this GroupHierarchyCrawler instance
+     */
+    public GroupHierarchyCrawler withMaxConcurrency(int maxConcurrency) {
+
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be greater than 0");
+        }
+
+        this.maxConcurrency = maxConcurrency;
+        return (this);
+    }
+
+    /**
+     * Set the number of groups and projects fetched per page.
+     *
+     * @param itemsPerPage the number of groups and projects fetched per page
+     * @return this GroupHierarchyCrawler instance
+     */
+    public GroupHierarchyCrawler withItemsPerPage(int itemsPerPage) {
+        this.itemsPerPage = itemsPerPage;
+        return (this);
+    }
+
+    /**
+     * If true, the projects of each group are collected while the hierarchy is crawled, defaults to false.
+     *
+     * @param collectProjects if true the projects of each group are collected
+     * @return this GroupHierarchyCrawler instance
+     */
+    public GroupHierarchyCrawler withProjects(boolean collectProjects) {
+        this.collectProjects = collectProjects;
+        return (this);
+    }
+
+    /**
+     * Collect the projects of each group that match the specified filter. Implies withProjects(true).
+     *
+     * @param projectsFilter the filter used to list the projects of each group
+     * @return this GroupHierarchyCrawler instance
+     */
+    public GroupHierarchyCrawler withProjectsFilter(GroupProjectsFilter projectsFilter) {
+        this.projectsFilter = (projectsFilter != null ? projectsFilter : new GroupProjectsFilter());
+        this.collectProjects = true;
+        return (this);
+    }
+
+    /**
+     * Crawl the group hierarchy. This method returns when the whole hierarchy has been crawled.
+     *
+     * <pre><code>GitLab Endpoint: GET /groups/:id</code></pre>
+     * <pre><code>GitLab Endpoint: GET /groups/:id/subgroups</code></pre>
+     * <pre><code>GitLab Endpoint: GET /groups/:id/projects</code></pre>
+     *
+     * @return the GroupTree of the group and its descendant subgroups
+     * @throws GitLabApiException if any exception occurs
+     */
+    public GroupTree crawl() throws GitLabApiException {
+
+        Node root = new Node(groupApi.getGroup(groupIdOrPath), null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(maxConcurrency, new DaemonThreadFactory("gitlab4j-group-crawler", true));
+
+        try {
+
+            Set<Integer> seenGroups = new HashSet<>();
+            seenGroups.add(root.getGroup().getId());
+
+            Map<Node, Future<List<Project>>> projectListings = new LinkedHashMap<>();
+            List<Node> level = new ArrayList<>();
+            level.add(root);
+            while (!level.isEmpty()) {
+
+                // Project listings are not waited on, so they overlap with the expansion of the next levels
+                Map<Node, Future<List<Group>>> subgroupListings = new LinkedHashMap<>();
+                for (Node node : level) {
+                    Integer groupId = node.getGroup().getId();
+                    subgroupListings.put(node, executor.submit(() -> groupApi.getSubGroups(groupId, itemsPerPage).all()));
+                    if (collectProjects) {
+                        projectListings.put(node, executor.submit(() -> groupApi.getProjects(groupId, projectsFilter, itemsPerPage).all()));
+                    }
+                }
+
+                List<Node> nextLevel = new ArrayList<>();
+                for (Map.Entry<Node, Future<List<Group>>> listing : subgroupListings.entrySet()) {
+                    for (Group subgroup : await(listing.getValue())) {
+                        if (seenGroups.add(subgroup.getId())) {
+                            Node child = new Node(subgroup, listing.getKey());
+                            listing.getKey().addChild(child);
+                            nextLevel.add(child);
+                        }
+                    }
+                }
+
+                level = nextLevel;
+            }
+
+            Map<Integer, Project> projectsById = new LinkedHashMap<>();
+            for (Map.Entry<Node, Future<List<Project>>> listing : projectListings.entrySet()) {
+                for (Project project : await(listing.getValue())) {
+                    listing.getKey().addProject(projectsById.computeIfAbsent(project.getId(), id -> project));
+                }
+            }
+
+            return (new GroupTree(root, projectsById));
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws GitLabApiException {
+
+        try {
+            return (future.get());
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new GitLabApiException(ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof GitLabApiException) {
+                throw (GitLabApiException) cause;
+            } else if (cause instanceof RuntimeException && cause.getCause() instanceof GitLabApiException) {
+                throw (GitLabApiException) cause.getCause();
+            }
+
+            throw new GitLabApiException(cause instanceof Exception ? (Exception) cause : ee);
+        }
+    }
+}
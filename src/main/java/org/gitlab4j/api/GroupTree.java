@@ -0,0 +1,208 @@
+package org.gitlab4j.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.gitlab4j.api.models.Group;
+import org.gitlab4j.api.models.Project;
+
+/**
+ * An in-memory tree of a group and its subgroups, as built by a {@link GroupHierarchyCrawler}. Each node links
+ * to its parent and children, and the groups can be looked up by ID or by full path. When the projects of the
+ * groups were collected, a project shared with several groups is a single Project instance.
+ */
+public class GroupTree {
+
+    private final Node root;
+    private final Map<Integer, Node> nodesById = new LinkedHashMap<>();
+    private final Map<String, Node> nodesByPath = new LinkedHashMap<>();
+    private final Map<Integer, Project> projectsById;
+
+    GroupTree(Node root, Map<Integer, Project> projectsById) {
+
+        this.root = root;
+        this.projectsById = projectsById;
+
+        // Index the nodes in breadth-first order
+        List<Node> level = Collections.singletonList(root);
+        while (!level.isEmpty()) {
+            List<Node> nextLevel = new ArrayList<>();
+            for (Node node : level) {
+                nodesById.put(node.group.getId(), node);
+                if (node.group.getFullPath() != null) {
+                    nodesByPath.put(normalizePath(node.group.getFullPath()), node);
+                }
+
+                nextLevel.addAll(node.children);
+            }
+
+            level = nextLevel;
+        }
+    }
+
+    /**
+     * Get the root node of the tree.
+     *
+     * @return the root node of the tree
+     */
+    public Node getRoot() {
+        return (root);
+    }
+
+    /**
+     * Get the node of a group by its ID.
+     *
+     * @param groupId the ID of the group
+     * @return the node of the group, or null if the group is not in the tree
+     */
+    public Node getNode(int groupId) {
+        return (nodesById.get(groupId));
+    }
+
+    /**
+     * Get the node of a group by its full path, the lookup is case insensitive like GitLab paths.
+     *
+     * @param fullPath the full path of the group, Ex. "acme/platform/runtime"
+     * @return the node of the group, or null if the group is not in the tree
+     */
+    public Node getNode(String fullPath) {
+        return (fullPath != null ? nodesByPath.get(normalizePath(fullPath)) : null);
+    }
+
+    /**
+     * Get all the nodes of the tree in breadth-first order, starting with the root.
+     *
+     * @return an unmodifiable collection of all the nodes of the tree
+     */
+    public Collection<Node> getNodes() {
+        return (Collections.unmodifiableCollection(nodesById.values()));
+    }
+
+    /**
+     * Get the number of groups in the tree.
+     *
+     * @return the number of groups in the tree
+     */
+    public int size() {
+        return (nodesById.size());
+    }
+
+    /**
+     * Get the distinct projects of all the groups, empty if the projects were not collected.
+     *
+     * @return an unmodifiable collection of the distinct projects of all the groups
+     */
+    public Collection<Project> getProjects() {
+        return (Collections.unmodifiableCollection(projectsById.values()));
+    }
+
+    /**
+     * Get a project of the tree by its ID.
+     *
+     * @param projectId the ID of the project
+     * @return the project, or null if it was not listed by any of the groups
+     */
+    public Project getProject(int projectId) {
+        return (projectsById.get(projectId));
+    }
+
+    private static String normalizePath(String fullPath) {
+        return (fullPath.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * A group of the tree, with links to its parent and subgroups.
+     */
+    public static class Node {
+
+        private final Group group;
+        private final Node parent;
+        private final int depth;
+        private final List<Node> children = new ArrayList<>();
+        private final List<Project> projects = new ArrayList<>();
+
+        Node(Group group, Node parent) {
+            this.group = group;
+            this.parent = parent;
+            this.depth = (parent != null ? parent.depth + 1 : 0);
+        }
+
+        void addChild(Node child) {
+            children.add(child);
+        }
+
+        void addProject(Project project) {
+            projects.add(project);
+        }
+
+        /**
+         * Get the group of this node.
+         *
+         * @return the group of this node
+         */
+        public Group getGroup() {
+            return (group);
+        }
+
+        /**
+         * Get the parent node.
+         *
+         * @return the parent node, null for the root of the tree
+         */
+        public Node getParent() {
+            return (parent);
+        }
+
+        /**
+         * Get the depth of this node, the root of the tree has a depth of 0.
+         *
+         * @return the depth of this node
+         */
+        public int getDepth() {
+            return (depth);
+        }
+
+        /**
+         * Get the nodes of the direct subgroups of this group.
+         *
+         * @return an unmodifiable list of the direct subgroup nodes
+         */
+        public List<Node> getChildren() {
+            return (Collections.unmodifiableList(children));
+        }
+
+        /**
+         * Get the projects listed for this group, empty if the projects were not collected.
+         *
+         * @return an unmodifiable list of the projects of this group
+         */
+        public List<Project> getProjects() {
+            return (Collections.unmodifiableList(projects));
+        }
+
+        /**
+         * Get the ancestors of this group, starting with its parent and ending with the root of the tree.
+         *
+         * @return the ancestor nodes of this group, empty for the root of the tree
+         */
+        public List<Node> getAncestors() {
+
+            List<Node> ancestors = new ArrayList<>(depth);
+            for (Node node = parent; node != null; node = node.parent) {
+                ancestors.add(node);
+            }
+
+            return (ancestors);
+        }
+
+        @Override
+        public String toString() {
+            return (group.getFullPath() != null ? group.getFullPath() : String.valueOf(group.getId()));
+        }
+    }
+}
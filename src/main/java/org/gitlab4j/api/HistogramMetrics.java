@@ -0,0 +1,179 @@
+package org.gitlab4j.api;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.gitlab4j.api.utils.AtomicHistogram;
+
+/**
+ * <p>A GitLabApiMetrics implementation that keeps lock-free histograms per route, for applications
+ * that do not use a metrics library. Routes are keyed by HTTP method and route template, for
+ * example "GET projects/:id/merge_requests".</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   HistogramMetrics metrics = new HistogramMetrics();
+ *   gitLabApi.setMetrics(metrics);
+ *   ...
+ *   metrics.getRouteStats().forEach((route, stats) -&gt;
+ *       System.out.println(route + " p95=" + stats.getLatencyNanos().getValueAtPercentile(95.0) / 1000000 + "ms"));
+ * </pre>
+ */
+public class HistogramMetrics implements GitLabApiMetrics {
+
+    private final ConcurrentMap<String, RouteStats> routeStats = new ConcurrentHashMap<>();
+
+    @Override
+    public void requestCompleted(String method, String route, int status, long elapsedNanos, long requestBytes) {
+        RouteStats stats = getOrCreate(method + " " + route);
+        stats.latencyNanos.record(elapsedNanos);
+        stats.requestBytes.record(requestBytes);
+        stats.statusCounts.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void responseRead(String method, String route, long responseBytes, long readNanos) {
+        RouteStats stats = getOrCreate(method + " " + route);
+        stats.responseBytes.record(responseBytes);
+        stats.readNanos.record(readNanos);
+    }
+
+    @Override
+    public void pageFetched(String route, int pageNumber, int itemCount) {
+        RouteStats stats = getOrCreate("GET " + route);
+        stats.pages.increment();
+        stats.pageItems.record(itemCount);
+    }
+
+    @Override
+    public void requestRetried(String method, String route, int retryCount) {
+        getOrCreate(method + " " + route).retries.increment();
+    }
+
+    /**
+     * Get the RouteStats for each route seen so far, keyed by HTTP method and route template
+     * and sorted by key.
+     *
+     * @return a read-only Map of RouteStats keyed by HTTP method and route template
+     */
+    public Map<String, RouteStats> getRouteStats() {
+        return (Collections.unmodifiableMap(new TreeMap<>(routeStats)));
+    }
+
+    /**
+     * Get the RouteStats for the specified HTTP method and route template.
+     *
+     * @param method the HTTP method, Ex. GET
+     * @param route the route template, Ex. projects/:id/merge_requests
+     * @return the RouteStats for the route, or null if the route has not been seen
+     */
+    public RouteStats getRouteStats(String method, String route) {
+        return (routeStats.get(method + " " + route));
+    }
+
+    /**
+     * Discards all collected statistics.
+     */
+    public void clear() {
+        routeStats.clear();
+    }
+
+    private RouteStats getOrCreate(String key) {
+        RouteStats stats = routeStats.get(key);
+        return (stats != null ? stats : routeStats.computeIfAbsent(key, k -> new RouteStats()));
+    }
+
+    /**
+     * The statistics collected for a single route.
+     */
+    public static class RouteStats {
+
+        private final AtomicHistogram latencyNanos = new AtomicHistogram();
+        private final AtomicHistogram readNanos = new AtomicHistogram();
+        private final AtomicHistogram requestBytes = new AtomicHistogram();
+        private final AtomicHistogram responseBytes = new AtomicHistogram();
+        private final AtomicHistogram pageItems = new AtomicHistogram();
+        private final ConcurrentMap<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        private final LongAdder pages = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+
+        /**
+         * Get the histogram of the time in nanoseconds from sending a request to receiving the response headers.
+         *
+         * @return the histogram of request latencies in nanoseconds
+         */
+        public AtomicHistogram getLatencyNanos() {
+            return (latencyNanos);
+        }
+
+        /**
+         * Get the histogram of the time in nanoseconds spent reading and deserializing response bodies.
+         *
+         * @return the histogram of response read times in nanoseconds
+         */
+        public AtomicHistogram getReadNanos() {
+            return (readNanos);
+        }
+
+        /**
+         * Get the histogram of request body sizes in bytes.
+         *
+         * @return the histogram of request body sizes in bytes
+         */
+        public AtomicHistogram getRequestBytes() {
+            return (requestBytes);
+        }
+
+        /**
+         * Get the histogram of response body sizes in bytes.
+         *
+         * @return the histogram of response body sizes in bytes
+         */
+        public AtomicHistogram getResponseBytes() {
+            return (responseBytes);
+        }
+
+        /**
+         * Get the histogram of the number of items on each page fetched by a Pager.
+         *
+         * @return the histogram of the number of items per page
+         */
+        public AtomicHistogram getPageItems() {
+            return (pageItems);
+        }
+
+        /**
+         * Get the number of pages fetched by a Pager.
+         *
+         * @return the number of pages fetched by a Pager
+         */
+        public long getPageCount() {
+            return (pages.sum());
+        }
+
+        /**
+         * Get the number of HTTP calls that were sent as a retry of an earlier call.
+         *
+         * @return the number of retried HTTP calls
+         */
+        public long getRetryCount() {
+            return (retries.sum());
+        }
+
+        /**
+         * Get the number of responses for each HTTP status code.
+         *
+         * @return a Map of response counts keyed by HTTP status code
+         */
+        public Map<Integer, Long> getStatusCounts() {
+            Map<Integer, Long> counts = new TreeMap<>();
+            statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+            return (counts);
+        }
+    }
+}
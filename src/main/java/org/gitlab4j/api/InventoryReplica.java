@@ -0,0 +1,907 @@
+package org.gitlab4j.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+import org.gitlab4j.api.models.Group;
+import org.gitlab4j.api.models.Project;
+import org.gitlab4j.api.models.ProjectFilter;
+import org.gitlab4j.api.models.Visibility;
+import org.gitlab4j.api.systemhooks.GroupSystemHookEvent;
+import org.gitlab4j.api.systemhooks.ProjectSystemHookEvent;
+import org.gitlab4j.api.systemhooks.SystemHookListener;
+import org.gitlab4j.api.utils.DaemonThreadFactory;
+import org.gitlab4j.api.utils.JacksonJson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * <p>This class keeps a local replica of the projects and groups of a GitLab instance, so inventory lookups by ID,
+ * path, namespace, visibility or last activity are served from indexed in-memory maps instead of REST calls.</p>
+ *
+ * <p>The replica is seeded by paging through all projects and groups, prefetching the next pages while the current
+ * one is indexed. It is then kept current in three ways:</p>
+ *
+ * <ul>
+ *   <li>as a {@link SystemHookListener}, project and group events refresh or remove the affected entries on a
+ *   background thread. A group rename or transfer also refreshes the groups and projects below it;</li>
+ *   <li>a periodic reconcile sweep fetches the projects with activity since the previous sweep, and lists the
+ *   groups again, to catch up with events that were missed;</li>
+ *   <li>if a snapshot file is set, the replica is saved to it on close and loaded from it on the next seed, which is
+ *   then followed by a reconcile sweep instead of a full listing.</li>
+ * </ul>
+ *
+ * <p>Deleted projects are only removed by their system hook event, the reconcile sweep cannot detect them.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   InventoryReplica replica = new InventoryReplica(gitLabApi)
+ *       .withSnapshotFile(Paths.get("/var/lib/inventory/replica.json"))
+ *       .withReconcileInterval(600000);
+ *   replica.start();
+ *   systemHookManager.addListener(replica);
+ *   List&lt;Project&gt; publicProjects = replica.getProjects(Visibility.PUBLIC);
+ * </pre>
+ */
+public class InventoryReplica implements SystemHookListener, AutoCloseable {
+
+    // How far before the previous sweep the "last_activity_after" filter reaches, to allow for clock skew
+    private static final long CLOCK_SKEW_MARGIN_MILLIS = 300000;
+
+    private static final ObjectMapper mapper = new JacksonJson().getObjectMapper();
+
+    private final GitLabApi gitLabApi;
+    private final ScheduledExecutorService executor;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Project> projects = new HashMap<>();
+    private final Map<String, Integer> projectsByPath = new HashMap<>();
+    private final Map<Integer, Set<Integer>> projectsByNamespace = new HashMap<>();
+    private final Map<Visibility, Set<Integer>> projectsByVisibility = new EnumMap<>(Visibility.class);
+    private final TreeMap<Long, Set<Integer>> projectsByActivity = new TreeMap<>();
+    private final Map<Integer, Group> groups = new HashMap<>();
+    private final Map<String, Integer> groupsByPath = new HashMap<>();
+
+    // The sweeps in progress, guarded by the lock
+    private final List<Sweep> sweeps = new ArrayList<>();
+
+    private volatile Date lastSweep;
+
+    private int itemsPerPage = 100;
+    private int prefetchPages = 2;
+    private long reconcileIntervalMillis;
+    private Path snapshotFile;
+
+    /**
+     * Create an empty InventoryReplica.
+     *
+     * @param gitLabApi the GitLabApi instance to fetch the projects and groups with
+     */
+    public InventoryReplica(GitLabApi gitLabApi) {
+
+        this.gitLabApi = gitLabApi;
+
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("gitlab4j-inventory-replica"));
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        executor = scheduler;
+    }
+
+    /**
+     * Set the number of projects and groups fetched per page, defaults to 100 (the GitLab maximum).
+     *
+     * @param itemsPerPage the number of projects and groups fetched per page
+     * @return this InventoryReplica instance
+     */
+    public InventoryReplica withItemsPerPage(int itemsPerPage) {
+        this.itemsPerPage = Math.max(1, Math.min(100, itemsPerPage));
+        return (this);
+    }
+
+    /**
+     * Set the number of pages fetched ahead of the one being indexed, defaults to 2.
+     *
+     * @param prefetchPages the number of pages to fetch ahead
+     * @return this InventoryReplica instance
+     */
+    public InventoryReplica withPrefetchPages(int prefetchPages) {
+        this.prefetchPages = Math.max(1, prefetchPages);
+        return (this);
+    }
+
+    /**
+     * Set the interval between the reconcile sweeps started by {@link #start()}, defaults to 0 (no sweeps).
+     *
+     * @param reconcileIntervalMillis the interval between reconcile sweeps in milliseconds, 0 for no sweeps
+     * @return this InventoryReplica instance
+     */
+    public InventoryReplica withReconcileInterval(long reconcileIntervalMillis) {
+        this.reconcileIntervalMillis = Math.max(0, reconcileIntervalMillis);
+        return (this);
+    }
+
+    /**
+     * Set the file the replica is loaded from when seeded and saved to when closed.
+     *
+     * @param snapshotFile the snapshot file, null for no snapshot
+     * @return this InventoryReplica instance
+     */
+    public InventoryReplica withSnapshotFile(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+        return (this);
+    }
+
+    /**
+     * Seed the replica and schedule the reconcile sweeps if a reconcile interval is set.
+     *
+     * @throws GitLabApiException if any exception occurs while seeding
+     */
+    public void start() throws GitLabApiException {
+
+        seed();
+
+        if (reconcileIntervalMillis > 0) {
+            executor.scheduleWithFixedDelay(() -> {
+                try {
+                    reconcile();
+                } catch (Exception e) {
+                    GitLabApi.getLogger().log(Level.FINE, "Inventory reconcile sweep failed", e);
+                }
+            }, reconcileIntervalMillis, reconcileIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Seed the replica. If the snapshot file exists it is loaded and followed by a reconcile sweep, otherwise
+     * all the projects and groups are listed.
+     *
+     * <pre><code>GitLab Endpoint: GET /projects</code></pre>
+     * <pre><code>GitLab Endpoint: GET /groups</code></pre>
+     *
+     * @throws GitLabApiException if any exception occurs
+     */
+    public void seed() throws GitLabApiException {
+
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            try {
+                loadSnapshot(snapshotFile);
+                reconcile();
+                return;
+            } catch (IOException ioe) {
+                GitLabApi.getLogger().log(Level.FINE, "Failed to load inventory snapshot " + snapshotFile + ", seeding from the server", ioe);
+            }
+        }
+
+        Date sweepStart = new Date();
+        Sweep sweep = beginSweep();
+        try {
+
+            List<Project> seededProjects = new ArrayList<>();
+            list(gitLabApi.getProjectApi().getProjects(new ProjectFilter(), itemsPerPage), seededProjects::add);
+            List<Group> seededGroups = new ArrayList<>();
+            list(gitLabApi.getGroupApi().getGroups(itemsPerPage), seededGroups::add);
+
+            lock.writeLock().lock();
+            try {
+                replaceProjects(seededProjects, sweep);
+                replaceGroups(seededGroups, sweep);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+        } finally {
+            endSweep(sweep);
+        }
+
+        lastSweep = sweepStart;
+    }
+
+    /**
+     * Fetch the projects with activity since the previous sweep and list the groups again, replacing the groups
+     * of the replica.
+     *
+     * <pre><code>GitLab Endpoint: GET /projects?last_activity_after=:date</code></pre>
+     * <pre><code>GitLab Endpoint: GET /groups</code></pre>
+     *
+     * @throws GitLabApiException if any exception occurs
+     */
+    public void reconcile() throws GitLabApiException {
+
+        Date sweepStart = new Date();
+        ProjectFilter filter = new ProjectFilter();
+        if (lastSweep != null) {
+            filter.withLastActivityAfter(new Date(lastSweep.getTime() - CLOCK_SKEW_MARGIN_MILLIS));
+        }
+
+        Sweep sweep = beginSweep();
+        try {
+
+            List<Project> updatedProjects = new ArrayList<>();
+            list(gitLabApi.getProjectApi().getProjects(filter, itemsPerPage), updatedProjects::add);
+            List<Group> currentGroups = new ArrayList<>();
+            list(gitLabApi.getGroupApi().getGroups(itemsPerPage), currentGroups::add);
+
+            lock.writeLock().lock();
+            try {
+                for (Project project : updatedProjects) {
+                    if (!sweep.touchedProjects.contains(project.getId())) {
+                        putProject(project);
+                    }
+                }
+
+                replaceGroups(currentGroups, sweep);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+        } finally {
+            endSweep(sweep);
+        }
+
+        lastSweep = sweepStart;
+    }
+
+    /**
+     * The projects and groups removed or refreshed by system hook events while a sweep lists them. The sweep
+     * leaves them as they are, its listing may predate the events.
+     */
+    private static class Sweep {
+        private final Set<Integer> touchedProjects = new HashSet<>();
+        private final Set<Integer> touchedGroups = new HashSet<>();
+    }
+
+    private Sweep beginSweep() {
+        Sweep sweep = new Sweep();
+        lock.writeLock().lock();
+        try {
+            sweeps.add(sweep);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        return (sweep);
+    }
+
+    private void endSweep(Sweep sweep) {
+        lock.writeLock().lock();
+        try {
+            sweeps.remove(sweep);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> void list(Pager<T> pager, Consumer<T> consumer) throws GitLabApiException {
+        try (Stream<T> items = pager.lazyStream(prefetchPages)) {
+            items.forEach(consumer);
+        } catch (RuntimeException re) {
+            Throwable cause = re.getCause();
+            throw (cause instanceof GitLabApiException ? (GitLabApiException) cause : new GitLabApiException(re));
+        }
+    }
+
+    /**
+     * Get the time the last seed or reconcile sweep started.
+     *
+     * @return the time the last sweep started, null if the replica has not been seeded
+     */
+    public Date getLastSweep() {
+        return (lastSweep);
+    }
+
+    /**
+     * Get a project by ID.
+     *
+     * @param projectId the ID of the project
+     * @return the project, or null if it is not in the replica
+     */
+    public Project getProject(int projectId) {
+        lock.readLock().lock();
+        try {
+            return (projects.get(projectId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a project by its path with namespace, the lookup is case insensitive like GitLab paths.
+     *
+     * @param pathWithNamespace the path of the project with its namespace, Ex. "acme/platform/api"
+     * @return the project, or null if it is not in the replica
+     */
+    public Project getProject(String pathWithNamespace) {
+        lock.readLock().lock();
+        try {
+            Integer projectId = (pathWithNamespace != null ? projectsByPath.get(normalizePath(pathWithNamespace)) : null);
+            return (projectId != null ? projects.get(projectId) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get all the projects of the replica.
+     *
+     * @return a list of all the projects of the replica
+     */
+    public List<Project> getProjects() {
+        lock.readLock().lock();
+        try {
+            return (new ArrayList<>(projects.values()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the projects with the specified visibility.
+     *
+     * @param visibility the visibility of the projects
+     * @return a list of the projects with the specified visibility
+     */
+    public List<Project> getProjects(Visibility visibility) {
+        lock.readLock().lock();
+        try {
+            return (getProjects(projectsByVisibility.get(visibility)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the projects directly in the specified namespace.
+     *
+     * @param namespaceId the ID of the namespace, which for a group namespace is the group ID
+     * @return a list of the projects directly in the specified namespace
+     */
+    public List<Project> getProjectsInNamespace(int namespaceId) {
+        lock.readLock().lock();
+        try {
+            return (getProjects(projectsByNamespace.get(namespaceId)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the projects with activity at or after the specified time, most recently active first.
+     *
+     * @param since the earliest last activity time of the projects
+     * @return a list of the projects with activity since the specified time
+     */
+    public List<Project> getProjectsActiveSince(Date since) {
+        lock.readLock().lock();
+        try {
+            List<Project> active = new ArrayList<>();
+            for (Set<Integer> projectIds : projectsByActivity.tailMap(since.getTime(), true).descendingMap().values()) {
+                active.addAll(getProjects(projectIds));
+            }
+
+            return (active);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of projects in the replica.
+     *
+     * @return the number of projects in the replica
+     */
+    public int getProjectCount() {
+        lock.readLock().lock();
+        try {
+            return (projects.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a group by ID.
+     *
+     * @param groupId the ID of the group
+     * @return the group, or null if it is not in the replica
+     */
+    public Group getGroup(int groupId) {
+        lock.readLock().lock();
+        try {
+            return (groups.get(groupId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a group by its full path, the lookup is case insensitive like GitLab paths.
+     *
+     * @param fullPath the full path of the group, Ex. "acme/platform"
+     * @return the group, or null if it is not in the replica
+     */
+    public Group getGroup(String fullPath) {
+        lock.readLock().lock();
+        try {
+            Integer groupId = (fullPath != null ? groupsByPath.get(normalizePath(fullPath)) : null);
+            return (groupId != null ? groups.get(groupId) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get all the groups of the replica.
+     *
+     * @return a list of all the groups of the replica
+     */
+    public List<Group> getGroups() {
+        lock.readLock().lock();
+        try {
+            return (new ArrayList<>(groups.values()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProjectEvent(ProjectSystemHookEvent event) {
+
+        Integer projectId = event.getProjectId();
+        if (projectId == null) {
+            return;
+        }
+
+        if (ProjectSystemHookEvent.PROJECT_DESTROY_EVENT.equals(event.getEventName())) {
+            lock.writeLock().lock();
+            try {
+                removeProject(projectId);
+                touchProject(projectId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } else {
+            submit(() -> refreshProject(projectId));
+        }
+    }
+
+    @Override
+    public void onGroupEvent(GroupSystemHookEvent event) {
+
+        Integer groupId = event.getGroupId();
+        if (groupId == null) {
+            return;
+        }
+
+        if (GroupSystemHookEvent.GROUP_DESTROY_EVENT.equals(event.getEventName())) {
+            lock.writeLock().lock();
+            try {
+                removeGroup(groupId);
+                touchGroup(groupId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        // A rename or transfer changes the paths of everything below the group
+        List<Integer> projectIds = new ArrayList<>();
+        List<Integer> groupIds = new ArrayList<>();
+        groupIds.add(groupId);
+        if (GroupSystemHookEvent.GROUP_RENAME_EVENT.equals(event.getEventName()) && event.getOldFullPath() != null) {
+            String prefix = normalizePath(event.getOldFullPath()) + "/";
+            lock.readLock().lock();
+            try {
+                for (Map.Entry<String, Integer> entry : groupsByPath.entrySet()) {
+                    if (entry.getKey().startsWith(prefix)) {
+                        groupIds.add(entry.getValue());
+                    }
+                }
+
+                for (Map.Entry<String, Integer> entry : projectsByPath.entrySet()) {
+                    if (entry.getKey().startsWith(prefix)) {
+                        projectIds.add(entry.getValue());
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        groupIds.forEach(id -> submit(() -> refreshGroup(id)));
+        projectIds.forEach(id -> submit(() -> refreshProject(id)));
+    }
+
+    private interface Refresh {
+        void run() throws GitLabApiException;
+    }
+
+    private void submit(Refresh refresh) {
+        if (!executor.isShutdown()) {
+            executor.execute(() -> {
+                try {
+                    refresh.run();
+                } catch (Exception e) {
+                    GitLabApi.getLogger().log(Level.FINE, "Failed to refresh the inventory replica", e);
+                }
+            });
+        }
+    }
+
+    private void refreshProject(int projectId) throws GitLabApiException {
+
+        Project project;
+        try {
+            project = gitLabApi.getProjectApi().getProject(projectId);
+        } catch (GitLabApiException glae) {
+            if (glae.getHttpStatus() != 404) {
+                throw glae;
+            }
+
+            project = null;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (project != null) {
+                putProject(project);
+            } else {
+                removeProject(projectId);
+            }
+
+            touchProject(projectId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void refreshGroup(int groupId) throws GitLabApiException {
+
+        Group group;
+        try {
+            group = gitLabApi.getGroupApi().getGroup(groupId);
+        } catch (GitLabApiException glae) {
+            if (glae.getHttpStatus() != 404) {
+                throw glae;
+            }
+
+            group = null;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (group != null) {
+                // The group details include its projects, which are not kept in the replica
+                group.setProjects(null);
+                group.setSharedProjects(null);
+                putGroup(group);
+            } else {
+                removeGroup(groupId);
+            }
+
+            touchGroup(groupId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Save the replica to the snapshot file, if one is set.
+     *
+     * @throws IOException if the snapshot could not be written
+     */
+    public void saveSnapshot() throws IOException {
+        if (snapshotFile != null) {
+            saveSnapshot(snapshotFile);
+        }
+    }
+
+    /**
+     * Save the replica to the specified file, replacing it atomically.
+     *
+     * @param file the file to save the replica to
+     * @throws IOException if the snapshot could not be written
+     */
+    public void saveSnapshot(Path file) throws IOException {
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tempFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+
+            lock.readLock().lock();
+            try (OutputStream out = Files.newOutputStream(tempFile);
+                    JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+
+                generator.writeStartObject();
+                if (lastSweep != null) {
+                    generator.writeObjectField("last_sweep", lastSweep);
+                }
+
+                generator.writeArrayFieldStart("groups");
+                for (Group group : groups.values()) {
+                    generator.writeObject(group);
+                }
+
+                generator.writeEndArray();
+                generator.writeArrayFieldStart("projects");
+                for (Project project : projects.values()) {
+                    generator.writeObject(project);
+                }
+
+                generator.writeEndArray();
+                generator.writeEndObject();
+
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Replace the contents of the replica with a snapshot saved by {@link #saveSnapshot(Path)}.
+     *
+     * @param file the snapshot file to load
+     * @throws IOException if the snapshot could not be read
+     */
+    public void loadSnapshot(Path file) throws IOException {
+
+        Date snapshotSweep = null;
+        List<Group> loadedGroups = new ArrayList<>();
+        List<Project> loadedProjects = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(file);
+                JsonParser parser = mapper.getFactory().createParser(in)) {
+
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Invalid inventory snapshot " + file);
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("last_sweep".equals(field)) {
+                    snapshotSweep = parser.readValueAs(Date.class);
+                } else if ("groups".equals(field)) {
+                    readArray(parser, Group.class, loadedGroups);
+                } else if ("projects".equals(field)) {
+                    readArray(parser, Project.class, loadedProjects);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            clear();
+            loadedGroups.forEach(this::putGroup);
+            loadedProjects.forEach(this::putProject);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        lastSweep = snapshotSweep;
+    }
+
+    private static <T> void readArray(JsonParser parser, Class<T> type, List<T> values) throws IOException {
+
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected an array of " + type.getSimpleName());
+        }
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(parser.readValueAs(type));
+        }
+    }
+
+    /**
+     * Stops the background refreshes and sweeps, and saves the replica to the snapshot file if one is set.
+     */
+    @Override
+    public void close() {
+
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (snapshotFile != null && lastSweep != null) {
+            try {
+                saveSnapshot(snapshotFile);
+            } catch (IOException ioe) {
+                GitLabApi.getLogger().log(Level.FINE, "Failed to save inventory snapshot " + snapshotFile, ioe);
+            }
+        }
+    }
+
+    // The methods below must be called while holding the write lock
+
+    private void clear() {
+        projects.clear();
+        projectsByPath.clear();
+        projectsByNamespace.clear();
+        projectsByVisibility.clear();
+        projectsByActivity.clear();
+        groups.clear();
+        groupsByPath.clear();
+    }
+
+    private void touchProject(Integer projectId) {
+        sweeps.forEach(sweep -> sweep.touchedProjects.add(projectId));
+    }
+
+    private void touchGroup(Integer groupId) {
+        sweeps.forEach(sweep -> sweep.touchedGroups.add(groupId));
+    }
+
+    /**
+     * Replace the projects with the listed ones, except those touched during the sweep.
+     */
+    private void replaceProjects(List<Project> listed, Sweep sweep) {
+
+        Set<Integer> listedIds = new HashSet<>();
+        for (Project project : listed) {
+            if (!sweep.touchedProjects.contains(project.getId())) {
+                putProject(project);
+                listedIds.add(project.getId());
+            }
+        }
+
+        for (Integer projectId : new ArrayList<>(projects.keySet())) {
+            if (!listedIds.contains(projectId) && !sweep.touchedProjects.contains(projectId)) {
+                removeProject(projectId);
+            }
+        }
+    }
+
+    /**
+     * Replace the groups with the listed ones, except those touched during the sweep.
+     */
+    private void replaceGroups(List<Group> listed, Sweep sweep) {
+
+        Set<Integer> listedIds = new HashSet<>();
+        for (Group group : listed) {
+            if (!sweep.touchedGroups.contains(group.getId())) {
+                putGroup(group);
+                listedIds.add(group.getId());
+            }
+        }
+
+        for (Integer groupId : new ArrayList<>(groups.keySet())) {
+            if (!listedIds.contains(groupId) && !sweep.touchedGroups.contains(groupId)) {
+                removeGroup(groupId);
+            }
+        }
+    }
+
+    private void putProject(Project project) {
+
+        if (project.getId() == null) {
+            return;
+        }
+
+        removeProject(project.getId());
+        Integer projectId = project.getId();
+        projects.put(projectId, project);
+        if (project.getPathWithNamespace() != null) {
+            projectsByPath.put(normalizePath(project.getPathWithNamespace()), projectId);
+        }
+
+        if (project.getNamespace() != null && project.getNamespace().getId() != null) {
+            projectsByNamespace.computeIfAbsent(project.getNamespace().getId(), id -> new HashSet<>()).add(projectId);
+        }
+
+        if (project.getVisibility() != null) {
+            projectsByVisibility.computeIfAbsent(project.getVisibility(), v -> new HashSet<>()).add(projectId);
+        }
+
+        if (project.getLastActivityAt() != null) {
+            projectsByActivity.computeIfAbsent(project.getLastActivityAt().getTime(), t -> new HashSet<>()).add(projectId);
+        }
+    }
+
+    private void removeProject(Integer projectId) {
+
+        Project project = projects.remove(projectId);
+        if (project == null) {
+            return;
+        }
+
+        if (project.getPathWithNamespace() != null) {
+            projectsByPath.remove(normalizePath(project.getPathWithNamespace()), projectId);
+        }
+
+        if (project.getNamespace() != null) {
+            removeFromIndex(projectsByNamespace, project.getNamespace().getId(), projectId);
+        }
+
+        removeFromIndex(projectsByVisibility, project.getVisibility(), projectId);
+        if (project.getLastActivityAt() != null) {
+            removeFromIndex(projectsByActivity, project.getLastActivityAt().getTime(), projectId);
+        }
+    }
+
+    private void putGroup(Group group) {
+
+        if (group.getId() == null) {
+            return;
+        }
+
+        removeGroup(group.getId());
+        groups.put(group.getId(), group);
+        if (group.getFullPath() != null) {
+            groupsByPath.put(normalizePath(group.getFullPath()), group.getId());
+        }
+    }
+
+    private void removeGroup(Integer groupId) {
+        Group group = groups.remove(groupId);
+        if (group != null && group.getFullPath() != null) {
+            groupsByPath.remove(normalizePath(group.getFullPath()), groupId);
+        }
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<Integer>> index, K key, Integer projectId) {
+
+        if (key == null) {
+            return;
+        }
+
+        Set<Integer> projectIds = index.get(key);
+        if (projectIds != null && projectIds.remove(projectId) && projectIds.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private List<Project> getProjects(Collection<Integer> projectIds) {
+
+        if (projectIds == null) {
+            return (Collections.emptyList());
+        }
+
+        List<Project> list = new ArrayList<>(projectIds.size());
+        for (Integer projectId : projectIds) {
+            list.add(projects.get(projectId));
+        }
+
+        return (list);
+    }
+
+    private static String normalizePath(String path) {
+        return (path.toLowerCase(Locale.ROOT));
+    }
+}
@@ -1,8 +1,13 @@
 package org.gitlab4j.api;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -18,6 +23,7 @@ import javax.ws.rs.core.Response.Status;
 
 import org.gitlab4j.api.models.ArtifactsFile;
 import org.gitlab4j.api.models.Job;
+import org.gitlab4j.api.utils.JobTraceReader;
 
 /**
  * This class provides an entry point to all the GitLab API job calls.
@@ -428,6 +434,67 @@ public class JobApi extends AbstractApi implements Constants {
         return (response.readEntity(String.class));
      }
 
+    /**
+     * Get an InputStream to read the trace of a specific job of a project. The trace is not buffered
+     * in memory, the caller is responsible for closing the returned InputStream.
+     *
+     * <pre><code>GitLab Endpoint: GET /projects/:id/jobs/:id/trace</code></pre>
+     *
+     * @param projectIdOrPath id, path of the project, or a Project instance holding the project ID or path
+     *                        to get the specified job's trace for
+     * @param jobId the job ID to get the trace for
+     * @return an InputStream to read the specified job's trace from
+     * @throws GitLabApiException if any exception occurs during execution
+     */
+    public InputStream getTraceAsInputStream(Object projectIdOrPath, int jobId) throws GitLabApiException {
+        Response response = getWithAccepts(Response.Status.OK, null, MediaType.MEDIA_TYPE_WILDCARD,
+                "projects", getProjectIdOrPath(projectIdOrPath), "jobs", jobId, "trace");
+        return (response.readEntity(InputStream.class));
+    }
+
+    /**
+     * Get a Reader to read the trace of a specific job of a project. The trace is decoded incrementally
+     * as UTF-8 and is not buffered in memory, the caller is responsible for closing the returned Reader.
+     *
+     * <pre><code>GitLab Endpoint: GET /projects/:id/jobs/:id/trace</code></pre>
+     *
+     * @param projectIdOrPath id, path of the project, or a Project instance holding the project ID or path
+     *                        to get the specified job's trace for
+     * @param jobId the job ID to get the trace for
+     * @param stripFormatting if true, ANSI escape sequences and section markers will be removed from the trace
+     * @return a Reader to read the specified job's trace from
+     * @throws GitLabApiException if any exception occurs during execution
+     */
+    public Reader getTraceAsReader(Object projectIdOrPath, int jobId, boolean stripFormatting) throws GitLabApiException {
+        Reader reader = new InputStreamReader(getTraceAsInputStream(projectIdOrPath, jobId), StandardCharsets.UTF_8);
+        return (stripFormatting ? new JobTraceReader(reader) : reader);
+    }
+
+    /**
+     * Get a Stream of the lines in the trace of a specific job of a project. The lines are read
+     * on demand, the returned Stream should be closed to release the underlying connection.
+     *
+     * <pre><code>GitLab Endpoint: GET /projects/:id/jobs/:id/trace</code></pre>
+     *
+     * @param projectIdOrPath id, path of the project, or a Project instance holding the project ID or path
+     *                        to get the specified job's trace for
+     * @param jobId the job ID to get the trace for
+     * @param stripFormatting if true, ANSI escape sequences and section markers will be removed from the trace
+     * @return a Stream of the lines in the specified job's trace
+     * @throws GitLabApiException if any exception occurs during execution
+     */
+    public Stream<String> getTraceLines(Object projectIdOrPath, int jobId, boolean stripFormatting) throws GitLabApiException {
+
+        BufferedReader reader = new BufferedReader(getTraceAsReader(projectIdOrPath, jobId, stripFormatting));
+        return (reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }));
+    }
+
     /**
      * Cancel specified job in a project.
      *
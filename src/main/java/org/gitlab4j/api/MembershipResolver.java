@@ -0,0 +1,451 @@
+package org.gitlab4j.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.gitlab4j.api.models.AccessLevel;
+import org.gitlab4j.api.models.Group;
+import org.gitlab4j.api.models.Member;
+import org.gitlab4j.api.models.Namespace;
+import org.gitlab4j.api.models.Project;
+import org.gitlab4j.api.models.ProjectSharedGroup;
+import org.gitlab4j.api.systemhooks.GroupMemberSystemHookEvent;
+import org.gitlab4j.api.systemhooks.GroupSystemHookEvent;
+import org.gitlab4j.api.systemhooks.ProjectSystemHookEvent;
+import org.gitlab4j.api.systemhooks.SystemHookListener;
+import org.gitlab4j.api.systemhooks.TeamMemberSystemHookEvent;
+
+/**
+ * <p>This class resolves the effective access level of users on projects. The direct members of each project and
+ * group are loaded once and cached, and the access granted through the ancestor groups of a project and through
+ * the groups the project is shared with is computed from the cache:</p>
+ *
+ * <ul>
+ *   <li>the direct project membership, or OWNER for the owner of a personal project;</li>
+ *   <li>the membership in the namespace group of the project or any of its ancestors;</li>
+ *   <li>for each group the project is shared with, the lower of the share access level and the membership in the
+ *   shared group or any of its ancestors.</li>
+ * </ul>
+ *
+ * <p>The effective access levels of each project are indexed by user ID the first time the project is queried,
+ * so repeated queries are a map lookup. An index records the cached project, groups and members it was built
+ * from and is only rebuilt when one of them is invalidated. Expired memberships are ignored.</p>
+ *
+ * <p>The cache is kept current by registering the resolver as a listener of a
+ * {@link org.gitlab4j.api.systemhooks.SystemHookManager}: member events reload the members of the group or
+ * project, and group and project events reload their structure. Changes that are not reported by system hooks,
+ * such as sharing a project with a group, are picked up after the maximum age if one is set, or by calling one of
+ * the invalidate methods.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   MembershipResolver resolver = new MembershipResolver(gitLabApi).withMaxAge(3600000);
+ *   systemHookManager.addListener(resolver);
+ *   boolean canPush = resolver.hasAccess(userId, projectId, AccessLevel.DEVELOPER);
+ * </pre>
+ */
+public class MembershipResolver implements SystemHookListener {
+
+    private static final String USER_NAMESPACE_KIND = "user";
+
+    // Marks a group without a parent
+    private static final Integer NO_PARENT = 0;
+
+    private final GitLabApi gitLabApi;
+
+    private final Cache<ProjectEntry> projects = new Cache<>();
+    private final Cache<Integer> groupParents = new Cache<>();
+    private final Cache<List<Member>> projectMembers = new Cache<>();
+    private final Cache<List<Member>> groupMembers = new Cache<>();
+    private final Map<Integer, AccessIndex> indexes = new ConcurrentHashMap<>();
+
+    private volatile long maxAgeMillis;
+
+    /**
+     * Create a MembershipResolver with an empty cache.
+     *
+     * @param gitLabApi the GitLabApi instance to load the projects, groups and members with
+     */
+    public MembershipResolver(GitLabApi gitLabApi) {
+        this.gitLabApi = gitLabApi;
+    }
+
+    /**
+     * Set the maximum age of the access levels computed for a project, after which its project, groups and members
+     * are loaded again. Defaults to 0 which keeps them until they are invalidated.
+     *
+     * @param maxAgeMillis the maximum age in milliseconds, 0 for no maximum
+     * @return this MembershipResolver instance
+     */
+    public MembershipResolver withMaxAge(long maxAgeMillis) {
+        this.maxAgeMillis = Math.max(0, maxAgeMillis);
+        return (this);
+    }
+
+    /**
+     * Get the effective access level of a user on a project.
+     *
+     * <pre><code>GitLab Endpoint: GET /projects/:id</code></pre>
+     * <pre><code>GitLab Endpoint: GET /projects/:id/members</code></pre>
+     * <pre><code>GitLab Endpoint: GET /groups/:id</code></pre>
+     * <pre><code>GitLab Endpoint: GET /groups/:id/members</code></pre>
+     *
+     * @param userId the ID of the user
+     * @param projectId the ID of the project
+     * @return the effective access level of the user on the project, NONE if the user has no access
+     * @throws GitLabApiException if any exception occurs while loading the project, its groups or their members
+     */
+    public AccessLevel getAccessLevel(int userId, int projectId) throws GitLabApiException {
+        Integer level = getIndex(projectId).levels.get(userId);
+        return (level != null ? AccessLevel.forValue(level) : AccessLevel.NONE);
+    }
+
+    /**
+     * Returns true if the effective access level of a user on a project is at least the specified access level.
+     *
+     * @param userId the ID of the user
+     * @param projectId the ID of the project
+     * @param minimum the minimum access level
+     * @return true if the user has at least the specified access level on the project
+     * @throws GitLabApiException if any exception occurs while loading the project, its groups or their members
+     */
+    public boolean hasAccess(int userId, int projectId, AccessLevel minimum) throws GitLabApiException {
+        Integer level = getIndex(projectId).levels.get(userId);
+        return (level != null && level >= minimum.value);
+    }
+
+    /**
+     * Get the effective access levels of all the users with access to a project.
+     *
+     * @param projectId the ID of the project
+     * @return an unmodifiable map of the effective access levels keyed by user ID
+     * @throws GitLabApiException if any exception occurs while loading the project, its groups or their members
+     */
+    public Map<Integer, AccessLevel> getAccessLevels(int projectId) throws GitLabApiException {
+
+        Map<Integer, AccessLevel> accessLevels = new HashMap<>();
+        getIndex(projectId).levels.forEach((userId, level) -> accessLevels.put(userId, AccessLevel.forValue(level)));
+        return (Collections.unmodifiableMap(accessLevels));
+    }
+
+    /**
+     * Drop the cached structure and members of a project.
+     *
+     * @param projectId the ID of the project
+     */
+    public void invalidateProject(int projectId) {
+        projects.invalidate(projectId);
+        projectMembers.invalidate(projectId);
+        indexes.remove(projectId);
+    }
+
+    /**
+     * Drop the cached parent and members of a group.
+     *
+     * @param groupId the ID of the group
+     */
+    public void invalidateGroup(int groupId) {
+        groupParents.invalidate(groupId);
+        groupMembers.invalidate(groupId);
+    }
+
+    /**
+     * Drop everything that is cached.
+     */
+    public void invalidateAll() {
+        projects.invalidateAll();
+        projectMembers.invalidateAll();
+        groupParents.invalidateAll();
+        groupMembers.invalidateAll();
+        indexes.clear();
+    }
+
+    @Override
+    public void onGroupMemberEvent(GroupMemberSystemHookEvent event) {
+        if (event.getGroupId() != null) {
+            groupMembers.invalidate(event.getGroupId());
+        }
+    }
+
+    @Override
+    public void onTeamMemberEvent(TeamMemberSystemHookEvent event) {
+        if (event.getProjectId() != null) {
+            projectMembers.invalidate(event.getProjectId());
+        }
+    }
+
+    @Override
+    public void onGroupEvent(GroupSystemHookEvent event) {
+        if (event.getGroupId() != null) {
+            invalidateGroup(event.getGroupId());
+        }
+    }
+
+    @Override
+    public void onProjectEvent(ProjectSystemHookEvent event) {
+        if (event.getProjectId() != null) {
+            invalidateProject(event.getProjectId());
+        }
+    }
+
+    private AccessIndex getIndex(int projectId) throws GitLabApiException {
+
+        long now = System.currentTimeMillis();
+        AccessIndex index = indexes.get(projectId);
+        if (index != null) {
+
+            if (index.isCurrent() && now < index.validUntil) {
+                return (index);
+            }
+
+            // Everything the index was computed from is loaded again once the maximum age is reached
+            if (maxAgeMillis > 0 && now >= index.loadedAt + maxAgeMillis) {
+                index.invalidateSources();
+            }
+        }
+
+        index = buildIndex(projectId);
+        indexes.put(projectId, index);
+        return (index);
+    }
+
+    private ProjectEntry loadProject(int projectId) throws GitLabApiException {
+
+        Project project = gitLabApi.getProjectApi().getProject(projectId);
+        ProjectEntry entry = new ProjectEntry();
+
+        Namespace namespace = project.getNamespace();
+        if (namespace != null && USER_NAMESPACE_KIND.equals(namespace.getKind())) {
+            entry.ownerId = (project.getOwner() != null ? project.getOwner().getId() : null);
+        } else if (namespace != null) {
+            entry.namespaceGroupId = namespace.getId();
+        }
+
+        if (project.getSharedWithGroups() != null) {
+            for (ProjectSharedGroup share : project.getSharedWithGroups()) {
+                if (share.getGroupAccessLevel() != null) {
+                    entry.shares.put(share.getGroupId(), share.getGroupAccessLevel().value);
+                }
+            }
+        }
+
+        return (entry);
+    }
+
+    private AccessIndex buildIndex(int projectId) throws GitLabApiException {
+
+        long now = System.currentTimeMillis();
+        Slot<ProjectEntry> projectSlot = projects.get(projectId, this::loadProject);
+        ProjectEntry entry = projectSlot.value;
+
+        AccessIndex index = new AccessIndex(projectSlot.loadedAt, maxAgeMillis > 0 ? projectSlot.loadedAt + maxAgeMillis : Long.MAX_VALUE);
+        index.dependsOn(projects, projectId, projectSlot);
+
+        if (entry.ownerId != null) {
+            index.grant(entry.ownerId, AccessLevel.OWNER.value, null, now);
+        }
+
+        Slot<List<Member>> membersSlot = projectMembers.get(projectId, id -> gitLabApi.getProjectApi().getMembers(id));
+        index.dependsOn(projectMembers, projectId, membersSlot);
+        for (Member member : membersSlot.value) {
+            index.grant(member, Integer.MAX_VALUE, now);
+        }
+
+        if (entry.namespaceGroupId != null) {
+            for (Integer groupId : getGroupChain(entry.namespaceGroupId, index)) {
+                for (Member member : getGroupMembers(groupId, index)) {
+                    index.grant(member, Integer.MAX_VALUE, now);
+                }
+            }
+        }
+
+        for (Map.Entry<Integer, Integer> share : entry.shares.entrySet()) {
+            for (Integer groupId : getGroupChain(share.getKey(), index)) {
+                for (Member member : getGroupMembers(groupId, index)) {
+                    index.grant(member, share.getValue(), now);
+                }
+            }
+        }
+
+        return (index);
+    }
+
+    /**
+     * Get a group followed by its ancestors, loading the parents that are not cached.
+     */
+    private List<Integer> getGroupChain(int groupId, AccessIndex index) throws GitLabApiException {
+
+        List<Integer> chain = new ArrayList<>();
+        Integer id = groupId;
+        while (id != null && !NO_PARENT.equals(id) && !chain.contains(id)) {
+
+            chain.add(id);
+            Slot<Integer> parentSlot = groupParents.get(id, key -> {
+                Group group = gitLabApi.getGroupApi().getGroup(key);
+                return (group.getParentId() != null ? group.getParentId() : NO_PARENT);
+            });
+
+            index.dependsOn(groupParents, id, parentSlot);
+            id = parentSlot.value;
+        }
+
+        return (chain);
+    }
+
+    private List<Member> getGroupMembers(int groupId, AccessIndex index) throws GitLabApiException {
+        Slot<List<Member>> slot = groupMembers.get(groupId, id -> gitLabApi.getGroupApi().getMembers(id));
+        index.dependsOn(groupMembers, groupId, slot);
+        return (slot.value);
+    }
+
+    /**
+     * Loads a value that is not cached.
+     */
+    @FunctionalInterface
+    private interface Loader<V> {
+        V load(int key) throws GitLabApiException;
+    }
+
+    /**
+     * A cached value, or an empty slot while the value is loaded. An invalidation replaces the slot,
+     * so a cached value can be checked for being current by identity.
+     */
+    private static class Slot<V> {
+
+        private final V value;
+        private final long loadedAt = System.currentTimeMillis();
+
+        Slot(V value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * A cache of values keyed by ID, an invalidation always wins over a load that was in flight.
+     */
+    private static class Cache<V> {
+
+        private final Map<Integer, Slot<V>> slots = new ConcurrentHashMap<>();
+
+        /**
+         * Get the slot of a key, loading the value if it is not cached. If the key is invalidated while the
+         * value is loaded, the loaded value is returned but not cached.
+         */
+        Slot<V> get(int key, Loader<V> loader) throws GitLabApiException {
+
+            Slot<V> slot = slots.computeIfAbsent(key, id -> new Slot<>(null));
+            if (slot.value != null) {
+                return (slot);
+            }
+
+            Slot<V> loaded = new Slot<>(loader.load(key));
+            slots.computeIfPresent(key, (id, current) -> (current == slot ? loaded : current));
+            return (loaded);
+        }
+
+        boolean isCurrent(int key, Slot<?> slot) {
+            return (slots.get(key) == slot);
+        }
+
+        /**
+         * Invalidate a key, only keys that have been loaded are tracked.
+         */
+        void invalidate(int key) {
+            slots.computeIfPresent(key, (id, current) -> new Slot<>(null));
+        }
+
+        void invalidateAll() {
+            slots.replaceAll((id, current) -> new Slot<>(null));
+        }
+    }
+
+    /**
+     * The cached structure of a project: its namespace group or owner, and the groups it is shared with.
+     */
+    private static class ProjectEntry {
+
+        private Integer namespaceGroupId;
+        private Integer ownerId;
+        private final Map<Integer, Integer> shares = new HashMap<>();
+    }
+
+    /**
+     * The effective access levels of the users of a project, keyed by user ID, with the cached values
+     * they were computed from.
+     */
+    private static class AccessIndex {
+
+        private final long loadedAt;
+        private final Map<Integer, Integer> levels = new HashMap<>();
+        private final List<Dependency> dependencies = new ArrayList<>();
+        private long validUntil;
+
+        AccessIndex(long loadedAt, long validUntil) {
+            this.loadedAt = loadedAt;
+            this.validUntil = validUntil;
+        }
+
+        void dependsOn(Cache<?> cache, int key, Slot<?> slot) {
+            dependencies.add(new Dependency(cache, key, slot));
+        }
+
+        /**
+         * Returns true if none of the cached values this index was computed from has been invalidated.
+         */
+        boolean isCurrent() {
+
+            for (Dependency dependency : dependencies) {
+                if (!dependency.cache.isCurrent(dependency.key, dependency.slot)) {
+                    return (false);
+                }
+            }
+
+            return (true);
+        }
+
+        void invalidateSources() {
+            for (Dependency dependency : dependencies) {
+                dependency.cache.invalidate(dependency.key);
+            }
+        }
+
+        void grant(Member member, int maxLevel, long now) {
+            if (member.getId() != null && member.getAccessLevel() != null) {
+                grant(member.getId(), Math.min(member.getAccessLevel().value, maxLevel),
+                        member.getExpiresAt() != null ? member.getExpiresAt().getTime() : null, now);
+            }
+        }
+
+        void grant(int userId, int level, Long expiresAt, long now) {
+
+            if (expiresAt != null) {
+                if (expiresAt <= now) {
+                    return;
+                }
+
+                // The index must be rebuilt when the membership expires
+                validUntil = Math.min(validUntil, expiresAt);
+            }
+
+            levels.merge(userId, level, Math::max);
+        }
+    }
+
+    private static class Dependency {
+
+        private final Cache<?> cache;
+        private final int key;
+        private final Slot<?> slot;
+
+        Dependency(Cache<?> cache, int key, Slot<?> slot) {
+            this.cache = cache;
+            this.key = key;
+            this.slot = slot;
+        }
+    }
+}
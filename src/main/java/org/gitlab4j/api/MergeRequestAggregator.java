@@ -0,0 +1,433 @@
+package org.gitlab4j.api;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.gitlab4j.api.models.MergeRequest;
+import org.gitlab4j.api.models.MergeRequestFilter;
+import org.gitlab4j.api.models.Pipeline;
+import org.gitlab4j.api.utils.DaemonThreadFactory;
+
+/**
+ * <p>This class aggregates the status of many merge requests, for example all the open merge requests of a group.
+ * The merge requests are listed with a single {@link MergeRequestFilter} query, and each one is enriched with its
+ * approval state and latest pipeline by a bounded pool of threads. The enriched merge requests are returned by a
+ * Stream as they complete, so the first results are available long before all merge requests are enriched.</p>
+ *
+ * <p>Finished pipelines are cached and shared by all aggregations made with the same instance, and merge requests
+ * whose latest pipeline is being fetched concurrently share a single request for it. The number of merge requests
+ * being enriched or waiting to be consumed is bounded, so a slow consumer does not cause the whole group to be
+ * held in memory.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   try (MergeRequestAggregator aggregator = new MergeRequestAggregator(gitLabApi).withParallelism(16);
+ *           Stream&lt;MergeRequestStatus&gt; statuses = aggregator.aggregate(new MergeRequestFilter()
+ *               .withGroupId(releaseGroupId).withState(MergeRequestState.OPENED))) {
+ *       statuses.forEach(status -&gt; dashboard.update(status));
+ *   }
+ * </pre>
+ */
+public class MergeRequestAggregator implements AutoCloseable {
+
+    // The marker queued once all merge requests of an aggregation have been enriched
+    private static final Object END = new Object();
+
+    private final GitLabApi gitLabApi;
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    private final Map<String, CompletableFuture<Pipeline>> pendingPipelines = new ConcurrentHashMap<>();
+    private final Map<String, Pipeline> finishedPipelines;
+
+    private volatile boolean approvals = true;
+    private volatile boolean pipelines = true;
+    private volatile int itemsPerPage = 100;
+
+    /**
+     * Create a MergeRequestAggregator that enriches up to 8 merge requests at a time.
+     *
+     * @param gitLabApi the GitLabApi instance to make the requests with
+     */
+    public MergeRequestAggregator(GitLabApi gitLabApi) {
+        this(gitLabApi, 8, 10000);
+    }
+
+    /**
+     * Create a MergeRequestAggregator.
+     *
+     * @param gitLabApi the GitLabApi instance to make the requests with
+     * @param parallelism the number of merge requests enriched at a time
+     * @param maxCachedPipelines the number of finished pipelines to cache
+     */
+    public MergeRequestAggregator(GitLabApi gitLabApi, int parallelism, int maxCachedPipelines) {
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+
+        this.gitLabApi = gitLabApi;
+        this.parallelism = parallelism;
+
+        executor = Executors.newFixedThreadPool(parallelism, new DaemonThreadFactory("gitlab4j-mr-aggregator", true));
+
+        finishedPipelines = new LinkedHashMap<String, Pipeline>(64, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Pipeline> eldest) {
+                return (size() > maxCachedPipelines);
+            }
+        };
+    }
+
+    /**
+     * Set whether the approval state of each merge request is fetched, defaults to true.
+     *
+     * @param approvals true to fetch the approval state of each merge request
+     * @return this MergeRequestAggregator instance
+     */
+    public MergeRequestAggregator withApprovals(boolean approvals) {
+        this.approvals = approvals;
+        return (this);
+    }
+
+    /**
+     * Set whether the latest pipeline of each merge request is fetched, defaults to true.
+     *
+     * @param pipelines true to fetch the latest pipeline of each merge request
+     * @return this MergeRequestAggregator instance
+     */
+    public MergeRequestAggregator withPipelines(boolean pipelines) {
+        this.pipelines = pipelines;
+        return (this);
+    }
+
+    /**
+     * Set the number of merge requests listed per page, defaults to 100.
+     *
+     * @param itemsPerPage the number of merge requests listed per page
+     * @return this MergeRequestAggregator instance
+     */
+    public MergeRequestAggregator withItemsPerPage(int itemsPerPage) {
+        this.itemsPerPage = Math.max(1, itemsPerPage);
+        return (this);
+    }
+
+    /**
+     * Get the number of finished pipelines currently cached.
+     *
+     * @return the number of finished pipelines currently cached
+     */
+    public int getCachedPipelineCount() {
+        synchronized (finishedPipelines) {
+            return (finishedPipelines.size());
+        }
+    }
+
+    /**
+     * Stops the threads used to enrich the merge requests.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Get a Stream of the status of the merge requests matching the filter, in the order their enrichment
+     * completes. The Stream should be closed to stop the aggregation if it is not consumed to the end.
+     *
+     * <pre><code>GitLab Endpoint: GET /groups/:id/merge_requests</code></pre>
+     *
+     * @param filter a MergeRequestFilter instance with the filter settings, typically with a group ID
+     * @return a Stream of the status of the merge requests matching the filter
+     * @throws GitLabApiException if the first page of merge requests cannot be listed
+     */
+    public Stream<MergeRequestStatus> aggregate(MergeRequestFilter filter) throws GitLabApiException {
+
+        Pager<MergeRequest> pager = gitLabApi.getMergeRequestApi().getMergeRequests(filter, itemsPerPage);
+        Aggregation aggregation = new Aggregation(pager);
+        Thread lister = new DaemonThreadFactory("gitlab4j-mr-aggregator-list").newThread(aggregation::list);
+        aggregation.lister = lister;
+        lister.start();
+
+        Spliterator<MergeRequestStatus> spliterator = Spliterators.spliteratorUnknownSize(aggregation, Spliterator.NONNULL);
+        return (StreamSupport.stream(spliterator, false).onClose(aggregation::cancel));
+    }
+
+    /**
+     * Enriches a single merge request with its approval state and latest pipeline.
+     *
+     * @param mergeRequest the merge request to enrich
+     * @return the status of the merge request
+     */
+    MergeRequestStatus enrich(MergeRequest mergeRequest) {
+
+        MergeRequestStatus status = new MergeRequestStatus(mergeRequest);
+        try {
+
+            Integer projectId = mergeRequest.getProjectId();
+            Integer iid = mergeRequest.getIid();
+            if (approvals) {
+                status.approvals = gitLabApi.getMergeRequestApi().getMergeRequestApprovals(projectId, iid);
+            }
+
+            if (pipelines) {
+                List<Pipeline> mergeRequestPipelines = gitLabApi.getMergeRequestApi().getMergeRequestPipelines(projectId, iid);
+                if (!mergeRequestPipelines.isEmpty()) {
+                    status.pipeline = getPipeline(projectId, mergeRequestPipelines.get(0).getId());
+                }
+            }
+
+        } catch (Exception e) {
+            status.exception = e;
+        }
+
+        return (status);
+    }
+
+    private Pipeline getPipeline(Integer projectId, Integer pipelineId) throws GitLabApiException {
+
+        String key = projectId + ":" + pipelineId;
+        synchronized (finishedPipelines) {
+            Pipeline pipeline = finishedPipelines.get(key);
+            if (pipeline != null) {
+                return (pipeline);
+            }
+        }
+
+        CompletableFuture<Pipeline> future = new CompletableFuture<>();
+        CompletableFuture<Pipeline> pending = pendingPipelines.putIfAbsent(key, future);
+        if (pending != null) {
+            return (await(pending));
+        }
+
+        try {
+
+            Pipeline pipeline = gitLabApi.getPipelineApi().getPipeline(projectId, pipelineId);
+            if (pipeline.getStatus() != null && pipeline.getStatus().isFinished()) {
+                synchronized (finishedPipelines) {
+                    finishedPipelines.put(key, pipeline);
+                }
+            }
+
+            future.complete(pipeline);
+            return (pipeline);
+
+        } catch (GitLabApiException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingPipelines.remove(key);
+        }
+    }
+
+    private static Pipeline await(CompletableFuture<Pipeline> future) throws GitLabApiException {
+
+        try {
+            return (future.get());
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new GitLabApiException(ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof GitLabApiException) {
+                throw (GitLabApiException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw new GitLabApiException(ee);
+        }
+    }
+
+    /**
+     * A single aggregation, the merge requests are listed on their own thread and enriched on the pool,
+     * the results are queued for the consumer of the Stream.
+     */
+    private class Aggregation implements Iterator<MergeRequestStatus> {
+
+        private final Pager<MergeRequest> pager;
+        private final BlockingQueue<Object> results = new LinkedBlockingQueue<>();
+
+        // Bounds the merge requests being enriched or waiting to be consumed
+        private final Semaphore permits = new Semaphore(parallelism * 4);
+
+        // The lister and each merge request being enriched, the END marker is queued when it drops to zero
+        private final AtomicInteger pending = new AtomicInteger(1);
+
+        private volatile boolean cancelled;
+        private Thread lister;
+        private Object next;
+        private boolean finished;
+
+        Aggregation(Pager<MergeRequest> pager) {
+            this.pager = pager;
+        }
+
+        void list() {
+
+            try {
+
+                while (!cancelled && pager.hasNext()) {
+                    for (MergeRequest mergeRequest : pager.next()) {
+
+                        permits.acquire();
+                        if (cancelled) {
+                            return;
+                        }
+
+                        pending.incrementAndGet();
+                        try {
+                            executor.execute(() -> complete(cancelled ? null : enrich(mergeRequest)));
+                        } catch (RejectedExecutionException ree) {
+                            pending.decrementAndGet();
+                            throw ree;
+                        }
+                    }
+                }
+
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException re) {
+                results.add(re);
+            } finally {
+                complete(null);
+            }
+        }
+
+        private void complete(MergeRequestStatus status) {
+
+            if (status != null) {
+                results.add(status);
+            }
+
+            if (pending.decrementAndGet() == 0) {
+                results.add(END);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            finished = true;
+            if (lister != null) {
+                lister.interrupt();
+            }
+
+            results.clear();
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            if (next != null) {
+                return (true);
+            } else if (finished) {
+                return (false);
+            }
+
+            try {
+                next = results.take();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(new GitLabApiException(ie));
+            }
+
+            if (next == END) {
+                next = null;
+                finished = true;
+                return (false);
+            } else if (next instanceof RuntimeException) {
+                RuntimeException re = (RuntimeException) next;
+                next = null;
+                finished = true;
+                throw re;
+            }
+
+            return (true);
+        }
+
+        @Override
+        public MergeRequestStatus next() {
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            MergeRequestStatus status = (MergeRequestStatus) next;
+            next = null;
+            permits.release();
+            return (status);
+        }
+    }
+
+    /**
+     * The status of a merge request, its approval state and latest pipeline.
+     */
+    public static class MergeRequestStatus {
+
+        private final MergeRequest mergeRequest;
+        private volatile MergeRequest approvals;
+        private volatile Pipeline pipeline;
+        private volatile Exception exception;
+
+        MergeRequestStatus(MergeRequest mergeRequest) {
+            this.mergeRequest = mergeRequest;
+        }
+
+        /**
+         * Get the merge request as it was listed.
+         *
+         * @return the merge request as it was listed
+         */
+        public MergeRequest getMergeRequest() {
+            return (mergeRequest);
+        }
+
+        /**
+         * Get the approval state of the merge request.
+         *
+         * @return the merge request holding the approval state, or null if it was not fetched
+         */
+        public MergeRequest getApprovals() {
+            return (approvals);
+        }
+
+        /**
+         * Get the latest pipeline of the merge request.
+         *
+         * @return the latest pipeline of the merge request, or null if it has none or it was not fetched
+         */
+        public Pipeline getPipeline() {
+            return (pipeline);
+        }
+
+        /**
+         * Get the exception that occurred while enriching the merge request, the values fetched before
+         * the exception occurred are still available.
+         *
+         * @return the exception that occurred while enriching the merge request, or null if none occurred
+         */
+        public Exception getException() {
+            return (exception);
+        }
+    }
+}
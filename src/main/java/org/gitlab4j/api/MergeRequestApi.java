@@ -1,5 +1,7 @@
 package org.gitlab4j.api;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -11,22 +13,31 @@ import javax.ws.rs.core.Response;
 
 import org.gitlab4j.api.GitLabApi.ApiVersion;
 import org.gitlab4j.api.models.Commit;
+import org.gitlab4j.api.models.Diff;
 import org.gitlab4j.api.models.Issue;
 import org.gitlab4j.api.models.MergeRequest;
 import org.gitlab4j.api.models.MergeRequestFilter;
 import org.gitlab4j.api.models.Participant;
+import org.gitlab4j.api.models.Pipeline;
+import org.gitlab4j.api.utils.JacksonJson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * This class implements the client side API for the GitLab merge request calls.
  */
 public class MergeRequestApi extends AbstractApi {
 
+    private static JacksonJson jacksonJson = new JacksonJson();
+    private static ObjectMapper mapper = jacksonJson.getObjectMapper();
+
     public MergeRequestApi(GitLabApi gitLabApi) {
         super(gitLabApi);
     }
 
     /**
-     * Get all merge requests matching the filter.
+     * Get all merge requests matching the filter. If the filter has a group ID and no project ID,
+     * the merge requests of the projects in the group are returned.
      *
      * <pre><code>GitLab Endpoint: GET /merge_requests</code></pre>
      *
@@ -39,7 +50,8 @@ public class MergeRequestApi extends AbstractApi {
     }
 
     /**
-     * Get all merge requests matching the filter.
+     * Get all merge requests matching the filter. If the filter has a group ID and no project ID,
+     * the merge requests of the projects in the group are returned.
      *
      * <pre><code>GitLab Endpoint: GET /merge_requests</code></pre>
      *
@@ -54,7 +66,9 @@ public class MergeRequestApi extends AbstractApi {
         MultivaluedMap<String, String> queryParams = (filter != null ?
             filter.getQueryParams(page, perPage).asMap() : getPageQueryParams(page, perPage));
         Response response;
-        if (filter != null && (filter.getProjectId() != null && filter.getProjectId().intValue() > 0) ||
+        if (isGroupFilter(filter)) {
+            response = get(Response.Status.OK, queryParams, "groups", filter.getGroupId(), "merge_requests");
+        } else if (filter != null && (filter.getProjectId() != null && filter.getProjectId().intValue() > 0) ||
                 (filter.getIids() != null && filter.getIids().size() > 0)) {
 
             if (filter.getProjectId() == null || filter.getProjectId().intValue() == 0) {
@@ -70,7 +84,8 @@ public class MergeRequestApi extends AbstractApi {
     }
 
     /**
-     * Get all merge requests matching the filter.
+     * Get all merge requests matching the filter. If the filter has a group ID and no project ID,
+     * the merge requests of the projects in the group are returned.
      *
      * <pre><code>GitLab Endpoint: GET /merge_requests</code></pre>
      *
@@ -82,7 +97,9 @@ public class MergeRequestApi extends AbstractApi {
     public Pager<MergeRequest> getMergeRequests(MergeRequestFilter filter, int itemsPerPage) throws GitLabApiException {
 
         MultivaluedMap<String, String> queryParams = (filter != null ? filter.getQueryParams().asMap() : null);
-        if (filter != null && (filter.getProjectId() != null && filter.getProjectId().intValue() > 0) ||
+        if (isGroupFilter(filter)) {
+            return (new Pager<MergeRequest>(this, MergeRequest.class, itemsPerPage, queryParams, "groups", filter.getGroupId(), "merge_requests"));
+        } else if (filter != null && (filter.getProjectId() != null && filter.getProjectId().intValue() > 0) ||
                 (filter.getIids() != null && filter.getIids().size() > 0)) {
 
             if (filter.getProjectId() == null || filter.getProjectId().intValue() == 0) {
@@ -764,6 +781,56 @@ public class MergeRequestApi extends AbstractApi {
         return (response.readEntity(MergeRequest.class));
     }
 
+    /**
+     * Get a Stream of the changes of a merge request. The changes are parsed one at a time as the Stream is
+     * consumed, so only a single file's diff is held in memory. The returned Stream should be closed to
+     * release the underlying connection.
+     *
+     * <pre><code>GitLab Endpoint: GET /projects/:id/merge_requests/:merge_request_iid/changes</code></pre>
+     *
+     * @param projectIdOrPath the project in the form of an Integer(ID), String(path), or Project instance
+     * @param mergeRequestIid the IID of the merge request to get the changes for
+     * @param pathGlob only changes whose old or new path match this glob are returned, the diff text of
+     *          other files is skipped without being bound, null returns all changes
+     * @return a Stream of the changes of the merge request
+     * @throws GitLabApiException if any exception occurs
+     */
+    public Stream<Diff> getMergeRequestChangesStream(Object projectIdOrPath, Integer mergeRequestIid, String pathGlob) throws GitLabApiException {
+
+        if (mergeRequestIid == null) {
+            throw new RuntimeException("mergeRequestIid cannot be null");
+        }
+
+        Response response = get(Response.Status.OK, null, "projects", getProjectIdOrPath(projectIdOrPath), "merge_requests", mergeRequestIid, "changes");
+        InputStream in = response.readEntity(InputStream.class);
+        try {
+            return (new DiffStreamReader(mapper, in, "changes", pathGlob).stream());
+        } catch (IOException ioe) {
+            response.close();
+            throw new GitLabApiException(ioe);
+        }
+    }
+
+    /**
+     * Get the pipelines of a merge request, the most recent pipeline first.
+     *
+     * <pre><code>GitLab Endpoint: GET /projects/:id/merge_requests/:merge_request_iid/pipelines</code></pre>
+     *
+     * @param projectIdOrPath the project in the form of an Integer(ID), String(path), or Project instance
+     * @param mergeRequestIid the IID of the merge request to get the pipelines for
+     * @return a List containing the pipelines of the merge request
+     * @throws GitLabApiException if any exception occurs
+     */
+    public List<Pipeline> getMergeRequestPipelines(Object projectIdOrPath, Integer mergeRequestIid) throws GitLabApiException {
+
+        if (mergeRequestIid == null) {
+            throw new RuntimeException("mergeRequestIid cannot be null");
+        }
+
+        Response response = get(Response.Status.OK, null, "projects", getProjectIdOrPath(projectIdOrPath), "merge_requests", mergeRequestIid, "pipelines");
+        return (response.readEntity(new GenericType<List<Pipeline>>() {}));
+    }
+
     /**
      * Get list of participants of merge request.
      *
@@ -887,4 +954,12 @@ public class MergeRequestApi extends AbstractApi {
     public Stream<Issue> getClosesIssuesStream(Object projectIdOrPath, Integer mergeRequestIid) throws GitLabApiException {
         return (getClosesIssues(projectIdOrPath, mergeRequestIid, getDefaultPerPage()).stream());
     }
+
+    /**
+     * Returns true if the filter selects the merge requests of a group rather than of a single project.
+     */
+    private boolean isGroupFilter(MergeRequestFilter filter) {
+        return (filter != null && filter.getGroupId() != null &&
+                (filter.getProjectId() == null || filter.getProjectId().intValue() == 0));
+    }
 }
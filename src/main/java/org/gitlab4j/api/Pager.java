@@ -6,6 +6,8 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -54,10 +56,13 @@ public class Pager<T> implements Iterator<List<T>>, Constants {
     private AbstractApi api;
     private MultivaluedMap<String, String> queryParams;
     private Object[] pathArgs;
+    private String route;
+    private final AtomicReference<GitLabApiTracer.Span> listSpan = new AtomicReference<>();
 
     private static JacksonJson jacksonJson = new JacksonJson();
     private static ObjectMapper mapper = jacksonJson.getObjectMapper();
     private JavaType javaType;
+    private Projection projection;
 
     /**
      * Creates a Pager instance to access the API through the specified path and query parameters.
@@ -70,7 +75,25 @@ public class Pager<T> implements Iterator<List<T>>, Constants {
      * @throws GitLabApiException if any error occurs
      */
     Pager(AbstractApi api, Class<T> type, int itemsPerPage, MultivaluedMap<String, String> queryParams, Object... pathArgs) throws GitLabApiException {
+        this(api, type, null, itemsPerPage, queryParams, pathArgs);
+    }
 
+    /**
+     * Creates a Pager instance to access the API through the specified path and query parameters, binding
+     * only the properties of the specified Projection into the items.
+     *
+     * @param api the AbstractApi implementation to communicate through
+     * @param type the GitLab4J type that will be contained in the List
+     * @param projection the Projection specifying the properties to bind, null to bind all properties
+     * @param itemsPerPage items per page
+     * @param queryParams HTTP query params
+     * @param pathArgs HTTP path arguments
+     * @throws GitLabApiException if any error occurs
+     */
+    Pager(AbstractApi api, Class<T> type, Projection projection, int itemsPerPage,
+            MultivaluedMap<String, String> queryParams, Object... pathArgs) throws GitLabApiException {
+
+        this.projection = projection;
         javaType = mapper.getTypeFactory().constructCollectionType(List.class, type);
 
         // Make sure the per_page parameter is present
@@ -85,11 +108,13 @@ public class Pager<T> implements Iterator<List<T>>, Constants {
         pageParam = new ArrayList<>();
         pageParam.add("1");
         queryParams.put(PAGE_PARAM, pageParam);
-        Response response = api.get(Response.Status.OK, queryParams, pathArgs);
 
+        this.api = api;
+        this.pathArgs = pathArgs;
+        Response response;
         try {
-            currentItems = mapper.readValue((InputStream) response.getEntity(), javaType);
-        } catch (Exception e) {
+            response = fetchPage(queryParams, 1);
+        } catch (IOException | RuntimeException e) {
             throw new GitLabApiException(e);
         }
 
@@ -97,10 +122,9 @@ public class Pager<T> implements Iterator<List<T>>, Constants {
             throw new GitLabApiException("Invalid response from from GitLab server");
         }
 
-        this.api = api;
         this.queryParams = queryParams;
-        this.pathArgs = pathArgs;
         this.itemsPerPage = getIntHeaderValue(response, PER_PAGE);
+        pageFetched(1);
 
         // Some API endpoints do not return the "X-Per-Page" header when there is only 1 page, check for that condition and act accordingly
         if (this.itemsPerPage == -1) {
@@ -128,6 +152,23 @@ public class Pager<T> implements Iterator<List<T>>, Constants {
         }
      }
 
+    /**
+     * Reads the items of a page from the Response instance, binding only the properties of the projection if set.
+     *
+     * @param response the Response instance to read the items from
+     * @return the items of the page
+     * @throws IOException if any error occurs
+     */
+    private List<T> readItems(Response response) throws IOException {
+
+        InputStream in = (InputStream) response.getEntity();
+        if (projection != null) {
+            return (projection.readValue(mapper, in, javaType));
+        }
+
+        return (mapper.readValue(in, javaType));
+    }
+
     /**
      * Get the specified header value from the Response instance.
      *
@@ -292,6 +333,153 @@ public class Pager<T> implements Iterator<List<T>>, Constants {
         return (page(currentPage));
     }
 
+    /**
+     * Fetches a page and reads its items into currentItems. If tracing is enabled the fetch is traced as
+     * a "page" span that is the parent of the HTTP request span, and the child of the "list" span that
+     * covers the whole iteration.
+     *
+     * @param queryParams the query params, including the page param
+     * @param pageNumber the number of the page being fetched
+     * @return the Response for the page
+     * @throws GitLabApiException if any error occurs
+     * @throws IOException if any error occurs while reading the items
+     */
+    private Response fetchPage(MultivaluedMap<String, String> queryParams, int pageNumber) throws GitLabApiException, IOException {
+
+        GitLabApiTracer.Span span = startPageSpan(pageNumber);
+        if (span == null) {
+            Response response = api.get(Response.Status.OK, queryParams, pathArgs);
+            currentItems = readItems(response);
+            return (response);
+        }
+
+        GitLabApiTracer.Span previous = GitLabApiTracingFilter.setParentSpan(span);
+        Exception error = null;
+        try {
+            Response response = api.get(Response.Status.OK, queryParams, pathArgs);
+            currentItems = readItems(response);
+            return (response);
+        } catch (GitLabApiException | IOException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            GitLabApiTracingFilter.setParentSpan(previous);
+            endSpan(span, error);
+            if (error != null) {
+                endListSpan(error);
+            }
+        }
+    }
+
+    /**
+     * Starts the span for fetching a page, and the "list" span it is a child of if the iteration has not
+     * started yet, if tracing is enabled.
+     *
+     * @param pageNumber the number of the page being fetched
+     * @return the started span, or null if tracing is not enabled
+     */
+    private GitLabApiTracer.Span startPageSpan(int pageNumber) {
+
+        GitLabApiClient apiClient = api.getApiClient();
+        GitLabApiTracer tracer = (apiClient != null ? apiClient.getTracer() : null);
+        if (tracer == null) {
+            return (null);
+        }
+
+        try {
+
+            GitLabApiTracer.Span list = listSpan.get();
+            if (list == null) {
+                list = tracer.startSpan("list " + getRoute(), null);
+                list.setAttribute(GitLabApiTracer.HTTP_ROUTE, getRoute());
+                listSpan.set(list);
+            }
+
+            GitLabApiTracer.Span span = tracer.startSpan("page " + getRoute(), list);
+            span.setAttribute(GitLabApiTracer.HTTP_ROUTE, getRoute());
+            span.setAttribute(GitLabApiTracer.PAGE_NUMBER, pageNumber);
+            return (span);
+
+        } catch (RuntimeException re) {
+            GitLabApi.getLogger().log(Level.FINE, "Starting a span failed", re);
+            return (null);
+        }
+    }
+
+    /**
+     * Ends the "list" span of the iteration, if any. Called when the last page has been returned, when
+     * fetching a page fails, and when a Stream created by this Pager is closed.
+     *
+     * @param error the error that caused the iteration to fail, or null
+     */
+    private void endListSpan(Exception error) {
+
+        GitLabApiTracer.Span list = listSpan.getAndSet(null);
+        if (list != null) {
+            endSpan(list, error);
+        }
+    }
+
+    /**
+     * Ends a span.
+     *
+     * @param span the span to end
+     * @param error the error that caused the traced operation to fail, or null
+     */
+    private void endSpan(GitLabApiTracer.Span span, Exception error) {
+
+        try {
+
+            if (error != null) {
+                span.setError(error);
+            }
+
+            span.end();
+
+        } catch (RuntimeException re) {
+            GitLabApi.getLogger().log(Level.FINE, "Ending a span failed", re);
+        }
+    }
+
+    /**
+     * Get the normalized route template of the endpoint this Pager is paging through.
+     *
+     * @return the normalized route template of the endpoint
+     */
+    private String getRoute() {
+
+        if (route == null) {
+            StringBuilder path = new StringBuilder();
+            for (Object pathArg : pathArgs) {
+                path.append('/').append(pathArg);
+            }
+
+            route = GitLabApiMetricsFilter.toRouteTemplate(path.toString());
+        }
+
+        return (route);
+    }
+
+    /**
+     * Notifies the GitLabApiMetrics instance, if any, that a page has been fetched.
+     *
+     * @param pageNumber the number of the page that was fetched
+     */
+    private void pageFetched(int pageNumber) {
+
+        GitLabApiClient apiClient = api.getApiClient();
+        GitLabApiMetrics metrics = (apiClient != null ? apiClient.getMetrics() : null);
+        if (metrics == null) {
+            return;
+        }
+
+        try {
+            metrics.pageFetched(getRoute(), pageNumber, currentItems.size());
+        } catch (RuntimeException re) {
+            GitLabApi.getLogger().log(Level.FINE, "GitLabApiMetrics.pageFetched() failed", re);
+        }
+    }
+
     /**
      * Returns the specified page of List.
      *
@@ -310,6 +498,10 @@ public class Pager<T> implements Iterator<List<T>>, Constants {
 
         if (currentPage == 0 && pageNumber == 1) {
             currentPage = 1;
+            if (!hasNext()) {
+                endListSpan(null);
+            }
+
             return (currentItems);
         }
 
@@ -320,14 +512,18 @@ public class Pager<T> implements Iterator<List<T>>, Constants {
         try {
 
             setPageParam(pageNumber);
-            Response response = api.get(Response.Status.OK, queryParams, pathArgs);
-            currentItems = mapper.readValue((InputStream) response.getEntity(), javaType);
+            Response response = fetchPage(queryParams, pageNumber);
             currentPage = pageNumber;
+            pageFetched(pageNumber);
 
             if (kaminariNextPage > 0) {
                 kaminariNextPage = getIntHeaderValue(response, NEXT_PAGE_HEADER);
             }
 
+            if (!hasNext()) {
+                endListSpan(null);
+            }
+
             return (currentItems);
 
         } catch (GitLabApiException | IOException e) {
@@ -407,7 +603,39 @@ public class Pager<T> implements Iterator<List<T>>, Constants {
                     // regardless of what page the instance is currently on.
                     currentPage = 0;
 
-                    pagerStream = StreamSupport.stream(new PagerSpliterator<T>(this), false);
+                    pagerStream = StreamSupport.stream(new PagerSpliterator<T>(this), false).onClose(() -> endListSpan(null));
+                    return (pagerStream);
+                }
+            }
+        }
+
+        throw new IllegalStateException("Stream already issued");
+    }
+
+    /**
+     * Creates a Stream instance for lazily streaming items from the GitLab server, fetching up to
+     * prefetchPages pages ahead of the consumer on a background thread. Closing the Stream stops
+     * the background fetching.
+     *
+     * @param prefetchPages the maximum number of pages to fetch ahead of the consumer
+     * @return a Stream instance for lazily streaming items from the GitLab server
+     * @throws IllegalStateException if Stream has already been issued
+     */
+    public Stream<T> lazyStream(int prefetchPages) throws IllegalStateException {
+
+        if (pagerStream == null) {
+            synchronized (this) {
+                if (pagerStream == null) {
+
+                    // Make sure that current page is 0, this will ensure the whole list is streamed
+                    // regardless of what page the instance is currently on.
+                    currentPage = 0;
+
+                    PrefetchingPagerSpliterator<T> spliterator = new PrefetchingPagerSpliterator<T>(this, prefetchPages);
+                    pagerStream = StreamSupport.stream(spliterator, false).onClose(() -> {
+                        spliterator.close();
+                        endListSpan(null);
+                    });
                     return (pagerStream);
                 }
             }
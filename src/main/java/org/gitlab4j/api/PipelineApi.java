@@ -1,5 +1,6 @@
 package org.gitlab4j.api;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -206,6 +207,51 @@ public class PipelineApi extends AbstractApi implements Constants {
                 "projects", getProjectIdOrPath(projectIdOrPath), "pipelines"));
     }
 
+    /**
+     * Get a list of the pipelines in a project updated after the specified date, in the specified page range.
+     * The pipelines are ordered by when they were last updated, most recently updated first.
+     *
+     * <pre><code>GitLab Endpoint: GET /projects/:id/pipelines?updated_after=:date&amp;order_by=updated_at&amp;sort=desc</code></pre>
+     *
+     * @param projectIdOrPath the project in the form of an Integer(ID), String(path), or Project instance
+     * @param updatedAfter only pipelines updated after this date are returned
+     * @param page the page to get
+     * @param perPage the number of Pipeline instances per page
+     * @return a list containing the pipelines updated after the specified date
+     * @throws GitLabApiException if any exception occurs during execution
+     */
+    public List<Pipeline> getPipelines(Object projectIdOrPath, Date updatedAfter, int page, int perPage) throws GitLabApiException {
+        GitLabApiForm formData = new GitLabApiForm()
+                .withParam("updated_after", updatedAfter, true)
+                .withParam("order_by", PipelineOrderBy.UPDATED_AT)
+                .withParam("sort", SortOrder.DESC)
+                .withParam(PAGE_PARAM, page)
+                .withParam(PER_PAGE_PARAM, perPage);
+        Response response = get(Response.Status.OK, formData.asMap(), "projects", getProjectIdOrPath(projectIdOrPath), "pipelines");
+        return (response.readEntity(new GenericType<List<Pipeline>>() {}));
+    }
+
+    /**
+     * Get a Pager of the pipelines in a project updated after the specified date. The pipelines are ordered
+     * by when they were last updated, most recently updated first.
+     *
+     * <pre><code>GitLab Endpoint: GET /projects/:id/pipelines?updated_after=:date&amp;order_by=updated_at&amp;sort=desc</code></pre>
+     *
+     * @param projectIdOrPath the project in the form of an Integer(ID), String(path), or Project instance
+     * @param updatedAfter only pipelines updated after this date are returned
+     * @param itemsPerPage the number of Pipeline instances that will be fetched per page
+     * @return a Pager containing the pipelines updated after the specified date
+     * @throws GitLabApiException if any exception occurs during execution
+     */
+    public Pager<Pipeline> getPipelines(Object projectIdOrPath, Date updatedAfter, int itemsPerPage) throws GitLabApiException {
+        GitLabApiForm formData = new GitLabApiForm()
+                .withParam("updated_after", updatedAfter, true)
+                .withParam("order_by", PipelineOrderBy.UPDATED_AT)
+                .withParam("sort", SortOrder.DESC);
+        return (new Pager<Pipeline>(this, Pipeline.class, itemsPerPage, formData.asMap(),
+                "projects", getProjectIdOrPath(projectIdOrPath), "pipelines"));
+    }
+
     /**
      * Get single pipelines in a project.
      *
@@ -0,0 +1,449 @@
+package org.gitlab4j.api;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import org.gitlab4j.api.models.Pipeline;
+import org.gitlab4j.api.models.PipelineStatus;
+import org.gitlab4j.api.utils.DaemonThreadFactory;
+
+/**
+ * <p>This class watches pipelines until they finish, without a thread per waiter. All watched pipelines are
+ * polled by a single scheduler on a small pool of daemon threads, and each watcher gets a CompletableFuture
+ * that completes with the pipeline when it reaches a final status (success, failed, canceled or skipped).
+ * A {@link PipelineListener} can also be notified of every status change along the way.</p>
+ *
+ * <p>The polling cadence adapts to the status of the pipelines: a project with a running pipeline is polled at
+ * the running interval, while projects whose pipelines are all pending or waiting on a manual action are polled
+ * at the slower pending interval. When several pipelines of the same project are watched, they are polled with
+ * a single list query for the pipelines updated since the previous poll, instead of one request per pipeline.
+ * If the GitLab server does not support the "updated_after" filter the pipelines are polled one at a time, and
+ * a poll also falls back to one request per pipeline when too many pipelines were updated since the previous one.</p>
+ *
+ * <p>Listeners are called on the scheduler threads and should return quickly.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   PipelineWatcher watcher = new PipelineWatcher(gitLabApi).withRunningInterval(5000);
+ *   watcher.watch(projectId, pipelineId, (pipeline, previous) -&gt; log(pipeline.getStatus()))
+ *       .thenAccept(pipeline -&gt; notifyFinished(pipeline));
+ * </pre>
+ */
+public class PipelineWatcher implements AutoCloseable {
+
+    // How far before the previous poll the "updated_after" filter reaches, to allow for clock skew with the server
+    private static final long CLOCK_SKEW_MARGIN_MILLIS = 30000;
+
+    private static final int BATCH_PAGE_SIZE = 100;
+
+    // The maximum number of pages of updated pipelines listed by a poll
+    private static final int MAX_BATCH_PAGES = 5;
+
+    private final GitLabApi gitLabApi;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, ProjectWatch> projects = new ConcurrentHashMap<>();
+
+    private volatile long runningIntervalMillis = 5000;
+    private volatile long pendingIntervalMillis = 30000;
+    private volatile int batchThreshold = 2;
+
+    /**
+     * Listener notified each time the status of a watched pipeline changes.
+     */
+    @FunctionalInterface
+    public interface PipelineListener {
+
+        /**
+         * Called when the status of a watched pipeline changes, including when its status is first read.
+         *
+         * @param pipeline the pipeline with its new status
+         * @param previousStatus the previous status of the pipeline, null when its status is first read
+         */
+        void onStatusChange(Pipeline pipeline, PipelineStatus previousStatus);
+    }
+
+    /**
+     * Create a PipelineWatcher that polls on 2 threads.
+     *
+     * @param gitLabApi the GitLabApi instance to poll with
+     */
+    public PipelineWatcher(GitLabApi gitLabApi) {
+        this(gitLabApi, 2);
+    }
+
+    /**
+     * Create a PipelineWatcher that polls on the specified number of threads.
+     *
+     * @param gitLabApi the GitLabApi instance to poll with
+     * @param threads the number of threads to poll on
+     */
+    public PipelineWatcher(GitLabApi gitLabApi, int threads) {
+
+        this.gitLabApi = gitLabApi;
+
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(Math.max(1, threads), new DaemonThreadFactory("gitlab4j-pipeline-watcher", true));
+        executor.setRemoveOnCancelPolicy(true);
+        scheduler = executor;
+    }
+
+    /**
+     * Set the interval between polls of a project with a running pipeline, defaults to 5 seconds.
+     *
+     * @param runningIntervalMillis the interval between polls in milliseconds
+     * @return this PipelineWatcher instance
+     */
+    public PipelineWatcher withRunningInterval(long runningIntervalMillis) {
+        this.runningIntervalMillis = Math.max(0, runningIntervalMillis);
+        return (this);
+    }
+
+    /**
+     * Set the interval between polls of a project whose pipelines are all pending or manual, defaults to 30 seconds.
+     *
+     * @param pendingIntervalMillis the interval between polls in milliseconds
+     * @return this PipelineWatcher instance
+     */
+    public PipelineWatcher withPendingInterval(long pendingIntervalMillis) {
+        this.pendingIntervalMillis = Math.max(0, pendingIntervalMillis);
+        return (this);
+    }
+
+    /**
+     * Set the number of watched pipelines of a project from which they are polled with a single list query,
+     * defaults to 2.
+     *
+     * @param batchThreshold the number of watched pipelines from which a list query is used
+     * @return this PipelineWatcher instance
+     */
+    public PipelineWatcher withBatchThreshold(int batchThreshold) {
+        this.batchThreshold = Math.max(1, batchThreshold);
+        return (this);
+    }
+
+    /**
+     * Watch a pipeline until it finishes.
+     *
+     * @param projectIdOrPath the project in the form of an Integer(ID), String(path), or Project instance
+     * @param pipelineId the ID of the pipeline to watch
+     * @return a CompletableFuture that completes with the pipeline when it finishes, cancelling it stops the watch
+     * @throws GitLabApiException if the project is not specified
+     */
+    public CompletableFuture<Pipeline> watch(Object projectIdOrPath, int pipelineId) throws GitLabApiException {
+        return (watch(projectIdOrPath, pipelineId, null));
+    }
+
+    /**
+     * Watch a pipeline until it finishes, notifying the listener of each status change.
+     *
+     * @param projectIdOrPath the project in the form of an Integer(ID), String(path), or Project instance
+     * @param pipelineId the ID of the pipeline to watch
+     * @param listener the listener to notify of each status change, may be null
+     * @return a CompletableFuture that completes with the pipeline when it finishes, cancelling it stops the watch
+     * @throws GitLabApiException if the project is not specified
+     */
+    public CompletableFuture<Pipeline> watch(Object projectIdOrPath, int pipelineId, PipelineListener listener) throws GitLabApiException {
+
+        if (scheduler.isShutdown()) {
+            throw new IllegalStateException("PipelineWatcher has been closed");
+        }
+
+        Object projectId = gitLabApi.getPipelineApi().getProjectIdOrPath(projectIdOrPath);
+        WatchedPipeline watched = new WatchedPipeline(pipelineId, listener);
+        projects.compute(String.valueOf(projectId), (key, project) -> {
+            if (project == null) {
+                project = new ProjectWatch(key, projectId);
+            }
+
+            project.add(watched);
+            return (project);
+        });
+
+        return (watched.future);
+    }
+
+    /**
+     * Get the number of pipelines currently being watched.
+     *
+     * @return the number of pipelines currently being watched
+     */
+    public int getWatchedCount() {
+
+        int count = 0;
+        for (ProjectWatch project : projects.values()) {
+            count += project.size();
+        }
+
+        return (count);
+    }
+
+    /**
+     * Stops polling, the futures of the pipelines still being watched are cancelled.
+     */
+    @Override
+    public void close() {
+
+        scheduler.shutdownNow();
+        for (ProjectWatch project : projects.values()) {
+            project.cancelAll();
+        }
+
+        projects.clear();
+    }
+
+    private long getInterval(PipelineStatus status) {
+        return (status == PipelineStatus.PENDING || status == PipelineStatus.MANUAL ? pendingIntervalMillis : runningIntervalMillis);
+    }
+
+    /**
+     * The watched pipelines of a single project, which are polled together.
+     */
+    private class ProjectWatch {
+
+        private final String key;
+        private final Object projectId;
+        private final List<WatchedPipeline> pipelines = new ArrayList<>();
+
+        private ScheduledFuture<?> scheduled;
+        private long scheduledAt;
+        private boolean polling;
+
+        // The time the previous poll of all pipelines started, used for the "updated_after" filter
+        private Date lastPollStart;
+        private boolean batchUnsupported;
+
+        ProjectWatch(String key, Object projectId) {
+            this.key = key;
+            this.projectId = projectId;
+        }
+
+        synchronized void add(WatchedPipeline watched) {
+            pipelines.add(watched);
+            schedule(0);
+        }
+
+        synchronized int size() {
+            return (pipelines.size());
+        }
+
+        synchronized void cancelAll() {
+            for (WatchedPipeline watched : pipelines) {
+                watched.future.cancel(false);
+            }
+
+            pipelines.clear();
+        }
+
+        /**
+         * Schedules the next poll, unless a poll is in progress or one is already scheduled sooner.
+         */
+        private void schedule(long delayMillis) {
+
+            if (polling || scheduler.isShutdown()) {
+                return;
+            }
+
+            long at = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+            if (scheduled != null) {
+                if (scheduledAt - at <= 0) {
+                    return;
+                }
+
+                scheduled.cancel(false);
+            }
+
+            scheduled = scheduler.schedule(this::poll, delayMillis, TimeUnit.MILLISECONDS);
+            scheduledAt = at;
+        }
+
+        private void poll() {
+
+            List<WatchedPipeline> snapshot;
+            boolean batch;
+            Date since;
+            synchronized (this) {
+                polling = true;
+                scheduled = null;
+                pipelines.removeIf(watched -> watched.future.isDone());
+                snapshot = new ArrayList<>(pipelines);
+
+                long synced = snapshot.stream().filter(watched -> watched.status != null).count();
+                batch = (!batchUnsupported && lastPollStart != null && synced >= batchThreshold);
+                since = (lastPollStart != null ? new Date(lastPollStart.getTime() - CLOCK_SKEW_MARGIN_MILLIS) : null);
+            }
+
+            Date pollStart = new Date();
+            boolean complete = true;
+            try {
+
+                Map<Integer, Pipeline> updates = new HashMap<>();
+                if (batch) {
+                    try {
+                        batch = listUpdated(since, snapshot, updates);
+                    } catch (GitLabApiException glae) {
+                        if (glae.getHttpStatus() != 400) {
+                            throw glae;
+                        }
+
+                        synchronized (this) {
+                            batchUnsupported = true;
+                        }
+
+                        batch = false;
+                    }
+                }
+
+                PipelineApi pipelineApi = gitLabApi.getPipelineApi();
+                for (WatchedPipeline watched : snapshot) {
+
+                    if (batch && watched.status != null) {
+                        continue;
+                    }
+
+                    if (!updates.containsKey(watched.pipelineId)) {
+                        try {
+                            updates.put(watched.pipelineId, pipelineApi.getPipeline(projectId, watched.pipelineId));
+                        } catch (GitLabApiException glae) {
+                            if (glae.getHttpStatus() == 404) {
+                                watched.future.completeExceptionally(glae);
+                            } else {
+                                complete = false;
+                                GitLabApi.getLogger().log(Level.FINE, "Failed to poll pipeline " + watched.pipelineId, glae);
+                            }
+                        }
+                    }
+                }
+
+                for (WatchedPipeline watched : snapshot) {
+                    Pipeline pipeline = updates.get(watched.pipelineId);
+                    if (pipeline != null) {
+                        watched.update(pipeline);
+                    }
+                }
+
+            } catch (Exception e) {
+                complete = false;
+                GitLabApi.getLogger().log(Level.FINE, "Failed to poll the pipelines of project " + projectId, e);
+            } finally {
+                finishPoll(complete ? pollStart : null);
+            }
+        }
+
+        /**
+         * Lists the pipelines updated since the previous poll, fetching the details of those that finished.
+         * Returns false if the listing could not cover all the updated pipelines, either because more than
+         * MAX_BATCH_PAGES pages were updated or because the server ignored the "updated_after" filter.
+         */
+        private boolean listUpdated(Date since, List<WatchedPipeline> snapshot, Map<Integer, Pipeline> updates) throws GitLabApiException {
+
+            Map<Integer, WatchedPipeline> watchedById = new HashMap<>();
+            for (WatchedPipeline watched : snapshot) {
+                watchedById.put(watched.pipelineId, watched);
+            }
+
+            PipelineApi pipelineApi = gitLabApi.getPipelineApi();
+            for (int page = 1; page <= MAX_BATCH_PAGES; page++) {
+
+                List<Pipeline> updated = pipelineApi.getPipelines(projectId, since, page, BATCH_PAGE_SIZE);
+                for (Pipeline pipeline : updated) {
+
+                    // The most recently updated come first, an older pipeline means the filter was ignored
+                    Date updatedAt = pipeline.getUpdated_at();
+                    if (updatedAt != null && updatedAt.before(since)) {
+                        synchronized (this) {
+                            batchUnsupported = true;
+                        }
+
+                        return (false);
+                    }
+
+                    WatchedPipeline watched = watchedById.get(pipeline.getId());
+                    if (watched != null && watched.status != null && pipeline.getStatus() != watched.status) {
+                        updates.put(pipeline.getId(), (pipeline.getStatus() != null && pipeline.getStatus().isFinished()) ?
+                                pipelineApi.getPipeline(projectId, pipeline.getId()) : pipeline);
+                    }
+                }
+
+                if (updated.size() < BATCH_PAGE_SIZE) {
+                    return (true);
+                }
+            }
+
+            return (false);
+        }
+
+        private void finishPoll(Date pollStart) {
+
+            boolean empty;
+            synchronized (this) {
+                polling = false;
+                if (pollStart != null) {
+                    lastPollStart = pollStart;
+                }
+
+                pipelines.removeIf(watched -> watched.future.isDone());
+                empty = pipelines.isEmpty();
+                if (!empty) {
+
+                    long delay = Long.MAX_VALUE;
+                    for (WatchedPipeline watched : pipelines) {
+                        delay = Math.min(delay, watched.status == null ? 0 : getInterval(watched.status));
+                    }
+
+                    // Back off to the running interval after a failed poll rather than retrying immediately
+                    schedule(pollStart == null ? Math.max(delay, runningIntervalMillis) : delay);
+                }
+            }
+
+            if (empty) {
+                projects.computeIfPresent(key, (k, project) -> (project.size() == 0 ? null : project));
+            }
+        }
+    }
+
+    /**
+     * A single watch of a pipeline, with the last status read for it.
+     */
+    private static class WatchedPipeline {
+
+        private final int pipelineId;
+        private final PipelineListener listener;
+        private final CompletableFuture<Pipeline> future = new CompletableFuture<>();
+        private volatile PipelineStatus status;
+
+        WatchedPipeline(int pipelineId, PipelineListener listener) {
+            this.pipelineId = pipelineId;
+            this.listener = listener;
+        }
+
+        void update(Pipeline pipeline) {
+
+            PipelineStatus previous = status;
+            PipelineStatus current = pipeline.getStatus();
+
+            // An unknown status is treated as running so the pipeline keeps being polled
+            status = (current != null ? current : PipelineStatus.RUNNING);
+            if (listener != null && (previous == null || current != previous)) {
+                try {
+                    listener.onStatusChange(pipeline, previous);
+                } catch (RuntimeException re) {
+                    GitLabApi.getLogger().log(Level.FINE, "PipelineListener.onStatusChange() failed", re);
+                }
+            }
+
+            if (current != null && current.isFinished()) {
+                future.complete(pipeline);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package org.gitlab4j.api;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.gitlab4j.api.utils.DaemonThreadFactory;
+
+/**
+ * A Spliterator that fetches pages from a Pager on a background thread, staying up to
+ * prefetchPages pages ahead of the consumer. This overlaps the network round trip for the
+ * next pages with the processing of the current page while keeping memory bounded.
+ *
+ * If the consumer does not take a page for idleTimeoutMillis while the queue is full, for
+ * example because the Stream was dropped without being closed, the background thread stops.
+ * A consumer that was merely slow then fetches the remaining pages on its own thread.
+ */
+class PrefetchingPagerSpliterator<T> implements Spliterator<T> {
+
+    /**
+     * The default time the background thread waits for the consumer to take a page before it stops.
+     */
+    static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 60000;
+
+    // Marks the end of the pages in the queue
+    private static final Object END = new Object();
+
+    // How often the background thread checks whether it should stop while the queue is full
+    private static final long OFFER_INTERVAL_MILLIS = 100;
+
+    private final Pager<T> pager;
+    private final BlockingQueue<Object> pages;
+    private final long idleTimeoutNanos;
+    private final Thread fetcher;
+
+    private volatile boolean closed;
+    private volatile boolean fetcherStopped;
+    private volatile long lastTakeNanos;
+
+    // The page, END or exception that the background thread could not hand over before it stopped
+    private volatile Object leftover;
+
+    private Iterator<T> elements = Collections.emptyIterator();
+    private boolean done;
+
+    PrefetchingPagerSpliterator(Pager<T> pager, int prefetchPages) {
+        this(pager, prefetchPages, DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    PrefetchingPagerSpliterator(Pager<T> pager, int prefetchPages, long idleTimeoutMillis) {
+
+        this.pager = pager;
+        this.pages = new ArrayBlockingQueue<>(Math.max(1, prefetchPages) + 1);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.lastTakeNanos = System.nanoTime();
+
+        fetcher = new DaemonThreadFactory("gitlab4j-pager-prefetch").newThread(this::fetchPages);
+        fetcher.start();
+    }
+
+    private void fetchPages() {
+
+        try {
+
+            while (!closed && pager.hasNext()) {
+                if (!handOver(pager.next())) {
+                    return;
+                }
+            }
+
+            handOver(END);
+
+        } catch (InterruptedException ie) {
+            // The stream was closed
+        } catch (RuntimeException re) {
+            try {
+                handOver(re);
+            } catch (InterruptedException ignore) {
+            }
+        } finally {
+            fetcherStopped = true;
+        }
+    }
+
+    /**
+     * Hands a page, END or exception over to the consumer, waiting while the queue is full.
+     *
+     * @return true if the item was queued, false if the stream was closed or the consumer stopped taking pages
+     */
+    private boolean handOver(Object item) throws InterruptedException {
+
+        while (!closed) {
+
+            if (pages.offer(item, OFFER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                return (true);
+            }
+
+            if (System.nanoTime() - lastTakeNanos > idleTimeoutNanos) {
+                leftover = item;
+                return (false);
+            }
+        }
+
+        return (false);
+    }
+
+    /**
+     * Returns true while the background thread is fetching pages.
+     *
+     * @return true while the background thread is fetching pages
+     */
+    boolean isFetching() {
+        return (!fetcherStopped);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean tryAdvance(Consumer<? super T> action) {
+
+        if (action == null) {
+            throw new NullPointerException("Action is null");
+        }
+
+        while (!elements.hasNext()) {
+
+            if (done) {
+                return (false);
+            }
+
+            Object page;
+            try {
+                page = takePage();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new RuntimeException(ie);
+            }
+
+            if (page == END) {
+                done = true;
+                return (false);
+            } else if (page instanceof RuntimeException) {
+                done = true;
+                throw (RuntimeException) page;
+            }
+
+            elements = ((List<T>) page).iterator();
+        }
+
+        action.accept(elements.next());
+        return (true);
+    }
+
+    private Object takePage() throws InterruptedException {
+
+        try {
+
+            while (true) {
+
+                Object page = pages.poll(OFFER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (page != null) {
+                    return (page);
+                }
+
+                // Once the background thread has stopped, drain what it queued and then fetch on this thread
+                if (fetcherStopped) {
+
+                    page = pages.poll();
+                    if (page != null) {
+                        return (page);
+                    }
+
+                    page = leftover;
+                    if (page != null) {
+                        leftover = null;
+                        return (page);
+                    }
+
+                    try {
+                        return (pager.hasNext() ? pager.next() : END);
+                    } catch (RuntimeException re) {
+                        return (re);
+                    }
+                }
+            }
+
+        } finally {
+            lastTakeNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Stops the background fetching of pages.
+     */
+    void close() {
+        done = true;
+        closed = true;
+        fetcher.interrupt();
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return (null);
+    }
+
+    @Override
+    public long estimateSize() {
+        int totalItems = pager.getTotalItems();
+        return (totalItems >= 0 ? totalItems : Long.MAX_VALUE);
+    }
+
+    @Override
+    public int characteristics() {
+        return (NONNULL);
+    }
+}
@@ -26,6 +26,8 @@ package org.gitlab4j.api;
 import java.io.File;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -59,6 +61,12 @@ import org.gitlab4j.api.models.Visibility;
  */
 public class ProjectApi extends AbstractApi implements Constants {
 
+    /** The properties of the simple project representation, returned when the "simple" param is true. */
+    static final List<String> SIMPLE_PROJECT_PROPERTIES = Collections.unmodifiableList(Arrays.asList(
+            "id", "description", "name", "name_with_namespace", "path", "path_with_namespace", "created_at",
+            "default_branch", "tag_list", "ssh_url_to_repo", "http_url_to_repo", "web_url", "readme_url",
+            "avatar_url", "star_count", "forks_count", "last_activity_at", "namespace"));
+
     public ProjectApi(GitLabApi gitLabApi) {
         super(gitLabApi);
     }
@@ -115,6 +123,60 @@ public class ProjectApi extends AbstractApi implements Constants {
        return (getProjects(getDefaultPerPage()).stream());
     }
 
+    /**
+     * Get a Pager of projects accessible by the authenticated user and matching the supplied filter.
+     *
+     * <pre><code>GET /projects</code></pre>
+     *
+     * @param filter the ProjectFilter instance holding the filter values for the query, may be null
+     * @param itemsPerPage the number of Project instances that will be fetched per page
+     * @return a Pager of projects accessible by the authenticated user and matching the supplied filter
+     * @throws GitLabApiException if any exception occurs
+     */
+    public Pager<Project> getProjects(ProjectFilter filter, int itemsPerPage) throws GitLabApiException {
+        GitLabApiForm formData = (filter != null ? filter.getQueryParams() : new GitLabApiForm());
+        return (new Pager<Project>(this, Project.class, itemsPerPage, formData.asMap(), "projects"));
+    }
+
+    /**
+     * Get a Pager of projects accessible by the authenticated user and matching the supplied filter, binding
+     * only the properties of the specified Projection into each Project. When all the projected properties are
+     * part of the simple project representation, and the filter does not specify otherwise, only the simple
+     * representation is requested from the server.
+     *
+     * <pre><code>GET /projects</code></pre>
+     *
+     * @param filter the ProjectFilter instance holding the filter values for the query, may be null
+     * @param projection the Projection specifying the properties to bind into each Project, null to bind all properties
+     * @param itemsPerPage the number of Project instances that will be fetched per page
+     * @return a Pager of projects accessible by the authenticated user and matching the supplied filter
+     * @throws GitLabApiException if any exception occurs
+     */
+    public Pager<Project> getProjects(ProjectFilter filter, Projection projection, int itemsPerPage) throws GitLabApiException {
+
+        GitLabApiForm formData = (filter != null ? filter.getQueryParams() : new GitLabApiForm());
+        if (projection != null && !formData.asMap().containsKey("simple") && projection.isCoveredBy(SIMPLE_PROJECT_PROPERTIES)) {
+            formData.withParam("simple", true);
+        }
+
+        return (new Pager<Project>(this, Project.class, projection, itemsPerPage, formData.asMap(), "projects"));
+    }
+
+    /**
+     * Get a Stream of projects accessible by the authenticated user and matching the supplied filter, binding
+     * only the properties of the specified Projection into each Project.
+     *
+     * <pre><code>GET /projects</code></pre>
+     *
+     * @param filter the ProjectFilter instance holding the filter values for the query, may be null
+     * @param projection the Projection specifying the properties to bind into each Project, null to bind all properties
+     * @return a Stream of projects accessible by the authenticated user and matching the supplied filter
+     * @throws GitLabApiException if any exception occurs
+     */
+    public Stream<Project> getProjectsStream(ProjectFilter filter, Projection projection) throws GitLabApiException {
+        return (getProjects(filter, projection, getDefaultPerPage()).stream());
+    }
+
     /**
      * Get a list of projects accessible by the authenticated user and matching the supplied filter parameters.
      * All filter parameters are optional.
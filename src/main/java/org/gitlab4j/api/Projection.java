@@ -0,0 +1,238 @@
+package org.gitlab4j.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * <p>This class specifies the JSON properties to bind when reading GitLab4J model instances. All other properties
+ * are skipped with {@link JsonParser#skipChildren()} as they are parsed, so unneeded subtrees such as a project's
+ * namespace, owner, permissions and statistics are never bound into objects.</p>
+ *
+ * <p>Properties are specified by their JSON names, nested properties are specified with a dotted path, for
+ * example "namespace.full_path" binds only the full_path of the namespace.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   Stream&lt;Project&gt; projects = gitLabApi.getProjectApi().getProjectsStream(null,
+ *       Projection.of("id", "path_with_namespace", "last_activity_at"));
+ * </pre>
+ */
+public class Projection {
+
+    private final Set<String> properties;
+    private final Node root;
+
+    private Projection(Set<String> properties) {
+
+        this.properties = Collections.unmodifiableSet(properties);
+        root = new Node();
+        for (String property : properties) {
+
+            Node node = root;
+            for (String name : property.split("\\.")) {
+
+                node = node.children.computeIfAbsent(name, n -> new Node());
+
+                // A parent that is included as a whole, such as "namespace" along with "namespace.id", includes the subtree
+                if (node.includeAll) {
+                    break;
+                }
+            }
+
+            node.includeAll = true;
+        }
+
+        root.collapse();
+    }
+
+    /**
+     * Create a Projection that binds only the specified JSON properties.
+     *
+     * @param properties the JSON names of the properties to bind, nested properties are specified with a dotted path
+     * @return a Projection that binds only the specified JSON properties
+     */
+    public static Projection of(String... properties) {
+
+        if (properties == null || properties.length == 0) {
+            throw new IllegalArgumentException("properties cannot be empty");
+        }
+
+        Set<String> propertySet = new LinkedHashSet<>();
+        for (String property : properties) {
+            if (property == null || property.trim().isEmpty()) {
+                throw new IllegalArgumentException("properties cannot contain an empty property");
+            }
+
+            propertySet.add(property.trim());
+        }
+
+        return (new Projection(propertySet));
+    }
+
+    /**
+     * Get the JSON properties bound by this Projection.
+     *
+     * @return the JSON properties bound by this Projection
+     */
+    public Set<String> getProperties() {
+        return (properties);
+    }
+
+    /**
+     * Returns true if all top level properties of this Projection are contained in the specified properties,
+     * used to decide whether the simple representation of a resource is sufficient.
+     *
+     * @param availableProperties the top level properties that are available
+     * @return true if all top level properties of this Projection are contained in the specified properties
+     */
+    public boolean isCoveredBy(Collection<String> availableProperties) {
+        return (availableProperties.containsAll(root.children.keySet()));
+    }
+
+    /**
+     * Reads a value of the specified type from the input stream, binding only the properties of this Projection.
+     *
+     * @param <T> the type of the value
+     * @param mapper the ObjectMapper to read the value with
+     * @param in the input stream to read the JSON from
+     * @param type the type of the value, for a list the projection applies to each element
+     * @return the value read from the input stream
+     * @throws IOException if any error occurs
+     */
+    public <T> T readValue(ObjectMapper mapper, InputStream in, JavaType type) throws IOException {
+        try (JsonParser parser = createParser(mapper.getFactory().createParser(in))) {
+            return (mapper.readValue(parser, type));
+        }
+    }
+
+    /**
+     * Wraps a JsonParser so that only the properties of this Projection are returned by it.
+     *
+     * @param parser the JsonParser to wrap
+     * @return a JsonParser returning only the properties of this Projection
+     */
+    public JsonParser createParser(JsonParser parser) {
+        return (new ProjectingParser(parser, root));
+    }
+
+    /**
+     * A node of the property tree, once collapsed a child including all its properties is represented by null.
+     */
+    private static class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private boolean includeAll;
+
+        private void collapse() {
+            for (Map.Entry<String, Node> child : children.entrySet()) {
+                Node node = child.getValue();
+                if (node != null && node.includeAll) {
+                    child.setValue(null);
+                } else if (node != null) {
+                    node.collapse();
+                }
+            }
+        }
+    }
+
+    /**
+     * A JsonParser that skips the properties that are not part of the projection. Each open object or array has
+     * the projection node that applies to it on a stack, objects in an array get the node of the array.
+     */
+    private static class ProjectingParser extends JsonParserDelegate {
+
+        private final Node root;
+        private final Deque<Node> stack = new ArrayDeque<>();
+        private Node pending;
+        private boolean pendingSet;
+
+        // ArrayDeque does not allow null elements, so nodes including all properties are pushed as this marker
+        private static final Node INCLUDE_ALL = new Node();
+
+        ProjectingParser(JsonParser parser, Node root) {
+            super(parser);
+            this.root = root;
+        }
+
+        @Override
+        public JsonToken nextToken() throws IOException {
+
+            JsonToken token = delegate.nextToken();
+            while (token == JsonToken.FIELD_NAME) {
+
+                Node current = stack.peek();
+                if (current == null || current == INCLUDE_ALL) {
+                    pending = INCLUDE_ALL;
+                    pendingSet = true;
+                    return (token);
+                }
+
+                String name = delegate.getCurrentName();
+                if (current.children.containsKey(name)) {
+                    Node child = current.children.get(name);
+                    pending = (child != null ? child : INCLUDE_ALL);
+                    pendingSet = true;
+                    return (token);
+                }
+
+                // Skip the value of a property that is not part of the projection
+                delegate.nextToken();
+                delegate.skipChildren();
+                token = delegate.nextToken();
+            }
+
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                stack.push(nodeForValue());
+            } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                stack.poll();
+            }
+
+            pendingSet = false;
+            return (token);
+        }
+
+        @Override
+        public JsonToken nextValue() throws IOException {
+            JsonToken token = nextToken();
+            return (token == JsonToken.FIELD_NAME ? nextToken() : token);
+        }
+
+        @Override
+        public JsonParser skipChildren() throws IOException {
+
+            JsonToken token = delegate.getCurrentToken();
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                delegate.skipChildren();
+                stack.poll();
+            }
+
+            return (this);
+        }
+
+        private Node nodeForValue() {
+
+            if (pendingSet) {
+                return (pending);
+            }
+
+            // The root value, or an element of an array which gets the node of the array
+            Node parent = stack.peek();
+            return (parent != null ? parent : root);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package org.gitlab4j.api;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.Response;
+
+import org.gitlab4j.api.Constants.TokenType;
+import org.gitlab4j.api.models.HealthCheckInfo;
+import org.gitlab4j.api.models.HealthCheckItem;
+import org.gitlab4j.api.models.HealthCheckStatus;
+import org.gitlab4j.api.utils.DaemonThreadFactory;
+
+/**
+ * <p>This class routes the read-only (GET and HEAD) requests of a GitLabApi instance across a pool of read
+ * nodes, such as GitLab Geo secondaries, while all other requests continue to go to the primary.</p>
+ *
+ * <p>Each read request is sent to the healthy read node selected by the configured {@link Balancing}
+ * strategy. A read node that fails to respond, or responds with a 502, 503 or 504, is retried on the
+ * primary, and after repeated failures the node is taken out of rotation. Nodes out of rotation are
+ * probed with the readiness health check (see {@link HealthCheckApi#getReadiness()}) and put back into
+ * rotation once they report ready.</p>
+ *
+ * <p>Note that read nodes may lag behind the primary, so a read that must observe a preceding write
+ * should be made with a GitLabApi instance that does not use a ReadReplicaRouter.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   GitLabApi gitLabApi = new GitLabApi("https://primary.example.com", token);
+ *   gitLabApi.setReadReplicaRouter(new ReadReplicaRouter(Arrays.asList("https://geo1.example.com", "https://geo2.example.com"))
+ *       .withBalancing(ReadReplicaRouter.Balancing.LATENCY_WEIGHTED));
+ * </pre>
+ */
+public class ReadReplicaRouter implements AutoCloseable {
+
+    /** The strategy used to select the read node for a request. */
+    public enum Balancing {
+
+        /** Select the node with the fewest requests in flight, breaking ties by latency. */
+        LEAST_OUTSTANDING,
+
+        /** Select the node with the lowest average latency weighted by the number of requests in flight. */
+        LATENCY_WEIGHTED
+    }
+
+    // The weight of the latest latency sample in the moving average
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final List<Node> nodes;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    private Balancing balancing = Balancing.LEAST_OUTSTANDING;
+    private int failureThreshold = 3;
+    private long healthCheckIntervalMillis = 10000;
+    private ScheduledExecutorService healthChecker;
+    private int users;
+
+    /**
+     * Create a ReadReplicaRouter for the specified read nodes.
+     *
+     * @param readNodeUrls the server URLs of the read nodes, Ex. https://geo1.example.com
+     */
+    public ReadReplicaRouter(List<String> readNodeUrls) {
+
+        if (readNodeUrls == null || readNodeUrls.isEmpty()) {
+            throw new IllegalArgumentException("readNodeUrls cannot be empty");
+        }
+
+        List<Node> readNodes = new ArrayList<>(readNodeUrls.size());
+        for (String url : readNodeUrls) {
+            readNodes.add(new Node(url.endsWith("/") ? url.replaceAll("/+$", "") : url));
+        }
+
+        this.nodes = Collections.unmodifiableList(readNodes);
+    }
+
+    /**
+     * Set the strategy used to select the read node for a request, defaults to LEAST_OUTSTANDING.
+     *
+     * @param balancing the strategy used to select the read node for a request
+     * @return this ReadReplicaRouter instance
+     */
+    public ReadReplicaRouter withBalancing(Balancing balancing) {
+        this.balancing = balancing;
+        return (this);
+    }
+
+    /**
+     * Set the number of consecutive failures after which a read node is taken out of rotation, defaults to 3.
+     *
+     * @param failureThreshold the number of consecutive failures after which a read node is taken out of rotation
+     * @return this ReadReplicaRouter instance
+     */
+    public ReadReplicaRouter withFailureThreshold(int failureThreshold) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        return (this);
+    }
+
+    /**
+     * Set the interval between readiness health checks of the read nodes, defaults to 10 seconds. When
+     * set to 0, or the readiness endpoint is not accessible, a node out of rotation is tried again after
+     * 30 seconds.
+     *
+     * @param healthCheckIntervalMillis the interval between health checks in milliseconds, 0 to disable health checks
+     * @return this ReadReplicaRouter instance
+     */
+    public ReadReplicaRouter withHealthCheckInterval(long healthCheckIntervalMillis) {
+        this.healthCheckIntervalMillis = Math.max(0, healthCheckIntervalMillis);
+        return (this);
+    }
+
+    /**
+     * Get the server URLs of the read nodes that are currently in rotation.
+     *
+     * @return the server URLs of the read nodes that are currently in rotation
+     */
+    public List<String> getHealthyNodes() {
+
+        List<String> healthyNodes = new ArrayList<>();
+        for (Node node : nodes) {
+            if (node.healthy) {
+                healthyNodes.add(node.url);
+            }
+        }
+
+        return (healthyNodes);
+    }
+
+    /**
+     * Stops the health checks of the read nodes, regardless of the GitLabApi instances still using this router.
+     */
+    @Override
+    public synchronized void close() {
+
+        users = 0;
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+            healthChecker = null;
+        }
+
+        // Without health checks a node out of rotation must be tried again after the cool down period
+        for (Node node : nodes) {
+            node.healthChecked = false;
+        }
+    }
+
+    /**
+     * Registers a GitLabApiClient that routes its reads through this router, starting the health checks of
+     * the read nodes with the specified token if they are not already running.
+     *
+     * @param tokenType the type of the token
+     * @param authToken the token to authenticate the health checks with
+     */
+    synchronized void acquire(TokenType tokenType, String authToken) {
+
+        users++;
+        if (healthChecker != null || healthCheckIntervalMillis == 0) {
+            return;
+        }
+
+        for (Node node : nodes) {
+            node.healthCheckApi = new GitLabApi(node.url, tokenType, authToken).getHealthCheckApi();
+        }
+
+        healthChecker = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("gitlab4j-read-replica-health"));
+
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, healthCheckIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Unregisters a GitLabApiClient that no longer routes its reads through this router, stopping the
+     * health checks once no GitLabApiClient is using the router.
+     */
+    synchronized void release() {
+        if (users > 0 && --users == 0) {
+            close();
+        }
+    }
+
+    private void checkHealth() {
+        for (Node node : nodes) {
+            try {
+                node.checkHealth();
+            } catch (RuntimeException re) {
+                GitLabApi.getLogger().log(Level.FINE, "Health check of " + node.url + " failed", re);
+            }
+        }
+    }
+
+    /**
+     * Performs a read request on a read node, falling back to the primary if no read node is in
+     * rotation or the selected read node fails.
+     *
+     * @param primaryBaseUrl the server URL of the primary
+     * @param url the URL of the request on the primary
+     * @param call the function that performs the request for a URL
+     * @return the Response for the request
+     */
+    Response execute(String primaryBaseUrl, URL url, Function<URL, Response> call) {
+
+        String primaryUrl = url.toExternalForm();
+        Node node = (primaryUrl.startsWith(primaryBaseUrl) ? select() : null);
+        if (node == null) {
+            return (call.apply(url));
+        }
+
+        URL nodeUrl;
+        try {
+            nodeUrl = new URL(node.url + primaryUrl.substring(primaryBaseUrl.length()));
+        } catch (MalformedURLException mue) {
+            return (call.apply(url));
+        }
+
+        node.outstanding.incrementAndGet();
+        long startTime = System.nanoTime();
+        try {
+
+            Response response = call.apply(nodeUrl);
+            int status = response.getStatus();
+            if (status == 502 || status == 503 || status == 504) {
+                response.close();
+                node.failed();
+                return (GitLabApiClient.retry(() -> call.apply(url)));
+            }
+
+            node.succeeded(System.nanoTime() - startTime);
+            return (response);
+
+        } catch (ProcessingException pe) {
+            GitLabApi.getLogger().log(Level.FINE, "Read from " + node.url + " failed, retrying on the primary", pe);
+            node.failed();
+            return (GitLabApiClient.retry(() -> call.apply(url)));
+        } finally {
+            node.outstanding.decrementAndGet();
+        }
+    }
+
+    /**
+     * Selects the read node for a request.
+     *
+     * @return the read node for a request, or null if no read node is in rotation
+     */
+    Node select() {
+
+        long now = System.currentTimeMillis();
+        int size = nodes.size();
+        int start = Math.floorMod(nextIndex.getAndIncrement(), size);
+
+        Node best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+
+            Node node = nodes.get((start + i) % size);
+            if (!node.isAvailable(now)) {
+                continue;
+            }
+
+            int outstanding = node.outstanding.get();
+            double score = (balancing == Balancing.LATENCY_WEIGHTED ?
+                    node.latencyNanos * (outstanding + 1) :
+                    outstanding + node.latencyNanos / (node.latencyNanos + 1e9));
+            if (best == null || score < bestScore) {
+                best = node;
+                bestScore = score;
+            }
+        }
+
+        return (best);
+    }
+
+    /**
+     * The state of a single read node.
+     */
+    class Node {
+
+        final String url;
+        final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile double latencyNanos;
+        private volatile boolean healthy = true;
+        private volatile long unhealthySince;
+        private volatile boolean healthChecked;
+        private HealthCheckApi healthCheckApi;
+
+        Node(String url) {
+            this.url = url;
+        }
+
+        boolean isAvailable(long now) {
+
+            if (healthy) {
+                return (true);
+            }
+
+            // Without health checks, give the node another chance after a cool down period
+            return (!healthChecked && now - unhealthySince > 30000);
+        }
+
+        void succeeded(long elapsedNanos) {
+
+            consecutiveFailures.set(0);
+            healthy = true;
+            double latency = latencyNanos;
+            latencyNanos = (latency == 0 ? elapsedNanos : latency + LATENCY_SMOOTHING * (elapsedNanos - latency));
+        }
+
+        void failed() {
+            if (consecutiveFailures.incrementAndGet() >= failureThreshold && healthy) {
+                healthy = false;
+                unhealthySince = System.currentTimeMillis();
+                GitLabApi.getLogger().log(Level.WARNING, "Read node " + url + " has been taken out of rotation");
+            }
+        }
+
+        void checkHealth() {
+
+            boolean ready;
+            try {
+                ready = isReady(healthCheckApi.getReadiness());
+            } catch (GitLabApiException glae) {
+
+                // A 4xx means the readiness endpoint is not accessible to this client, rely on request failures only
+                if (glae.getHttpStatus() >= 400 && glae.getHttpStatus() < 500) {
+                    healthChecked = false;
+                    return;
+                }
+
+                ready = false;
+            }
+
+            healthChecked = true;
+            if (ready && !healthy) {
+                consecutiveFailures.set(0);
+                healthy = true;
+                GitLabApi.getLogger().log(Level.INFO, "Read node " + url + " has been put back into rotation");
+            } else if (!ready && healthy) {
+                healthy = false;
+                unhealthySince = System.currentTimeMillis();
+                GitLabApi.getLogger().log(Level.WARNING, "Read node " + url + " is not ready and has been taken out of rotation");
+            }
+        }
+
+        private boolean isReady(HealthCheckInfo info) {
+
+            if (info == null) {
+                return (false);
+            }
+
+            HealthCheckItem[] items = { info.getDbCheck(), info.getRedisCheck(), info.getCacheCheck(),
+                    info.getQueuesCheck(), info.getSharedStateCheck(), info.getFsShardsCheck(), info.getGitalyCheck() };
+            for (HealthCheckItem item : items) {
+                if (item != null && item.getStatus() == HealthCheckStatus.FAILED) {
+                    return (false);
+                }
+            }
+
+            return (true);
+        }
+    }
+}
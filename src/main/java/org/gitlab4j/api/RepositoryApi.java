@@ -19,15 +19,23 @@ import org.gitlab4j.api.models.Branch;
 import org.gitlab4j.api.models.Commit;
 import org.gitlab4j.api.models.CompareResults;
 import org.gitlab4j.api.models.Contributor;
+import org.gitlab4j.api.models.Diff;
 import org.gitlab4j.api.models.Tag;
 import org.gitlab4j.api.models.TreeItem;
+import org.gitlab4j.api.utils.BlobCache;
 import org.gitlab4j.api.utils.FileUtils;
+import org.gitlab4j.api.utils.JacksonJson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * This class provides an entry point to all the GitLab API repository calls.
  */
 public class RepositoryApi extends AbstractApi {
 
+    private static JacksonJson jacksonJson = new JacksonJson();
+    private static ObjectMapper mapper = jacksonJson.getObjectMapper();
+
     public RepositoryApi(GitLabApi gitLabApi) {
         super(gitLabApi);
     }
@@ -489,20 +497,60 @@ public class RepositoryApi extends AbstractApi {
         return (getTree(projectIdOrPath, filePath, refName, recursive, getDefaultPerPage()).stream());
     }
 
+    /**
+     * Get a RepositoryTreeWalker that walks the repository tree of a project, handing each file and
+     * directory to a consumer as soon as it is fetched.
+     *
+     * <pre><code>GitLab Endpoint: GET /projects/:id/repository/tree</code></pre>
+     *
+     * @param projectIdOrPath the project in the form of an Integer(ID), String(path), or Project instance
+     * @param refName the name of a repository branch or tag or if not given the default branch
+     * @return a RepositoryTreeWalker for the project tree at the specified ref
+     */
+    public RepositoryTreeWalker getTreeWalker(Object projectIdOrPath, String refName) {
+        return (new RepositoryTreeWalker(this, projectIdOrPath, refName));
+    }
+
     /**
      * Get the raw file contents for a blob by blob SHA.
      *
      * <pre><code>GitLab Endpoint: GET /projects/:id/repository/raw_blobs/:sha</code></pre>
      *
+     * <p>If a BlobCache has been set on the GitLabApi instance, the content will be served from the cache
+     * when present, otherwise it is fetched and added to the cache. As the cache is keyed by SHA only and
+     * may be shared, access to the blob is first checked with a HEAD request before serving cached content.</p>
+     *
      * @param projectIdOrPath the project in the form of an Integer(ID), String(path), or Project instance
      * @param sha the SHA of the file to get the contents for
      * @return the raw file contents for the blob on an InputStream
      * @throws GitLabApiException if any exception occurs
      */
     public InputStream getRawBlobContent(Object projectIdOrPath, String sha) throws GitLabApiException {
-        Response response = getWithAccepts(Response.Status.OK, null, MediaType.MEDIA_TYPE_WILDCARD,
-                "projects", getProjectIdOrPath(projectIdOrPath), "repository", "blobs", sha, "raw");
-        return (response.readEntity(InputStream.class));
+
+        BlobCache blobCache = getBlobCache();
+        if (blobCache == null) {
+            Response response = getWithAccepts(Response.Status.OK, null, MediaType.MEDIA_TYPE_WILDCARD,
+                    "projects", getProjectIdOrPath(projectIdOrPath), "repository", "blobs", sha, "raw");
+            return (response.readEntity(InputStream.class));
+        }
+
+        try {
+
+            InputStream cached = blobCache.getInputStream(sha);
+            if (cached != null) {
+                head(Response.Status.OK, null, "projects", getProjectIdOrPath(projectIdOrPath), "repository", "blobs", sha, "raw").close();
+                return (cached);
+            }
+
+            Response response = getWithAccepts(Response.Status.OK, null, MediaType.MEDIA_TYPE_WILDCARD,
+                    "projects", getProjectIdOrPath(projectIdOrPath), "repository", "blobs", sha, "raw");
+            try (InputStream in = response.readEntity(InputStream.class)) {
+                return (BlobCache.newInputStream(blobCache.put(sha, in)));
+            }
+
+        } catch (IOException ioe) {
+            throw new GitLabApiException(ioe);
+        }
     }
 
     /**
@@ -705,6 +753,42 @@ public class RepositoryApi extends AbstractApi {
         return (compare(projectIdOrPath, from, to, false));
     }
 
+    /**
+     * Compare branches, tags or commits, returning a Stream of the diffs of the comparison. The diffs are parsed
+     * one at a time as the Stream is consumed, so only a single file's diff is held in memory. The returned
+     * Stream should be closed to release the underlying connection.
+     *
+     * <pre><code>GitLab Endpoint: GET /projects/:id/repository/compare</code></pre>
+     *
+     * @param projectIdOrPath the project in the form of an Integer(ID), String(path), or Project instance
+     * @param from the commit SHA or branch name
+     * @param to the commit SHA or branch name
+     * @param straight specifies the comparison method, true for direct comparison between from and to (from..to),
+     *          false to compare using merge base (from…to)’.
+     * @param pathGlob only diffs whose old or new path match this glob are returned, the diff text of
+     *          other files is skipped without being bound, null returns all diffs
+     * @return a Stream of the diffs of the comparison
+     * @throws GitLabApiException if any exception occurs
+     */
+    public Stream<Diff> getCompareDiffsStream(Object projectIdOrPath, String from, String to,
+            boolean straight, String pathGlob) throws GitLabApiException {
+
+        Form formData = new GitLabApiForm()
+                .withParam("from", from, true)
+                .withParam("to", to, true)
+                .withParam("straight", straight);
+        Response response = get(Response.Status.OK, formData.asMap(), "projects",
+                getProjectIdOrPath(projectIdOrPath), "repository", "compare");
+
+        InputStream in = response.readEntity(InputStream.class);
+        try {
+            return (new DiffStreamReader(mapper, in, "diffs", pathGlob).stream());
+        } catch (IOException ioe) {
+            response.close();
+            throw new GitLabApiException(ioe);
+        }
+    }
+
     /**
      * Get a list of contributors from a project.
      *
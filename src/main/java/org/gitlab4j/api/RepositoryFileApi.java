@@ -3,9 +3,21 @@ package org.gitlab4j.api;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.ws.rs.core.Form;
 import javax.ws.rs.core.MediaType;
@@ -13,6 +25,16 @@ import javax.ws.rs.core.Response;
 
 import org.gitlab4j.api.GitLabApi.ApiVersion;
 import org.gitlab4j.api.models.RepositoryFile;
+import org.gitlab4j.api.utils.BlobCache;
+import org.gitlab4j.api.utils.DaemonThreadFactory;
+import org.gitlab4j.api.utils.FileContentStreamingOutput;
+import org.gitlab4j.api.utils.JacksonJson;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
  * This class provides an entry point to all the GitLab API repository files calls.
@@ -20,6 +42,9 @@ import org.gitlab4j.api.models.RepositoryFile;
  */
 public class RepositoryFileApi extends AbstractApi {
 
+    private static JacksonJson jacksonJson = new JacksonJson();
+    private static ObjectMapper mapper = jacksonJson.getObjectMapper();
+
     public RepositoryFileApi(GitLabApi gitLabApi) {
         super(gitLabApi);
     }
@@ -148,6 +173,10 @@ public class RepositoryFileApi extends AbstractApi {
      *
      * <pre><code>GitLab Endpoint: GET /projects/:id/repository/files</code></pre>
      *
+     * <p>If a BlobCache has been set on the GitLabApi instance, the file info is fetched with a HEAD request
+     * and the content is served from the cache by blob ID when present, otherwise the content is fetched
+     * and added to the cache.</p>
+     *
      * @param projectIdOrPath the id, path of the project, or a Project instance holding the project ID or path
      * @param filePath (required) - Full path to the file. Ex. lib/class.rb
      * @param ref (required) - The name of branch, tag or commit
@@ -161,12 +190,121 @@ public class RepositoryFileApi extends AbstractApi {
             return (getFileInfo(projectIdOrPath, filePath, ref));
         }
 
+        BlobCache blobCache = getBlobCache();
+        if (blobCache == null) {
+            return (fetchFile(projectIdOrPath, filePath, ref));
+        }
+
+        try {
+
+            RepositoryFile file = getFileInfo(projectIdOrPath, filePath, ref);
+            byte[] content = blobCache.getBytes(file.getBlobId());
+            if (content != null) {
+                file.encodeAndSetContent(content);
+                return (file);
+            }
+
+            file = fetchFile(projectIdOrPath, filePath, ref);
+            content = file.getDecodedContentAsBytes();
+            if (file.getBlobId() != null && content != null) {
+                blobCache.put(file.getBlobId(), content);
+            }
+
+            return (file);
+
+        } catch (IOException ioe) {
+            throw new GitLabApiException(ioe);
+        }
+    }
+
+    private RepositoryFile fetchFile(Object projectIdOrPath, String filePath, String ref) throws GitLabApiException {
         Form form = new Form();
         addFormParam(form, "ref", ref, true);
         Response response = get(Response.Status.OK, form.asMap(), "projects", getProjectIdOrPath(projectIdOrPath), "repository", "files", urlEncode(filePath));
         return (response.readEntity(RepositoryFile.class));
     }
 
+    /**
+     * Get file from repository, writing the decoded file content to the specified Path. The response is
+     * parsed as it is read and the Base64 encoded content is decoded directly to the target file, so the
+     * content is never held in memory. If the content precedes the encoding in the response it is spooled
+     * to a temporary file next to the target and decoded from there. The returned RepositoryFile will not
+     * contain the content.
+     *
+     * <pre><code>GitLab Endpoint: GET /projects/:id/repository/files</code></pre>
+     *
+     * @param projectIdOrPath the id, path of the project, or a Project instance holding the project ID or path
+     * @param filePath (required) - Full path to the file. Ex. lib/class.rb
+     * @param ref (required) - The name of branch, tag or commit
+     * @param target the Path to write the decoded file content to, if it exists it will be overwritten
+     * @return a RepositoryFile instance with the file info
+     * @throws GitLabApiException if any exception occurs
+     */
+    public RepositoryFile getFile(Object projectIdOrPath, String filePath, String ref, Path target) throws GitLabApiException {
+
+        Form form = new Form();
+        addFormParam(form, "ref", ref, true);
+        Response response = get(Response.Status.OK, form.asMap(), "projects", getProjectIdOrPath(projectIdOrPath), "repository", "files", urlEncode(filePath));
+
+        Path spool = null;
+        try (InputStream in = response.readEntity(InputStream.class);
+                JsonParser parser = mapper.getFactory().createParser(in);
+                OutputStream out = Files.newOutputStream(target)) {
+
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new GitLabApiException("Invalid response, expected a JSON object");
+            }
+
+            ObjectNode fileInfo = mapper.createObjectNode();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if (!"content".equals(fieldName)) {
+                    fileInfo.set(fieldName, parser.readValueAsTree());
+                } else if (!fileInfo.has("encoding")) {
+
+                    // The encoding is not known yet, spool the content as is and decode it once it is
+                    spool = Files.createTempFile(target.toAbsolutePath().getParent(), ".gitlab4j-", ".tmp");
+                    try (Writer writer = Files.newBufferedWriter(spool, StandardCharsets.UTF_8)) {
+                        parser.getText(writer);
+                    }
+
+                } else if (Encoding.TEXT.toString().equals(fileInfo.path("encoding").asText())) {
+                    out.write(parser.getText().getBytes(StandardCharsets.UTF_8));
+                } else {
+                    parser.readBinaryValue(Base64Variants.MIME_NO_LINEFEEDS, out);
+                }
+            }
+
+            if (spool != null) {
+                if (Encoding.TEXT.toString().equals(fileInfo.path("encoding").asText())) {
+                    Files.copy(spool, out);
+                } else {
+                    try (InputStream decoder = Base64.getMimeDecoder().wrap(Files.newInputStream(spool))) {
+                        byte[] buffer = new byte[8192];
+                        int length;
+                        while ((length = decoder.read(buffer)) != -1) {
+                            out.write(buffer, 0, length);
+                        }
+                    }
+                }
+            }
+
+            return (mapper.treeToValue(fileInfo, RepositoryFile.class));
+
+        } catch (IOException ioe) {
+            throw new GitLabApiException(ioe);
+        } finally {
+            if (spool != null) {
+                try {
+                    Files.deleteIfExists(spool);
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
     /**
      * Get file from repository. Allows you to receive information about file in repository like name, size, content.
      * Note that file content is Base64 encoded.
@@ -303,6 +441,92 @@ public class RepositoryFileApi extends AbstractApi {
         return (updateFile(projectId, file, branchName, commitMessage));
     }
 
+    /**
+     * Create new file in repository, streaming the file content from the specified Path. The content is
+     * Base64 encoded directly into the request body so it is never held in memory.
+     *
+     * <pre><code>GitLab Endpoint: POST /projects/:id/repository/files</code></pre>
+     *
+     * @param projectIdOrPath the id, path of the project, or a Project instance holding the project ID or path
+     * @param file a ReposityoryFile instance with info for the file to create, its content and encoding are ignored
+     * @param content the Path of the file to read the content from
+     * @param branchName the name of branch
+     * @param commitMessage the commit message
+     * @return a RepositoryFile instance with the created file info
+     * @throws GitLabApiException if any exception occurs
+     */
+    public RepositoryFile createFile(Object projectIdOrPath, RepositoryFile file, Path content, String branchName, String commitMessage) throws GitLabApiException {
+        FileContentStreamingOutput stream = createStreamingOutput(new FileContentStreamingOutput("content", content), file, branchName, commitMessage, false);
+        Response response = post(Response.Status.CREATED, stream, MediaType.APPLICATION_JSON,
+                "projects", getProjectIdOrPath(projectIdOrPath), "repository", "files", urlEncode(file.getFilePath()));
+        return (response.readEntity(RepositoryFile.class));
+    }
+
+    /**
+     * Create new file in repository, streaming the file content from the specified InputStream. The content is
+     * Base64 encoded directly into the request body so it is never held in memory. The InputStream will be closed.
+     *
+     * <pre><code>GitLab Endpoint: POST /projects/:id/repository/files</code></pre>
+     *
+     * @param projectIdOrPath the id, path of the project, or a Project instance holding the project ID or path
+     * @param file a ReposityoryFile instance with info for the file to create, its content and encoding are ignored
+     * @param content the InputStream to read the content from
+     * @param branchName the name of branch
+     * @param commitMessage the commit message
+     * @return a RepositoryFile instance with the created file info
+     * @throws GitLabApiException if any exception occurs
+     */
+    public RepositoryFile createFile(Object projectIdOrPath, RepositoryFile file, InputStream content, String branchName, String commitMessage) throws GitLabApiException {
+        FileContentStreamingOutput stream = createStreamingOutput(new FileContentStreamingOutput("content", content), file, branchName, commitMessage, false);
+        Response response = post(Response.Status.CREATED, stream, MediaType.APPLICATION_JSON,
+                "projects", getProjectIdOrPath(projectIdOrPath), "repository", "files", urlEncode(file.getFilePath()));
+        return (response.readEntity(RepositoryFile.class));
+    }
+
+    /**
+     * Update existing file in repository, streaming the file content from the specified Path. The content is
+     * Base64 encoded directly into the request body so it is never held in memory.
+     *
+     * <pre><code>GitLab Endpoint: PUT /projects/:id/repository/files</code></pre>
+     *
+     * @param projectIdOrPath the id, path of the project, or a Project instance holding the project ID or path
+     * @param file a ReposityoryFile instance with info for the file to update, its content and encoding are ignored,
+     * if its last commit ID is set the update is rejected when the file has been changed since that commit
+     * @param content the Path of the file to read the content from
+     * @param branchName the name of branch
+     * @param commitMessage the commit message
+     * @return a RepositoryFile instance with the updated file info
+     * @throws GitLabApiException if any exception occurs
+     */
+    public RepositoryFile updateFile(Object projectIdOrPath, RepositoryFile file, Path content, String branchName, String commitMessage) throws GitLabApiException {
+        FileContentStreamingOutput stream = createStreamingOutput(new FileContentStreamingOutput("content", content), file, branchName, commitMessage, true);
+        Response response = putWithStream(Response.Status.OK, stream, MediaType.APPLICATION_JSON,
+                "projects", getProjectIdOrPath(projectIdOrPath), "repository", "files", urlEncode(file.getFilePath()));
+        return (response.readEntity(RepositoryFile.class));
+    }
+
+    /**
+     * Update existing file in repository, streaming the file content from the specified InputStream. The content is
+     * Base64 encoded directly into the request body so it is never held in memory. The InputStream will be closed.
+     *
+     * <pre><code>GitLab Endpoint: PUT /projects/:id/repository/files</code></pre>
+     *
+     * @param projectIdOrPath the id, path of the project, or a Project instance holding the project ID or path
+     * @param file a ReposityoryFile instance with info for the file to update, its content and encoding are ignored,
+     * if its last commit ID is set the update is rejected when the file has been changed since that commit
+     * @param content the InputStream to read the content from
+     * @param branchName the name of branch
+     * @param commitMessage the commit message
+     * @return a RepositoryFile instance with the updated file info
+     * @throws GitLabApiException if any exception occurs
+     */
+    public RepositoryFile updateFile(Object projectIdOrPath, RepositoryFile file, InputStream content, String branchName, String commitMessage) throws GitLabApiException {
+        FileContentStreamingOutput stream = createStreamingOutput(new FileContentStreamingOutput("content", content), file, branchName, commitMessage, true);
+        Response response = putWithStream(Response.Status.OK, stream, MediaType.APPLICATION_JSON,
+                "projects", getProjectIdOrPath(projectIdOrPath), "repository", "files", urlEncode(file.getFilePath()));
+        return (response.readEntity(RepositoryFile.class));
+    }
+
     /**
      * Delete existing file in repository
      *
@@ -431,6 +655,231 @@ public class RepositoryFileApi extends AbstractApi {
         }
     }
 
+    /**
+     * Fetch the raw content of many files, possibly from many projects, concurrently. Each file is
+     * fetched with its own request, at most maxConcurrency requests will be in flight at once.
+     * The raw content of each file is streamed to the provided consumer, no Base64 decoding is performed
+     * and the content is never fully held in memory by this method.
+     *
+     * <p>The consumer is called from multiple threads and must be thread safe. Failures are not thrown,
+     * they are reported in the FileResult for the failed file.</p>
+     *
+     * <p>The threads are created for this call only, sized to the smaller of maxConcurrency and the number
+     * of requests, and are stopped before it returns. To share a pool of threads across calls, use
+     * {@link #getFiles(Collection, ExecutorService, FileContentConsumer)}.</p>
+     *
+     * <pre><code>GitLab Endpoint: GET /projects/:id/repository/files/:filepath/raw</code></pre>
+     *
+     * @param requests the files to fetch
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @param consumer the FileContentConsumer that will be handed the content of each file
+     * @return a list of FileResult instances, in the same order as the requests
+     * @throws GitLabApiException if the calling thread is interrupted while waiting for the files
+     */
+    public List<FileResult> getFiles(Collection<FileRequest> requests, int maxConcurrency, FileContentConsumer consumer) throws GitLabApiException {
+
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be greater than 0");
+        }
+
+        if (requests.isEmpty()) {
+            return (new ArrayList<>());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxConcurrency, requests.size()), new DaemonThreadFactory("gitlab4j-file-fetch", true));
+
+        try {
+            return (getFiles(requests, executor, consumer));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Fetch the raw content of many files, possibly from many projects, concurrently on the provided
+     * ExecutorService. Each file is fetched with its own request, the number of requests in flight at
+     * once is bounded by the number of threads of the ExecutorService. The raw content of each file is
+     * streamed to the provided consumer, no Base64 decoding is performed and the content is never fully
+     * held in memory by this method. The ExecutorService is not shut down.
+     *
+     * <p>The consumer is called from multiple threads and must be thread safe. Failures are not thrown,
+     * they are reported in the FileResult for the failed file.</p>
+     *
+     * <pre><code>GitLab Endpoint: GET /projects/:id/repository/files/:filepath/raw</code></pre>
+     *
+     * @param requests the files to fetch
+     * @param executor the ExecutorService to fetch the files on
+     * @param consumer the FileContentConsumer that will be handed the content of each file
+     * @return a list of FileResult instances, in the same order as the requests
+     * @throws GitLabApiException if the calling thread is interrupted while waiting for the files
+     */
+    public List<FileResult> getFiles(Collection<FileRequest> requests, ExecutorService executor, FileContentConsumer consumer) throws GitLabApiException {
+
+        List<Future<FileResult>> futures = new ArrayList<>(requests.size());
+        try {
+
+            for (FileRequest request : requests) {
+                futures.add(executor.submit(() -> fetchRawFile(request, consumer)));
+            }
+
+            List<FileResult> results = new ArrayList<>(futures.size());
+            for (Future<FileResult> future : futures) {
+                results.add(future.get());
+            }
+
+            return (results);
+
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new GitLabApiException(ie);
+        } catch (ExecutionException ee) {
+            throw handle(ee.getCause() instanceof Exception ? (Exception) ee.getCause() : ee);
+        }
+    }
+
+    private FileResult fetchRawFile(FileRequest request, FileContentConsumer consumer) {
+
+        try (InputStream in = getRawFile(request.getProjectIdOrPath(), request.getRef(), request.getFilePath())) {
+            consumer.accept(request, in);
+            return (new FileResult(request, null));
+        } catch (GitLabApiException glae) {
+            return (new FileResult(request, glae));
+        } catch (Exception e) {
+            return (new FileResult(request, new GitLabApiException(e)));
+        }
+    }
+
+    /**
+     * Identifies a file to fetch with {@link RepositoryFileApi#getFiles(Collection, int, FileContentConsumer)}.
+     */
+    public static class FileRequest {
+
+        private final Object projectIdOrPath;
+        private final String filePath;
+        private final String ref;
+
+        /**
+         * @param projectIdOrPath the project in the form of an Integer(ID), String(path), or Project instance
+         * @param filePath the full path to the file. Ex. lib/class.rb
+         * @param ref the name of a branch, tag or commit
+         */
+        public FileRequest(Object projectIdOrPath, String filePath, String ref) {
+            this.projectIdOrPath = projectIdOrPath;
+            this.filePath = filePath;
+            this.ref = ref;
+        }
+
+        public Object getProjectIdOrPath() {
+            return (projectIdOrPath);
+        }
+
+        public String getFilePath() {
+            return (filePath);
+        }
+
+        public String getRef() {
+            return (ref);
+        }
+
+        @Override
+        public String toString() {
+            return (projectIdOrPath + ":" + filePath + "@" + ref);
+        }
+    }
+
+    /**
+     * The outcome of fetching a single file with {@link RepositoryFileApi#getFiles(Collection, int, FileContentConsumer)}.
+     */
+    public static class FileResult {
+
+        private final FileRequest request;
+        private final GitLabApiException exception;
+
+        FileResult(FileRequest request, GitLabApiException exception) {
+            this.request = request;
+            this.exception = exception;
+        }
+
+        public FileRequest getRequest() {
+            return (request);
+        }
+
+        /**
+         * @return true if the file was fetched and its content handed to the consumer
+         */
+        public boolean isSuccess() {
+            return (exception == null);
+        }
+
+        /**
+         * @return the exception that caused the fetch to fail, or null if it succeeded
+         */
+        public GitLabApiException getException() {
+            return (exception);
+        }
+
+        @Override
+        public String toString() {
+            return (request + (exception == null ? " OK" : " FAILED: " + exception.getMessage()));
+        }
+    }
+
+    /**
+     * Receives the raw content of each file fetched with {@link RepositoryFileApi#getFiles(Collection, int, FileContentConsumer)}.
+     */
+    @FunctionalInterface
+    public interface FileContentConsumer {
+
+        /**
+         * Handle the content of a fetched file. The InputStream is closed after this method returns.
+         *
+         * @param request the FileRequest the content is for
+         * @param content an InputStream to read the raw file content from
+         * @throws IOException if any error occurs while reading the content
+         */
+        void accept(FileRequest request, InputStream content) throws IOException;
+    }
+
+    /**
+     * Adds the fields that {@link #createForm(RepositoryFile, String, String)} would send to a FileContentStreamingOutput,
+     * based on the API version. The content is always sent Base64 encoded by the FileContentStreamingOutput, so the
+     * encoding of the RepositoryFile is not used.
+     *
+     * @param stream the FileContentStreamingOutput to add the fields to
+     * @param file the RepositoryFile instance with the info for the fields
+     * @param branchName the branch name
+     * @param commitMessage the commit message
+     * @param update if true the last commit ID of the file is sent to detect conflicting updates
+     * @return the FileContentStreamingOutput
+     */
+    private FileContentStreamingOutput createStreamingOutput(FileContentStreamingOutput stream,
+            RepositoryFile file, String branchName, String commitMessage, boolean update) {
+
+        if (isApiVersion(ApiVersion.V3)) {
+            stream.withField("file_path", requireField("file_path", file.getFilePath()));
+            stream.withField("branch_name", requireField("branch_name", branchName));
+        } else {
+            stream.withField("branch", requireField("branch", branchName));
+        }
+
+        stream.withField("commit_message", requireField("commit_message", commitMessage));
+        if (update) {
+            stream.withField("last_commit_id", file.getLastCommitId());
+        }
+
+        return (stream);
+    }
+
+    private static String requireField(String name, String value) {
+
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException(name + " cannot be empty or null");
+        }
+
+        return (value);
+    }
+
     /**
      * Gets the query params based on the API version.
      *
@@ -0,0 +1,347 @@
+package org.gitlab4j.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.gitlab4j.api.models.TreeItem;
+import org.gitlab4j.api.utils.DaemonThreadFactory;
+
+/**
+ * <p>This class walks the repository tree of a project, emitting each TreeItem to a consumer as soon
+ * as it is available. Two strategies are supported:</p>
+ *
+ * <ul>
+ *   <li>{@link Strategy#CRAWL} lists each directory non-recursively and expands subdirectories
+ *   concurrently on a bounded pool of threads.</li>
+ *   <li>{@link Strategy#LISTING} pages through a single recursive listing, prefetching the next pages
+ *   on a background thread while the current page is being consumed.</li>
+ * </ul>
+ *
+ * <p>Subtrees can be pruned with include and exclude path prefixes, and blobs can optionally be
+ * deduplicated by their blob SHA.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   gitLabApi.getRepositoryApi().getTreeWalker(projectId, "master")
+ *       .withStrategy(RepositoryTreeWalker.Strategy.CRAWL)
+ *       .withMaxConcurrency(8)
+ *       .withIncludePrefix("src/main")
+ *       .walk(item -&gt; System.out.println(item.getPath()));
+ * </pre>
+ */
+public class RepositoryTreeWalker {
+
+    /** The strategy used to walk the tree. */
+    public enum Strategy {
+
+        /** Crawl subdirectories concurrently on a bounded pool of threads. */
+        CRAWL,
+
+        /** Stream a single recursive listing, prefetching pages ahead of the consumer. */
+        LISTING
+    }
+
+    private final RepositoryApi repositoryApi;
+    private final Object projectIdOrPath;
+    private final String refName;
+
+    private Strategy strategy = Strategy.CRAWL;
+    private int maxConcurrency = 4;
+    private int prefetchPages = 2;
+    private int itemsPerPage;
+    private boolean distinctBlobs;
+    private final List<String> includePrefixes = new ArrayList<>();
+    private final List<String> excludePrefixes = new ArrayList<>();
+
+    RepositoryTreeWalker(RepositoryApi repositoryApi, Object projectIdOrPath, String refName) {
+        this.repositoryApi = repositoryApi;
+        this.projectIdOrPath = projectIdOrPath;
+        this.refName = refName;
+        this.itemsPerPage = repositoryApi.getDefaultPerPage();
+    }
+
+    /**
+     * Set the strategy used to walk the tree, defaults to CRAWL.
+     *
+     * @param strategy the strategy used to walk the tree
+     * @return this RepositoryTreeWalker instance
+     */
+    public RepositoryTreeWalker withStrategy(Strategy strategy) {
+        this.strategy = strategy;
+        return (this);
+    }
+
+    /**
+     * Set the maximum number of directories listed concurrently by the CRAWL strategy, defaults to 4.
+     *
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @return this RepositoryTreeWalker instance
+     */
+    public RepositoryTreeWalker withMaxConcurrency(int maxConcurrency) {
+
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be greater than 0");
+        }
+
+        this.maxConcurrency = maxConcurrency;
+        return (this);
+    }
+
+    /**
+     * Set the number of pages the LISTING strategy fetches ahead of the consumer, defaults to 2.
+     *
+     * @param prefetchPages the number of pages to fetch ahead of the consumer
+     * @return this RepositoryTreeWalker instance
+     */
+    public RepositoryTreeWalker withPrefetchPages(int prefetchPages) {
+        this.prefetchPages = prefetchPages;
+        return (this);
+    }
+
+    /**
+     * Set the number of TreeItem instances fetched per page.
+     *
+     * @param itemsPerPage the number of TreeItem instances fetched per page
+     * @return this RepositoryTreeWalker instance
+     */
+    public RepositoryTreeWalker withItemsPerPage(int itemsPerPage) {
+        this.itemsPerPage = itemsPerPage;
+        return (this);
+    }
+
+    /**
+     * Only walk the subtree at the specified path. May be called multiple times to walk several subtrees.
+     *
+     * @param pathPrefix a path prefix, Ex. src/main
+     * @return this RepositoryTreeWalker instance
+     */
+    public RepositoryTreeWalker withIncludePrefix(String pathPrefix) {
+        includePrefixes.add(normalize(pathPrefix));
+        return (this);
+    }
+
+    /**
+     * Prune the subtree at the specified path. May be called multiple times to prune several subtrees.
+     *
+     * @param pathPrefix a path prefix, Ex. vendor
+     * @return this RepositoryTreeWalker instance
+     */
+    public RepositoryTreeWalker withExcludePrefix(String pathPrefix) {
+        excludePrefixes.add(normalize(pathPrefix));
+        return (this);
+    }
+
+    /**
+     * If true, each blob SHA will only be emitted once, for the first path it is found at.
+     *
+     * @param distinctBlobs if true blobs will be deduplicated by blob SHA
+     * @return this RepositoryTreeWalker instance
+     */
+    public RepositoryTreeWalker withDistinctBlobs(boolean distinctBlobs) {
+        this.distinctBlobs = distinctBlobs;
+        return (this);
+    }
+
+    /**
+     * Walk the tree, handing each TreeItem to the provided consumer. Calls to the consumer are
+     * serialized so it need not be thread safe. This method returns when the walk is complete.
+     *
+     * @param consumer the Consumer that is handed each TreeItem
+     * @throws GitLabApiException if any exception occurs
+     */
+    public void walk(Consumer<TreeItem> consumer) throws GitLabApiException {
+
+        Set<String> seenBlobs = (distinctBlobs ? ConcurrentHashMap.newKeySet() : null);
+        Consumer<TreeItem> emitter = item -> {
+            if (isIncluded(item.getPath()) && (seenBlobs == null || item.getType() != TreeItem.Type.BLOB || seenBlobs.add(item.getId()))) {
+                synchronized (this) {
+                    consumer.accept(item);
+                }
+            }
+        };
+
+        if (strategy == Strategy.LISTING) {
+            walkListing(emitter);
+        } else {
+            walkCrawl(emitter);
+        }
+    }
+
+    private void walkListing(Consumer<TreeItem> emitter) throws GitLabApiException {
+
+        // A single include prefix lets the server do the pruning
+        String rootPath = (includePrefixes.size() == 1 ? includePrefixes.get(0) : null);
+        Pager<TreeItem> pager = repositoryApi.getTree(projectIdOrPath, rootPath, refName, true, itemsPerPage);
+        try (Stream<TreeItem> items = pager.lazyStream(prefetchPages)) {
+            items.filter(item -> !isExcluded(item.getPath())).forEach(emitter);
+        } catch (RuntimeException re) {
+            Throwable cause = re.getCause();
+            throw (cause instanceof GitLabApiException ? (GitLabApiException) cause : new GitLabApiException(re));
+        }
+    }
+
+    private void walkCrawl(Consumer<TreeItem> emitter) throws GitLabApiException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(maxConcurrency, new DaemonThreadFactory("gitlab4j-tree-walker", true));
+
+        Crawl crawl = new Crawl(executor, emitter);
+        try {
+
+            if (includePrefixes.isEmpty()) {
+                crawl.submit(null);
+            } else {
+                for (String prefix : includePrefixes) {
+                    crawl.submit(prefix);
+                }
+            }
+
+            crawl.await();
+
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new GitLabApiException(ie);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tracks the outstanding directory listings of a CRAWL walk.
+     */
+    private class Crawl {
+
+        private final ExecutorService executor;
+        private final Consumer<TreeItem> emitter;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicReference<Exception> error = new AtomicReference<>();
+
+        Crawl(ExecutorService executor, Consumer<TreeItem> emitter) {
+            this.executor = executor;
+            this.emitter = emitter;
+        }
+
+        void submit(String path) {
+
+            if (error.get() != null) {
+                return;
+            }
+
+            pending.incrementAndGet();
+            try {
+                executor.execute(() -> list(path));
+            } catch (RejectedExecutionException ree) {
+                finished();
+            }
+        }
+
+        private void list(String path) {
+
+            try {
+
+                Pager<TreeItem> pager = repositoryApi.getTree(projectIdOrPath, path, refName, false, itemsPerPage);
+                while (pager.hasNext() && error.get() == null) {
+                    for (TreeItem item : pager.next()) {
+
+                        if (isExcluded(item.getPath())) {
+                            continue;
+                        }
+
+                        emitter.accept(item);
+                        if (item.getType() == TreeItem.Type.TREE) {
+                            submit(item.getPath());
+                        }
+                    }
+                }
+
+            } catch (Exception e) {
+                error.compareAndSet(null, e);
+            } finally {
+                finished();
+            }
+        }
+
+        private void finished() {
+            if (pending.decrementAndGet() == 0 || error.get() != null) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        void await() throws GitLabApiException, InterruptedException {
+
+            synchronized (this) {
+                while (pending.get() > 0 && error.get() == null) {
+                    wait(1000);
+                }
+            }
+
+            Exception e = error.get();
+            if (e instanceof GitLabApiException) {
+                throw (GitLabApiException) e;
+            } else if (e instanceof RuntimeException && e.getCause() instanceof GitLabApiException) {
+                throw (GitLabApiException) e.getCause();
+            } else if (e != null) {
+                throw new GitLabApiException(e);
+            }
+        }
+    }
+
+    private boolean isIncluded(String path) {
+
+        if (includePrefixes.isEmpty()) {
+            return (true);
+        }
+
+        for (String prefix : includePrefixes) {
+            if (isUnder(path, prefix)) {
+                return (true);
+            }
+        }
+
+        return (false);
+    }
+
+    private boolean isExcluded(String path) {
+
+        for (String prefix : excludePrefixes) {
+            if (isUnder(path, prefix)) {
+                return (true);
+            }
+        }
+
+        return (false);
+    }
+
+    private static boolean isUnder(String path, String prefix) {
+        return (path.equals(prefix) || (path.startsWith(prefix) && path.charAt(prefix.length()) == '/'));
+    }
+
+    private static String normalize(String pathPrefix) {
+
+        String normalized = pathPrefix.trim();
+        while (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("pathPrefix cannot be empty");
+        }
+
+        return (normalized);
+    }
+}
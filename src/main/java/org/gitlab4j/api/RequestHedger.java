@@ -0,0 +1,426 @@
+package org.gitlab4j.api;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.Response;
+
+import org.gitlab4j.api.GitLabApiTracer.Span;
+import org.gitlab4j.api.utils.AtomicHistogram;
+import org.gitlab4j.api.utils.DaemonThreadFactory;
+
+/**
+ * <p>This class hedges the read-only (GET and HEAD) requests of a GitLabApi instance to cut their tail latency.
+ * When a request has not received a response within the configured percentile of the latencies observed for
+ * its route, a duplicate request is sent and whichever response arrives first is used. The response of the
+ * losing request is closed as soon as it arrives, releasing its connection.</p>
+ *
+ * <p>When a {@link ReadReplicaRouter} is also set, the duplicate request goes to the read node with the least
+ * load, which is normally a different node than the one the original request is still waiting on.</p>
+ *
+ * <p>The extra load is bounded by a hedge budget: each request earns a fraction of a hedge, defaulting to
+ * 5%, and a hedge is only sent if a whole hedge has been earned. Routes are only hedged once enough latencies
+ * have been observed for them.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   gitLabApi.setRequestHedger(new RequestHedger()
+ *       .withRoutes("projects/:id/merge_requests/:id", "projects/:id/pipelines/:id")
+ *       .withPercentile(95.0).withBudget(0.05));
+ * </pre>
+ */
+public class RequestHedger implements AutoCloseable {
+
+    // The number of latencies after which the latency histogram of a route starts over
+    private static final long LATENCY_GENERATION_SIZE = 5000;
+
+    // The most hedges that can be saved up while requests are fast
+    private static final long MAX_SAVED_HEDGES = 10;
+
+    // Set while a duplicate request is being made, so it can be marked as a retry
+    private static final ThreadLocal<Boolean> hedgeAttempt = new ThreadLocal<>();
+
+    private final Map<String, RouteLatency> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong budgetMillis = new AtomicLong();
+    private final AtomicLong hedgeCount = new AtomicLong();
+    private final AtomicLong hedgeWinCount = new AtomicLong();
+
+    private volatile List<String> routes = Collections.singletonList("*");
+    private volatile double percentile = 95.0;
+    private volatile long minDelayNanos = TimeUnit.MILLISECONDS.toNanos(10);
+    private volatile int minSamples = 100;
+    private volatile long budgetPerRequestMillis = 50;
+
+    private final ExecutorService executor;
+
+    /**
+     * Create a RequestHedger with its own pool of daemon threads to make the hedged requests on.
+     */
+    public RequestHedger() {
+
+        executor = Executors.newCachedThreadPool(new DaemonThreadFactory("gitlab4j-hedge", true));
+    }
+
+    /**
+     * Set the route templates of the requests that are hedged, defaults to all GET and HEAD requests.
+     * A template ending with "/*" also matches all routes below it, and "*" matches every route.
+     *
+     * @param routes the route templates of the requests that are hedged, for example "projects/:id/pipelines/:id"
+     * @return this RequestHedger instance
+     */
+    public RequestHedger withRoutes(String... routes) {
+        this.routes = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(routes)));
+        return (this);
+    }
+
+    /**
+     * Set the percentile of the observed latencies of a route after which a duplicate request is sent, defaults to 95.
+     *
+     * @param percentile the percentile of the observed latencies after which a duplicate request is sent
+     * @return this RequestHedger instance
+     */
+    public RequestHedger withPercentile(double percentile) {
+
+        if (percentile <= 0.0 || percentile >= 100.0) {
+            throw new IllegalArgumentException("percentile must be greater than 0 and less than 100");
+        }
+
+        this.percentile = percentile;
+        return (this);
+    }
+
+    /**
+     * Set the minimum delay before a duplicate request is sent, defaults to 10 milliseconds.
+     *
+     * @param minDelayMillis the minimum delay before a duplicate request is sent in milliseconds
+     * @return this RequestHedger instance
+     */
+    public RequestHedger withMinDelay(long minDelayMillis) {
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, minDelayMillis));
+        return (this);
+    }
+
+    /**
+     * Set the number of latencies that must be observed for a route before its requests are hedged, defaults to 100.
+     *
+     * @param minSamples the number of latencies that must be observed for a route before it is hedged
+     * @return this RequestHedger instance
+     */
+    public RequestHedger withMinSamples(int minSamples) {
+        this.minSamples = Math.max(1, minSamples);
+        return (this);
+    }
+
+    /**
+     * Set the fraction of a hedge each request earns, which bounds the extra requests sent to
+     * this fraction of all requests, defaults to 0.05.
+     *
+     * @param budget the fraction of a hedge each request earns, between 0 and 1
+     * @return this RequestHedger instance
+     */
+    public RequestHedger withBudget(double budget) {
+
+        if (budget < 0.0 || budget > 1.0) {
+            throw new IllegalArgumentException("budget must be between 0 and 1");
+        }
+
+        this.budgetPerRequestMillis = Math.round(budget * 1000);
+        return (this);
+    }
+
+    /**
+     * Get the number of duplicate requests that have been sent.
+     *
+     * @return the number of duplicate requests that have been sent
+     */
+    public long getHedgeCount() {
+        return (hedgeCount.get());
+    }
+
+    /**
+     * Get the number of duplicate requests that responded before the request they duplicated.
+     *
+     * @return the number of duplicate requests that responded first
+     */
+    public long getHedgeWinCount() {
+        return (hedgeWinCount.get());
+    }
+
+    /**
+     * Get the current delay after which a request for the specified route is hedged.
+     *
+     * @param route the route template, for example "projects/:id/pipelines/:id"
+     * @return the delay in milliseconds, or -1 if requests for the route are not currently hedged
+     */
+    public long getDelay(String route) {
+        long delayNanos = getDelayNanos(route);
+        return (delayNanos >= 0 ? TimeUnit.NANOSECONDS.toMillis(delayNanos) : -1);
+    }
+
+    /**
+     * Stops the threads the hedged requests are made on.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns true if the current thread is making a duplicate request.
+     *
+     * @return true if the current thread is making a duplicate request
+     */
+    static boolean isHedgeAttempt() {
+        return (hedgeAttempt.get() != null);
+    }
+
+    /**
+     * Performs a read request, sending a duplicate request if no response is received within the hedge delay
+     * of the route and the hedge budget allows it.
+     *
+     * @param url the URL of the request
+     * @param call performs the request
+     * @return the first Response received
+     */
+    Response execute(URL url, Supplier<Response> call) {
+        return (execute(url, call, call));
+    }
+
+    /**
+     * Performs a read request, sending a duplicate request if no response is received within the hedge delay
+     * of the route and the hedge budget allows it. The duplicate request is made with its own call, so that it
+     * can acquire its own bulkhead permit instead of sharing the one held by the original request.
+     *
+     * @param url the URL of the request
+     * @param call performs the original request
+     * @param hedgeCall performs the duplicate request
+     * @return the first Response received
+     */
+    Response execute(URL url, Supplier<Response> call, Supplier<Response> hedgeCall) {
+
+        String route = GitLabApiMetricsFilter.toRouteTemplate(url.getPath());
+        if (!isHedged(route)) {
+            return (call.get());
+        }
+
+        earnBudget();
+        long delayNanos = getDelayNanos(route);
+        if (delayNanos < 0 || budgetMillis.get() < 1000) {
+
+            // No hedge can be sent, either because not enough latencies have been observed yet to hedge
+            // this route or because the budget is spent, so make the request on the calling thread
+            long startTime = System.nanoTime();
+            Response response = call.get();
+            recordLatency(route, System.nanoTime() - startTime);
+            return (response);
+        }
+
+        Span parent = GitLabApiTracingFilter.getParentSpan();
+
+        CompletableFuture<Outcome> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        long startTime = System.nanoTime();
+        Future<?> first = executor.submit(() -> attempt(route, call, parent, false, startTime, result, pending));
+        Future<?> second = null;
+
+        try {
+
+            Outcome outcome;
+            try {
+                outcome = result.get(delayNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException te) {
+
+                if (spendBudget()) {
+                    pending.incrementAndGet();
+                    hedgeCount.incrementAndGet();
+                    second = executor.submit(() -> attempt(route, hedgeCall, parent, true, System.nanoTime(), result, pending));
+                }
+
+                outcome = result.get();
+            }
+
+            // Only the winning attempt completes the result, so a win is only counted when it happened
+            if (outcome.hedge) {
+                hedgeWinCount.incrementAndGet();
+            }
+
+            return (outcome.response);
+
+        } catch (InterruptedException ie) {
+
+            Thread.currentThread().interrupt();
+
+            // Responses that arrive after this are closed by the attempts that made them
+            result.cancel(false);
+            first.cancel(true);
+            if (second != null) {
+                second.cancel(true);
+            }
+
+            throw new ProcessingException("Interrupted while waiting for a response", ie);
+
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new ProcessingException(cause);
+        }
+    }
+
+    private void attempt(String route, Supplier<Response> call, Span parent, boolean hedge, long startTime,
+            CompletableFuture<Outcome> result, AtomicInteger pending) {
+
+        // No need to make the request if the other one has already responded
+        if (result.isDone()) {
+            return;
+        }
+
+        Span previousParent = GitLabApiTracingFilter.setParentSpan(parent);
+        if (hedge) {
+            hedgeAttempt.set(Boolean.TRUE);
+        }
+
+        try {
+
+            Response response = (hedge ? GitLabApiClient.retry(call) : call.get());
+            if (!hedge) {
+                recordLatency(route, System.nanoTime() - startTime);
+            }
+
+            if (!result.complete(new Outcome(response, hedge))) {
+                response.close();
+            }
+
+        } catch (Throwable t) {
+
+            // Only fail if the other request has also failed
+            if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(t);
+            }
+
+            return;
+
+        } finally {
+            hedgeAttempt.remove();
+            GitLabApiTracingFilter.setParentSpan(previousParent);
+        }
+
+        pending.decrementAndGet();
+    }
+
+    private boolean isHedged(String route) {
+
+        for (String pattern : routes) {
+            if (RouteGuard.matchRoute(pattern, route) >= 0) {
+                return (true);
+            }
+        }
+
+        return (false);
+    }
+
+    private long getDelayNanos(String route) {
+
+        RouteLatency latency = latencies.get(route);
+        if (latency == null) {
+            return (-1);
+        }
+
+        AtomicHistogram histogram = latency.getHistogram(minSamples);
+        if (histogram == null) {
+            return (-1);
+        }
+
+        return (Math.max(minDelayNanos, histogram.getValueAtPercentile(percentile)));
+    }
+
+    private void recordLatency(String route, long elapsedNanos) {
+        latencies.computeIfAbsent(route, r -> new RouteLatency()).record(elapsedNanos);
+    }
+
+    private void earnBudget() {
+        budgetMillis.getAndUpdate(budget -> Math.min(MAX_SAVED_HEDGES * 1000, budget + budgetPerRequestMillis));
+    }
+
+    private boolean spendBudget() {
+
+        long budget;
+        do {
+            budget = budgetMillis.get();
+            if (budget < 1000) {
+                return (false);
+            }
+        } while (!budgetMillis.compareAndSet(budget, budget - 1000));
+
+        return (true);
+    }
+
+    /**
+     * The response of the attempt that responded first.
+     */
+    private static class Outcome {
+
+        private final Response response;
+        private final boolean hedge;
+
+        Outcome(Response response, boolean hedge) {
+            this.response = response;
+            this.hedge = hedge;
+        }
+    }
+
+    /**
+     * The observed latencies of a route. The latencies are recorded in generations so that
+     * the hedge delay follows changes in the latency of the route.
+     */
+    private static class RouteLatency {
+
+        private volatile AtomicHistogram current = new AtomicHistogram();
+        private volatile AtomicHistogram previous;
+
+        void record(long elapsedNanos) {
+
+            AtomicHistogram histogram = current;
+            histogram.record(elapsedNanos);
+            if (histogram.getCount() >= LATENCY_GENERATION_SIZE) {
+                synchronized (this) {
+                    if (current == histogram) {
+                        previous = histogram;
+                        current = new AtomicHistogram();
+                    }
+                }
+            }
+        }
+
+        AtomicHistogram getHistogram(int minSamples) {
+
+            AtomicHistogram histogram = current;
+            if (histogram.getCount() >= minSamples) {
+                return (histogram);
+            }
+
+            return (previous);
+        }
+    }
+}
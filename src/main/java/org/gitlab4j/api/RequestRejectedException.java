@@ -0,0 +1,58 @@
+package org.gitlab4j.api;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * This exception is thrown when a request is rejected by a {@link RouteGuard} without being sent to the
+ * GitLab server, either because the circuit breaker of its route group is open or because the route group
+ * has no free capacity. The GitLabApi methods surface it as the cause of a GitLabApiException.
+ */
+public class RequestRejectedException extends ProcessingException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The reason a request was rejected. */
+    public enum Reason {
+
+        /** The circuit breaker of the route group is open, or half-open with all probe calls in flight. */
+        CIRCUIT_OPEN,
+
+        /** The route group has the maximum number of calls in flight. */
+        BULKHEAD_FULL
+    }
+
+    private final String groupName;
+    private final Reason reason;
+
+    /**
+     * Create a RequestRejectedException for a request of the named route group.
+     *
+     * @param groupName the name of the route group the request belongs to
+     * @param reason the reason the request was rejected
+     * @param route the route template of the request
+     */
+    public RequestRejectedException(String groupName, Reason reason, String route) {
+        super((reason == Reason.CIRCUIT_OPEN ? "Circuit breaker is open" : "Too many concurrent calls") +
+                " for route group '" + groupName + "', rejected " + route);
+        this.groupName = groupName;
+        this.reason = reason;
+    }
+
+    /**
+     * Get the name of the route group the rejected request belongs to.
+     *
+     * @return the name of the route group the rejected request belongs to
+     */
+    public String getGroupName() {
+        return (groupName);
+    }
+
+    /**
+     * Get the reason the request was rejected.
+     *
+     * @return the reason the request was rejected
+     */
+    public Reason getReason() {
+        return (reason);
+    }
+}
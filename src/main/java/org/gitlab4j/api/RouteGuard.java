@@ -0,0 +1,497 @@
+package org.gitlab4j.api;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+import javax.ws.rs.core.Response;
+
+import org.gitlab4j.api.RequestRejectedException.Reason;
+
+/**
+ * <p>This class isolates groups of GitLab API routes from each other, so that a degraded subsystem of the
+ * GitLab server, such as job artifacts or the Gitaly backed repository compare, does not tie up every thread
+ * of an application and starve calls to unrelated routes.</p>
+ *
+ * <p>Each {@link Group} is keyed by route templates, the same templates reported to
+ * {@link GitLabApiMetrics} and {@link GitLabApiTracer}, for example "projects/:id/repository/compare".
+ * A template ending with "/*" also matches all routes below it, and "*" matches every route. A request
+ * belongs to the group with the most specific matching template, requests that match no group are not
+ * guarded.</p>
+ *
+ * <p>A group can have a bulkhead, which limits the number of its calls in flight, and a circuit breaker,
+ * which rejects its calls for a while once too many of its recent calls failed or were slow, and then lets
+ * a few probe calls through to decide whether to close again. A rejected call throws a
+ * {@link RequestRejectedException} without contacting the server. A call holds its bulkhead permit until
+ * the response headers are received.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   gitLabApi.setRouteGuard(new RouteGuard()
+ *       .withGroup(new RouteGuard.Group("artifacts", "projects/:id/jobs/*")
+ *           .withMaxConcurrentCalls(4)
+ *           .withFailureRateThreshold(50).withSlowCallThreshold(20000))
+ *       .withGroup(new RouteGuard.Group("compare", "projects/:id/repository/compare")
+ *           .withMaxConcurrentCalls(8).withMaxWait(1000)));
+ * </pre>
+ */
+public class RouteGuard {
+
+    // Marks a route that belongs to no group in the route cache
+    private static final Group UNGUARDED = new Group("unguarded");
+
+    private final List<Group> groups = new CopyOnWriteArrayList<>();
+    private final Map<String, Group> groupsByRoute = new ConcurrentHashMap<>();
+
+    /**
+     * Add a route group to this RouteGuard.
+     *
+     * @param group the route group to add
+     * @return this RouteGuard instance
+     */
+    public RouteGuard withGroup(Group group) {
+
+        if (group == null) {
+            throw new IllegalArgumentException("group cannot be null");
+        }
+
+        groups.add(group);
+        groupsByRoute.clear();
+        return (this);
+    }
+
+    /**
+     * Get the route groups of this RouteGuard.
+     *
+     * @return the route groups of this RouteGuard
+     */
+    public List<Group> getGroups() {
+        return (Collections.unmodifiableList(groups));
+    }
+
+    /**
+     * Get the route group the specified route template belongs to.
+     *
+     * @param route the route template, for example "projects/:id/merge_requests"
+     * @return the route group the route template belongs to, or null if it belongs to no group
+     */
+    public Group getGroup(String route) {
+
+        Group group = groupsByRoute.computeIfAbsent(route, r -> {
+
+            Group best = UNGUARDED;
+            int bestScore = -1;
+            for (Group candidate : groups) {
+                int score = candidate.match(r);
+                if (score > bestScore) {
+                    best = candidate;
+                    bestScore = score;
+                }
+            }
+
+            return (best);
+        });
+
+        return (group != UNGUARDED ? group : null);
+    }
+
+    /**
+     * Returns how specifically a route template pattern matches a route template. A pattern ending with "/*"
+     * also matches all routes below it, and "*" matches every route.
+     *
+     * @param pattern the route template pattern
+     * @param route the route template
+     * @return a higher value for a more specific match, or -1 if the route does not match
+     */
+    static int matchRoute(String pattern, String route) {
+
+        if (pattern.equals("*")) {
+            return (0);
+        } else if (pattern.endsWith("/*")) {
+            String base = pattern.substring(0, pattern.length() - 2);
+            return (route.equals(base) || route.startsWith(base + "/") ? base.length() * 2 : -1);
+        } else {
+            return (route.equals(pattern) ? pattern.length() * 2 + 1 : -1);
+        }
+    }
+
+    /**
+     * Performs a call within the route group of the specified URL.
+     *
+     * @param url the URL of the request
+     * @param call performs the request
+     * @return the Response for the request
+     * @throws RequestRejectedException if the call is rejected by the route group
+     */
+    Response execute(URL url, Supplier<Response> call) {
+
+        String route = GitLabApiMetricsFilter.toRouteTemplate(url.getPath());
+        Group group = getGroup(route);
+        if (group == null) {
+            return (call.get());
+        }
+
+        boolean probe = group.acquire(route);
+        long startTime = System.nanoTime();
+        boolean failed = true;
+        try {
+            Response response = call.get();
+            failed = (response.getStatus() >= 500);
+            return (response);
+        } finally {
+            group.release(probe, failed, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * A group of routes that share a bulkhead and a circuit breaker.
+     */
+    public static class Group {
+
+        /** The state of the circuit breaker of a route group. */
+        public enum State {
+
+            /** Calls are let through and their outcome is recorded. */
+            CLOSED,
+
+            /** Calls are rejected until the open duration has elapsed. */
+            OPEN,
+
+            /** A limited number of probe calls are let through to decide whether to close or open again. */
+            HALF_OPEN
+        }
+
+        private final String name;
+        private final List<String> routePatterns;
+
+        private volatile int maxConcurrentCalls;
+        private volatile long maxWaitMillis;
+        private volatile Semaphore bulkhead;
+
+        private volatile int failureRateThreshold;
+        private volatile long slowCallThresholdNanos = Long.MAX_VALUE;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private long openDurationMillis = 30000;
+        private int halfOpenCalls = 3;
+
+        // Circuit breaker state, guarded by this
+        private State state = State.CLOSED;
+        private boolean[] window = new boolean[slidingWindowSize];
+        private int windowIndex;
+        private int windowCount;
+        private int windowBadCount;
+        private long openUntil;
+        private int probesInFlight;
+        private int probesSucceeded;
+
+        /**
+         * Create a route group for the specified route templates.
+         *
+         * @param name the name of the route group, used in exceptions and log messages
+         * @param routePatterns the route templates of the group, a template ending with "/*" also matches
+         * all routes below it and "*" matches every route
+         */
+        public Group(String name, String... routePatterns) {
+            this.name = name;
+            this.routePatterns = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(routePatterns)));
+        }
+
+        /**
+         * Set the maximum number of calls of this group that can be in flight at once, defaults to 0 (unlimited).
+         *
+         * @param maxConcurrentCalls the maximum number of calls in flight, 0 for unlimited
+         * @return this Group instance
+         */
+        public synchronized Group withMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = Math.max(0, maxConcurrentCalls);
+            this.bulkhead = (this.maxConcurrentCalls > 0 ? new Semaphore(this.maxConcurrentCalls, true) : null);
+            return (this);
+        }
+
+        /**
+         * Set how long a call waits for capacity when the maximum number of calls are in flight before it is
+         * rejected, defaults to 0 (rejected immediately).
+         *
+         * @param maxWaitMillis the maximum time to wait for capacity in milliseconds
+         * @return this Group instance
+         */
+        public synchronized Group withMaxWait(long maxWaitMillis) {
+            this.maxWaitMillis = Math.max(0, maxWaitMillis);
+            return (this);
+        }
+
+        /**
+         * Set the percentage of failed or slow calls in the sliding window at which the circuit breaker opens,
+         * defaults to 0 (no circuit breaker). A call has failed if it could not be completed or the server
+         * responded with a 5xx status.
+         *
+         * @param failureRateThreshold the percentage (1 to 100) of failed or slow calls at which the circuit opens
+         * @return this Group instance
+         */
+        public synchronized Group withFailureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = Math.min(100, Math.max(0, failureRateThreshold));
+            return (this);
+        }
+
+        /**
+         * Set the duration after which a call counts as slow for the circuit breaker, defaults to never.
+         *
+         * @param slowCallThresholdMillis the duration in milliseconds after which a call counts as slow
+         * @return this Group instance
+         */
+        public synchronized Group withSlowCallThreshold(long slowCallThresholdMillis) {
+            this.slowCallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowCallThresholdMillis);
+            return (this);
+        }
+
+        /**
+         * Set the number of most recent calls the failure rate is computed over, defaults to 20.
+         *
+         * @param slidingWindowSize the number of most recent calls the failure rate is computed over
+         * @return this Group instance
+         */
+        public synchronized Group withSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = Math.max(1, slidingWindowSize);
+            resetWindow();
+            return (this);
+        }
+
+        /**
+         * Set the number of calls that must be recorded before the circuit breaker can open, defaults to 10.
+         *
+         * @param minimumCalls the number of calls that must be recorded before the circuit breaker can open
+         * @return this Group instance
+         */
+        public synchronized Group withMinimumCalls(int minimumCalls) {
+            this.minimumCalls = Math.max(1, minimumCalls);
+            return (this);
+        }
+
+        /**
+         * Set how long the circuit breaker stays open before letting probe calls through, defaults to 30 seconds.
+         *
+         * @param openDurationMillis how long the circuit breaker stays open in milliseconds
+         * @return this Group instance
+         */
+        public synchronized Group withOpenDuration(long openDurationMillis) {
+            this.openDurationMillis = Math.max(0, openDurationMillis);
+            return (this);
+        }
+
+        /**
+         * Set the number of probe calls let through when half-open, all of which must succeed for the
+         * circuit breaker to close, defaults to 3.
+         *
+         * @param halfOpenCalls the number of probe calls let through when half-open
+         * @return this Group instance
+         */
+        public synchronized Group withHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = Math.max(1, halfOpenCalls);
+            return (this);
+        }
+
+        /**
+         * Get the name of this route group.
+         *
+         * @return the name of this route group
+         */
+        public String getName() {
+            return (name);
+        }
+
+        /**
+         * Get the route templates of this route group.
+         *
+         * @return the route templates of this route group
+         */
+        public List<String> getRoutePatterns() {
+            return (routePatterns);
+        }
+
+        /**
+         * Get the state of the circuit breaker of this route group.
+         *
+         * @return the state of the circuit breaker of this route group
+         */
+        public synchronized State getState() {
+
+            if (state == State.OPEN && System.currentTimeMillis() >= openUntil) {
+                return (State.HALF_OPEN);
+            }
+
+            return (state);
+        }
+
+        /**
+         * Get the number of calls of this route group currently in flight, only tracked when the maximum
+         * number of concurrent calls is limited.
+         *
+         * @return the number of calls of this route group currently in flight
+         */
+        public int getActiveCalls() {
+            Semaphore semaphore = bulkhead;
+            return (semaphore != null ? maxConcurrentCalls - semaphore.availablePermits() : 0);
+        }
+
+        /**
+         * Returns how specifically the route template matches this group.
+         *
+         * @param route the route template
+         * @return a higher value for a more specific match, or -1 if the route does not match
+         */
+        int match(String route) {
+
+            int best = -1;
+            for (String pattern : routePatterns) {
+                best = Math.max(best, matchRoute(pattern, route));
+            }
+
+            return (best);
+        }
+
+        /**
+         * Acquires permission for a call of this group, waiting for bulkhead capacity if needed.
+         *
+         * @param route the route template of the call
+         * @return true if the call is a half-open probe call
+         * @throws RequestRejectedException if the call is rejected
+         */
+        boolean acquire(String route) {
+
+            boolean probe = false;
+            synchronized (this) {
+
+                if (failureRateThreshold > 0) {
+
+                    if (state == State.OPEN && System.currentTimeMillis() >= openUntil) {
+                        state = State.HALF_OPEN;
+                        probesInFlight = 0;
+                        probesSucceeded = 0;
+                    }
+
+                    if (state == State.OPEN || (state == State.HALF_OPEN && probesInFlight >= halfOpenCalls)) {
+                        throw new RequestRejectedException(name, Reason.CIRCUIT_OPEN, route);
+                    }
+
+                    if (state == State.HALF_OPEN) {
+                        probesInFlight++;
+                        probe = true;
+                    }
+                }
+            }
+
+            Semaphore semaphore = bulkhead;
+            if (semaphore == null) {
+                return (probe);
+            }
+
+            boolean acquired;
+            try {
+                acquired = (maxWaitMillis > 0 ? semaphore.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS) : semaphore.tryAcquire());
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+
+            if (!acquired) {
+
+                if (probe) {
+                    synchronized (this) {
+                        probesInFlight--;
+                    }
+                }
+
+                throw new RequestRejectedException(name, Reason.BULKHEAD_FULL, route);
+            }
+
+            return (probe);
+        }
+
+        /**
+         * Releases the permission for a call of this group and records its outcome.
+         *
+         * @param probe true if the call was a half-open probe call
+         * @param failed true if the call failed
+         * @param elapsedNanos how long the call took
+         */
+        void release(boolean probe, boolean failed, long elapsedNanos) {
+
+            Semaphore semaphore = bulkhead;
+            if (semaphore != null) {
+                semaphore.release();
+            }
+
+            if (failureRateThreshold > 0) {
+                record(probe, failed || elapsedNanos > slowCallThresholdNanos);
+            }
+        }
+
+        private synchronized void record(boolean probe, boolean bad) {
+
+            if (probe) {
+
+                if (state != State.HALF_OPEN) {
+                    return;
+                }
+
+                probesInFlight--;
+                if (bad) {
+                    open();
+                } else if (++probesSucceeded >= halfOpenCalls) {
+                    state = State.CLOSED;
+                    resetWindow();
+                    GitLabApi.getLogger().log(Level.INFO, "Circuit breaker for route group '" + name + "' has closed");
+                }
+
+                return;
+            }
+
+            // Calls that started before the circuit opened do not count
+            if (state != State.CLOSED) {
+                return;
+            }
+
+            if (windowCount == window.length) {
+                if (window[windowIndex]) {
+                    windowBadCount--;
+                }
+            } else {
+                windowCount++;
+            }
+
+            window[windowIndex] = bad;
+            if (bad) {
+                windowBadCount++;
+            }
+
+            windowIndex = (windowIndex + 1) % window.length;
+            if (windowCount >= minimumCalls && windowBadCount * 100 >= failureRateThreshold * windowCount) {
+                open();
+            }
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openUntil = System.currentTimeMillis() + openDurationMillis;
+            GitLabApi.getLogger().log(Level.WARNING, "Circuit breaker for route group '" + name + "' has opened");
+        }
+
+        private void resetWindow() {
+            window = new boolean[slidingWindowSize];
+            windowIndex = 0;
+            windowCount = 0;
+            windowBadCount = 0;
+        }
+    }
+}
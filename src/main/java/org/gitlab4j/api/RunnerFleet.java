@@ -0,0 +1,482 @@
+package org.gitlab4j.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.gitlab4j.api.models.Runner;
+import org.gitlab4j.api.models.RunnerDetail;
+import org.gitlab4j.api.utils.DaemonThreadFactory;
+import org.gitlab4j.api.utils.JacksonJson;
+
+/**
+ * <p>This class keeps an indexed snapshot of all the runners of a GitLab instance, and reports what was added,
+ * removed or changed each time it is refreshed. Access is restricted to users with admin privileges.</p>
+ *
+ * <p>Each refresh pages through the runner list, prefetching the next pages while the current one is processed,
+ * and only fetches the details of the runners that are new or whose list fields (status, online, active, contacted
+ * at, etc.) differ from the previous snapshot. The details of the other runners are carried over, so a refresh of
+ * an idle fleet costs one request per page of runners. Details that are not part of the list, such as the tags
+ * and projects of a runner, are only re-read when the runner changes or when they are older than the maximum
+ * detail age, if one is set.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   RunnerFleet fleet = new RunnerFleet(gitLabApi).withMaxDetailAge(3600000);
+ *   RunnerFleet.Diff diff = fleet.refresh();
+ *   diff.getAdded().forEach(runner -&gt; register(runner));
+ *   int dockerRunners = fleet.getSnapshot().getRunnersWithTag("docker").size();
+ * </pre>
+ */
+public class RunnerFleet {
+
+    private final GitLabApi gitLabApi;
+
+    private Runner.RunnerStatus scope;
+    private int itemsPerPage = 100;
+    private int prefetchPages = 2;
+    private int parallelism = 4;
+    private long maxDetailAgeMillis;
+
+    private volatile Snapshot snapshot = new Snapshot(new int[0], new RunnerDetail[0], new long[0], null);
+
+    /**
+     * Create a RunnerFleet with an empty snapshot.
+     *
+     * @param gitLabApi the GitLabApi instance to fetch the runners with
+     */
+    public RunnerFleet(GitLabApi gitLabApi) {
+        this.gitLabApi = gitLabApi;
+    }
+
+    /**
+     * Only track the runners in the specified scope, defaults to all runners.
+     *
+     * @param scope the scope of the runners to track, null to track all runners
+     * @return this RunnerFleet instance
+     */
+    public RunnerFleet withScope(Runner.RunnerStatus scope) {
+        this.scope = scope;
+        return (this);
+    }
+
+    /**
+     * Set the number of runners fetched per page of the runner list, defaults to 100 (the GitLab maximum).
+     *
+     * @param itemsPerPage the number of runners fetched per page
+     * @return this RunnerFleet instance
+     */
+    public RunnerFleet withItemsPerPage(int itemsPerPage) {
+        this.itemsPerPage = Math.max(1, Math.min(100, itemsPerPage));
+        return (this);
+    }
+
+    /**
+     * Set the number of pages of the runner list fetched ahead of the one being processed, defaults to 2.
+     *
+     * @param prefetchPages the number of pages to fetch ahead
+     * @return this RunnerFleet instance
+     */
+    public RunnerFleet withPrefetchPages(int prefetchPages) {
+        this.prefetchPages = Math.max(1, prefetchPages);
+        return (this);
+    }
+
+    /**
+     * Set the number of runner details fetched concurrently, defaults to 4.
+     *
+     * @param parallelism the number of runner details fetched concurrently
+     * @return this RunnerFleet instance
+     */
+    public RunnerFleet withParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return (this);
+    }
+
+    /**
+     * Set the maximum age of the details of an unchanged runner before they are fetched again, defaults to 0
+     * which only fetches the details of a runner when it is added or changed.
+     *
+     * @param maxDetailAgeMillis the maximum age of runner details in milliseconds, 0 for no maximum
+     * @return this RunnerFleet instance
+     */
+    public RunnerFleet withMaxDetailAge(long maxDetailAgeMillis) {
+        this.maxDetailAgeMillis = Math.max(0, maxDetailAgeMillis);
+        return (this);
+    }
+
+    /**
+     * Get the latest snapshot of the runners, empty until the first refresh.
+     *
+     * @return the latest snapshot of the runners
+     */
+    public Snapshot getSnapshot() {
+        return (snapshot);
+    }
+
+    /**
+     * Fetch the runner list, refresh the details of the new and changed runners, and replace the snapshot.
+     * If the refresh fails the previous snapshot is kept.
+     *
+     * <pre><code>GitLab Endpoint: GET /runners/all</code></pre>
+     * <pre><code>GitLab Endpoint: GET /runners/:id</code></pre>
+     *
+     * @return the differences between the previous snapshot and the new one
+     * @throws GitLabApiException if any exception occurs
+     */
+    public synchronized Diff refresh() throws GitLabApiException {
+
+        Snapshot previous = snapshot;
+        long now = System.currentTimeMillis();
+        RunnersApi runnersApi = gitLabApi.getRunnersApi();
+
+        // Collect the current runners, carrying over the details of those that have not changed
+        Map<Integer, RunnerDetail> current = new HashMap<>();
+        Map<Integer, Long> fetchedAt = new HashMap<>();
+        List<Integer> stale = new ArrayList<>();
+        Pager<Runner> pager = runnersApi.getAllRunners(scope, itemsPerPage);
+        try (Stream<Runner> runners = pager.lazyStream(prefetchPages)) {
+
+            Iterator<Runner> iterator = runners.iterator();
+            while (iterator.hasNext()) {
+
+                Runner runner = iterator.next();
+                int index = previous.indexOf(runner.getId());
+                if (index >= 0 && !isChanged(runner, previous.runners[index]) &&
+                        (maxDetailAgeMillis == 0 || now - previous.fetchedAt[index] < maxDetailAgeMillis)) {
+                    current.put(runner.getId(), previous.runners[index]);
+                    fetchedAt.put(runner.getId(), previous.fetchedAt[index]);
+                } else if (!current.containsKey(runner.getId())) {
+                    current.put(runner.getId(), null);
+                    stale.add(runner.getId());
+                }
+            }
+
+        } catch (RuntimeException re) {
+            if (re.getCause() instanceof GitLabApiException) {
+                throw (GitLabApiException) re.getCause();
+            }
+
+            throw re;
+        }
+
+        Map<Integer, RunnerDetail> details = fetchDetails(runnersApi, stale);
+        for (Integer runnerId : stale) {
+            RunnerDetail detail = details.get(runnerId);
+            if (detail != null) {
+                current.put(runnerId, detail);
+                fetchedAt.put(runnerId, now);
+            } else {
+                // Removed between the list and the detail requests
+                current.remove(runnerId);
+            }
+        }
+
+        int[] ids = current.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        RunnerDetail[] runners = new RunnerDetail[ids.length];
+        long[] fetched = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            runners[i] = current.get(ids[i]);
+            fetched[i] = fetchedAt.get(ids[i]);
+        }
+
+        Snapshot next = new Snapshot(ids, runners, fetched, new Date(now));
+        Diff diff = new Diff(previous, next, stale.size());
+        snapshot = next;
+        return (diff);
+    }
+
+    /**
+     * Fetch the details of the specified runners, runners that no longer exist are left out of the returned map.
+     */
+    private Map<Integer, RunnerDetail> fetchDetails(RunnersApi runnersApi, List<Integer> runnerIds) throws GitLabApiException {
+
+        Map<Integer, RunnerDetail> details = new HashMap<>();
+        if (runnerIds.isEmpty()) {
+            return (details);
+        }
+
+        if (parallelism == 1 || runnerIds.size() == 1) {
+            for (Integer runnerId : runnerIds) {
+                RunnerDetail detail = fetchDetail(runnersApi, runnerId);
+                if (detail != null) {
+                    details.put(runnerId, detail);
+                }
+            }
+
+            return (details);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, runnerIds.size()), new DaemonThreadFactory("gitlab4j-runner-fleet", true));
+
+        try {
+
+            List<Future<RunnerDetail>> futures = new ArrayList<>(runnerIds.size());
+            for (Integer runnerId : runnerIds) {
+                futures.add(executor.submit(() -> fetchDetail(runnersApi, runnerId)));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                RunnerDetail detail = futures.get(i).get();
+                if (detail != null) {
+                    details.put(runnerIds.get(i), detail);
+                }
+            }
+
+            return (details);
+
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new GitLabApiException(ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof GitLabApiException) {
+                throw (GitLabApiException) cause;
+            }
+
+            throw new GitLabApiException(cause instanceof Exception ? (Exception) cause : ee);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static RunnerDetail fetchDetail(RunnersApi runnersApi, Integer runnerId) throws GitLabApiException {
+        try {
+            return (runnersApi.getRunnerDetail(runnerId));
+        } catch (GitLabApiException glae) {
+            if (glae.getHttpStatus() == 404) {
+                return (null);
+            }
+
+            throw glae;
+        }
+    }
+
+    /**
+     * Compares the fields returned by the runner list against the previous details of the runner. The contacted at
+     * date is only compared when the list includes it, which depends on the version of the GitLab server.
+     */
+    static boolean isChanged(Runner runner, RunnerDetail previous) {
+        return (!Objects.equals(runner.getStatus(), previous.getStatus()) ||
+                !Objects.equals(runner.getOnline(), previous.getOnline()) ||
+                !Objects.equals(runner.getActive(), previous.getActive()) ||
+                !Objects.equals(runner.getIs_shared(), previous.getIs_shared()) ||
+                !Objects.equals(runner.getName(), previous.getName()) ||
+                !Objects.equals(runner.getDescription(), previous.getDescription()) ||
+                !Objects.equals(runner.getIpAddress(), previous.getIpAddress()) ||
+                (runner.getContactedAt() != null && !runner.getContactedAt().equals(previous.getContactedAt())));
+    }
+
+    /**
+     * An immutable snapshot of the runners, indexed by runner ID and by tag.
+     */
+    public static class Snapshot {
+
+        private final int[] ids;
+        private final RunnerDetail[] runners;
+        private final long[] fetchedAt;
+        private final Date takenAt;
+        private final Map<String, int[]> tagIndex = new HashMap<>();
+
+        Snapshot(int[] ids, RunnerDetail[] runners, long[] fetchedAt, Date takenAt) {
+
+            this.ids = ids;
+            this.runners = runners;
+            this.fetchedAt = fetchedAt;
+            this.takenAt = takenAt;
+
+            Map<String, List<Integer>> indexesByTag = new HashMap<>();
+            for (int i = 0; i < runners.length; i++) {
+                if (runners[i].getTagList() != null) {
+                    for (String tag : runners[i].getTagList()) {
+                        indexesByTag.computeIfAbsent(tag, t -> new ArrayList<>()).add(i);
+                    }
+                }
+            }
+
+            indexesByTag.forEach((tag, indexes) -> tagIndex.put(tag, indexes.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        private int indexOf(Integer runnerId) {
+            return (runnerId != null ? Arrays.binarySearch(ids, runnerId) : -1);
+        }
+
+        /**
+         * Get the time this snapshot was taken.
+         *
+         * @return the time this snapshot was taken, null for the initial empty snapshot
+         */
+        public Date getTakenAt() {
+            return (takenAt);
+        }
+
+        /**
+         * Get the number of runners in this snapshot.
+         *
+         * @return the number of runners in this snapshot
+         */
+        public int size() {
+            return (ids.length);
+        }
+
+        /**
+         * Get a runner by ID.
+         *
+         * @param runnerId the ID of the runner
+         * @return the runner with the specified ID, or null if it is not in this snapshot
+         */
+        public RunnerDetail getRunner(int runnerId) {
+            int index = indexOf(runnerId);
+            return (index >= 0 ? runners[index] : null);
+        }
+
+        /**
+         * Get all the runners of this snapshot, ordered by ID.
+         *
+         * @return an unmodifiable list of the runners ordered by ID
+         */
+        public List<RunnerDetail> getRunners() {
+            return (Collections.unmodifiableList(Arrays.asList(runners)));
+        }
+
+        /**
+         * Get the runners with the specified tag, ordered by ID.
+         *
+         * @param tag the tag to look up
+         * @return the runners with the specified tag, empty if there are none
+         */
+        public List<RunnerDetail> getRunnersWithTag(String tag) {
+
+            int[] indexes = tagIndex.get(tag);
+            if (indexes == null) {
+                return (Collections.emptyList());
+            }
+
+            List<RunnerDetail> tagged = new ArrayList<>(indexes.length);
+            for (int index : indexes) {
+                tagged.add(runners[index]);
+            }
+
+            return (tagged);
+        }
+    }
+
+    /**
+     * The differences between two consecutive snapshots.
+     */
+    public static class Diff {
+
+        private final Snapshot previous;
+        private final Snapshot current;
+        private final int detailRequests;
+        private final List<RunnerDetail> added = new ArrayList<>();
+        private final List<RunnerDetail> removed = new ArrayList<>();
+        private final List<RunnerDetail> changed = new ArrayList<>();
+
+        Diff(Snapshot previous, Snapshot current, int detailRequests) {
+
+            this.previous = previous;
+            this.current = current;
+            this.detailRequests = detailRequests;
+
+            // Both ID arrays are sorted, so the differences are found with a single merge pass
+            int i = 0;
+            int j = 0;
+            while (i < previous.ids.length || j < current.ids.length) {
+                if (j >= current.ids.length || (i < previous.ids.length && previous.ids[i] < current.ids[j])) {
+                    removed.add(previous.runners[i++]);
+                } else if (i >= previous.ids.length || current.ids[j] < previous.ids[i]) {
+                    added.add(current.runners[j++]);
+                } else {
+                    // Unchanged runners whose details were only fetched again because of their age are not reported
+                    if (previous.runners[i] != current.runners[j] && !isSameDetail(previous.runners[i], current.runners[j])) {
+                        changed.add(current.runners[j]);
+                    }
+
+                    i++;
+                    j++;
+                }
+            }
+        }
+
+        private static boolean isSameDetail(RunnerDetail previous, RunnerDetail current) {
+            return (JacksonJson.toJsonString(previous).equals(JacksonJson.toJsonString(current)));
+        }
+
+        /**
+         * Get the snapshot before the refresh.
+         *
+         * @return the snapshot before the refresh
+         */
+        public Snapshot getPrevious() {
+            return (previous);
+        }
+
+        /**
+         * Get the snapshot after the refresh.
+         *
+         * @return the snapshot after the refresh
+         */
+        public Snapshot getCurrent() {
+            return (current);
+        }
+
+        /**
+         * Get the runners that were not in the previous snapshot.
+         *
+         * @return the added runners, ordered by ID
+         */
+        public List<RunnerDetail> getAdded() {
+            return (Collections.unmodifiableList(added));
+        }
+
+        /**
+         * Get the runners that are no longer present, with their last known details.
+         *
+         * @return the removed runners, ordered by ID
+         */
+        public List<RunnerDetail> getRemoved() {
+            return (Collections.unmodifiableList(removed));
+        }
+
+        /**
+         * Get the runners whose details differ from the previous snapshot, with their new details. The previous
+         * details are available from the previous snapshot.
+         *
+         * @return the changed runners, ordered by ID
+         */
+        public List<RunnerDetail> getChanged() {
+            return (Collections.unmodifiableList(changed));
+        }
+
+        /**
+         * Get the number of runner detail requests made by the refresh.
+         *
+         * @return the number of runner detail requests made by the refresh
+         */
+        public int getDetailRequestCount() {
+            return (detailRequests);
+        }
+
+        /**
+         * Returns true if no runners were added, removed or changed.
+         *
+         * @return true if no runners were added, removed or changed
+         */
+        public boolean isEmpty() {
+            return (added.isEmpty() && removed.isEmpty() && changed.isEmpty());
+        }
+    }
+}
@@ -241,7 +241,7 @@ public class RunnersApi extends AbstractApi {
      */
     public Pager<Runner> getAllRunners(Runner.RunnerStatus scope, int itemsPerPage) throws GitLabApiException {
         GitLabApiForm formData = new GitLabApiForm().withParam("scope", scope, false);
-        return (new Pager<>(this, Runner.class, itemsPerPage, formData.asMap(), "runners"));
+        return (new Pager<>(this, Runner.class, itemsPerPage, formData.asMap(), "runners", "all"));
     }
 
     /**
@@ -0,0 +1,243 @@
+package org.gitlab4j.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * <p>This class holds a pool of access tokens that requests are spread across. GitLab applies rate limits
+ * per user or per token, so spreading a bulk workload across the tokens of several service accounts
+ * multiplies the sustainable throughput.</p>
+ *
+ * <p>The RateLimit-Remaining and RateLimit-Reset headers of each response are tracked per token, and each
+ * request is sent with the token that has the most budget left, rotating between tokens with equal budget.
+ * A token that has exhausted its budget is not used again until its rate limit resets, and a token that
+ * is rejected with a 401 Unauthorized, because it was revoked or has expired, is taken out of rotation.</p>
+ *
+ * <p>Example usage:</p>
+ *
+ * <pre>
+ *   GitLabApi gitLabApi = new GitLabApi("https://gitlab.example.com", tokens.get(0));
+ *   gitLabApi.setTokenPool(new TokenPool(tokens));
+ * </pre>
+ *
+ * <p>All tokens in the pool must be of the TokenType the GitLabApi instance was created with.</p>
+ */
+public class TokenPool {
+
+    // Used for tokens that have not yet been used, so they are tried before tokens with a known budget
+    private static final long UNKNOWN_REMAINING = Long.MAX_VALUE;
+
+    private final List<PooledToken> tokens;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    /**
+     * Create a TokenPool holding the specified tokens, duplicate tokens are ignored.
+     *
+     * @param tokens the access tokens to spread requests across
+     */
+    public TokenPool(Collection<String> tokens) {
+
+        if (tokens == null || tokens.isEmpty()) {
+            throw new IllegalArgumentException("tokens cannot be empty");
+        }
+
+        List<PooledToken> pooledTokens = new ArrayList<>(tokens.size());
+        for (String token : new LinkedHashSet<>(tokens)) {
+            if (token == null || token.trim().isEmpty()) {
+                throw new IllegalArgumentException("tokens cannot contain an empty token");
+            }
+
+            pooledTokens.add(new PooledToken(token.trim()));
+        }
+
+        this.tokens = Collections.unmodifiableList(pooledTokens);
+    }
+
+    /**
+     * Get the number of tokens in the pool, including tokens that have been taken out of rotation.
+     *
+     * @return the number of tokens in the pool
+     */
+    public int size() {
+        return (tokens.size());
+    }
+
+    /**
+     * Get the number of tokens that are still in rotation.
+     *
+     * @return the number of tokens that are still in rotation
+     */
+    public int getActiveCount() {
+        int count = 0;
+        for (PooledToken token : tokens) {
+            if (!token.revoked) {
+                count++;
+            }
+        }
+
+        return (count);
+    }
+
+    /**
+     * Get the remaining rate limit budget summed over the tokens in rotation, tokens that have not been
+     * used yet are not included.
+     *
+     * @return the remaining rate limit budget summed over the tokens in rotation
+     */
+    public long getRemaining() {
+        long remaining = 0;
+        for (PooledToken token : tokens) {
+            long tokenRemaining = token.remaining.get();
+            if (!token.revoked && tokenRemaining != UNKNOWN_REMAINING) {
+                remaining += tokenRemaining;
+            }
+        }
+
+        return (remaining);
+    }
+
+    /**
+     * Select the token to send the next request with.
+     *
+     * @return the token to send the next request with
+     * @throws IllegalStateException if all tokens have been taken out of rotation
+     */
+    String acquire() {
+
+        long now = System.currentTimeMillis();
+        int size = tokens.size();
+        int start = Math.floorMod(nextIndex.getAndIncrement(), size);
+
+        PooledToken best = null;
+        long bestRemaining = 0;
+        PooledToken earliestReset = null;
+        for (int i = 0; i < size; i++) {
+
+            PooledToken token = tokens.get((start + i) % size);
+            if (token.revoked) {
+                continue;
+            }
+
+            // A token with an exhausted budget is only a last resort until its rate limit resets
+            long tokenRemaining = token.remaining.get();
+            if (tokenRemaining <= 0 && token.resetMillis > now) {
+                if (earliestReset == null || token.resetMillis < earliestReset.resetMillis) {
+                    earliestReset = token;
+                }
+
+                continue;
+            }
+
+            if (best == null || tokenRemaining > bestRemaining) {
+                best = token;
+                bestRemaining = tokenRemaining;
+            }
+        }
+
+        if (best == null) {
+            best = earliestReset;
+        }
+
+        if (best == null) {
+            throw new IllegalStateException("All tokens in the pool have been revoked or have expired");
+        }
+
+        // Optimistically account for this request until the response reports the actual budget, the update
+        // is atomic so concurrent requests never lose a decrement
+        best.remaining.getAndUpdate(value -> (value != UNKNOWN_REMAINING && value > 0 ? value - 1 : value));
+
+        return (best.token);
+    }
+
+    /**
+     * Update the state of a token from the status and headers of a response that was sent with it.
+     *
+     * @param token the token the request was sent with
+     * @param status the HTTP status code of the response
+     * @param remaining the value of the RateLimit-Remaining header, or null
+     * @param reset the value of the RateLimit-Reset header, or null
+     * @param retryAfter the value of the Retry-After header, or null
+     */
+    void update(String token, int status, String remaining, String reset, String retryAfter) {
+
+        PooledToken pooledToken = find(token);
+        if (pooledToken == null) {
+            return;
+        }
+
+        if (status == 401) {
+            if (!pooledToken.revoked) {
+                pooledToken.revoked = true;
+                GitLabApi.getLogger().log(Level.WARNING, "A token was rejected by the server and has been taken out of the token pool");
+            }
+
+            return;
+        }
+
+        Long remainingValue = parseLong(remaining);
+        if (remainingValue != null) {
+            pooledToken.remaining.set(remainingValue);
+        }
+
+        Long resetValue = parseLong(reset);
+        if (resetValue != null) {
+            pooledToken.resetMillis = resetValue * 1000;
+        }
+
+        if (status == 429) {
+
+            pooledToken.remaining.set(0);
+            Long retryAfterValue = parseLong(retryAfter);
+            if (retryAfterValue != null) {
+                pooledToken.resetMillis = System.currentTimeMillis() + retryAfterValue * 1000;
+            } else if (resetValue == null) {
+                pooledToken.resetMillis = System.currentTimeMillis() + 60000;
+            }
+        }
+    }
+
+    private PooledToken find(String token) {
+
+        for (PooledToken pooledToken : tokens) {
+            if (pooledToken.token.equals(token)) {
+                return (pooledToken);
+            }
+        }
+
+        return (null);
+    }
+
+    private static Long parseLong(String value) {
+
+        if (value == null) {
+            return (null);
+        }
+
+        try {
+            return (Long.valueOf(value.trim()));
+        } catch (NumberFormatException nfe) {
+            return (null);
+        }
+    }
+
+    /**
+     * The rate limit state of a single token.
+     */
+    private static class PooledToken {
+
+        private final String token;
+        private final AtomicLong remaining = new AtomicLong(UNKNOWN_REMAINING);
+        private volatile long resetMillis;
+        private volatile boolean revoked;
+
+        PooledToken(String token) {
+            this.token = token;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.gitlab4j.api;
+
+import java.io.IOException;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+
+/**
+ * This filter reports the status and rate limit headers of each response to the TokenPool
+ * currently set on a GitLabApiClient, so the pool can track the budget of each token.
+ */
+class TokenPoolFilter implements ClientResponseFilter {
+
+    /** The request property holding the token a request was sent with. */
+    static final String TOKEN_PROPERTY = TokenPoolFilter.class.getName() + ".token";
+
+    static final String RATE_LIMIT_REMAINING_HEADER = "RateLimit-Remaining";
+    static final String RATE_LIMIT_RESET_HEADER = "RateLimit-Reset";
+    static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final GitLabApiClient apiClient;
+
+    TokenPoolFilter(GitLabApiClient apiClient) {
+        this.apiClient = apiClient;
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) throws IOException {
+
+        TokenPool tokenPool = apiClient.getTokenPool();
+        Object token = requestContext.getProperty(TOKEN_PROPERTY);
+        if (tokenPool == null || token == null) {
+            return;
+        }
+
+        tokenPool.update((String) token, responseContext.getStatus(),
+                responseContext.getHeaderString(RATE_LIMIT_REMAINING_HEADER),
+                responseContext.getHeaderString(RATE_LIMIT_RESET_HEADER),
+                responseContext.getHeaderString(RETRY_AFTER_HEADER));
+    }
+}
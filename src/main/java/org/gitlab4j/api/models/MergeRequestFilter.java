@@ -18,6 +18,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 public class MergeRequestFilter {
 
     private Integer projectId;
+    private Integer groupId;
     private List<Integer> iids;
     private MergeRequestState state;
     private MergeRequestOrderBy orderBy;
@@ -50,6 +51,19 @@ public class MergeRequestFilter {
         return (this);
     }
 
+    public Integer getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Integer groupId) {
+        this.groupId = groupId;
+    }
+
+    public MergeRequestFilter withGroupId(Integer groupId) {
+        this.groupId = groupId;
+        return (this);
+    }
+
     public List<Integer> getIids() {
         return iids;
     }
@@ -24,6 +24,16 @@ public enum PipelineStatus {
         return valuesMap.get(value);
     }
 
+    /**
+     * Returns true if a pipeline with this status has finished and will not change status again
+     * unless it is retried.
+     *
+     * @return true if this is a finished status
+     */
+    public boolean isFinished() {
+        return (this == SUCCESS || this == FAILED || this == CANCELED || this == SKIPPED);
+    }
+
     @JsonValue
     public String toValue() {
         return (name().toLowerCase());
@@ -1,5 +1,7 @@
 package org.gitlab4j.api.models;
 
+import java.util.Date;
+
 import org.gitlab4j.api.Constants.ProjectOrderBy;
 import org.gitlab4j.api.Constants.SortOrder;
 import org.gitlab4j.api.Constants;
@@ -24,6 +26,8 @@ public class ProjectFilter {
     private Boolean withIssuesEnabled;
     private Boolean withMergeRequestsEnabled;
     private AccessLevel minAccessLevel;
+    private Date lastActivityAfter;
+    private Date lastActivityBefore;
 
     /**
      * Limit by archived status.
@@ -180,6 +184,28 @@ public class ProjectFilter {
         return (this);
     }
 
+    /**
+     * Limit results to projects with last_activity after specified time.
+     *
+     * @param lastActivityAfter limit results to projects with last_activity after specified time
+     * @return the reference to this ProjectFilter instance
+     */
+    public ProjectFilter withLastActivityAfter(Date lastActivityAfter) {
+        this.lastActivityAfter = lastActivityAfter;
+        return (this);
+    }
+
+    /**
+     * Limit results to projects with last_activity before specified time.
+     *
+     * @param lastActivityBefore limit results to projects with last_activity before specified time
+     * @return the reference to this ProjectFilter instance
+     */
+    public ProjectFilter withLastActivityBefore(Date lastActivityBefore) {
+        this.lastActivityBefore = lastActivityBefore;
+        return (this);
+    }
+
     /**
      * Get the query params specified by this filter.
      *
@@ -212,7 +238,9 @@ public class ProjectFilter {
             .withParam("statistics", statistics)
             .withParam("with_custom_attributes", withCustomAttributes)
             .withParam("with_issues_enabled", withIssuesEnabled)
-            .withParam("with_merge_requests_enabled ", withMergeRequestsEnabled))
+            .withParam("with_merge_requests_enabled ", withMergeRequestsEnabled)
+            .withParam("last_activity_after", lastActivityAfter)
+            .withParam("last_activity_before", lastActivityBefore))
             .withParam("min_access_level ", (minAccessLevel != null ? minAccessLevel.toValue() : null)
         );
     }
@@ -1,5 +1,7 @@
 package org.gitlab4j.api.models;
 
+import java.util.Date;
+
 import org.gitlab4j.api.utils.JacksonJson;
 import org.gitlab4j.api.utils.JacksonJsonEnumHelper;
 
@@ -16,6 +18,7 @@ public class Runner {
     private Boolean online;
     private RunnerStatus status;
     private String ipAddress;
+    private Date contactedAt;
 
     /**
      * Enum to use for RunnersApi filtering.
@@ -106,6 +109,14 @@ public class Runner {
         this.ipAddress = ipAddress;
     }
 
+    public Date getContactedAt() {
+        return contactedAt;
+    }
+
+    public void setContactedAt(Date contactedAt) {
+        this.contactedAt = contactedAt;
+    }
+
 
     public Runner withId(Integer id) {
         this.id = id;
@@ -147,6 +158,11 @@ public class Runner {
         return this;
     }
 
+    public Runner withContactedAt(Date contactedAt) {
+        this.contactedAt = contactedAt;
+        return this;
+    }
+
     @Override
     public String toString() {
         return (JacksonJson.toJsonString(this));
@@ -13,7 +13,6 @@ public class RunnerDetail extends Runner {
 
     private String architecture;
     private String platform;
-    private Date contactedAt;
     private List<Project> projects;
     private String token;
     private String revision;
@@ -62,14 +61,6 @@ public class RunnerDetail extends Runner {
         this.platform = platform;
     }
 
-    public Date getContactedAt() {
-        return contactedAt;
-    }
-
-    public void setContactedAt(Date contactedAt) {
-        this.contactedAt = contactedAt;
-    }
-
     public List<Project> getProjects() {
         return this.projects;
     }
@@ -128,8 +119,9 @@ public class RunnerDetail extends Runner {
         return this;
     }
 
+    @Override
     public RunnerDetail withContactedAt(Date contactedAt) {
-        this.contactedAt = contactedAt;
+        setContactedAt(contactedAt);
         return this;
     }
 
@@ -0,0 +1,142 @@
+package org.gitlab4j.api.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative long values, patterned after HdrHistogram. Values are
+ * counted in log-linear buckets: each power of two is split into 32 equally sized sub-buckets,
+ * so any recorded value is reported with a relative error of at most 1/32 (about 3%).
+ *
+ * Recording a value is a single atomic increment plus a few bit operations, making it safe to
+ * call from any number of threads without contention on a lock.
+ */
+public class AtomicHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = 64 - SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKET_COUNT * BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalSum = new AtomicLong();
+    private final AtomicLong minValue = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxValue = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Record a value, negative values are recorded as 0.
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+
+        if (value < 0) {
+            value = 0;
+        }
+
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalSum.addAndGet(value);
+
+        final long v = value;
+        minValue.accumulateAndGet(v, Math::min);
+        maxValue.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * Get the number of values recorded.
+     *
+     * @return the number of values recorded
+     */
+    public long getCount() {
+        return (totalCount.get());
+    }
+
+    /**
+     * Get the sum of all recorded values.
+     *
+     * @return the sum of all recorded values
+     */
+    public long getSum() {
+        return (totalSum.get());
+    }
+
+    /**
+     * Get the smallest recorded value, or 0 if no values have been recorded.
+     *
+     * @return the smallest recorded value
+     */
+    public long getMin() {
+        return (totalCount.get() > 0 ? minValue.get() : 0);
+    }
+
+    /**
+     * Get the largest recorded value, or 0 if no values have been recorded.
+     *
+     * @return the largest recorded value
+     */
+    public long getMax() {
+        return (totalCount.get() > 0 ? maxValue.get() : 0);
+    }
+
+    /**
+     * Get the mean of the recorded values, or 0 if no values have been recorded.
+     *
+     * @return the mean of the recorded values
+     */
+    public double getMean() {
+        long count = totalCount.get();
+        return (count > 0 ? (double) totalSum.get() / count : 0.0);
+    }
+
+    /**
+     * Get the value at the specified percentile. The returned value is the highest value that is
+     * equivalent to the recorded values at that percentile, capped at the largest recorded value.
+     *
+     * @param percentile the percentile, 0.0 to 100.0
+     * @return the value at the specified percentile, or 0 if no values have been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+
+        long count = totalCount.get();
+        if (count == 0) {
+            return (0);
+        }
+
+        double clamped = Math.min(Math.max(percentile, 0.0), 100.0);
+        long target = Math.max(1, (long) Math.ceil(clamped / 100.0 * count));
+
+        long cumulative = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= target) {
+                return (Math.min(highestEquivalentValue(i), getMax()));
+            }
+        }
+
+        return (getMax());
+    }
+
+    static int indexOf(long value) {
+
+        if (value < SUB_BUCKET_COUNT) {
+            return ((int) value);
+        }
+
+        int bucket = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> bucket) & (SUB_BUCKET_COUNT - 1);
+        return (SUB_BUCKET_COUNT + bucket * SUB_BUCKET_COUNT + subBucket);
+    }
+
+    static long highestEquivalentValue(int index) {
+
+        if (index < SUB_BUCKET_COUNT) {
+            return (index);
+        }
+
+        int bucket = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        long subBucket = SUB_BUCKET_COUNT + (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        long lowest = subBucket << bucket;
+        return (lowest + (1L << bucket) - 1);
+    }
+}
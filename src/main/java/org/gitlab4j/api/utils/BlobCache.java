@@ -0,0 +1,428 @@
+package org.gitlab4j.api.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * A content addressed cache for repository blobs keyed by the blob SHA. Because a blob SHA
+ * identifies immutable content the cached entries never need to be invalidated.
+ *
+ * <p>The cache has two tiers, an in-memory LRU and an optional on-disk store. Blobs in the on-disk
+ * store are memory-mapped when read, so serving them does not copy their content onto the heap. The
+ * LRU holds both heap and mapped blobs, each bounded separately by the total number of bytes held.</p>
+ *
+ * <p>The cache does not check whether the caller may access a blob, callers sharing a cache across
+ * users must check access before serving cached content.</p>
+ *
+ * <p>Instances of this class are thread safe and may be shared by multiple GitLabApi instances.</p>
+ */
+public class BlobCache {
+
+    private static final Pattern SHA_PATTERN = Pattern.compile("^[0-9a-fA-F]{40,64}$");
+
+    private final long maxMemoryBytes;
+    private final long maxMappedBytes;
+    private final Path directory;
+
+    private final LinkedHashMap<String, ByteBuffer> memoryCache = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+    private long mappedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create a memory only BlobCache.
+     *
+     * @param maxMemoryBytes the maximum number of content bytes to hold in memory
+     */
+    public BlobCache(long maxMemoryBytes) {
+        this(maxMemoryBytes, null);
+    }
+
+    /**
+     * Create a BlobCache that holds up to maxMemoryBytes in memory and persists all blobs
+     * to the specified directory. Up to maxMemoryBytes of memory-mapped blobs are also held.
+     *
+     * @param maxMemoryBytes the maximum number of content bytes to hold in memory
+     * @param directory the directory to store the blobs in, if null the cache will be memory only
+     * @throws IllegalArgumentException if the directory cannot be created
+     */
+    public BlobCache(long maxMemoryBytes, Path directory) {
+        this(maxMemoryBytes, directory, maxMemoryBytes);
+    }
+
+    /**
+     * Create a BlobCache that holds up to maxMemoryBytes in memory and maxMappedBytes of memory-mapped
+     * blobs, and persists all blobs to the specified directory.
+     *
+     * @param maxMemoryBytes the maximum number of content bytes to hold in memory
+     * @param directory the directory to store the blobs in, if null the cache will be memory only
+     * @param maxMappedBytes the maximum number of content bytes of memory-mapped blobs to hold
+     * @throws IllegalArgumentException if the directory cannot be created
+     */
+    public BlobCache(long maxMemoryBytes, Path directory, long maxMappedBytes) {
+
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxMappedBytes = maxMappedBytes;
+        this.directory = directory;
+
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException ioe) {
+                throw new IllegalArgumentException("Unable to create blob cache directory: " + directory, ioe);
+            }
+        }
+    }
+
+    /**
+     * Get the content for the specified blob SHA.
+     *
+     * @param sha the blob SHA to get the content for
+     * @return a read-only ByteBuffer holding the blob content, or null if the blob is not cached
+     * @throws IOException if any error occurs reading the on-disk store
+     */
+    public ByteBuffer get(String sha) throws IOException {
+
+        if (!isValidSha(sha)) {
+            return (null);
+        }
+
+        String key = sha.toLowerCase();
+        synchronized (memoryCache) {
+            ByteBuffer content = memoryCache.get(key);
+            if (content != null) {
+                hits.incrementAndGet();
+                return (content.duplicate());
+            }
+        }
+
+        Path blobPath = getBlobPath(key);
+        if (blobPath == null || !Files.isRegularFile(blobPath)) {
+            misses.incrementAndGet();
+            return (null);
+        }
+
+        ByteBuffer content = map(blobPath);
+        hits.incrementAndGet();
+        putInMemory(key, content);
+        return (content.duplicate());
+    }
+
+    /**
+     * Get an InputStream to read the content for the specified blob SHA.
+     *
+     * @param sha the blob SHA to get the content for
+     * @return an InputStream to read the blob content from, or null if the blob is not cached
+     * @throws IOException if any error occurs reading the on-disk store
+     */
+    public InputStream getInputStream(String sha) throws IOException {
+        ByteBuffer content = get(sha);
+        return (content != null ? newInputStream(content) : null);
+    }
+
+    /**
+     * Create an InputStream that reads the remaining content of the provided ByteBuffer without copying it.
+     *
+     * @param content the ByteBuffer to read from
+     * @return an InputStream that reads the remaining content of the provided ByteBuffer
+     */
+    public static InputStream newInputStream(ByteBuffer content) {
+        return (new ByteBufferInputStream(content));
+    }
+
+    /**
+     * Get the content for the specified blob SHA as a byte array.
+     *
+     * @param sha the blob SHA to get the content for
+     * @return the blob content, or null if the blob is not cached
+     * @throws IOException if any error occurs reading the on-disk store
+     */
+    public byte[] getBytes(String sha) throws IOException {
+
+        ByteBuffer content = get(sha);
+        if (content == null) {
+            return (null);
+        }
+
+        byte[] bytes = new byte[content.remaining()];
+        content.get(bytes);
+        return (bytes);
+    }
+
+    /**
+     * Add the content for the specified blob SHA to the cache.
+     *
+     * @param sha the blob SHA of the content
+     * @param content the blob content
+     * @return a read-only ByteBuffer holding the cached blob content
+     * @throws IOException if any error occurs writing to the on-disk store
+     */
+    public ByteBuffer put(String sha, byte[] content) throws IOException {
+
+        if (!isValidSha(sha)) {
+            throw new IllegalArgumentException("Invalid blob SHA: " + sha);
+        }
+
+        String key = sha.toLowerCase();
+        Path blobPath = getBlobPath(key);
+        if (blobPath != null && !Files.isRegularFile(blobPath)) {
+            Path tempFile = Files.createTempFile(directory, key, ".tmp");
+            try {
+                Files.write(tempFile, content);
+                moveIntoPlace(tempFile, blobPath);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(content).asReadOnlyBuffer();
+        putInMemory(key, buffer);
+        return (buffer.duplicate());
+    }
+
+    /**
+     * Add the content read from the provided InputStream to the cache. When the cache has an on-disk
+     * store the content is streamed to disk and then memory-mapped, otherwise it is read into memory.
+     * The InputStream is read fully but is not closed.
+     *
+     * @param sha the blob SHA of the content
+     * @param in the InputStream to read the blob content from
+     * @return a read-only ByteBuffer holding the cached blob content
+     * @throws IOException if any error occurs reading the content or writing to the on-disk store
+     */
+    public ByteBuffer put(String sha, InputStream in) throws IOException {
+
+        if (!isValidSha(sha)) {
+            throw new IllegalArgumentException("Invalid blob SHA: " + sha);
+        }
+
+        String key = sha.toLowerCase();
+        Path blobPath = getBlobPath(key);
+        if (blobPath == null) {
+            return (put(key, readFully(in)));
+        }
+
+        Path tempFile = Files.createTempFile(directory, key, ".tmp");
+        try {
+            Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            if (!Files.isRegularFile(blobPath)) {
+                moveIntoPlace(tempFile, blobPath);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+
+        ByteBuffer content = map(blobPath);
+        putInMemory(key, content);
+        return (content.duplicate());
+    }
+
+    /**
+     * Returns true if the specified blob SHA is present in either tier of the cache.
+     *
+     * @param sha the blob SHA to check for
+     * @return true if the specified blob SHA is present in the cache
+     */
+    public boolean contains(String sha) {
+
+        if (!isValidSha(sha)) {
+            return (false);
+        }
+
+        String key = sha.toLowerCase();
+        synchronized (memoryCache) {
+            if (memoryCache.containsKey(key)) {
+                return (true);
+            }
+        }
+
+        Path blobPath = getBlobPath(key);
+        return (blobPath != null && Files.isRegularFile(blobPath));
+    }
+
+    /**
+     * Remove all entries from the in-memory tier. The on-disk store is left intact.
+     */
+    public void clearMemory() {
+        synchronized (memoryCache) {
+            memoryCache.clear();
+            memoryBytes = 0;
+            mappedBytes = 0;
+        }
+    }
+
+    /**
+     * Get the number of content bytes currently held on the heap by the in-memory tier.
+     *
+     * @return the number of content bytes currently held on the heap by the in-memory tier
+     */
+    public long getMemoryBytes() {
+        synchronized (memoryCache) {
+            return (memoryBytes);
+        }
+    }
+
+    /**
+     * Get the number of content bytes of the memory-mapped blobs currently held by the in-memory tier.
+     *
+     * @return the number of content bytes of the memory-mapped blobs currently held by the in-memory tier
+     */
+    public long getMappedBytes() {
+        synchronized (memoryCache) {
+            return (mappedBytes);
+        }
+    }
+
+    /**
+     * Get the number of lookups that were served from the cache.
+     *
+     * @return the number of lookups that were served from the cache
+     */
+    public long getHitCount() {
+        return (hits.get());
+    }
+
+    /**
+     * Get the number of lookups that were not found in the cache.
+     *
+     * @return the number of lookups that were not found in the cache
+     */
+    public long getMissCount() {
+        return (misses.get());
+    }
+
+    private void putInMemory(String key, ByteBuffer content) {
+
+        // Memory-mapped blobs are direct buffers, they are not held on the heap
+        long size = content.remaining();
+        if (size > (content.isDirect() ? maxMappedBytes : maxMemoryBytes)) {
+            return;
+        }
+
+        synchronized (memoryCache) {
+
+            ByteBuffer previous = memoryCache.put(key, content);
+            if (previous != null) {
+                account(previous, -previous.remaining());
+            }
+
+            account(content, size);
+            Iterator<Map.Entry<String, ByteBuffer>> iterator = memoryCache.entrySet().iterator();
+            while ((memoryBytes > maxMemoryBytes || mappedBytes > maxMappedBytes) && iterator.hasNext()) {
+                ByteBuffer entry = iterator.next().getValue();
+                if (entry.isDirect() ? mappedBytes > maxMappedBytes : memoryBytes > maxMemoryBytes) {
+                    account(entry, -entry.remaining());
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private void account(ByteBuffer content, long bytes) {
+        if (content.isDirect()) {
+            mappedBytes += bytes;
+        } else {
+            memoryBytes += bytes;
+        }
+    }
+
+    private Path getBlobPath(String key) {
+        return (directory != null ? directory.resolve(key.substring(0, 2)).resolve(key.substring(2)) : null);
+    }
+
+    private static boolean isValidSha(String sha) {
+        return (sha != null && SHA_PATTERN.matcher(sha).matches());
+    }
+
+    private static void moveIntoPlace(Path tempFile, Path blobPath) throws IOException {
+
+        Files.createDirectories(blobPath.getParent());
+        try {
+            Files.move(tempFile, blobPath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ioe) {
+            // Another thread or process may have stored the same blob, which is fine as the content is identical
+            if (!Files.isRegularFile(blobPath)) {
+                throw ioe;
+            }
+        }
+    }
+
+    private static ByteBuffer map(Path blobPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(blobPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return (buffer.asReadOnlyBuffer());
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int count;
+        while ((count = in.read(buffer)) != -1) {
+            out.write(buffer, 0, count);
+        }
+
+        return (out.toByteArray());
+    }
+
+    /**
+     * An InputStream that reads from a ByteBuffer without copying it.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return (buffer.hasRemaining() ? buffer.get() & 0xFF : -1);
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) {
+
+            if (len == 0) {
+                return (0);
+            }
+
+            if (!buffer.hasRemaining()) {
+                return (-1);
+            }
+
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, count);
+            return (count);
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return (count);
+        }
+
+        @Override
+        public int available() {
+            return (buffer.remaining());
+        }
+    }
+}
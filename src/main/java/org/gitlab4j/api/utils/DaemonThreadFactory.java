@@ -0,0 +1,42 @@
+package org.gitlab4j.api.utils;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A ThreadFactory for the background threads of GitLab4J. The threads are daemon threads so they never keep
+ * the JVM from exiting, and are named after the factory, followed by a sequence number if it is numbered.
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+    private final String name;
+    private final boolean numbered;
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    /**
+     * Create a DaemonThreadFactory which gives all its threads the specified name.
+     *
+     * @param name the name of the threads
+     */
+    public DaemonThreadFactory(String name) {
+        this(name, false);
+    }
+
+    /**
+     * Create a DaemonThreadFactory.
+     *
+     * @param name the name of the threads
+     * @param numbered if true a "-N" sequence number starting at 1 is appended to the name of each thread
+     */
+    public DaemonThreadFactory(String name, boolean numbered) {
+        this.name = name;
+        this.numbered = numbered;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, numbered ? name + "-" + threadCount.incrementAndGet() : name);
+        thread.setDaemon(true);
+        return (thread);
+    }
+}
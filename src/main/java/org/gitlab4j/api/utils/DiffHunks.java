@@ -0,0 +1,473 @@
+package org.gitlab4j.api.utils;
+
+import java.util.Arrays;
+
+import org.gitlab4j.api.models.Position;
+
+/**
+ * <p>A compact, parsed representation of a unified diff such as the one returned by
+ * {@link org.gitlab4j.api.models.Diff#getDiff()}. The diff text is parsed in a single pass over the
+ * CharSequence without creating a String per line, hunks and lines are held in primitive arrays:</p>
+ *
+ * <ul>
+ *   <li>per hunk, the old start and length, the new start and length, and the index of its first line</li>
+ *   <li>per line, its kind ({@link #CONTEXT}, {@link #ADDED} or {@link #REMOVED}), its old and new
+ *   line numbers, and the offsets of its text in the diff</li>
+ * </ul>
+ *
+ * <p>The text of a line is only materialized when requested with {@link #getLineText(int)}. The arrays returned
+ * by the getters are the internal arrays, trimmed to their counts, and must not be modified.</p>
+ *
+ * <p>Example usage, placing a comment on the first added line of a merge request change:</p>
+ *
+ * <pre>
+ *   DiffHunks hunks = DiffHunks.parse(diff.getDiff());
+ *   byte[] kinds = hunks.getLineKinds();
+ *   for (int i = 0; i &lt; hunks.getLineCount(); i++) {
+ *       if (kinds[i] == DiffHunks.ADDED) {
+ *           Position position = hunks.toPosition(i, new Position().withNewPath(diff.getNewPath()));
+ *           ...
+ *       }
+ *   }
+ * </pre>
+ */
+public class DiffHunks {
+
+    /** The kind of a line that is unchanged. */
+    public static final byte CONTEXT = 0;
+
+    /** The kind of a line that was added. */
+    public static final byte ADDED = 1;
+
+    /** The kind of a line that was removed. */
+    public static final byte REMOVED = 2;
+
+    private final CharSequence diff;
+
+    private int hunkCount;
+    private int[] oldStarts;
+    private int[] oldLengths;
+    private int[] newStarts;
+    private int[] newLengths;
+    private int[] hunkLineOffsets;
+
+    private int lineCount;
+    private byte[] lineKinds;
+    private int[] oldLines;
+    private int[] newLines;
+    private int[] lineStarts;
+    private int[] lineEnds;
+
+    private int addedCount;
+    private int removedCount;
+
+    private DiffHunks(CharSequence diff) {
+
+        this.diff = diff;
+
+        int hunkCapacity = 4;
+        oldStarts = new int[hunkCapacity];
+        oldLengths = new int[hunkCapacity];
+        newStarts = new int[hunkCapacity];
+        newLengths = new int[hunkCapacity];
+        hunkLineOffsets = new int[hunkCapacity + 1];
+
+        // Assume lines of about 40 characters, the arrays grow as needed
+        int lineCapacity = Math.max(16, diff.length() / 40);
+        lineKinds = new byte[lineCapacity];
+        oldLines = new int[lineCapacity];
+        newLines = new int[lineCapacity];
+        lineStarts = new int[lineCapacity];
+        lineEnds = new int[lineCapacity];
+    }
+
+    /**
+     * Parses a unified diff. Any header lines before the first hunk, such as "diff --git", "---" and "+++",
+     * and the "\ No newline at end of file" markers are skipped.
+     *
+     * @param diff the unified diff text to parse, null is treated as an empty diff
+     * @return the parsed diff
+     * @throws IllegalArgumentException if a hunk header is malformed
+     */
+    public static DiffHunks parse(CharSequence diff) {
+
+        DiffHunks hunks = new DiffHunks(diff != null ? diff : "");
+        hunks.parse();
+        return (hunks);
+    }
+
+    /**
+     * Get the number of hunks in the diff.
+     *
+     * @return the number of hunks in the diff
+     */
+    public int getHunkCount() {
+        return (hunkCount);
+    }
+
+    /**
+     * Get the start line of each hunk in the old file.
+     *
+     * @return the start line of each hunk in the old file
+     */
+    public int[] getOldStarts() {
+        return (oldStarts);
+    }
+
+    /**
+     * Get the number of lines of each hunk in the old file.
+     *
+     * @return the number of lines of each hunk in the old file
+     */
+    public int[] getOldLengths() {
+        return (oldLengths);
+    }
+
+    /**
+     * Get the start line of each hunk in the new file.
+     *
+     * @return the start line of each hunk in the new file
+     */
+    public int[] getNewStarts() {
+        return (newStarts);
+    }
+
+    /**
+     * Get the number of lines of each hunk in the new file.
+     *
+     * @return the number of lines of each hunk in the new file
+     */
+    public int[] getNewLengths() {
+        return (newLengths);
+    }
+
+    /**
+     * Get the index of the first line of each hunk, followed by the line count, so the lines of
+     * hunk h are the lines from getHunkLineOffsets()[h] up to, but not including, getHunkLineOffsets()[h + 1].
+     *
+     * @return the index of the first line of each hunk, followed by the line count
+     */
+    public int[] getHunkLineOffsets() {
+        return (hunkLineOffsets);
+    }
+
+    /**
+     * Get the number of lines in all the hunks of the diff.
+     *
+     * @return the number of lines in all the hunks of the diff
+     */
+    public int getLineCount() {
+        return (lineCount);
+    }
+
+    /**
+     * Get the kind of each line, {@link #CONTEXT}, {@link #ADDED} or {@link #REMOVED}.
+     *
+     * @return the kind of each line
+     */
+    public byte[] getLineKinds() {
+        return (lineKinds);
+    }
+
+    /**
+     * Get the line number of each line in the old file, 0 for added lines.
+     *
+     * @return the line number of each line in the old file
+     */
+    public int[] getOldLines() {
+        return (oldLines);
+    }
+
+    /**
+     * Get the line number of each line in the new file, 0 for removed lines.
+     *
+     * @return the line number of each line in the new file
+     */
+    public int[] getNewLines() {
+        return (newLines);
+    }
+
+    /**
+     * Get the offset in the diff of the text of a line, after its ' ', '+' or '-' prefix.
+     *
+     * @param line the index of the line
+     * @return the offset in the diff of the text of the line
+     */
+    public int getLineStart(int line) {
+        return (lineStarts[line]);
+    }
+
+    /**
+     * Get the offset in the diff of the end of the text of a line, excluding the line terminator.
+     *
+     * @param line the index of the line
+     * @return the offset in the diff of the end of the text of the line
+     */
+    public int getLineEnd(int line) {
+        return (lineEnds[line]);
+    }
+
+    /**
+     * Get the text of a line, without its ' ', '+' or '-' prefix and line terminator.
+     *
+     * @param line the index of the line
+     * @return the text of the line
+     */
+    public CharSequence getLineText(int line) {
+        return (diff.subSequence(lineStarts[line], lineEnds[line]));
+    }
+
+    /**
+     * Get the number of added lines.
+     *
+     * @return the number of added lines
+     */
+    public int getAddedCount() {
+        return (addedCount);
+    }
+
+    /**
+     * Get the number of removed lines.
+     *
+     * @return the number of removed lines
+     */
+    public int getRemovedCount() {
+        return (removedCount);
+    }
+
+    /**
+     * Get the index of the line having the specified line number in the new file.
+     *
+     * @param newLine the line number in the new file
+     * @return the index of the line, or -1 if the line is not part of any hunk
+     */
+    public int indexOfNewLine(int newLine) {
+        return (indexOf(newLine, newStarts, newLengths, newLines));
+    }
+
+    /**
+     * Get the index of the line having the specified line number in the old file.
+     *
+     * @param oldLine the line number in the old file
+     * @return the index of the line, or -1 if the line is not part of any hunk
+     */
+    public int indexOfOldLine(int oldLine) {
+        return (indexOf(oldLine, oldStarts, oldLengths, oldLines));
+    }
+
+    /**
+     * Sets the old and new line of a Position to those of the specified line. As GitLab expects, an added
+     * line only has a new line, a removed line only has an old line, and a context line has both.
+     *
+     * @param line the index of the line
+     * @param position the Position to set the lines of, typically already holding the paths and SHAs
+     * @return the specified Position
+     */
+    public Position toPosition(int line, Position position) {
+        position.setOldLine(oldLines[line] != 0 ? oldLines[line] : null);
+        position.setNewLine(newLines[line] != 0 ? newLines[line] : null);
+        return (position);
+    }
+
+    private int indexOf(int lineNumber, int[] starts, int[] lengths, int[] lineNumbers) {
+
+        // Find the last hunk starting at or before the line, hunks are in increasing line order
+        int low = 0;
+        int high = hunkCount - 1;
+        int hunk = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= lineNumber) {
+                hunk = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        if (hunk < 0 || lineNumber >= starts[hunk] + lengths[hunk]) {
+            return (-1);
+        }
+
+        for (int i = hunkLineOffsets[hunk]; i < hunkLineOffsets[hunk + 1]; i++) {
+            if (lineNumbers[i] == lineNumber) {
+                return (i);
+            }
+        }
+
+        return (-1);
+    }
+
+    private void parse() {
+
+        int length = diff.length();
+        int oldRemaining = 0;
+        int newRemaining = 0;
+        int oldLine = 0;
+        int newLine = 0;
+
+        int start = 0;
+        while (start < length) {
+
+            int end = start;
+            while (end < length && diff.charAt(end) != '\n') {
+                end++;
+            }
+
+            int next = end + 1;
+            if (end > start && diff.charAt(end - 1) == '\r') {
+                end--;
+            }
+
+            char c = (end > start ? diff.charAt(start) : ' ');
+            if (c == '@' && startsWith(start, end, "@@ ")) {
+
+                int hunk = addHunk(start, end);
+                oldLine = oldStarts[hunk];
+                newLine = newStarts[hunk];
+                oldRemaining = oldLengths[hunk];
+                newRemaining = newLengths[hunk];
+
+            } else if (oldRemaining > 0 || newRemaining > 0) {
+
+                if (c == '+' && newRemaining > 0) {
+                    addLine(ADDED, 0, newLine++, start + 1, end);
+                    newRemaining--;
+                    addedCount++;
+                } else if (c == '-' && oldRemaining > 0) {
+                    addLine(REMOVED, oldLine++, 0, start + 1, end);
+                    oldRemaining--;
+                    removedCount++;
+                } else if (c == ' ' && oldRemaining > 0 && newRemaining > 0) {
+                    // An empty line is a context line whose trailing space has been stripped
+                    addLine(CONTEXT, oldLine++, newLine++, Math.min(start + 1, end), end);
+                    oldRemaining--;
+                    newRemaining--;
+                } else if (c != '\\') {
+                    throw new IllegalArgumentException("Unexpected line in hunk at offset " + start);
+                }
+            }
+
+            start = next;
+        }
+
+        hunkLineOffsets[hunkCount] = lineCount;
+        trim();
+    }
+
+    private int addHunk(int start, int end) {
+
+        if (hunkCount == oldStarts.length) {
+            int capacity = hunkCount * 2;
+            oldStarts = Arrays.copyOf(oldStarts, capacity);
+            oldLengths = Arrays.copyOf(oldLengths, capacity);
+            newStarts = Arrays.copyOf(newStarts, capacity);
+            newLengths = Arrays.copyOf(newLengths, capacity);
+            hunkLineOffsets = Arrays.copyOf(hunkLineOffsets, capacity + 1);
+        }
+
+        // "@@ -oldStart[,oldLength] +newStart[,newLength] @@ optional section heading"
+        int[] range = new int[2];
+        int pos = parseRange(start + 3, end, '-', range);
+        oldStarts[hunkCount] = range[0];
+        oldLengths[hunkCount] = range[1];
+        pos = parseRange(pos + 1, end, '+', range);
+        newStarts[hunkCount] = range[0];
+        newLengths[hunkCount] = range[1];
+
+        if (!startsWith(pos, end, " @@")) {
+            throw new IllegalArgumentException("Malformed hunk header at offset " + start);
+        }
+
+        hunkLineOffsets[hunkCount] = lineCount;
+        return (hunkCount++);
+    }
+
+    private int parseRange(int pos, int end, char prefix, int[] range) {
+
+        if (pos >= end || diff.charAt(pos) != prefix) {
+            throw new IllegalArgumentException("Malformed hunk header at offset " + pos);
+        }
+
+        pos = parseInt(pos + 1, end, range, 0);
+
+        // The length is omitted when it is 1
+        range[1] = 1;
+        if (pos < end && diff.charAt(pos) == ',') {
+            pos = parseInt(pos + 1, end, range, 1);
+        }
+
+        return (pos);
+    }
+
+    private int parseInt(int pos, int end, int[] values, int index) {
+
+        int value = 0;
+        int digitsStart = pos;
+        while (pos < end) {
+            char c = diff.charAt(pos);
+            if (c < '0' || c > '9') {
+                break;
+            }
+
+            value = value * 10 + (c - '0');
+            pos++;
+        }
+
+        if (pos == digitsStart) {
+            throw new IllegalArgumentException("Malformed hunk header at offset " + pos);
+        }
+
+        values[index] = value;
+        return (pos);
+    }
+
+    private void addLine(byte kind, int oldLine, int newLine, int start, int end) {
+
+        if (lineCount == lineKinds.length) {
+            int capacity = lineCount + (lineCount >> 1);
+            lineKinds = Arrays.copyOf(lineKinds, capacity);
+            oldLines = Arrays.copyOf(oldLines, capacity);
+            newLines = Arrays.copyOf(newLines, capacity);
+            lineStarts = Arrays.copyOf(lineStarts, capacity);
+            lineEnds = Arrays.copyOf(lineEnds, capacity);
+        }
+
+        lineKinds[lineCount] = kind;
+        oldLines[lineCount] = oldLine;
+        newLines[lineCount] = newLine;
+        lineStarts[lineCount] = start;
+        lineEnds[lineCount] = end;
+        lineCount++;
+    }
+
+    private boolean startsWith(int start, int end, String prefix) {
+
+        if (end - start < prefix.length()) {
+            return (false);
+        }
+
+        for (int i = 0; i < prefix.length(); i++) {
+            if (diff.charAt(start + i) != prefix.charAt(i)) {
+                return (false);
+            }
+        }
+
+        return (true);
+    }
+
+    private void trim() {
+
+        oldStarts = Arrays.copyOf(oldStarts, hunkCount);
+        oldLengths = Arrays.copyOf(oldLengths, hunkCount);
+        newStarts = Arrays.copyOf(newStarts, hunkCount);
+        newLengths = Arrays.copyOf(newLengths, hunkCount);
+        hunkLineOffsets = Arrays.copyOf(hunkLineOffsets, hunkCount + 1);
+
+        lineKinds = Arrays.copyOf(lineKinds, lineCount);
+        oldLines = Arrays.copyOf(oldLines, lineCount);
+        newLines = Arrays.copyOf(newLines, lineCount);
+        lineStarts = Arrays.copyOf(lineStarts, lineCount);
+        lineEnds = Arrays.copyOf(lineEnds, lineCount);
+    }
+}
@@ -0,0 +1,99 @@
+package org.gitlab4j.api.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.gitlab4j.api.Constants.Encoding;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * This StreamingOutput implementation writes a JSON request body that contains file content.
+ * The content is read from a Path or InputStream and Base64 encoded directly into the request
+ * body, so neither the raw bytes nor the encoded String are ever held in memory.
+ */
+public class FileContentStreamingOutput implements StreamingOutput {
+
+    private static final ObjectMapper objectMapper = new JacksonJson().getObjectMapper();
+
+    private final Map<String, Object> fields = new LinkedHashMap<>();
+    private final String contentFieldName;
+    private final Path contentPath;
+    private final InputStream contentStream;
+
+    /**
+     * Create a FileContentStreamingOutput that reads the content from the specified Path. The file is
+     * opened each time the request body is written.
+     *
+     * @param contentFieldName the name of the JSON field that will hold the Base64 encoded content
+     * @param contentPath the Path of the file to read the content from
+     */
+    public FileContentStreamingOutput(String contentFieldName, Path contentPath) {
+        this.contentFieldName = contentFieldName;
+        this.contentPath = contentPath;
+        this.contentStream = null;
+        fields.put("encoding", Encoding.BASE64);
+    }
+
+    /**
+     * Create a FileContentStreamingOutput that reads the content from the specified InputStream. The
+     * InputStream can only be consumed once and is closed after the request body is written.
+     *
+     * @param contentFieldName the name of the JSON field that will hold the Base64 encoded content
+     * @param contentStream the InputStream to read the content from
+     */
+    public FileContentStreamingOutput(String contentFieldName, InputStream contentStream) {
+        this.contentFieldName = contentFieldName;
+        this.contentPath = null;
+        this.contentStream = contentStream;
+        fields.put("encoding", Encoding.BASE64);
+    }
+
+    /**
+     * Adds a field to the JSON request body, null values are not written.
+     *
+     * @param name the name of the field
+     * @param value the value of the field
+     * @return this FileContentStreamingOutput instance
+     */
+    public FileContentStreamingOutput withField(String name, Object value) {
+
+        if (value != null) {
+            fields.put(name, value);
+        }
+
+        return (this);
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException, WebApplicationException {
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        generator.writeStartObject();
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            generator.writeFieldName(field.getKey());
+            objectMapper.writeValue(generator, field.getValue());
+        }
+
+        generator.writeFieldName(contentFieldName);
+        try (InputStream in = (contentPath != null ? Files.newInputStream(contentPath) : contentStream)) {
+            generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, in, -1);
+        }
+
+        generator.writeEndObject();
+        generator.flush();
+    }
+}
@@ -0,0 +1,282 @@
+package org.gitlab4j.api.utils;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * This Reader implementation filters a job trace as it is read, removing ANSI escape sequences
+ * (colors, erase line, etc.) and the GitLab collapsible section markers
+ * ("section_start:&lt;timestamp&gt;:&lt;name&gt;\r" and "section_end:&lt;timestamp&gt;:&lt;name&gt;\r").
+ *
+ * <p>The filtering is done incrementally using fixed size buffers so that traces of any size
+ * can be processed in constant memory.</p>
+ */
+public class JobTraceReader extends FilterReader {
+
+    private static final char ESC = '\u001B';
+    private static final char BEL = '\u0007';
+
+    private static final String SECTION_START = "section_start:";
+    private static final String SECTION_END = "section_end:";
+    private static final int MAX_PREFIX_LENGTH = SECTION_START.length();
+
+    /** A section marker longer than this is cut off and the remaining text passed through. */
+    private static final int MAX_MARKER_LENGTH = 1024;
+
+    private enum State {
+        TEXT, ESCAPE, CSI, OSC, OSC_ESCAPE, MARKER_PREFIX, MARKER
+    }
+
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int length;
+    private boolean eof;
+
+    // Characters of a partially matched section marker prefix
+    private final char[] prefix = new char[MAX_PREFIX_LENGTH];
+    private int prefixLength;
+
+    // Characters that need to be run through the filter again after a prefix mismatch
+    private final char[] refeed = new char[MAX_PREFIX_LENGTH * 2];
+    private int refeedPosition;
+    private int refeedLength;
+
+    private State state = State.TEXT;
+    private int markerLength;
+
+    /**
+     * Creates a JobTraceReader that strips ANSI escape sequences and section markers from
+     * the provided Reader.
+     *
+     * @param in the Reader providing the raw job trace
+     */
+    public JobTraceReader(Reader in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        char[] c = new char[1];
+        return (read(c, 0, 1) < 0 ? -1 : c[0]);
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+
+        if (len == 0) {
+            return (0);
+        }
+
+        int count = 0;
+        while (count < len) {
+
+            char c;
+            if (refeedPosition < refeedLength) {
+                c = refeed[refeedPosition++];
+            } else if (position < length) {
+                c = buffer[position++];
+            } else {
+
+                // Only block for more input if nothing has been produced yet
+                if (count > 0 && !in.ready()) {
+                    break;
+                }
+
+                if (!fill()) {
+
+                    // A dangling partial prefix at the end of the trace is regular text
+                    if (state == State.MARKER_PREFIX) {
+                        state = State.TEXT;
+                        cbuf[off + count++] = prefix[0];
+                        pushBack(prefix, 1, prefixLength - 1);
+                        continue;
+                    }
+
+                    break;
+                }
+
+                continue;
+            }
+
+            int filtered = filter(c);
+            if (filtered >= 0) {
+                cbuf[off + count++] = (char) filtered;
+            }
+        }
+
+        return (count == 0 ? -1 : count);
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return (refeedPosition < refeedLength || position < length || in.ready());
+    }
+
+    @Override
+    public boolean markSupported() {
+        return (false);
+    }
+
+    @Override
+    public void mark(int readAheadLimit) throws IOException {
+        throw new IOException("mark() not supported");
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("reset() not supported");
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+
+        char[] skipBuffer = new char[(int) Math.min(n, 2048)];
+        long skipped = 0;
+        while (skipped < n) {
+            int count = read(skipBuffer, 0, (int) Math.min(n - skipped, skipBuffer.length));
+            if (count < 0) {
+                break;
+            }
+
+            skipped += count;
+        }
+
+        return (skipped);
+    }
+
+    private boolean fill() throws IOException {
+
+        if (eof) {
+            return (false);
+        }
+
+        int count;
+        do {
+            count = in.read(buffer, 0, buffer.length);
+        } while (count == 0);
+
+        position = 0;
+        if (count < 0) {
+            eof = true;
+            length = 0;
+            return (false);
+        }
+
+        length = count;
+        return (true);
+    }
+
+    /**
+     * Queues characters to be run through the filter ahead of any unconsumed input.
+     */
+    private void pushBack(char[] chars, int offset, int count) {
+
+        int remaining = refeedLength - refeedPosition;
+        System.arraycopy(refeed, refeedPosition, refeed, count, remaining);
+        System.arraycopy(chars, offset, refeed, 0, count);
+        refeedPosition = 0;
+        refeedLength = count + remaining;
+    }
+
+    /**
+     * Runs the provided character through the filter state machine.
+     *
+     * @param c the character to filter
+     * @return the character to output, or -1 if the character was consumed by the filter
+     */
+    private int filter(char c) {
+
+        switch (state) {
+
+        case TEXT:
+            if (c == ESC) {
+                state = State.ESCAPE;
+                return (-1);
+            } else if (c == 's') {
+                state = State.MARKER_PREFIX;
+                prefix[0] = c;
+                prefixLength = 1;
+                return (-1);
+            }
+
+            return (c);
+
+        case ESCAPE:
+            if (c == '[') {
+                state = State.CSI;
+            } else if (c == ']') {
+                state = State.OSC;
+            } else {
+                // A two character escape sequence, this is the final character
+                state = State.TEXT;
+            }
+
+            return (-1);
+
+        case CSI:
+            // Parameter and intermediate bytes are 0x20-0x3F, the final byte is 0x40-0x7E
+            if (c >= 0x40 && c <= 0x7E) {
+                state = State.TEXT;
+            }
+
+            return (-1);
+
+        case OSC:
+            if (c == BEL) {
+                state = State.TEXT;
+            } else if (c == ESC) {
+                state = State.OSC_ESCAPE;
+            }
+
+            return (-1);
+
+        case OSC_ESCAPE:
+            state = (c == '\\' ? State.TEXT : State.OSC);
+            return (-1);
+
+        case MARKER_PREFIX:
+            prefix[prefixLength++] = c;
+            boolean matchesStart = isPrefixOf(SECTION_START);
+            boolean matchesEnd = isPrefixOf(SECTION_END);
+            if ((matchesStart && prefixLength == SECTION_START.length()) || (matchesEnd && prefixLength == SECTION_END.length())) {
+                state = State.MARKER;
+                markerLength = prefixLength;
+                return (-1);
+            } else if (matchesStart || matchesEnd) {
+                return (-1);
+            }
+
+            // Not a section marker, output the leading 's' and run the rest through the filter again
+            state = State.TEXT;
+            pushBack(prefix, 1, prefixLength - 1);
+            return (prefix[0]);
+
+        case MARKER:
+            // The marker runs up to and including the carriage return
+            if (c == '\r' || c == '\n' || ++markerLength >= MAX_MARKER_LENGTH) {
+                state = State.TEXT;
+                return (c == '\n' ? c : -1);
+            }
+
+            return (-1);
+        }
+
+        return (c);
+    }
+
+    private boolean isPrefixOf(String marker) {
+
+        if (prefixLength > marker.length()) {
+            return (false);
+        }
+
+        for (int i = 0; i < prefixLength; i++) {
+            if (prefix[i] != marker.charAt(i)) {
+                return (false);
+            }
+        }
+
+        return (true);
+    }
+}
@@ -1,7 +1,8 @@
 package org.gitlab4j.api.utils;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilterInputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -15,9 +16,17 @@ import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import javax.annotation.Priority;
 import javax.ws.rs.WebApplicationException;
@@ -25,8 +34,11 @@ import javax.ws.rs.client.ClientRequestContext;
 import javax.ws.rs.client.ClientRequestFilter;
 import javax.ws.rs.client.ClientResponseContext;
 import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.ext.WriterInterceptor;
 import javax.ws.rs.ext.WriterInterceptorContext;
 
@@ -39,6 +51,11 @@ import org.glassfish.jersey.message.MessageUtils;
  *
  * This class was patterned after org.glassfish.jersey.logging.LoggingInterceptor, but written in
  * such a way that it could be sub-classed and have its behavior modified.
+ *
+ * To keep the cost of logging low enough to leave it enabled in production, binary and streaming
+ * entities are never logged, entity logging can be sampled with setEntitySampleRate(), entities are
+ * captured into fixed size buffers as they are read or written, and log entries can optionally be
+ * formatted and written on a background thread.
  */
 @Priority(Integer.MIN_VALUE)
 public class MaskingLoggingFilter implements ClientRequestFilter, ClientResponseFilter, WriterInterceptor {
@@ -74,11 +91,24 @@ public class MaskingLoggingFilter implements ClientRequestFilter, ClientResponse
      */
     protected static final String LOGGING_ID_PROPERTY = MaskingLoggingFilter.class.getName() + ".id";
 
+    // Property name for the printer of the request line and headers of a request whose entity is logged
+    private static final String ENTITY_PRINTER_PROPERTY = MaskingLoggingFilter.class.getName() + ".entityPrinter";
+
+    /**
+     * The maximum number of log entries waiting to be written by the background thread.
+     */
+    protected static final int MAX_PENDING_ENTRIES = 1024;
+
     protected final Logger logger;
     protected final Level level;
     protected final int maxEntitySize;
     protected final AtomicLong _id = new AtomicLong(0);
     protected Set<String> maskedHeaderNames = new HashSet<String>();
+    protected volatile int entitySampleRate = 1;
+
+    private volatile boolean asynchronous;
+    private volatile ExecutorService formatter;
+    private final AtomicLong droppedCount = new AtomicLong(0);
 
     /**
      * Creates a masking logging filter for the specified logger with entity logging disabled.
@@ -163,30 +193,155 @@ public class MaskingLoggingFilter implements ClientRequestFilter, ClientResponse
         }
     }
 
+    /**
+     * Set the entity sample rate, entities will only be logged for 1 in every entitySampleRate requests.
+     * Request and response lines and headers are always logged. Defaults to 1, logging the entities
+     * of every request.
+     *
+     * @param entitySampleRate log the entities of 1 in every entitySampleRate requests
+     */
+    public void setEntitySampleRate(int entitySampleRate) {
+        this.entitySampleRate = Math.max(1, entitySampleRate);
+    }
+
+    /**
+     * Get the entity sample rate, entities are only logged for 1 in every entitySampleRate requests.
+     *
+     * @return the entity sample rate
+     */
+    public int getEntitySampleRate() {
+        return (entitySampleRate);
+    }
+
+    /**
+     * Set whether log entries are formatted and written on a background thread, defaults to false.
+     * When true, log entries are handed to the background thread through a bounded queue, if the
+     * queue is full the oldest pending entry is dropped. Use flush() to wait for the pending entries
+     * to be written.
+     *
+     * @param asynchronous if true log entries are formatted and written on a background thread
+     */
+    public void setAsynchronous(boolean asynchronous) {
+        this.asynchronous = asynchronous;
+    }
+
+    /**
+     * Returns true if log entries are formatted and written on a background thread.
+     *
+     * @return true if log entries are formatted and written on a background thread
+     */
+    public boolean isAsynchronous() {
+        return (asynchronous);
+    }
+
+    /**
+     * Get the number of log entries that were dropped because the background queue was full.
+     *
+     * @return the number of log entries that were dropped
+     */
+    public long getDroppedCount() {
+        return (droppedCount.get());
+    }
+
+    /**
+     * Waits for the log entries that are pending on the background thread to be written.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of the timeout argument
+     * @return true if all pending log entries were written, false if the timeout elapsed first
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+
+        ExecutorService executor = formatter;
+        if (executor == null) {
+            return (true);
+        }
+
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(latch::countDown);
+        return (latch.await(timeout, unit));
+    }
+
     protected void log(final StringBuilder sb) {
         if (logger != null) {
             logger.log(level, sb.toString());
         }
     }
 
+    /**
+     * Runs the provided task, which formats and logs an entry, on the background thread if
+     * asynchronous logging is enabled, otherwise on the calling thread.
+     *
+     * @param task the task that formats and logs an entry
+     */
+    protected void submit(final Runnable task) {
+
+        if (!asynchronous) {
+            task.run();
+            return;
+        }
+
+        ExecutorService executor = formatter;
+        if (executor == null) {
+            synchronized (this) {
+                executor = formatter;
+                if (executor == null) {
+                    executor = createFormatter();
+                    formatter = executor;
+                }
+            }
+        }
+
+        executor.execute(task);
+    }
+
+    private ExecutorService createFormatter() {
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(MAX_PENDING_ENTRIES),
+            new DaemonThreadFactory("gitlab4j-logging"),
+            (runnable, pool) -> {
+                // Make room by dropping the oldest pending entry
+                if (pool.getQueue().poll() != null) {
+                    droppedCount.incrementAndGet();
+                }
+
+                if (!pool.getQueue().offer(runnable)) {
+                    droppedCount.incrementAndGet();
+                }
+            });
+
+        executor.allowCoreThreadTimeOut(true);
+        return (executor);
+    }
+
     protected StringBuilder appendId(final StringBuilder sb, final long id) {
         sb.append(Long.toString(id)).append(' ');
         return (sb);
     }
 
     protected void printRequestLine(final StringBuilder sb, final String note, final long id, final String method, final URI uri) {
+        printRequestLine(sb, note, id, method, uri, Thread.currentThread().getName());
+    }
+
+    protected void printRequestLine(final StringBuilder sb, final String note, final long id, final String method, final URI uri, final String threadName) {
         appendId(sb, id).append(SECTION_PREFIX)
                 .append(note)
-                .append(" on thread ").append(Thread.currentThread().getName())
+                .append(" on thread ").append(threadName)
                 .append('\n');
         appendId(sb, id).append(REQUEST_PREFIX).append(method).append(' ')
                 .append(uri.toASCIIString()).append('\n');
     }
 
     protected void printResponseLine(final StringBuilder sb, final String note, final long id, final int status) {
+        printResponseLine(sb, note, id, status, Thread.currentThread().getName());
+    }
+
+    protected void printResponseLine(final StringBuilder sb, final String note, final long id, final int status, final String threadName) {
         appendId(sb, id).append(SECTION_PREFIX)
                 .append(note)
-                .append(" on thread ").append(Thread.currentThread().getName()).append('\n');
+                .append(" on thread ").append(threadName).append('\n');
         appendId(sb, id).append(RESPONSE_PREFIX)
                 .append(Integer.toString(status))
                 .append('\n');
@@ -248,22 +403,61 @@ public class MaskingLoggingFilter implements ClientRequestFilter, ClientResponse
         sb.append('\n');
     }
 
-    private InputStream logResponseEntity(final StringBuilder sb, InputStream stream, final Charset charset) throws IOException {
+    /**
+     * Returns true if the entity of the request with the specified ID should be logged, this
+     * implements the entity sample rate.
+     *
+     * @param id the ID of the request
+     * @return true if the entity of the request with the specified ID should be logged
+     */
+    protected boolean isEntitySampled(final long id) {
+        return (maxEntitySize > 0 && id % entitySampleRate == 0);
+    }
+
+    /**
+     * Returns true if the media type is a textual type that is worth logging, binary types such
+     * as application/octet-stream, images and archives are not logged.
+     *
+     * @param mediaType the media type to check
+     * @return true if the media type is a textual type that is worth logging
+     */
+    protected boolean isTextMediaType(final MediaType mediaType) {
 
-        if (maxEntitySize <= 0) {
-            return (stream);
+        if (mediaType == null) {
+            return (false);
         }
 
-        if (!stream.markSupported()) {
-            stream = new BufferedInputStream(stream);
-        }
+        final String subtype = mediaType.getSubtype().toLowerCase();
+        return ("text".equalsIgnoreCase(mediaType.getType()) ||
+                "json".equals(subtype) || subtype.endsWith("+json") ||
+                "xml".equals(subtype) || subtype.endsWith("+xml") ||
+                "x-www-form-urlencoded".equals(subtype));
+    }
 
-        stream.mark(maxEntitySize + 1);
-        final byte[] entity = new byte[maxEntitySize + 1];
-        final int entitySize = stream.read(entity);
-        buildEntityLogString(sb, entity, entitySize, charset);
-        stream.reset();
-        return stream;
+    /**
+     * Returns true if the request entity should be logged. Streaming entities such as a
+     * StreamingOutput, InputStream or File, and entities of non-textual media types are not logged.
+     *
+     * @param requestContext the request context
+     * @return true if the request entity should be logged
+     */
+    protected boolean isLoggableEntity(final ClientRequestContext requestContext) {
+        final Object entity = requestContext.getEntity();
+        return (!(entity instanceof StreamingOutput || entity instanceof InputStream || entity instanceof File) &&
+                isTextMediaType(requestContext.getMediaType()));
+    }
+
+    /**
+     * Returns true if the response entity should be logged. Attachments, such as downloaded files
+     * and archives, and entities of non-textual media types are not logged.
+     *
+     * @param responseContext the response context
+     * @return true if the response entity should be logged
+     */
+    protected boolean isLoggableEntity(final ClientResponseContext responseContext) {
+        final String disposition = responseContext.getHeaderString("Content-Disposition");
+        return ((disposition == null || !disposition.toLowerCase().startsWith("attachment")) &&
+                isTextMediaType(responseContext.getMediaType()));
     }
 
     @Override
@@ -276,16 +470,24 @@ public class MaskingLoggingFilter implements ClientRequestFilter, ClientResponse
         final long id = _id.incrementAndGet();
         requestContext.setProperty(LOGGING_ID_PROPERTY, id);
 
-        final StringBuilder sb = new StringBuilder();
-        printRequestLine(sb, "Sending client request", id, requestContext.getMethod(), requestContext.getUri());
-        printHeaders(sb, id, REQUEST_PREFIX, requestContext.getStringHeaders());
+        final String threadName = Thread.currentThread().getName();
+        final String method = requestContext.getMethod();
+        final URI uri = requestContext.getUri();
+        final MultivaluedMap<String, String> headers = new MultivaluedHashMap<>(requestContext.getStringHeaders());
 
-        if (requestContext.hasEntity() && maxEntitySize > 0) {
-            final OutputStream stream = new LoggingStream(sb, requestContext.getEntityStream());
-            requestContext.setEntityStream(stream);
-            requestContext.setProperty(ENTITY_STREAM_PROPERTY, stream);
+        final Consumer<StringBuilder> requestPrinter = sb -> {
+            printRequestLine(sb, "Sending client request", id, method, uri, threadName);
+            printHeaders(sb, id, REQUEST_PREFIX, headers);
+        };
+
+        if (requestContext.hasEntity() && isEntitySampled(id) && isLoggableEntity(requestContext)) {
+            requestContext.setProperty(ENTITY_PRINTER_PROPERTY, requestPrinter);
         } else {
-            log(sb);
+            submit(() -> {
+                final StringBuilder sb = new StringBuilder();
+                requestPrinter.accept(sb);
+                log(sb);
+            });
         }
     }
 
@@ -299,63 +501,210 @@ public class MaskingLoggingFilter implements ClientRequestFilter, ClientResponse
         final Object requestId = requestContext.getProperty(LOGGING_ID_PROPERTY);
         final long id = requestId != null ? (Long) requestId : _id.incrementAndGet();
 
-        final StringBuilder sb = new StringBuilder();
-        printResponseLine(sb, "Received server response", id, responseContext.getStatus());
-        printHeaders(sb, id, RESPONSE_PREFIX, responseContext.getHeaders());
- 
-        if (responseContext.hasEntity() && maxEntitySize > 0) {
-            responseContext.setEntityStream(logResponseEntity(sb, responseContext.getEntityStream(), 
-                    MessageUtils.getCharset(responseContext.getMediaType())));
-        }
+        final String threadName = Thread.currentThread().getName();
+        final int status = responseContext.getStatus();
+        final MultivaluedMap<String, String> headers = new MultivaluedHashMap<>(responseContext.getHeaders());
 
-        log(sb);
+        // The status line and headers are logged right away, the response entity may never be read or closed
+        submit(() -> {
+            final StringBuilder sb = new StringBuilder();
+            printResponseLine(sb, "Received server response", id, status, threadName);
+            printHeaders(sb, id, RESPONSE_PREFIX, headers);
+            log(sb);
+        });
+
+        if (responseContext.hasEntity() && isEntitySampled(id) && isLoggableEntity(responseContext)) {
+            responseContext.setEntityStream(new LoggingInputStream(id, responseContext.getEntityStream(),
+                    MessageUtils.getCharset(responseContext.getMediaType()), responseContext.getHeaderString(HttpHeaders.CONTENT_ENCODING)));
+        }
     }
 
     @Override
     public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
 
-        final LoggingStream stream = (LoggingStream) context.getProperty(ENTITY_STREAM_PROPERTY);
-        context.proceed();
-        if (stream == null) {
+        @SuppressWarnings("unchecked")
+        final Consumer<StringBuilder> requestPrinter = (Consumer<StringBuilder>) context.getProperty(ENTITY_PRINTER_PROPERTY);
+        if (requestPrinter == null) {
+            context.proceed();
             return;
         }
-        
-        MediaType mediaType = context.getMediaType();
-        if (mediaType.isCompatible(MediaType.APPLICATION_JSON_TYPE) ||
-                mediaType.isCompatible(MediaType.APPLICATION_FORM_URLENCODED_TYPE)) {
-            log(stream.getStringBuilder(MessageUtils.getCharset(mediaType)));
-        }
 
+        // Capture the entity as it is written, before it is compressed by an entity encoder
+        final LoggingStream stream = new LoggingStream(requestPrinter, context.getOutputStream());
+        context.setOutputStream(stream);
+        context.setProperty(ENTITY_STREAM_PROPERTY, stream);
+        context.proceed();
+
+        final Charset charset = MessageUtils.getCharset(context.getMediaType());
+        submit(() -> log(stream.getStringBuilder(charset)));
     }
 
     /**
-     * This class is responsible for logging the request entities, it will truncate at maxEntitySize
-     * and add "...more..." to the end of the entity log string.
+     * This class is responsible for logging the request entities, it captures at most maxEntitySize + 1
+     * bytes into a fixed size buffer, the log entry will be truncated at maxEntitySize and "...more..."
+     * added to the end of the entity log string.
      */
     protected class LoggingStream extends FilterOutputStream {
 
-        private final StringBuilder sb;
-        private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        private final Consumer<StringBuilder> headerPrinter;
+        private final byte[] entity = new byte[maxEntitySize + 1];
+        private int entitySize;
 
-        LoggingStream(StringBuilder sb, OutputStream out) {
+        LoggingStream(Consumer<StringBuilder> headerPrinter, OutputStream out) {
             super(out);
-            this.sb = sb;
+            this.headerPrinter = headerPrinter;
         }
 
         StringBuilder getStringBuilder(Charset charset) {
-            final byte[] entity = outputStream.toByteArray();
-            buildEntityLogString(sb, entity, entity.length, charset);
+            final StringBuilder sb = new StringBuilder();
+            headerPrinter.accept(sb);
+            buildEntityLogString(sb, entity, entitySize, charset);
             return (sb);
         }
 
         @Override
         public void write(final int i) throws IOException {
 
-            if (outputStream.size() <= maxEntitySize) {
-                outputStream.write(i);
+            if (entitySize < entity.length) {
+                entity[entitySize++] = (byte) i;
             }
 
             out.write(i);
         }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+
+            final int captured = Math.min(len, entity.length - entitySize);
+            if (captured > 0) {
+                System.arraycopy(b, off, entity, entitySize, captured);
+                entitySize += captured;
+            }
+
+            out.write(b, off, len);
+        }
+    }
+
+    /**
+     * Decodes the captured prefix of a gzip or deflate encoded entity, keeping at most maxEntitySize + 1
+     * decoded bytes.
+     *
+     * @param entity the captured bytes of the encoded entity
+     * @param entitySize the number of captured bytes
+     * @param encoding the value of the Content-Encoding header
+     * @return the decoded bytes, or null if the encoding is not supported
+     */
+    protected byte[] decodeEntity(final byte[] entity, final int entitySize, final String encoding) {
+
+        final String contentEncoding = encoding.trim().toLowerCase();
+        final boolean gzip = "gzip".equals(contentEncoding) || "x-gzip".equals(contentEncoding);
+        if (!gzip && !"deflate".equals(contentEncoding)) {
+            return (null);
+        }
+
+        final byte[] decoded = new byte[maxEntitySize + 1];
+        int decodedSize = 0;
+        final InputStream encoded = new ByteArrayInputStream(entity, 0, entitySize);
+        try (InputStream in = (gzip ? new GZIPInputStream(encoded) : new InflaterInputStream(encoded))) {
+            int n;
+            while (decodedSize < decoded.length && (n = in.read(decoded, decodedSize, decoded.length - decodedSize)) > 0) {
+                decodedSize += n;
+            }
+        } catch (IOException ioe) {
+            // Only a prefix of the entity was captured, keep what could be decoded
+        }
+
+        return (Arrays.copyOf(decoded, decodedSize));
+    }
+
+    /**
+     * This class is responsible for logging the response entities. Rather than reading ahead, it captures
+     * at most maxEntitySize + 1 bytes into a fixed size buffer as the entity is read by the caller, and
+     * submits a log entry with the entity when the end of the entity is reached or the stream is closed.
+     * The status line and headers of the response have already been logged by then. A compressed entity
+     * is decoded when the log entry is written.
+     */
+    protected class LoggingInputStream extends FilterInputStream {
+
+        private final long id;
+        private final Charset charset;
+        private final String encoding;
+        private final byte[] entity = new byte[maxEntitySize + 1];
+        private int entitySize;
+        private boolean logged;
+
+        LoggingInputStream(long id, InputStream in, Charset charset, String encoding) {
+            super(in);
+            this.id = id;
+            this.charset = charset;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public int read() throws IOException {
+
+            final int b = in.read();
+            if (b < 0) {
+                logEntity();
+            } else if (entitySize < entity.length) {
+                entity[entitySize++] = (byte) b;
+            }
+
+            return (b);
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+
+            final int n = in.read(b, off, len);
+            if (n < 0) {
+                logEntity();
+            } else {
+                final int captured = Math.min(n, entity.length - entitySize);
+                if (captured > 0) {
+                    System.arraycopy(b, off, entity, entitySize, captured);
+                    entitySize += captured;
+                }
+            }
+
+            return (n);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return (false);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                logEntity();
+            }
+        }
+
+        private void logEntity() {
+
+            if (logged) {
+                return;
+            }
+
+            logged = true;
+            submit(() -> {
+                final StringBuilder sb = new StringBuilder();
+                appendId(sb, id).append(SECTION_PREFIX).append("Received server response entity").append('\n');
+                if (encoding == null || "identity".equalsIgnoreCase(encoding.trim())) {
+                    buildEntityLogString(sb, entity, entitySize, charset);
+                } else {
+                    final byte[] decoded = decodeEntity(entity, entitySize, encoding);
+                    if (decoded != null) {
+                        buildEntityLogString(sb, decoded, decoded.length, charset);
+                    }
+                }
+
+                log(sb);
+            });
+        }
     }
 }
@@ -0,0 +1,123 @@
+package org.gitlab4j.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PrefetchingPagerSpliteratorTest {
+
+	@Mock
+	Pager<Integer> pager;
+
+	@Test
+	public void shouldStreamAllPages() {
+		when(pager.hasNext()).thenReturn(true, true, true, false);
+		when(pager.next())
+				.thenReturn(asList(1, 2, 3))
+				.thenReturn(asList(4, 5))
+				.thenReturn(asList(6));
+
+		List<Integer> elements = StreamSupport.stream(new PrefetchingPagerSpliterator<>(pager, 1), false)
+				.collect(Collectors.toList());
+
+		assertEquals(asList(1, 2, 3, 4, 5, 6), elements);
+	}
+
+	@Test
+	public void shouldRethrowFetchFailure() {
+		RuntimeException failure = new RuntimeException("failed");
+		when(pager.hasNext()).thenReturn(true);
+		when(pager.next()).thenReturn(asList(1)).thenThrow(failure);
+
+		PrefetchingPagerSpliterator<Integer> spliterator = new PrefetchingPagerSpliterator<>(pager, 2);
+		List<Integer> elements = new ArrayList<>();
+		try {
+			while (spliterator.tryAdvance(elements::add)) {
+			}
+
+			Assert.fail("Missing RuntimeException");
+		} catch (RuntimeException e) {
+			assertSame(failure, e);
+		}
+
+		assertEquals(asList(1), elements);
+	}
+
+	@Test
+	public void shouldStayBoundedAndStopWhenClosed() throws Exception {
+		AtomicInteger fetched = new AtomicInteger();
+		when(pager.hasNext()).thenReturn(true);
+		when(pager.next()).thenAnswer(invocation -> asList(fetched.incrementAndGet()));
+
+		PrefetchingPagerSpliterator<Integer> spliterator = new PrefetchingPagerSpliterator<>(pager, 2);
+		assertTrue(spliterator.tryAdvance(element -> assertEquals(1, element.intValue())));
+
+		// The queue holds prefetchPages + 1 pages, and one more page may be waiting to be queued
+		Thread.sleep(300);
+		verify(pager, atMost(5)).next();
+
+		spliterator.close();
+		awaitStopped(spliterator);
+		assertFalse(spliterator.tryAdvance(element -> Assert.fail("Closed spliterator advanced")));
+	}
+
+	@Test
+	public void shouldStopFetchingWhenAbandoned() throws Exception {
+		when(pager.hasNext()).thenReturn(true);
+		when(pager.next()).thenReturn(asList(1));
+
+		// The spliterator is never consumed or closed
+		PrefetchingPagerSpliterator<Integer> spliterator = new PrefetchingPagerSpliterator<>(pager, 1, 200);
+		awaitStopped(spliterator);
+	}
+
+	@Test
+	public void shouldResumeFetchingAfterIdleTimeout() throws Exception {
+		when(pager.hasNext()).thenReturn(true, true, true, true, true, false);
+		when(pager.next())
+				.thenReturn(asList(1))
+				.thenReturn(asList(2))
+				.thenReturn(asList(3))
+				.thenReturn(asList(4))
+				.thenReturn(asList(5));
+
+		PrefetchingPagerSpliterator<Integer> spliterator = new PrefetchingPagerSpliterator<>(pager, 1, 200);
+		List<Integer> elements = new ArrayList<>();
+		assertTrue(spliterator.tryAdvance(elements::add));
+
+		// A slow consumer makes the background thread give up, the remaining pages are fetched inline
+		awaitStopped(spliterator);
+		while (spliterator.tryAdvance(elements::add)) {
+		}
+
+		assertEquals(asList(1, 2, 3, 4, 5), elements);
+	}
+
+	private static void awaitStopped(PrefetchingPagerSpliterator<?> spliterator) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (spliterator.isFetching() && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+
+		assertFalse(spliterator.isFetching());
+	}
+}
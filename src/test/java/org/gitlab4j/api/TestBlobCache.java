@@ -0,0 +1,142 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.ws.rs.core.Response;
+
+import org.gitlab4j.api.utils.BlobCache;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+public class TestBlobCache {
+
+    private static final String SHA1 = "a5c19667710254f835085b99726e523457150e03";
+    private static final String SHA2 = "b5c19667710254f835085b99726e523457150e03";
+    private static final String SHA3 = "c5c19667710254f835085b99726e523457150e03";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testMemoryLru() throws Exception {
+
+        BlobCache cache = new BlobCache(10);
+        cache.put(SHA1, "12345".getBytes(StandardCharsets.UTF_8));
+        cache.put(SHA2, "67890".getBytes(StandardCharsets.UTF_8));
+
+        // Touch SHA1 so that SHA2 is the least recently used
+        assertArrayEquals("12345".getBytes(StandardCharsets.UTF_8), cache.getBytes(SHA1));
+        cache.put(SHA3, "abcde".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(cache.contains(SHA1));
+        assertFalse(cache.contains(SHA2));
+        assertTrue(cache.contains(SHA3));
+        assertEquals(10, cache.getMemoryBytes());
+        assertNull(cache.get(SHA2));
+    }
+
+    @Test
+    public void testDiskStore() throws Exception {
+
+        BlobCache cache = new BlobCache(4, tempFolder.getRoot().toPath());
+        byte[] content = "content larger than the memory tier".getBytes(StandardCharsets.UTF_8);
+        cache.put(SHA1, new ByteArrayInputStream(content));
+        assertEquals(0, cache.getMemoryBytes());
+
+        // A new instance over the same directory serves the blob from disk
+        BlobCache reopened = new BlobCache(1024, tempFolder.getRoot().toPath());
+        assertArrayEquals(content, reopened.getBytes(SHA1.toUpperCase()));
+        assertEquals(1, reopened.getHitCount());
+
+        // The mapped blob is not counted as heap memory
+        assertEquals(0, reopened.getMemoryBytes());
+        assertEquals(content.length, reopened.getMappedBytes());
+    }
+
+    @Test
+    public void testMappedBytesAreBoundedSeparately() throws Exception {
+
+        BlobCache cache = new BlobCache(10, tempFolder.getRoot().toPath(), 40);
+        cache.put(SHA1, new ByteArrayInputStream(new byte[20]));
+        cache.put(SHA2, new ByteArrayInputStream(new byte[20]));
+        cache.put(SHA3, "12345".getBytes(StandardCharsets.UTF_8));
+        assertEquals(5, cache.getMemoryBytes());
+        assertEquals(40, cache.getMappedBytes());
+
+        // Mapping another blob evicts the least recently used mapped blob only
+        cache.clearMemory();
+        cache.put(SHA3, "12345".getBytes(StandardCharsets.UTF_8));
+        cache.get(SHA1);
+        cache.get(SHA2);
+        cache.put("d5c19667710254f835085b99726e523457150e03", new ByteArrayInputStream(new byte[20]));
+        assertEquals(5, cache.getMemoryBytes());
+        assertEquals(40, cache.getMappedBytes());
+    }
+
+    @Test
+    public void testCachedBlobAccessIsChecked() throws Exception {
+
+        BlobCache cache = new BlobCache(1024);
+        cache.put(SHA1, "12345".getBytes(StandardCharsets.UTF_8));
+
+        GitLabApiClient client = mock(GitLabApiClient.class);
+        when(client.validateSecretToken(any())).thenReturn(true);
+        GitLabApi gitLabApi = mock(GitLabApi.class);
+        when(gitLabApi.getApiClient()).thenReturn(client);
+        when(gitLabApi.getBlobCache()).thenReturn(cache);
+        RepositoryApi repositoryApi = new RepositoryApi(gitLabApi);
+
+        Response notFound = mock(Response.class);
+        when(notFound.getStatus()).thenReturn(404);
+        when(notFound.getStatusInfo()).thenReturn(Response.Status.NOT_FOUND);
+        when(client.head(any(), Mockito.<Object>any())).thenReturn(notFound);
+        try {
+            repositoryApi.getRawBlobContent(42, SHA1);
+            fail("Expected a GitLabApiException");
+        } catch (GitLabApiException expected) {
+            assertEquals(404, expected.getHttpStatus());
+        }
+
+        Response ok = mock(Response.class);
+        when(ok.getStatus()).thenReturn(200);
+        when(client.head(any(), Mockito.<Object>any())).thenReturn(ok);
+        try (InputStream in = repositoryApi.getRawBlobContent(42, SHA1)) {
+            byte[] content = new byte[5];
+            assertEquals(5, in.read(content));
+            assertArrayEquals("12345".getBytes(StandardCharsets.UTF_8), content);
+        }
+
+        // The content was served from the cache
+        verify(client, never()).getWithAccepts(any(), any(), Mockito.<Object>any());
+    }
+
+    @Test
+    public void testInvalidSha() throws Exception {
+
+        BlobCache cache = new BlobCache(1024, tempFolder.getRoot().toPath());
+        assertNull(cache.get("../../etc/passwd"));
+        assertNull(cache.get(null));
+
+        try {
+            cache.put("master", new byte[0]);
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.gitlab4j.api.utils.JacksonJson;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public class TestCommitBuilder {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testActionsAreStreamed() throws Exception {
+
+        byte[] binary = new byte[] {0, 1, 2, (byte) 0xff, (byte) 0xfe};
+        Path file = tempFolder.newFile("Api.java").toPath();
+        Files.write(file, binary);
+
+        CommitBuilder builder = new CommitBuilder(mock(CommitsApi.class), 42, "codegen", "Regenerate clients")
+                .withStartBranch("main")
+                .withAuthorName("Codegen")
+                .create("clients/Api.java", file)
+                .update("clients/README.md", new ByteArrayInputStream("# Clients\n".getBytes(StandardCharsets.UTF_8)), 10)
+                .move("clients/Old.java", "clients/New.java")
+                .delete("clients/Gone.java");
+
+        List<StreamingOutput> payloads = builder.createPayloads();
+        assertEquals(1, payloads.size());
+
+        JsonNode payload = write(payloads.get(0));
+        assertEquals("codegen", payload.get("branch").asText());
+        assertEquals("Regenerate clients", payload.get("commit_message").asText());
+        assertEquals("main", payload.get("start_branch").asText());
+        assertEquals("Codegen", payload.get("author_name").asText());
+        assertFalse(payload.has("author_email"));
+
+        JsonNode actions = payload.get("actions");
+        assertEquals(4, actions.size());
+        assertEquals("create", actions.get(0).get("action").asText());
+        assertEquals("base64", actions.get(0).get("encoding").asText());
+        assertArrayEquals(binary, Base64.getDecoder().decode(actions.get(0).get("content").asText()));
+        assertEquals("# Clients\n", new String(Base64.getDecoder().decode(actions.get(1).get("content").asText()), StandardCharsets.UTF_8));
+        assertEquals("move", actions.get(2).get("action").asText());
+        assertEquals("clients/Old.java", actions.get(2).get("previous_path").asText());
+        assertEquals("delete", actions.get(3).get("action").asText());
+    }
+
+    @Test
+    public void testActionsAreSplitIntoChainedCommits() throws Exception {
+
+        CommitBuilder builder = new CommitBuilder(mock(CommitsApi.class), 42, "vendor", "Vendor dependencies")
+                .withStartBranch("main")
+                .withMaxActionsPerCommit(2)
+                .withMaxPayloadBytes(2000);
+
+        for (int i = 0; i < 3; i++) {
+            builder.delete("vendor/lib" + i + ".jar");
+        }
+
+        // Larger than the maximum payload size, so it goes in a commit of its own
+        builder.create("vendor/big.bin", new ByteArrayInputStream(new byte[3000]), 3000);
+        builder.create("vendor/unknown.bin", new ByteArrayInputStream(new byte[10]), -1);
+
+        List<StreamingOutput> payloads = builder.createPayloads();
+        assertEquals(4, payloads.size());
+
+        JsonNode first = write(payloads.get(0));
+        assertEquals("Vendor dependencies (part 1 of 4)", first.get("commit_message").asText());
+        assertEquals("main", first.get("start_branch").asText());
+        assertEquals(2, first.get("actions").size());
+
+        JsonNode second = write(payloads.get(1));
+        assertEquals("Vendor dependencies (part 2 of 4)", second.get("commit_message").asText());
+        assertFalse(second.has("start_branch"));
+        assertEquals(1, second.get("actions").size());
+
+        assertEquals("vendor/big.bin", write(payloads.get(2)).get("actions").get(0).get("file_path").asText());
+        assertEquals("vendor/unknown.bin", write(payloads.get(3)).get("actions").get(0).get("file_path").asText());
+    }
+
+    @Test
+    public void testPayloadIsSentChunked() throws Exception {
+
+        GitLabApiClient client = spy(new GitLabApiClient("https://gitlab.example.com", "token"));
+        Invocation.Builder builder = mock(Invocation.Builder.class);
+        doReturn(builder).when(client).invocation(any(), any());
+        when(builder.property(anyString(), any())).thenReturn(builder);
+        Response response = mock(Response.class);
+        when(builder.post(any())).thenReturn(response);
+
+        StreamingOutput payload = new CommitBuilder(mock(CommitsApi.class), 42, "codegen", "Regenerate clients")
+                .delete("clients/Gone.java").createPayloads().get(0);
+        client.post(payload, "application/json", "projects", 42, "repository", "commits");
+        verify(builder).property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED);
+    }
+
+    @Test
+    public void testStreamsAreClosedWhenCommitFails() throws Exception {
+
+        CommitsApi commitsApi = mock(CommitsApi.class);
+        when(commitsApi.post(any(), any(StreamingOutput.class), anyString(), any())).thenThrow(new GitLabApiException("Bad Request", 400));
+
+        boolean[] closed = new boolean[2];
+        CommitBuilder builder = new CommitBuilder(commitsApi, 42, "vendor", "Vendor dependencies").withMaxActionsPerCommit(1);
+        for (int i = 0; i < closed.length; i++) {
+            int index = i;
+            builder.create("vendor/lib" + i + ".jar", new ByteArrayInputStream(new byte[10]) {
+                @Override
+                public void close() throws IOException {
+                    closed[index] = true;
+                }
+            }, 10);
+        }
+
+        try {
+            builder.commit();
+            fail("Expected a GitLabApiException");
+        } catch (GitLabApiException expected) {
+        }
+
+        assertTrue(closed[0]);
+        assertTrue(closed[1]);
+    }
+
+    private static JsonNode write(StreamingOutput payload) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        payload.write(out);
+        return (new JacksonJson().getObjectMapper().readTree(out.toByteArray()));
+    }
+}
@@ -0,0 +1,137 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.gitlab4j.api.models.Commit;
+import org.gitlab4j.api.models.Project;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCommitFeed {
+
+    private static final String PROJECT = "group/project";
+    private static final int PROJECT_ID = 42;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private GitLabApi gitLabApi;
+    private CommitsApi commitsApi;
+
+    // The commits of the branch, newest first as GitLab lists them
+    private List<Commit> history = new ArrayList<>();
+
+    @Before
+    public void setup() throws Exception {
+
+        gitLabApi = mock(GitLabApi.class);
+        commitsApi = mock(CommitsApi.class);
+        when(gitLabApi.getCommitsApi()).thenReturn(commitsApi);
+        when(commitsApi.getProjectIdOrPath(any())).thenAnswer(invocation -> {
+            Object projectIdOrPath = invocation.getArgument(0);
+            return (projectIdOrPath instanceof Project ? ((Project) projectIdOrPath).getId() : projectIdOrPath);
+        });
+        ProjectApi projectApi = mock(ProjectApi.class);
+        when(gitLabApi.getProjectApi()).thenReturn(projectApi);
+        when(projectApi.getProject(PROJECT)).thenReturn(new Project().withId(PROJECT_ID));
+        when(commitsApi.getCommit(eq(PROJECT), eq("main"))).thenAnswer(invocation -> history.get(0));
+        when(commitsApi.getCommits(eq(PROJECT), any(), any(), isNull(), isNull(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            Date since = invocation.getArgument(2);
+            int page = invocation.getArgument(5);
+            int perPage = invocation.getArgument(6);
+            List<Commit> commits = history.stream()
+                    .filter(c -> since == null || !c.getCommittedDate().before(since))
+                    .collect(Collectors.toList());
+            int from = Math.min(commits.size(), (page - 1) * perPage);
+            return (new ArrayList<>(commits.subList(from, Math.min(commits.size(), from + perPage))));
+        });
+
+        for (int i = 1; i <= 5; i++) {
+            push(i);
+        }
+    }
+
+    @Test
+    public void testNewCommitsAreReturnedOldestFirst() throws Exception {
+
+        Path markFile = tempFolder.getRoot().toPath().resolve("marks.properties");
+        CommitFeed feed = new CommitFeed(gitLabApi, markFile).withItemsPerPage(2).withMaxBufferedCommits(2);
+        assertEquals("1,2,3,4,5", ids(feed.getNewCommits(PROJECT, "main")));
+        assertEquals("5", feed.getMark(PROJECT, "main").getSha());
+
+        // Pages that were dropped from memory are fetched again, 3 pages to find the end and 2 again
+        verify(commitsApi, times(5)).getCommits(eq(PROJECT), eq("5"), isNull(), isNull(), isNull(), anyInt(), eq(2));
+
+        // Nothing new since the mark
+        assertEquals("", ids(feed.getNewCommits(PROJECT, "main")));
+
+        push(6);
+        push(7);
+        push(8);
+
+        // A new feed instance resumes from the persisted mark
+        feed = new CommitFeed(gitLabApi, markFile).withItemsPerPage(2);
+        assertEquals("6,7,8", ids(feed.getNewCommits(PROJECT, "main")));
+        assertEquals("8", new CommitFeed(gitLabApi, markFile).getMark(PROJECT, "main").getSha());
+    }
+
+    @Test
+    public void testMarkAdvancesWithConsumedCommits() throws Exception {
+
+        CommitFeed feed = new CommitFeed(gitLabApi);
+        try (Stream<Commit> commits = feed.getNewCommits(PROJECT, "main")) {
+            assertEquals("1,2", commits.limit(2).map(Commit::getId).collect(Collectors.joining(",")));
+        }
+
+        assertEquals("2", feed.getMark(PROJECT, "main").getSha());
+        assertEquals("3,4,5", ids(feed.getNewCommits(PROJECT, "main")));
+
+        feed.setMark(PROJECT, "main", null);
+        assertNull(feed.getMark(PROJECT, "main"));
+        assertEquals("1,2,3,4,5", ids(feed.getNewCommits(PROJECT, "main")));
+    }
+
+    @Test
+    public void testMarksAreKeyedByProjectId() throws Exception {
+
+        CommitFeed feed = new CommitFeed(gitLabApi);
+        assertEquals("1,2,3,4,5", ids(feed.getNewCommits(PROJECT, "main")));
+
+        // The same project addressed by ID or by a differently cased path shares the mark
+        assertEquals("5", feed.getMark(PROJECT_ID, "main").getSha());
+        assertEquals("5", feed.getMark(new Project().withId(PROJECT_ID), "main").getSha());
+        assertEquals("5", feed.getMark("Group/Project", "main").getSha());
+        verify(gitLabApi.getProjectApi(), times(1)).getProject(PROJECT);
+    }
+
+    private void push(int id) {
+        Commit commit = new Commit();
+        commit.setId(String.valueOf(id));
+        commit.setCommittedDate(new Date(id * 60000L));
+        history.add(0, commit);
+    }
+
+    private static String ids(Stream<Commit> commits) {
+        try (Stream<Commit> stream = commits) {
+            return (stream.map(Commit::getId).collect(Collectors.joining(",")));
+        }
+    }
+}
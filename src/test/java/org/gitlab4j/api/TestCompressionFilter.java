@@ -0,0 +1,102 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.junit.Test;
+
+public class TestCompressionFilter {
+
+    @Test
+    public void testAcceptEncoding() throws Exception {
+
+        GitLabApiClient apiClient = new GitLabApiClient("https://gitlab.example.com", "token");
+        CompressionFilter filter = new CompressionFilter(apiClient);
+
+        ClientRequestContext request = mock(ClientRequestContext.class);
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        when(request.getHeaders()).thenReturn(headers);
+
+        filter.filter(request);
+        assertNull(headers.getFirst(HttpHeaders.ACCEPT_ENCODING));
+
+        apiClient.setCompressedResponsesEnabled(true);
+        filter.filter(request);
+        assertEquals(CompressionFilter.ACCEPT_ENCODING_VALUE, headers.getFirst(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    public void testLargeEntitiesAreCompressed() throws Exception {
+
+        GitLabApiClient apiClient = new GitLabApiClient("https://gitlab.example.com", "token");
+        apiClient.setRequestCompressionThreshold(64);
+        CompressionFilter filter = new CompressionFilter(apiClient);
+
+        // Small entities are sent as is
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        filter.aroundWriteTo(mockContext("{\"branch\":\"main\"}", out, headers));
+        assertEquals("{\"branch\":\"main\"}", out.toString("UTF-8"));
+        assertNull(headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        StringBuilder actions = new StringBuilder("{\"actions\":[");
+        for (int i = 0; i < 100; i++) {
+            actions.append(i > 0 ? "," : "").append("{\"action\":\"create\",\"file_path\":\"file").append(i).append("\"}");
+        }
+
+        String entity = actions.append("]}").toString();
+        out = new ByteArrayOutputStream();
+        filter.aroundWriteTo(mockContext(entity, out, headers));
+        assertEquals(CompressionFilter.GZIP_ENCODING, headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            byte[] buffer = new byte[256];
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                decompressed.write(buffer, 0, n);
+            }
+        }
+
+        assertEquals(entity, decompressed.toString("UTF-8"));
+    }
+
+    private static WriterInterceptorContext mockContext(String entity, OutputStream out, MultivaluedMap<String, Object> headers) throws Exception {
+
+        WriterInterceptorContext context = mock(WriterInterceptorContext.class);
+        OutputStream[] stream = { out };
+        when(context.getMediaType()).thenReturn(MediaType.APPLICATION_JSON_TYPE);
+        when(context.getHeaders()).thenReturn(headers);
+        when(context.getOutputStream()).thenAnswer(invocation -> stream[0]);
+        doAnswer(invocation -> stream[0] = invocation.getArgument(0)).when(context).setOutputStream(any());
+
+        // Write the entity in small chunks, like a message body writer would
+        doAnswer(invocation -> {
+            byte[] bytes = entity.getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < bytes.length; i += 10) {
+                stream[0].write(bytes, i, Math.min(10, bytes.length - i));
+            }
+
+            return (null);
+        }).when(context).proceed();
+
+        return (context);
+    }
+}
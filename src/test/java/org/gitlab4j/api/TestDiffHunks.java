@@ -0,0 +1,81 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.gitlab4j.api.models.Position;
+import org.gitlab4j.api.utils.DiffHunks;
+import org.junit.Test;
+
+public class TestDiffHunks {
+
+    private static final String DIFF =
+            "--- a/README.md\n" +
+            "+++ b/README.md\n" +
+            "@@ -1,3 +1,4 @@ # Title\n" +
+            " line 1\n" +
+            "-line 2\n" +
+            "+line two\n" +
+            "+line 2.5\n" +
+            " line 3\n" +
+            "@@ -10 +11,2 @@\n" +
+            "\n" +
+            "+last line\n" +
+            "\\ No newline at end of file\n";
+
+    @Test
+    public void testParseHunks() {
+
+        DiffHunks hunks = DiffHunks.parse(DIFF);
+        assertEquals(2, hunks.getHunkCount());
+        assertArrayEquals(new int[] {1, 10}, hunks.getOldStarts());
+        assertArrayEquals(new int[] {3, 1}, hunks.getOldLengths());
+        assertArrayEquals(new int[] {1, 11}, hunks.getNewStarts());
+        assertArrayEquals(new int[] {4, 2}, hunks.getNewLengths());
+        assertArrayEquals(new int[] {0, 5, 7}, hunks.getHunkLineOffsets());
+
+        assertEquals(7, hunks.getLineCount());
+        assertArrayEquals(new byte[] {DiffHunks.CONTEXT, DiffHunks.REMOVED, DiffHunks.ADDED, DiffHunks.ADDED,
+                DiffHunks.CONTEXT, DiffHunks.CONTEXT, DiffHunks.ADDED}, hunks.getLineKinds());
+        assertArrayEquals(new int[] {1, 2, 0, 0, 3, 10, 0}, hunks.getOldLines());
+        assertArrayEquals(new int[] {1, 0, 2, 3, 4, 11, 12}, hunks.getNewLines());
+
+        assertEquals("line two", hunks.getLineText(2).toString());
+        assertEquals("", hunks.getLineText(5).toString());
+        assertEquals("last line", hunks.getLineText(6).toString());
+        assertEquals(3, hunks.getAddedCount());
+        assertEquals(1, hunks.getRemovedCount());
+    }
+
+    @Test
+    public void testLineLookupAndPosition() {
+
+        DiffHunks hunks = DiffHunks.parse(DIFF.replace("\n", "\r\n"));
+        assertEquals("line 2.5", hunks.getLineText(hunks.indexOfNewLine(3)).toString());
+        assertEquals(1, hunks.indexOfOldLine(2));
+        assertEquals(-1, hunks.indexOfNewLine(5));
+        assertEquals(-1, hunks.indexOfOldLine(11));
+
+        Position position = hunks.toPosition(hunks.indexOfNewLine(12), new Position());
+        assertNull(position.getOldLine());
+        assertEquals(Integer.valueOf(12), position.getNewLine());
+
+        position = hunks.toPosition(0, new Position());
+        assertEquals(Integer.valueOf(1), position.getOldLine());
+        assertEquals(Integer.valueOf(1), position.getNewLine());
+    }
+
+    @Test
+    public void testEmptyDiff() {
+        DiffHunks hunks = DiffHunks.parse(null);
+        assertEquals(0, hunks.getHunkCount());
+        assertEquals(0, hunks.getLineCount());
+        assertEquals(-1, hunks.indexOfNewLine(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedHunkHeader() {
+        DiffHunks.parse("@@ -1,x +1 @@\n line\n");
+    }
+}
@@ -0,0 +1,129 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.gitlab4j.api.models.Diff;
+import org.gitlab4j.api.utils.JacksonJson;
+import org.junit.Test;
+
+public class TestDiffStreamReader {
+
+    private static final String COMPARE_JSON = "{" +
+            "\"commit\": {\"id\": \"12d65c8dd2b2676fa3ac47d955accc085a37a9c1\", \"title\": \"JS fix\"}," +
+            "\"commits\": [{\"id\": \"12d65c8dd2b2676fa3ac47d955accc085a37a9c1\"}]," +
+            "\"diffs\": [" +
+            "{\"old_path\": \"src/main/java/A.java\", \"new_path\": \"src/main/java/A.java\", \"a_mode\": null, \"b_mode\": \"100644\"," +
+            " \"diff\": \"--- a/A.java\\n+++ b/A.java\\n@@ -1 +1 @@\\n-a\\n+b\\n\", \"new_file\": false, \"renamed_file\": false, \"deleted_file\": false}," +
+            "{\"old_path\": \"README.md\", \"new_path\": \"README.md\", \"diff\": \"@@ -1 +1 @@\\n-x\\n+y\\n\", \"new_file\": false}," +
+            "{\"diff\": \"@@ -0,0 +1 @@\\n+class B {}\\n\", \"old_path\": \"src/B.kt\", \"new_path\": \"src/main/kotlin/B.kt\", \"renamed_file\": true}" +
+            "]," +
+            "\"compare_timeout\": false, \"compare_same_ref\": false}";
+
+    @Test
+    public void testAllDiffsAreRead() throws Exception {
+
+        try (Stream<Diff> diffs = newReader("diffs", null).stream()) {
+
+            List<Diff> list = diffs.collect(Collectors.toList());
+            assertEquals(3, list.size());
+            assertEquals("src/main/java/A.java", list.get(0).getNewPath());
+            assertNull(list.get(0).getAMode());
+            assertEquals("100644", list.get(0).getBMode());
+            assertTrue(list.get(0).getDiff().contains("+b"));
+            assertEquals("README.md", list.get(1).getOldPath());
+            assertTrue(list.get(2).getRenamedFile());
+            assertEquals("src/main/kotlin/B.kt", list.get(2).getNewPath());
+        }
+    }
+
+    @Test
+    public void testDiffsAreFilteredByPathGlob() throws Exception {
+
+        try (Stream<Diff> diffs = newReader("diffs", "src/main/**/*.{java,kt}").stream()) {
+
+            List<Diff> list = diffs.collect(Collectors.toList());
+            assertEquals(2, list.size());
+            assertEquals("src/main/java/A.java", list.get(0).getNewPath());
+
+            // Matched on the new path of a renamed file, with the diff preceding the paths
+            assertEquals("src/B.kt", list.get(1).getOldPath());
+            assertTrue(list.get(1).getDiff().contains("class B"));
+        }
+    }
+
+    @Test
+    public void testMissingArrayReturnsNoDiffs() throws Exception {
+        DiffStreamReader reader = newReader("changes", null);
+        assertFalse(reader.hasNext());
+        reader.close();
+    }
+
+    @Test
+    public void testInputIsClosedWhenExhaustedOrFailed() throws Exception {
+
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream in = new ByteArrayInputStream(COMPARE_JSON.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        // The Stream is consumed to the end without being closed
+        assertEquals(3, new DiffStreamReader(new JacksonJson().getObjectMapper(), in, "diffs", null).stream().count());
+        assertTrue(closed.get());
+
+        closed.set(false);
+        in = new ByteArrayInputStream("{\"diffs\": [{\"diff\": ".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        DiffStreamReader reader = new DiffStreamReader(new JacksonJson().getObjectMapper(), in, "diffs", null);
+        try {
+            reader.hasNext();
+            fail("Expected an UncheckedIOException");
+        } catch (UncheckedIOException uioe) {
+            assertTrue(closed.get());
+        }
+    }
+
+    @Test
+    public void testGlobToPattern() {
+
+        Pattern pattern = DiffStreamReader.globToPattern("**/*.java");
+        assertTrue(pattern.matcher("A.java").matches());
+        assertTrue(pattern.matcher("src/main/A.java").matches());
+        assertFalse(pattern.matcher("src/main/A.javax").matches());
+
+        pattern = DiffStreamReader.globToPattern("docs/?.md");
+        assertTrue(pattern.matcher("docs/a.md").matches());
+        assertFalse(pattern.matcher("docs/ab.md").matches());
+        assertFalse(pattern.matcher("docs/a/b.md").matches());
+
+        pattern = DiffStreamReader.globToPattern("src/*");
+        assertTrue(pattern.matcher("src/pom.xml").matches());
+        assertFalse(pattern.matcher("src/main/pom.xml").matches());
+    }
+
+    private static DiffStreamReader newReader(String arrayProperty, String pathGlob) throws Exception {
+        return (new DiffStreamReader(new JacksonJson().getObjectMapper(),
+                new ByteArrayInputStream(COMPARE_JSON.getBytes(StandardCharsets.UTF_8)), arrayProperty, pathGlob));
+    }
+}
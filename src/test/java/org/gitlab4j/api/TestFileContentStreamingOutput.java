@@ -0,0 +1,221 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Random;
+
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.gitlab4j.api.Constants.Encoding;
+import org.gitlab4j.api.GitLabApi.ApiVersion;
+import org.gitlab4j.api.models.RepositoryFile;
+import org.gitlab4j.api.utils.FileContentStreamingOutput;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public class TestFileContentStreamingOutput {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testStreamFromInputStream() throws Exception {
+
+        byte[] content = new byte[100000];
+        new Random(42).nextBytes(content);
+
+        FileContentStreamingOutput output = new FileContentStreamingOutput("content", new ByteArrayInputStream(content))
+                .withField("branch", "master")
+                .withField("commit_message", "Commit \"quoted\" message")
+                .withField("author_email", null);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        output.write(stream);
+
+        JsonNode tree = JsonUtils.readTreeFromString(stream.toString(StandardCharsets.UTF_8.name()));
+        assertEquals("base64", tree.path("encoding").asText());
+        assertEquals("master", tree.path("branch").asText());
+        assertEquals("Commit \"quoted\" message", tree.path("commit_message").asText());
+        assertEquals(false, tree.has("author_email"));
+        assertArrayEquals(content, Base64.getDecoder().decode(tree.path("content").asText()));
+    }
+
+    @Test
+    public void testStreamFromPath() throws Exception {
+
+        Path file = tempFolder.newFile("content.txt").toPath();
+        Files.write(file, "Hello World!".getBytes(StandardCharsets.UTF_8));
+
+        FileContentStreamingOutput output = new FileContentStreamingOutput("content", file);
+
+        // A Path source can be written more than once
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            output.write(stream);
+            JsonNode tree = JsonUtils.readTreeFromString(stream.toString(StandardCharsets.UTF_8.name()));
+            assertEquals("Hello World!", new String(Base64.getDecoder().decode(tree.path("content").asText()), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testUpdateFileFields() throws Exception {
+
+        GitLabApiClient client = mockClient();
+        RepositoryFile file = new RepositoryFile();
+        file.setFilePath("docs/README.md");
+        file.setEncoding(Encoding.TEXT);
+        file.setLastCommitId("abc123");
+
+        GitLabApi gitLabApi = mockGitLabApi(client, ApiVersion.V4);
+        new RepositoryFileApi(gitLabApi).updateFile(1, file, new ByteArrayInputStream(new byte[] {1, 2, 3}), "master", "Update");
+
+        ArgumentCaptor<StreamingOutput> captor = ArgumentCaptor.forClass(StreamingOutput.class);
+        verify(client).put(captor.capture(), anyString(), any());
+        JsonNode tree = writeTree(captor.getValue());
+
+        // The content is always sent Base64 encoded
+        assertEquals("base64", tree.path("encoding").asText());
+        assertEquals("master", tree.path("branch").asText());
+        assertEquals("Update", tree.path("commit_message").asText());
+        assertEquals("abc123", tree.path("last_commit_id").asText());
+        assertArrayEquals(new byte[] {1, 2, 3}, Base64.getDecoder().decode(tree.path("content").asText()));
+    }
+
+    @Test
+    public void testCreateFileFieldsV3() throws Exception {
+
+        GitLabApiClient client = mockClient();
+        RepositoryFile file = new RepositoryFile();
+        file.setFilePath("docs/README.md");
+        file.setLastCommitId("abc123");
+
+        GitLabApi gitLabApi = mockGitLabApi(client, ApiVersion.V3);
+        new RepositoryFileApi(gitLabApi).createFile(1, file, new ByteArrayInputStream(new byte[0]), "master", "Create");
+
+        ArgumentCaptor<StreamingOutput> captor = ArgumentCaptor.forClass(StreamingOutput.class);
+        verify(client).post(captor.capture(), anyString(), any());
+        JsonNode tree = writeTree(captor.getValue());
+
+        assertEquals("docs/README.md", tree.path("file_path").asText());
+        assertEquals("master", tree.path("branch_name").asText());
+        assertEquals(false, tree.has("branch"));
+        assertEquals(false, tree.has("last_commit_id"));
+    }
+
+    @Test
+    public void testPutIsSentChunked() throws Exception {
+
+        GitLabApiClient client = spy(new GitLabApiClient("https://gitlab.example.com", "token"));
+        Invocation.Builder builder = mock(Invocation.Builder.class);
+        doReturn(builder).when(client).invocation(any(), any());
+        when(builder.property(anyString(), any())).thenReturn(builder);
+        Response response = mock(Response.class);
+        when(builder.put(any())).thenReturn(response);
+
+        FileContentStreamingOutput output = new FileContentStreamingOutput("content", new ByteArrayInputStream(new byte[] {1}));
+        client.put(output, "application/json", "projects", 1, "repository", "files", "README.md");
+        verify(builder).property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED);
+    }
+
+    @Test
+    public void testGetFileToPath() throws Exception {
+
+        byte[] content = new byte[10000];
+        new Random(42).nextBytes(content);
+        String encoded = Base64.getEncoder().encodeToString(content);
+
+        // The content is decoded whether it comes before or after the encoding
+        String[] responses = {
+            "{\"file_path\":\"lib/data.bin\",\"encoding\":\"base64\",\"content\":\"" + encoded + "\",\"ref\":\"master\"}",
+            "{\"file_path\":\"lib/data.bin\",\"content\":\"" + encoded + "\",\"encoding\":\"base64\",\"ref\":\"master\"}"
+        };
+
+        for (String json : responses) {
+
+            GitLabApiClient client = mockClient();
+            Response response = mock(Response.class);
+            when(response.getStatus()).thenReturn(200);
+            when(response.readEntity(InputStream.class)).thenReturn(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+            when(client.get(any(), Mockito.<Object>any())).thenReturn(response);
+
+            Path target = tempFolder.newFile().toPath();
+            RepositoryFile file = new RepositoryFileApi(mockGitLabApi(client, ApiVersion.V4)).getFile(1, "lib/data.bin", "master", target);
+            assertEquals("lib/data.bin", file.getFilePath());
+            assertEquals("master", file.getRef());
+            assertArrayEquals(content, Files.readAllBytes(target));
+
+            // The spooled content is deleted
+            assertEquals(0, tempFolder.getRoot().list((dir, name) -> name.startsWith(".gitlab4j-")).length);
+        }
+
+        // Text content that precedes its encoding is written as is
+        GitLabApiClient client = mockClient();
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(200);
+        when(response.readEntity(InputStream.class)).thenReturn(new ByteArrayInputStream(
+                "{\"content\":\"Hello World!\",\"encoding\":\"text\"}".getBytes(StandardCharsets.UTF_8)));
+        when(client.get(any(), Mockito.<Object>any())).thenReturn(response);
+
+        Path target = tempFolder.newFile().toPath();
+        new RepositoryFileApi(mockGitLabApi(client, ApiVersion.V4)).getFile(1, "README.md", "master", target);
+        assertEquals("Hello World!", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyCommitMessageIsRejected() throws Exception {
+        RepositoryFile file = new RepositoryFile();
+        file.setFilePath("docs/README.md");
+        GitLabApi gitLabApi = mockGitLabApi(mockClient(), ApiVersion.V4);
+        new RepositoryFileApi(gitLabApi).createFile(1, file, new ByteArrayInputStream(new byte[0]), "master", " ");
+    }
+
+    private static GitLabApiClient mockClient() throws Exception {
+
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(200);
+        when(response.readEntity(RepositoryFile.class)).thenReturn(new RepositoryFile());
+
+        GitLabApiClient client = mock(GitLabApiClient.class);
+        when(client.validateSecretToken(any())).thenReturn(true);
+        when(client.post(any(StreamingOutput.class), anyString(), any())).thenReturn(response);
+        when(client.put(any(StreamingOutput.class), anyString(), any())).thenReturn(response);
+        return (client);
+    }
+
+    private static GitLabApi mockGitLabApi(GitLabApiClient client, ApiVersion apiVersion) {
+        GitLabApi gitLabApi = mock(GitLabApi.class);
+        when(gitLabApi.getApiClient()).thenReturn(client);
+        when(gitLabApi.getApiVersion()).thenReturn(apiVersion);
+        return (gitLabApi);
+    }
+
+    private static JsonNode writeTree(StreamingOutput output) throws Exception {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        output.write(stream);
+        return (JsonUtils.readTreeFromString(stream.toString(StandardCharsets.UTF_8.name())));
+    }
+}
@@ -0,0 +1,32 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class TestGitLabApiAsUser {
+
+    @Test
+    public void testViewsShareClient() {
+
+        GitLabApi gitLabApi = new GitLabApi("https://gitlab.example.com", "token");
+        GitLabApi asUser = gitLabApi.asUser(5);
+        GitLabApi asUsername = asUser.asUser("jdoe");
+
+        assertEquals(Integer.valueOf(5), asUser.getSudoAsId());
+        assertEquals("jdoe", asUsername.getApiClient().getSudoAsUsername());
+        assertNull(asUsername.getSudoAsId());
+        assertNull(gitLabApi.getSudoAsId());
+
+        assertSame(gitLabApi.getApiClient().getClient(), asUser.getApiClient().getClient());
+        assertSame(gitLabApi.getApiClient().getClient(), asUsername.getApiClient().getClient());
+        assertEquals(gitLabApi.getAuthToken(), asUsername.getAuthToken());
+
+        // Settings are shared with the parent
+        HistogramMetrics metrics = new HistogramMetrics();
+        asUser.setMetrics(metrics);
+        assertSame(metrics, gitLabApi.getMetrics());
+    }
+}
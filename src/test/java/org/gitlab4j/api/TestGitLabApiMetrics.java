@@ -0,0 +1,92 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.Random;
+
+import javax.ws.rs.client.ClientRequestContext;
+
+import org.gitlab4j.api.utils.AtomicHistogram;
+import org.junit.Test;
+
+public class TestGitLabApiMetrics {
+
+    @Test
+    public void testRouteTemplates() {
+        assertEquals("projects/:id/merge_requests", GitLabApiMetricsFilter.toRouteTemplate("/api/v4/projects/42/merge_requests"));
+        assertEquals("projects/:id/merge_requests/:id/changes", GitLabApiMetricsFilter.toRouteTemplate("/gitlab/api/v4/projects/group%2Fproject/merge_requests/7/changes"));
+        assertEquals("projects/:id/repository/files/:file_path/raw", GitLabApiMetricsFilter.toRouteTemplate("/api/v4/projects/my-project/repository/files/src%2FMain.java/raw"));
+        assertEquals("projects/:id/repository/commits/:sha/diff", GitLabApiMetricsFilter.toRouteTemplate("/api/v4/projects/1/repository/commits/master/diff"));
+        assertEquals("users/:id/projects", GitLabApiMetricsFilter.toRouteTemplate("/api/v4/users/john/projects"));
+        assertEquals("version", GitLabApiMetricsFilter.toRouteTemplate("/api/v4/version"));
+    }
+
+    @Test
+    public void testRetriesAreReported() throws Exception {
+
+        GitLabApiClient apiClient = new GitLabApiClient("https://gitlab.example.com", "token");
+        HistogramMetrics metrics = new HistogramMetrics();
+        apiClient.setMetrics(metrics);
+        GitLabApiMetricsFilter filter = new GitLabApiMetricsFilter(apiClient);
+
+        ClientRequestContext requestContext = mock(ClientRequestContext.class);
+        when(requestContext.getMethod()).thenReturn("GET");
+        when(requestContext.getUri()).thenReturn(new URI("https://gitlab.example.com/api/v4/projects/42/pipelines/7"));
+        filter.filter(requestContext);
+        assertEquals(0, metrics.getRouteStats().size());
+
+        when(requestContext.getProperty(GitLabApiTracingFilter.RETRY_COUNT_PROPERTY)).thenReturn(1);
+        filter.filter(requestContext);
+        filter.filter(requestContext);
+        assertEquals(2, metrics.getRouteStats("GET", "projects/:id/pipelines/:id").getRetryCount());
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+
+        AtomicHistogram histogram = new AtomicHistogram();
+        for (long i = 1; i <= 10000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(10000, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(10000000, histogram.getMax());
+        assertEquals(5000500.0, histogram.getMean(), 0.001);
+
+        // Values are reported with a relative error of at most 1/32
+        assertWithin(5000000, histogram.getValueAtPercentile(50.0));
+        assertWithin(9500000, histogram.getValueAtPercentile(95.0));
+        assertWithin(9990000, histogram.getValueAtPercentile(99.9));
+        assertEquals(10000000, histogram.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            long highest = highestEquivalent(value);
+            assertTrue(value <= highest);
+            assertTrue(highest - value <= (value >>> 5));
+        }
+
+        assertEquals(Long.MAX_VALUE, highestEquivalent(Long.MAX_VALUE));
+    }
+
+    private static long highestEquivalent(long value) {
+        AtomicHistogram histogram = new AtomicHistogram();
+        histogram.record(value);
+        histogram.record(Long.MAX_VALUE);
+        return (histogram.getValueAtPercentile(50.0));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("expected " + expected + " but was " + actual, Math.abs(actual - expected) <= expected / 32);
+    }
+}
@@ -0,0 +1,221 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Response;
+
+import org.gitlab4j.api.GitLabApiTracer.Span;
+import org.gitlab4j.api.models.Project;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class TestGitLabApiTracing {
+
+    private static class RecordedSpan implements Span {
+
+        final String name;
+        final Span parent;
+        final Map<String, Object> attributes = new HashMap<>();
+        Throwable error;
+        boolean ended;
+
+        RecordedSpan(String name, Span parent) {
+            this.name = name;
+            this.parent = parent;
+        }
+
+        @Override
+        public String getTraceParent() {
+            return ("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+        }
+
+        @Override
+        public void setAttribute(String key, Object value) {
+            attributes.put(key, value);
+        }
+
+        @Override
+        public void setError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void end() {
+            ended = true;
+        }
+    }
+
+    private final List<RecordedSpan> spans = new ArrayList<>();
+
+    private GitLabApiTracingFilter createFilter() {
+        GitLabApiClient apiClient = new GitLabApiClient("https://gitlab.example.com", "token");
+        apiClient.setTracer((name, parent) -> {
+            RecordedSpan span = new RecordedSpan(name, parent);
+            spans.add(span);
+            return (span);
+        });
+
+        return (new GitLabApiTracingFilter(apiClient));
+    }
+
+    @Test
+    public void testRequestAndReadSpans() throws Exception {
+
+        GitLabApiTracingFilter filter = createFilter();
+        ClientRequestContext request = mockRequest();
+        ClientResponseContext response = mock(ClientResponseContext.class);
+        when(response.getStatus()).thenReturn(200);
+        when(response.hasEntity()).thenReturn(true);
+        when(response.getEntityStream()).thenReturn(new ByteArrayInputStream(new byte[] {'[', ']'}));
+
+        RecordedSpan list = new RecordedSpan("list", null);
+        Span previous = GitLabApiTracingFilter.setParentSpan(list);
+        try {
+            filter.filter(request);
+        } finally {
+            GitLabApiTracingFilter.setParentSpan(previous);
+        }
+
+        assertEquals("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+                request.getHeaders().getFirst(GitLabApiTracingFilter.TRACEPARENT_HEADER));
+
+        filter.filter(request, response);
+        RecordedSpan requestSpan = spans.get(0);
+        assertEquals("GET projects/:id/merge_requests", requestSpan.name);
+        assertSame(list, requestSpan.parent);
+        assertEquals(200, requestSpan.attributes.get(GitLabApiTracer.HTTP_STATUS_CODE));
+        assertEquals(0, requestSpan.attributes.get(GitLabApiTracer.RETRY_COUNT));
+        assertTrue(requestSpan.ended);
+
+        ArgumentCaptor<InputStream> captor = ArgumentCaptor.forClass(InputStream.class);
+        verify(response).setEntityStream(captor.capture());
+        RecordedSpan readSpan = spans.get(1);
+        assertSame(requestSpan, readSpan.parent);
+        try (InputStream in = captor.getValue()) {
+            while (in.read() >= 0) {
+            }
+        }
+
+        assertTrue(readSpan.ended);
+        assertEquals(2L, readSpan.attributes.get(GitLabApiTracer.RESPONSE_BYTES));
+    }
+
+    @Test
+    public void testFailedRequestEndsSpan() throws Exception {
+
+        GitLabApiTracingFilter filter = createFilter();
+        filter.filter(mockRequest());
+
+        RuntimeException error = new RuntimeException("Connection refused");
+        GitLabApiTracingFilter.failed(error);
+        assertTrue(spans.get(0).ended);
+        assertSame(error, spans.get(0).error);
+
+        // Only the in flight span is ended
+        spans.get(0).ended = false;
+        GitLabApiTracingFilter.failed(error);
+        assertEquals(false, spans.get(0).ended);
+        assertNull(spans.get(0).attributes.get(GitLabApiTracer.HTTP_STATUS_CODE));
+    }
+
+    @Test
+    public void testStaleSpanIsEnded() throws Exception {
+
+        GitLabApiTracingFilter filter = createFilter();
+        filter.filter(mockRequest());
+        filter.filter(mockRequest());
+        assertTrue(spans.get(0).ended);
+        assertEquals(false, spans.get(1).ended);
+
+        GitLabApiTracingFilter.failed(new RuntimeException("Connection refused"));
+        assertTrue(spans.get(1).ended);
+    }
+
+    @Test
+    public void testPagerListSpan() throws Exception {
+
+        Pager<Project> pager = new Pager<>(mockPagerApi(), Project.class, 1, null, "projects");
+        assertEquals(3, pager.all().size());
+
+        // One list span is the parent of a span per page
+        assertEquals(4, spans.size());
+        RecordedSpan list = spans.get(0);
+        assertEquals("list projects", list.name);
+        assertTrue(list.ended);
+        for (int i = 1; i < spans.size(); i++) {
+            assertEquals("page projects", spans.get(i).name);
+            assertSame(list, spans.get(i).parent);
+            assertEquals(i, spans.get(i).attributes.get(GitLabApiTracer.PAGE_NUMBER));
+            assertTrue(spans.get(i).ended);
+        }
+    }
+
+    @Test
+    public void testClosingStreamEndsListSpan() throws Exception {
+
+        Pager<Project> pager = new Pager<>(mockPagerApi(), Project.class, 1, null, "projects");
+        try (Stream<Project> stream = pager.lazyStream()) {
+            assertEquals(2, stream.limit(2).count());
+            assertEquals(false, spans.get(0).ended);
+        }
+
+        assertTrue(spans.get(0).ended);
+    }
+
+    private AbstractApi mockPagerApi() throws Exception {
+
+        GitLabApiClient apiClient = new GitLabApiClient("https://gitlab.example.com", "token");
+        apiClient.setTracer((name, parent) -> {
+            RecordedSpan span = new RecordedSpan(name, parent);
+            spans.add(span);
+            return (span);
+        });
+
+        AbstractApi api = mock(AbstractApi.class);
+        when(api.getApiClient()).thenReturn(apiClient);
+        when(api.get(any(), any(), Mockito.<Object>any())).thenAnswer(invocation -> {
+            Response response = mock(Response.class);
+            when(response.getEntity()).thenReturn(new ByteArrayInputStream("[{\"id\":1}]".getBytes()));
+            when(response.getHeaderString(Pager.PER_PAGE)).thenReturn("1");
+            when(response.getHeaderString(Pager.TOTAL_PAGES_HEADER)).thenReturn("3");
+            when(response.getHeaderString(Pager.TOTAL_HEADER)).thenReturn("3");
+            return (response);
+        });
+
+        return (api);
+    }
+
+    private static ClientRequestContext mockRequest() {
+
+        ClientRequestContext request = mock(ClientRequestContext.class);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getUri()).thenReturn(URI.create("https://gitlab.example.com/api/v4/projects/42/merge_requests?page=2"));
+        when(request.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+
+        Map<String, Object> properties = new HashMap<>();
+        doAnswer(invocation -> properties.put(invocation.getArgument(0), invocation.getArgument(1))).when(request).setProperty(any(), any());
+        when(request.getProperty(any())).thenAnswer(invocation -> properties.get(invocation.getArgument(0)));
+        return (request);
+    }
+}
@@ -0,0 +1,102 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.gitlab4j.api.models.Group;
+import org.gitlab4j.api.models.GroupProjectsFilter;
+import org.gitlab4j.api.models.Project;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestGroupHierarchyCrawler {
+
+    private GroupApi groupApi;
+
+    @Before
+    public void setup() throws Exception {
+
+        groupApi = mock(GroupApi.class);
+        when(groupApi.getDefaultPerPage()).thenReturn(20);
+
+        // acme -> platform -> (runtime, build), acme -> apps
+        Group acme = group(1, "acme");
+        when(groupApi.getGroup("acme")).thenReturn(acme);
+        subgroups(1, group(2, "acme/platform"), group(3, "acme/apps"));
+        subgroups(2, group(4, "acme/platform/runtime"), group(5, "acme/platform/build"));
+        subgroups(3);
+        subgroups(4);
+        subgroups(5);
+
+        // Project 10 is shared with the apps group
+        projects(1);
+        projects(2, project(10));
+        projects(3, project(10), project(11));
+        projects(4, project(12));
+        projects(5);
+    }
+
+    @Test
+    public void testHierarchyIsCrawled() throws Exception {
+
+        GroupTree tree = new GroupHierarchyCrawler(groupApi, "acme").withMaxConcurrency(3).crawl();
+        assertEquals(5, tree.size());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5),
+                tree.getNodes().stream().map(node -> node.getGroup().getId()).collect(Collectors.toList()));
+
+        GroupTree.Node runtime = tree.getNode("ACME/Platform/Runtime");
+        assertEquals(2, runtime.getDepth());
+        assertSame(tree.getNode(2), runtime.getParent());
+        assertEquals(Arrays.asList(tree.getNode(2), tree.getRoot()), runtime.getAncestors());
+        assertEquals(2, tree.getRoot().getChildren().size());
+        assertNull(tree.getNode("acme/missing"));
+        assertEquals(0, tree.getProjects().size());
+    }
+
+    @Test
+    public void testSharedProjectsAreDeduplicated() throws Exception {
+
+        GroupTree tree = new GroupHierarchyCrawler(groupApi, "acme").withProjects(true).crawl();
+        assertEquals(3, tree.getProjects().size());
+        assertSame(tree.getNode(2).getProjects().get(0), tree.getNode(3).getProjects().get(0));
+        assertSame(tree.getProject(12), tree.getNode("acme/platform/runtime").getProjects().get(0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void subgroups(int groupId, Group... subgroups) throws GitLabApiException {
+        Pager<Group> pager = mock(Pager.class);
+        when(pager.all()).thenReturn(new ArrayList<>(Arrays.asList(subgroups)));
+        when(groupApi.getSubGroups(eq(groupId), anyInt())).thenReturn(pager);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void projects(int groupId, Project... projects) throws GitLabApiException {
+        Pager<Project> pager = mock(Pager.class);
+        List<Project> list = (projects.length > 0 ? Arrays.asList(projects) : Collections.emptyList());
+        when(pager.all()).thenReturn(list);
+        when(groupApi.getProjects(eq(groupId), any(GroupProjectsFilter.class), anyInt())).thenReturn(pager);
+    }
+
+    private static Group group(int id, String fullPath) {
+        Group group = new Group();
+        group.setId(id);
+        group.setFullPath(fullPath);
+        return (group);
+    }
+
+    private static Project project(int id) {
+        return (new Project().withId(id));
+    }
+}
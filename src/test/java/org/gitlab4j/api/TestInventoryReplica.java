@@ -0,0 +1,217 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import org.gitlab4j.api.models.Group;
+import org.gitlab4j.api.models.Namespace;
+import org.gitlab4j.api.models.Project;
+import org.gitlab4j.api.models.ProjectFilter;
+import org.gitlab4j.api.models.Visibility;
+import org.gitlab4j.api.systemhooks.GroupSystemHookEvent;
+import org.gitlab4j.api.systemhooks.ProjectSystemHookEvent;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+public class TestInventoryReplica {
+
+    private static final long HOUR = 3600000;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private GitLabApi gitLabApi;
+    private ProjectApi projectApi;
+    private GroupApi groupApi;
+    private long now = System.currentTimeMillis();
+
+    @Before
+    public void setup() throws Exception {
+
+        gitLabApi = mock(GitLabApi.class);
+        projectApi = mock(ProjectApi.class);
+        groupApi = mock(GroupApi.class);
+        when(gitLabApi.getProjectApi()).thenReturn(projectApi);
+        when(gitLabApi.getGroupApi()).thenReturn(groupApi);
+
+        listProjects(project(100, "acme/api", 1, Visibility.PUBLIC, now - HOUR),
+                project(101, "acme/web", 1, Visibility.PRIVATE, now - 3 * HOUR),
+                project(102, "acme/platform/runtime", 2, Visibility.PRIVATE, now - 2 * HOUR));
+        listGroups(group(1, "acme"), group(2, "acme/platform"));
+    }
+
+    @Test
+    public void testLookupsAreServedFromIndexes() throws Exception {
+
+        try (InventoryReplica replica = new InventoryReplica(gitLabApi)) {
+
+            replica.seed();
+            assertEquals(3, replica.getProjectCount());
+            assertEquals(Integer.valueOf(102), replica.getProject("ACME/Platform/Runtime").getId());
+            assertEquals(2, replica.getProjectsInNamespace(1).size());
+            assertEquals(1, replica.getProjects(Visibility.PUBLIC).size());
+            assertEquals(Arrays.asList(100, 102), ids(replica.getProjectsActiveSince(new Date(now - 2 * HOUR))));
+            assertEquals(Integer.valueOf(2), replica.getGroup("acme/platform").getId());
+
+            // A destroyed project is removed right away, an updated one is fetched in the background
+            replica.onProjectEvent(projectEvent(ProjectSystemHookEvent.PROJECT_DESTROY_EVENT, 101));
+            assertNull(replica.getProject(101));
+            assertEquals(1, replica.getProjects(Visibility.PRIVATE).size());
+
+            when(projectApi.getProject(100)).thenReturn(project(100, "acme/api", 1, Visibility.INTERNAL, now));
+            replica.onProjectEvent(projectEvent(ProjectSystemHookEvent.PROJECT_UPDATE_EVENT, 100));
+            waitFor(() -> replica.getProject(100).getVisibility() == Visibility.INTERNAL);
+            assertTrue(replica.getProjects(Visibility.PUBLIC).isEmpty());
+        }
+    }
+
+    @Test
+    public void testGroupRenameRefreshesDescendants() throws Exception {
+
+        try (InventoryReplica replica = new InventoryReplica(gitLabApi)) {
+
+            replica.seed();
+            when(groupApi.getGroup(2)).thenReturn(group(2, "acme/core"));
+            when(projectApi.getProject(102)).thenReturn(project(102, "acme/core/runtime", 2, Visibility.PRIVATE, now));
+
+            GroupSystemHookEvent event = new GroupSystemHookEvent();
+            event.setEventName(GroupSystemHookEvent.GROUP_RENAME_EVENT);
+            event.setGroupId(2);
+            event.setFullPath("acme/core");
+            event.setOldFullPath("acme/platform");
+            replica.onGroupEvent(event);
+
+            waitFor(() -> replica.getProject("acme/core/runtime") != null);
+            assertNull(replica.getProject("acme/platform/runtime"));
+            assertEquals(Integer.valueOf(2), replica.getGroup("acme/core").getId());
+            assertNull(replica.getGroup("acme/platform"));
+        }
+    }
+
+    @Test
+    public void testSnapshotIsReconciledOnRestart() throws Exception {
+
+        Path snapshot = tempFolder.getRoot().toPath().resolve("replica.json");
+        try (InventoryReplica replica = new InventoryReplica(gitLabApi).withSnapshotFile(snapshot)) {
+            replica.seed();
+        }
+
+        assertTrue(snapshot.toFile().exists());
+
+        // Only project 103 has activity since the snapshot
+        listProjects(project(103, "acme/docs", 1, Visibility.PUBLIC, now));
+        try (InventoryReplica replica = new InventoryReplica(gitLabApi).withSnapshotFile(snapshot)) {
+
+            replica.seed();
+            assertEquals(4, replica.getProjectCount());
+            assertEquals(Integer.valueOf(102), replica.getProject("acme/platform/runtime").getId());
+            assertEquals(now - 2 * HOUR, replica.getProject(102).getLastActivityAt().getTime());
+            assertEquals(2, replica.getGroups().size());
+        }
+
+        ArgumentCaptor<ProjectFilter> filters = ArgumentCaptor.forClass(ProjectFilter.class);
+        verify(projectApi, times(2)).getProjects(filters.capture(), anyInt());
+        assertFalse(filters.getAllValues().get(0).getQueryParams().asMap().containsKey("last_activity_after"));
+        assertTrue(filters.getAllValues().get(1).getQueryParams().asMap().containsKey("last_activity_after"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEventsDuringSweepAreNotUndone() throws Exception {
+
+        try (InventoryReplica replica = new InventoryReplica(gitLabApi)) {
+
+            // Project 101 and group 2 are deleted after they were listed, before the listing is applied
+            GroupSystemHookEvent groupEvent = new GroupSystemHookEvent();
+            groupEvent.setEventName(GroupSystemHookEvent.GROUP_DESTROY_EVENT);
+            groupEvent.setGroupId(2);
+            AtomicBoolean deleted = new AtomicBoolean();
+            Pager<Group> pager = mock(Pager.class);
+            when(pager.lazyStream(anyInt())).thenAnswer(invocation -> {
+                if (!deleted.getAndSet(true)) {
+                    replica.onProjectEvent(projectEvent(ProjectSystemHookEvent.PROJECT_DESTROY_EVENT, 101));
+                    replica.onGroupEvent(groupEvent);
+                }
+
+                return (Arrays.stream(new Group[] { group(1, "acme"), group(2, "acme/platform") }));
+            });
+            when(groupApi.getGroups(anyInt())).thenReturn(pager);
+
+            replica.seed();
+            assertNull(replica.getProject(101));
+            assertEquals(2, replica.getProjectCount());
+            assertNull(replica.getGroup(2));
+            assertEquals(1, replica.getGroups().size());
+
+            // A later sweep applies its listing again
+            replica.reconcile();
+            assertEquals(Integer.valueOf(101), replica.getProject("acme/web").getId());
+            assertEquals(2, replica.getGroups().size());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void listProjects(Project... projects) throws GitLabApiException {
+        Pager<Project> pager = mock(Pager.class);
+        when(pager.lazyStream(anyInt())).thenAnswer(invocation -> Arrays.stream(projects));
+        when(projectApi.getProjects(any(ProjectFilter.class), anyInt())).thenReturn(pager);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void listGroups(Group... groups) throws GitLabApiException {
+        Pager<Group> pager = mock(Pager.class);
+        when(pager.lazyStream(anyInt())).thenAnswer(invocation -> Arrays.stream(groups));
+        when(groupApi.getGroups(anyInt())).thenReturn(pager);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static List<Integer> ids(List<Project> projects) {
+        return (Arrays.asList(projects.stream().map(Project::getId).toArray(Integer[]::new)));
+    }
+
+    private static ProjectSystemHookEvent projectEvent(String eventName, int projectId) {
+        ProjectSystemHookEvent event = new ProjectSystemHookEvent();
+        event.setEventName(eventName);
+        event.setProjectId(projectId);
+        return (event);
+    }
+
+    private static Project project(int id, String path, int namespaceId, Visibility visibility, long lastActivity) {
+        Project project = new Project().withId(id).withNamespace(new Namespace().withId(namespaceId)).withVisibility(visibility);
+        project.setPathWithNamespace(path);
+        project.setLastActivityAt(new Date(lastActivity));
+        return (project);
+    }
+
+    private static Group group(int id, String fullPath) {
+        Group group = new Group();
+        group.setId(id);
+        group.setFullPath(fullPath);
+        return (group);
+    }
+}
@@ -0,0 +1,62 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.gitlab4j.api.utils.FileUtils;
+import org.gitlab4j.api.utils.JobTraceReader;
+import org.junit.Test;
+
+public class TestJobTraceReader {
+
+    private static String filter(String trace) throws Exception {
+        try (Reader reader = new JobTraceReader(new StringReader(trace))) {
+            return (FileUtils.getReaderContentAsString(reader));
+        }
+    }
+
+    @Test
+    public void testStripAnsiEscapes() throws Exception {
+        assertEquals("Running with gitlab-runner 11.10.1", filter("\u001B[0;m\u001B[0KRunning with gitlab-runner 11.10.1\u001B[0;m"));
+        assertEquals("$ mvn test", filter("\u001B[32;1m$ mvn test\u001B[0;m"));
+        assertEquals("title text", filter("\u001B]0;window\u0007title \u001B]2;x\u001B\\text"));
+    }
+
+    @Test
+    public void testStripSectionMarkers() throws Exception {
+
+        String trace = "section_start:1560896352:build_script\r\u001B[0KRunning build\n" +
+                "section_end:1560896353:build_script\r\u001B[0Kdone\n";
+        assertEquals("Running build\ndone\n", filter(trace));
+    }
+
+    @Test
+    public void testTextResemblingMarkers() throws Exception {
+        assertEquals("sections: sssection_ success", filter("sections: sssection_ success"));
+        assertEquals("section_sta", filter("section_sta"));
+        assertEquals("ss", filter("ss"));
+        assertEquals("sxsection_end", filter("sx\u001B[1msection_end"));
+    }
+
+    @Test
+    public void testLines() throws Exception {
+
+        StringBuilder trace = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            trace.append("section_start:1560896352:step_").append(i).append("\r\u001B[0K");
+            trace.append("\u001B[32;1mline ").append(i).append("\u001B[0;m\n");
+        }
+
+        try (BufferedReader reader = new BufferedReader(new JobTraceReader(new StringReader(trace.toString())))) {
+            List<String> lines = reader.lines().collect(Collectors.toList());
+            assertEquals(5000, lines.size());
+            assertEquals("line 0", lines.get(0));
+            assertEquals("line 4999", lines.get(4999));
+        }
+    }
+}
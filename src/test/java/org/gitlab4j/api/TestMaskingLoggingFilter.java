@@ -0,0 +1,212 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+
+import org.gitlab4j.api.utils.MaskingLoggingFilter;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class TestMaskingLoggingFilter {
+
+    private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+    private Logger logger;
+
+    @Before
+    public void setup() {
+
+        logger = Logger.getLogger(TestMaskingLoggingFilter.class.getName());
+        logger.setUseParentHandlers(false);
+        logger.setLevel(Level.ALL);
+        for (Handler handler : logger.getHandlers()) {
+            logger.removeHandler(handler);
+        }
+
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                messages.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
+    @Test
+    public void testTextEntityIsCapturedWhileRead() throws Exception {
+
+        MaskingLoggingFilter filter = new MaskingLoggingFilter(logger, Level.INFO, 10, MaskingLoggingFilter.DEFAULT_MASKED_HEADER_NAMES);
+        ClientRequestContext request = mockRequest();
+        ClientResponseContext response = mockResponse(MediaType.APPLICATION_JSON_TYPE, "[{\"id\":1},{\"id\":2}]");
+
+        filter.filter(request);
+        filter.filter(request, response);
+
+        // The status line and headers are logged before the entity is read
+        assertTrue(String.join("", messages).contains("< 200"));
+
+        ArgumentCaptor<InputStream> captor = ArgumentCaptor.forClass(InputStream.class);
+        verify(response).setEntityStream(captor.capture());
+        try (InputStream in = captor.getValue()) {
+            byte[] buffer = new byte[4];
+            StringBuilder entity = new StringBuilder();
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                entity.append(new String(buffer, 0, n, StandardCharsets.UTF_8));
+            }
+
+            // The caller still sees the whole entity
+            assertEquals("[{\"id\":1},{\"id\":2}]", entity.toString());
+        }
+
+        String log = String.join("", messages);
+        assertTrue(log.contains("PRIVATE-TOKEN: ********"));
+        assertTrue(log.contains("[{\"id\":1},...more..."));
+    }
+
+    @Test
+    public void testCompressedEntityIsDecoded() throws Exception {
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("[{\"id\":1},{\"id\":2}]".getBytes(StandardCharsets.UTF_8));
+        }
+
+        MaskingLoggingFilter filter = new MaskingLoggingFilter(logger, Level.INFO, 100);
+        ClientRequestContext request = mockRequest();
+        ClientResponseContext response = mockResponse(MediaType.APPLICATION_JSON_TYPE, compressed.toByteArray());
+        when(response.getHeaderString(HttpHeaders.CONTENT_ENCODING)).thenReturn("gzip");
+
+        filter.filter(request);
+        filter.filter(request, response);
+
+        ArgumentCaptor<InputStream> captor = ArgumentCaptor.forClass(InputStream.class);
+        verify(response).setEntityStream(captor.capture());
+        try (InputStream in = captor.getValue()) {
+            while (in.read() >= 0) {
+            }
+        }
+
+        assertTrue(String.join("", messages).contains("[{\"id\":1},{\"id\":2}]"));
+    }
+
+    @Test
+    public void testBinaryEntityIsSkipped() throws Exception {
+
+        MaskingLoggingFilter filter = new MaskingLoggingFilter(logger, Level.INFO, 10);
+        ClientRequestContext request = mockRequest();
+        ClientResponseContext response = mockResponse(MediaType.APPLICATION_OCTET_STREAM_TYPE, "binary");
+
+        filter.filter(request);
+        filter.filter(request, response);
+        verify(response, never()).setEntityStream(any());
+
+        String log = String.join("", messages);
+        assertTrue(log.contains("< 200"));
+        assertFalse(log.contains("binary"));
+    }
+
+    @Test
+    public void testEntitySampling() throws Exception {
+
+        MaskingLoggingFilter filter = new MaskingLoggingFilter(logger, Level.INFO, 10);
+        filter.setEntitySampleRate(3);
+
+        long captured = 0;
+        for (int i = 0; i < 9; i++) {
+            ClientRequestContext request = mockRequest();
+            ClientResponseContext response = mockResponse(MediaType.APPLICATION_JSON_TYPE, "{}");
+            filter.filter(request);
+            filter.filter(request, response);
+            captured += mockingDetails(response).getInvocations().stream()
+                    .filter(invocation -> invocation.getMethod().getName().equals("setEntityStream")).count();
+        }
+
+        assertEquals(3, captured);
+    }
+
+    @Test
+    public void testAsynchronousLogging() throws Exception {
+
+        MaskingLoggingFilter filter = new MaskingLoggingFilter(logger, Level.INFO, 10);
+        assertFalse(filter.isAsynchronous());
+        filter.setAsynchronous(true);
+
+        ClientRequestContext request = mockRequest();
+        ClientResponseContext response = mockResponse(MediaType.APPLICATION_OCTET_STREAM_TYPE, "binary");
+        filter.filter(request);
+        filter.filter(request, response);
+
+        assertTrue(filter.flush(5, TimeUnit.SECONDS));
+        String log = String.join("", messages);
+        assertTrue(log.contains("> GET"));
+        assertTrue(log.contains("< 200"));
+        assertEquals(0, filter.getDroppedCount());
+    }
+
+    private static ClientRequestContext mockRequest() {
+
+        MultivaluedHashMap<String, String> headers = new MultivaluedHashMap<>();
+        headers.putSingle("PRIVATE-TOKEN", "secret");
+
+        ClientRequestContext request = mock(ClientRequestContext.class);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getUri()).thenReturn(URI.create("https://gitlab.example.com/api/v4/projects"));
+        when(request.getStringHeaders()).thenReturn(headers);
+        when(request.hasEntity()).thenReturn(false);
+
+        Object[] id = new Object[1];
+        doAnswer(invocation -> id[0] = invocation.getArgument(1)).when(request).setProperty(any(), any());
+        when(request.getProperty(any())).thenAnswer(invocation -> id[0]);
+        return (request);
+    }
+
+    private static ClientResponseContext mockResponse(MediaType mediaType, String entity) {
+        return (mockResponse(mediaType, entity.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static ClientResponseContext mockResponse(MediaType mediaType, byte[] entity) {
+        ClientResponseContext response = mock(ClientResponseContext.class);
+        when(response.getStatus()).thenReturn(200);
+        when(response.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        when(response.getMediaType()).thenReturn(mediaType);
+        when(response.hasEntity()).thenReturn(true);
+        when(response.getEntityStream()).thenReturn(new ByteArrayInputStream(entity));
+        return (response);
+    }
+}
@@ -0,0 +1,176 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gitlab4j.api.models.AccessLevel;
+import org.gitlab4j.api.models.Group;
+import org.gitlab4j.api.models.Member;
+import org.gitlab4j.api.models.Namespace;
+import org.gitlab4j.api.models.Project;
+import org.gitlab4j.api.models.ProjectSharedGroup;
+import org.gitlab4j.api.systemhooks.GroupMemberSystemHookEvent;
+import org.gitlab4j.api.systemhooks.TeamMemberSystemHookEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestMembershipResolver {
+
+    private GitLabApi gitLabApi;
+    private ProjectApi projectApi;
+    private GroupApi groupApi;
+
+    @Before
+    public void setup() throws Exception {
+
+        gitLabApi = mock(GitLabApi.class);
+        projectApi = mock(ProjectApi.class);
+        groupApi = mock(GroupApi.class);
+        when(gitLabApi.getProjectApi()).thenReturn(projectApi);
+        when(gitLabApi.getGroupApi()).thenReturn(groupApi);
+
+        // Project 100 is in group 2, a subgroup of 1, and is shared with group 3 at the reporter level
+        Namespace namespace = new Namespace().withId(2);
+        namespace.setKind("group");
+        ProjectSharedGroup share = new ProjectSharedGroup();
+        share.setGroupId(3);
+        share.setGroupAccessLevel(AccessLevel.REPORTER);
+        Project project = new Project().withId(100).withNamespace(namespace);
+        project.setSharedWithGroups(Collections.singletonList(share));
+        when(projectApi.getProject(100)).thenReturn(project);
+
+        when(groupApi.getGroup(1)).thenReturn(group(1, null));
+        when(groupApi.getGroup(2)).thenReturn(group(2, 1));
+        when(groupApi.getGroup(3)).thenReturn(group(3, null));
+
+        when(projectApi.getMembers(100)).thenReturn(Arrays.asList(member(10, AccessLevel.DEVELOPER)));
+        when(groupApi.getMembers(1)).thenReturn(Arrays.asList(member(11, AccessLevel.OWNER)));
+        when(groupApi.getMembers(2)).thenReturn(Arrays.asList(member(12, AccessLevel.GUEST), member(10, AccessLevel.MAINTAINER)));
+        when(groupApi.getMembers(3)).thenReturn(Arrays.asList(member(13, AccessLevel.MAINTAINER),
+                member(14, AccessLevel.DEVELOPER).withExpiresAt(new Date(System.currentTimeMillis() - 1000))));
+    }
+
+    @Test
+    public void testEffectiveAccessLevels() throws Exception {
+
+        MembershipResolver resolver = new MembershipResolver(gitLabApi);
+        assertEquals(AccessLevel.MAINTAINER, resolver.getAccessLevel(10, 100));
+        assertEquals(AccessLevel.OWNER, resolver.getAccessLevel(11, 100));
+        assertEquals(AccessLevel.GUEST, resolver.getAccessLevel(12, 100));
+        assertEquals(AccessLevel.REPORTER, resolver.getAccessLevel(13, 100));
+        assertEquals(AccessLevel.NONE, resolver.getAccessLevel(14, 100));
+        assertEquals(AccessLevel.NONE, resolver.getAccessLevel(99, 100));
+        assertTrue(resolver.hasAccess(13, 100, AccessLevel.REPORTER));
+        assertFalse(resolver.hasAccess(13, 100, AccessLevel.DEVELOPER));
+        assertEquals(4, resolver.getAccessLevels(100).size());
+
+        // Everything was loaded once
+        verify(projectApi, times(1)).getProject(100);
+        verify(groupApi, times(1)).getMembers(1);
+        verify(groupApi, times(1)).getGroup(2);
+    }
+
+    @Test
+    public void testMemberEventsInvalidateTheCache() throws Exception {
+
+        MembershipResolver resolver = new MembershipResolver(gitLabApi);
+        assertEquals(AccessLevel.GUEST, resolver.getAccessLevel(12, 100));
+
+        when(groupApi.getMembers(2)).thenReturn(Arrays.asList(member(12, AccessLevel.DEVELOPER)));
+        GroupMemberSystemHookEvent groupEvent = new GroupMemberSystemHookEvent();
+        groupEvent.setEventName(GroupMemberSystemHookEvent.NEW_GROUP_MEMBER_EVENT);
+        groupEvent.setGroupId(2);
+        resolver.onGroupMemberEvent(groupEvent);
+        assertEquals(AccessLevel.DEVELOPER, resolver.getAccessLevel(12, 100));
+        assertEquals(AccessLevel.DEVELOPER, resolver.getAccessLevel(10, 100));
+
+        when(projectApi.getMembers(100)).thenReturn(Collections.emptyList());
+        TeamMemberSystemHookEvent teamEvent = new TeamMemberSystemHookEvent();
+        teamEvent.setEventName(TeamMemberSystemHookEvent.TEAM_MEMBER_REMOVED_EVENT);
+        teamEvent.setProjectId(100);
+        resolver.onTeamMemberEvent(teamEvent);
+        assertEquals(AccessLevel.NONE, resolver.getAccessLevel(10, 100));
+
+        // Only the members of the invalidated group and project were loaded again
+        verify(groupApi, times(2)).getMembers(2);
+        verify(groupApi, times(1)).getMembers(1);
+        verify(projectApi, times(2)).getMembers(100);
+        verify(projectApi, times(1)).getProject(100);
+    }
+
+    @Test
+    public void testEventDuringLoadIsNotLost() throws Exception {
+
+        MembershipResolver resolver = new MembershipResolver(gitLabApi);
+        GroupMemberSystemHookEvent groupEvent = new GroupMemberSystemHookEvent();
+        groupEvent.setEventName(GroupMemberSystemHookEvent.GROUP_MEMBER_REMOVED_EVENT);
+        groupEvent.setGroupId(2);
+
+        // The member is removed while the stale member list is being loaded
+        AtomicInteger loads = new AtomicInteger();
+        when(groupApi.getMembers(2)).thenAnswer(invocation -> {
+            if (loads.incrementAndGet() > 1) {
+                return (Collections.emptyList());
+            }
+
+            resolver.onGroupMemberEvent(groupEvent);
+            return (Arrays.asList(member(12, AccessLevel.GUEST)));
+        });
+
+        assertEquals(AccessLevel.GUEST, resolver.getAccessLevel(12, 100));
+        assertEquals(AccessLevel.NONE, resolver.getAccessLevel(12, 100));
+        assertEquals(AccessLevel.NONE, resolver.getAccessLevel(12, 100));
+        verify(groupApi, times(2)).getMembers(2);
+    }
+
+    @Test
+    public void testGroupEventOnlyAffectsDependentProjects() throws Exception {
+
+        // Project 200 is in group 3 only
+        Namespace namespace = new Namespace().withId(3);
+        namespace.setKind("group");
+        when(projectApi.getProject(200)).thenReturn(new Project().withId(200).withNamespace(namespace));
+        when(projectApi.getMembers(200)).thenReturn(Collections.emptyList());
+
+        MembershipResolver resolver = new MembershipResolver(gitLabApi);
+        assertEquals(AccessLevel.GUEST, resolver.getAccessLevel(12, 100));
+        assertEquals(AccessLevel.MAINTAINER, resolver.getAccessLevel(13, 200));
+
+        when(groupApi.getMembers(2)).thenReturn(Arrays.asList(member(13, AccessLevel.OWNER)));
+        GroupMemberSystemHookEvent groupEvent = new GroupMemberSystemHookEvent();
+        groupEvent.setEventName(GroupMemberSystemHookEvent.NEW_GROUP_MEMBER_EVENT);
+        groupEvent.setGroupId(2);
+        resolver.onGroupMemberEvent(groupEvent);
+
+        assertEquals(AccessLevel.MAINTAINER, resolver.getAccessLevel(13, 200));
+        assertEquals(AccessLevel.OWNER, resolver.getAccessLevel(13, 100));
+        assertEquals(AccessLevel.NONE, resolver.getAccessLevel(12, 100));
+
+        verify(groupApi, times(2)).getMembers(2);
+        verify(groupApi, times(1)).getMembers(3);
+        verify(projectApi, times(1)).getMembers(200);
+    }
+
+    private static Group group(int id, Integer parentId) {
+        Group group = new Group();
+        group.setId(id);
+        group.setParentId(parentId);
+        return (group);
+    }
+
+    private static Member member(int userId, AccessLevel accessLevel) {
+        Member member = new Member().withAccessLevel(accessLevel);
+        member.setId(userId);
+        return (member);
+    }
+}
@@ -0,0 +1,137 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.gitlab4j.api.MergeRequestAggregator.MergeRequestStatus;
+import org.gitlab4j.api.models.MergeRequest;
+import org.gitlab4j.api.models.MergeRequestFilter;
+import org.gitlab4j.api.models.Pipeline;
+import org.gitlab4j.api.models.PipelineStatus;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestMergeRequestAggregator {
+
+    private GitLabApi gitLabApi;
+    private MergeRequestApi mergeRequestApi;
+    private PipelineApi pipelineApi;
+    private MergeRequestFilter filter = new MergeRequestFilter().withGroupId(7);
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+
+        gitLabApi = mock(GitLabApi.class);
+        mergeRequestApi = mock(MergeRequestApi.class);
+        pipelineApi = mock(PipelineApi.class);
+        when(gitLabApi.getMergeRequestApi()).thenReturn(mergeRequestApi);
+        when(gitLabApi.getPipelineApi()).thenReturn(pipelineApi);
+
+        List<MergeRequest> page1 = new ArrayList<>();
+        List<MergeRequest> page2 = new ArrayList<>();
+        for (int iid = 1; iid <= 6; iid++) {
+            MergeRequest mergeRequest = new MergeRequest();
+            mergeRequest.setProjectId(100);
+            mergeRequest.setIid(iid);
+            (iid <= 3 ? page1 : page2).add(mergeRequest);
+
+            MergeRequest approvals = new MergeRequest();
+            approvals.setApprovalsMissing(iid % 2);
+            when(mergeRequestApi.getMergeRequestApprovals(100, iid)).thenReturn(approvals);
+
+            // MRs 1 to 4 share a finished pipeline, 5 has a running one and 6 has none
+            when(mergeRequestApi.getMergeRequestPipelines(100, iid)).thenReturn(
+                    iid <= 4 ? Collections.singletonList(pipeline(500, null)) :
+                    iid == 5 ? Collections.singletonList(pipeline(501, null)) : Collections.emptyList());
+        }
+
+        Pager<MergeRequest> pager = mock(Pager.class);
+        when(pager.hasNext()).thenReturn(true, true, false);
+        when(pager.next()).thenReturn(page1, page2);
+        when(mergeRequestApi.getMergeRequests(eq(filter), anyInt())).thenReturn(pager);
+
+        when(pipelineApi.getPipeline(100, 500)).thenReturn(pipeline(500, PipelineStatus.SUCCESS));
+        when(pipelineApi.getPipeline(100, 501)).thenReturn(pipeline(501, PipelineStatus.RUNNING));
+    }
+
+    @Test
+    public void testMergeRequestsAreEnriched() throws Exception {
+
+        try (MergeRequestAggregator aggregator = new MergeRequestAggregator(gitLabApi, 3, 100);
+                Stream<MergeRequestStatus> statuses = aggregator.aggregate(filter)) {
+
+            Map<Integer, MergeRequestStatus> byIid = statuses.collect(
+                    Collectors.toMap(status -> status.getMergeRequest().getIid(), Function.identity()));
+            assertEquals(6, byIid.size());
+
+            assertEquals(Integer.valueOf(1), byIid.get(1).getApprovals().getApprovalsMissing());
+            assertEquals(Integer.valueOf(0), byIid.get(2).getApprovals().getApprovalsMissing());
+            assertEquals(PipelineStatus.SUCCESS, byIid.get(4).getPipeline().getStatus());
+            assertEquals(PipelineStatus.RUNNING, byIid.get(5).getPipeline().getStatus());
+            assertNull(byIid.get(6).getPipeline());
+            assertNull(byIid.get(6).getException());
+
+            // Only the finished pipeline is cached
+            assertEquals(1, aggregator.getCachedPipelineCount());
+            verify(pipelineApi, times(1)).getPipeline(100, 501);
+        }
+    }
+
+    @Test
+    public void testFinishedPipelinesAreCached() throws Exception {
+
+        try (MergeRequestAggregator aggregator = new MergeRequestAggregator(gitLabApi, 1, 100).withApprovals(false)) {
+
+            try (Stream<MergeRequestStatus> statuses = aggregator.aggregate(filter)) {
+                assertEquals(6, statuses.count());
+            }
+
+            // With a single thread the shared pipeline is fetched once and then served from the cache
+            verify(pipelineApi, times(1)).getPipeline(100, 500);
+            verify(mergeRequestApi, times(0)).getMergeRequestApprovals(any(), any());
+        }
+    }
+
+    @Test
+    public void testEnrichmentErrorsAreReported() throws Exception {
+
+        GitLabApiException error = new GitLabApiException("Forbidden");
+        when(mergeRequestApi.getMergeRequestPipelines(100, 3)).thenThrow(error);
+
+        try (MergeRequestAggregator aggregator = new MergeRequestAggregator(gitLabApi)) {
+
+            MergeRequest mergeRequest = new MergeRequest();
+            mergeRequest.setProjectId(100);
+            mergeRequest.setIid(3);
+            MergeRequestStatus status = aggregator.enrich(mergeRequest);
+            assertSame(error, status.getException());
+            assertNotNull(status.getApprovals());
+            assertNull(status.getPipeline());
+        }
+    }
+
+    private static Pipeline pipeline(int id, PipelineStatus status) {
+        Pipeline pipeline = new Pipeline();
+        pipeline.setId(id);
+        pipeline.setStatus(status);
+        return (pipeline);
+    }
+}
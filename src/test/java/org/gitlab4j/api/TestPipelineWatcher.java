@@ -0,0 +1,143 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.gitlab4j.api.models.Pipeline;
+import org.gitlab4j.api.models.PipelineStatus;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestPipelineWatcher {
+
+    private GitLabApi gitLabApi;
+    private PipelineApi pipelineApi;
+
+    @Before
+    public void setup() throws Exception {
+        gitLabApi = mock(GitLabApi.class);
+        pipelineApi = mock(PipelineApi.class);
+        when(gitLabApi.getPipelineApi()).thenReturn(pipelineApi);
+        when(pipelineApi.getProjectIdOrPath(100)).thenReturn(100);
+    }
+
+    @Test
+    public void testStatusChangesAreDelivered() throws Exception {
+
+        when(pipelineApi.getPipeline(100, 1)).thenReturn(pipeline(1, PipelineStatus.PENDING),
+                pipeline(1, PipelineStatus.RUNNING), pipeline(1, PipelineStatus.RUNNING), pipeline(1, PipelineStatus.SUCCESS));
+
+        List<PipelineStatus> changes = new CopyOnWriteArrayList<>();
+        try (PipelineWatcher watcher = new PipelineWatcher(gitLabApi).withRunningInterval(10).withPendingInterval(20)) {
+
+            CompletableFuture<Pipeline> future = watcher.watch(100, 1,
+                    (pipeline, previous) -> changes.add(pipeline.getStatus()));
+            assertEquals(PipelineStatus.SUCCESS, future.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(Arrays.asList(PipelineStatus.PENDING, PipelineStatus.RUNNING, PipelineStatus.SUCCESS), changes);
+
+            waitForUnwatched(watcher);
+            assertEquals(0, watcher.getWatchedCount());
+        }
+    }
+
+    @Test
+    public void testPipelinesOfAProjectAreBatched() throws Exception {
+
+        // Pipeline 1 only fails once the list query has been used
+        AtomicBoolean listed = new AtomicBoolean();
+        when(pipelineApi.getPipeline(100, 1)).thenAnswer(invocation ->
+                pipeline(1, listed.get() ? PipelineStatus.FAILED : PipelineStatus.RUNNING));
+        when(pipelineApi.getPipeline(100, 2)).thenReturn(pipeline(2, PipelineStatus.RUNNING));
+        when(pipelineApi.getPipelines(eq(100), any(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            listed.set(true);
+            return (Arrays.asList(pipeline(1, PipelineStatus.FAILED), pipeline(2, PipelineStatus.RUNNING)));
+        });
+
+        try (PipelineWatcher watcher = new PipelineWatcher(gitLabApi).withRunningInterval(10)) {
+
+            CompletableFuture<Pipeline> first = watcher.watch(100, 1);
+            CompletableFuture<Pipeline> second = watcher.watch(100, 2);
+            assertEquals(PipelineStatus.FAILED, first.get(5, TimeUnit.SECONDS).getStatus());
+            assertFalse(second.isDone());
+
+            verify(pipelineApi, atLeastOnce()).getPipelines(eq(100), any(), eq(1), anyInt());
+        }
+    }
+
+    @Test
+    public void testIgnoredUpdatedAfterFilterFallsBack() throws Exception {
+
+        // The server ignores the filter and lists the whole history, whose oldest pipelines predate the previous poll
+        AtomicBoolean listed = new AtomicBoolean();
+        when(pipelineApi.getPipeline(100, 1)).thenAnswer(invocation ->
+                pipeline(1, listed.get() ? PipelineStatus.SUCCESS : PipelineStatus.RUNNING));
+        when(pipelineApi.getPipeline(100, 2)).thenReturn(pipeline(2, PipelineStatus.RUNNING));
+        when(pipelineApi.getPipelines(eq(100), any(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            listed.set(true);
+            Pipeline old = pipeline(3, PipelineStatus.SUCCESS);
+            old.setUpdated_at(new Date(0));
+            return (Arrays.asList(pipeline(2, PipelineStatus.RUNNING), old));
+        });
+
+        try (PipelineWatcher watcher = new PipelineWatcher(gitLabApi).withRunningInterval(10)) {
+
+            CompletableFuture<Pipeline> first = watcher.watch(100, 1);
+            CompletableFuture<Pipeline> second = watcher.watch(100, 2);
+            assertEquals(PipelineStatus.SUCCESS, first.get(5, TimeUnit.SECONDS).getStatus());
+            assertFalse(second.isDone());
+
+            // The list query is not used again once the filter is known to be ignored
+            verify(pipelineApi, times(1)).getPipelines(eq(100), any(), anyInt(), anyInt());
+        }
+    }
+
+    @Test
+    public void testMissingPipelineFailsTheWatch() throws Exception {
+
+        when(pipelineApi.getPipeline(100, 3)).thenThrow(new GitLabApiException("Not Found", 404));
+        try (PipelineWatcher watcher = new PipelineWatcher(gitLabApi, 1)) {
+
+            CompletableFuture<Pipeline> future = watcher.watch(100, 3);
+            try {
+                future.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException ee) {
+                assertEquals(404, ((GitLabApiException) ee.getCause()).getHttpStatus());
+            }
+
+            assertTrue(future.isCompletedExceptionally());
+            verify(pipelineApi, never()).getPipelines(any(), any(), anyInt(), anyInt());
+        }
+    }
+
+    private static void waitForUnwatched(PipelineWatcher watcher) throws InterruptedException {
+        for (int i = 0; i < 100 && watcher.getWatchedCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static Pipeline pipeline(int id, PipelineStatus status) {
+        Pipeline pipeline = new Pipeline();
+        pipeline.setId(id);
+        pipeline.setStatus(status);
+        return (pipeline);
+    }
+}
@@ -0,0 +1,80 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Scanner;
+
+import org.gitlab4j.api.models.Project;
+import org.gitlab4j.api.utils.JacksonJson;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TestProjection {
+
+    private static final ObjectMapper mapper = new JacksonJson().getObjectMapper();
+
+    @Test
+    public void testOnlyProjectedPropertiesAreBound() throws Exception {
+
+        String project = readResource("project.json");
+        String json = "[" + project + ",{\"star_count\":5}," + project + "]";
+        JavaType type = mapper.getTypeFactory().constructCollectionType(List.class, Project.class);
+
+        Projection projection = Projection.of("id", "path_with_namespace", "last_activity_at", "namespace.path");
+        List<Project> projects = projection.readValue(mapper, toStream(json), type);
+
+        // Elements without any of the projected properties are still returned
+        assertEquals(3, projects.size());
+        assertNull(projects.get(1).getId());
+
+        Project first = projects.get(2);
+        assertEquals(Integer.valueOf(3), first.getId());
+        assertEquals("diaspora/diaspora-project-site", first.getPathWithNamespace());
+        assertNotNull(first.getLastActivityAt());
+        assertEquals("diaspora", first.getNamespace().getPath());
+        assertNull(first.getNamespace().getName());
+        assertNull(first.getOwner());
+        assertNull(first.getPermissions());
+        assertNull(first.getTagList());
+        assertNull(first.getSharedWithGroups());
+    }
+
+    @Test
+    public void testWholeSubtreeIsBound() throws Exception {
+
+        Projection projection = Projection.of("namespace.id", "namespace", "permissions.project_access");
+        Project project = projection.readValue(mapper, toStream(readResource("project.json")),
+                mapper.getTypeFactory().constructType(Project.class));
+
+        assertEquals("Diaspora", project.getNamespace().getName());
+        assertNotNull(project.getPermissions().getProjectAccess());
+        assertNull(project.getPermissions().getGroupAccess());
+        assertNull(project.getId());
+    }
+
+    @Test
+    public void testSimpleCompatibility() {
+        assertTrue(Projection.of("id", "path_with_namespace", "namespace.full_path").isCoveredBy(ProjectApi.SIMPLE_PROJECT_PROPERTIES));
+        assertFalse(Projection.of("id", "statistics").isCoveredBy(ProjectApi.SIMPLE_PROJECT_PROPERTIES));
+    }
+
+    private static InputStream toStream(String json) {
+        return (new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String readResource(String filename) {
+        try (Scanner scanner = new Scanner(TestProjection.class.getResourceAsStream(filename), "UTF-8")) {
+            return (scanner.useDelimiter("\\A").next());
+        }
+    }
+}
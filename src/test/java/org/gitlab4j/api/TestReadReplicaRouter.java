@@ -0,0 +1,120 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.Response;
+
+import org.junit.Test;
+
+public class TestReadReplicaRouter {
+
+    private static final String PRIMARY = "https://primary.example.com";
+
+    @Test
+    public void testRequestsAreRewrittenAndSpread() throws Exception {
+
+        ReadReplicaRouter router = new ReadReplicaRouter(Arrays.asList("https://geo1.example.com/", "https://geo2.example.com"))
+                .withHealthCheckInterval(0);
+
+        List<String> urls = new ArrayList<>();
+        Response ok = mockResponse(200);
+        URL url = new URL(PRIMARY + "/api/v4/projects?page=2");
+        for (int i = 0; i < 4; i++) {
+            assertSame(ok, router.execute(PRIMARY, url, u -> {
+                urls.add(u.toExternalForm());
+                return (ok);
+            }));
+        }
+
+        assertTrue(urls.contains("https://geo1.example.com/api/v4/projects?page=2"));
+        assertTrue(urls.contains("https://geo2.example.com/api/v4/projects?page=2"));
+        assertEquals(2, router.getHealthyNodes().size());
+    }
+
+    @Test
+    public void testFailingNodeIsTakenOutOfRotation() throws Exception {
+
+        ReadReplicaRouter router = new ReadReplicaRouter(Arrays.asList("https://geo1.example.com", "https://geo2.example.com"))
+                .withHealthCheckInterval(0).withFailureThreshold(2);
+
+        Response ok = mockResponse(200);
+        Response unavailable = mockResponse(503);
+        List<String> urls = new ArrayList<>();
+        URL url = new URL(PRIMARY + "/api/v4/version");
+        for (int i = 0; i < 6; i++) {
+            Response response = router.execute(PRIMARY, url, u -> {
+                urls.add(u.getHost());
+                if (u.getHost().startsWith("geo1")) {
+                    return (unavailable);
+                } else if (u.getHost().startsWith("geo2")) {
+                    throw new ProcessingException("Connection refused");
+                }
+
+                return (ok);
+            });
+
+            // Every failed read is retried on the primary
+            assertSame(ok, response);
+        }
+
+        assertEquals(Arrays.asList(), router.getHealthyNodes());
+        assertEquals("primary.example.com", urls.get(urls.size() - 1));
+        assertEquals(4, urls.stream().filter(host -> host.startsWith("geo")).count());
+    }
+
+    @Test
+    public void testReplacedRouterIsClosed() throws Exception {
+
+        ReadReplicaRouter first = spy(new ReadReplicaRouter(Arrays.asList("https://geo1.example.com")).withHealthCheckInterval(0));
+        ReadReplicaRouter second = spy(new ReadReplicaRouter(Arrays.asList("https://geo2.example.com")).withHealthCheckInterval(0));
+        GitLabApi gitLabApi = new GitLabApi(PRIMARY, "token");
+
+        gitLabApi.setReadReplicaRouter(first);
+        gitLabApi.setReadReplicaRouter(first);
+        verify(first, never()).close();
+
+        gitLabApi.setReadReplicaRouter(second);
+        verify(first).close();
+        assertSame(second, gitLabApi.getReadReplicaRouter());
+
+        gitLabApi.setReadReplicaRouter(null);
+        verify(second).close();
+    }
+
+    @Test
+    public void testSharedRouterIsClosedByLastUser() throws Exception {
+
+        ReadReplicaRouter router = spy(new ReadReplicaRouter(Arrays.asList("https://geo1.example.com")).withHealthCheckInterval(0));
+        GitLabApi gitLabApi = new GitLabApi(PRIMARY, "token");
+        gitLabApi.setReadReplicaRouter(router);
+        GitLabApi duplicate = gitLabApi.duplicate();
+        assertSame(router, duplicate.getReadReplicaRouter());
+
+        // Replacing the router of one instance leaves it running for the other
+        duplicate.setReadReplicaRouter(null);
+        verify(router, never()).close();
+        assertSame(router, gitLabApi.getReadReplicaRouter());
+
+        gitLabApi.setReadReplicaRouter(null);
+        verify(router).close();
+    }
+
+    private static Response mockResponse(int status) {
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        return (response);
+    }
+}
@@ -0,0 +1,131 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gitlab4j.api.RepositoryFileApi.FileRequest;
+import org.gitlab4j.api.RepositoryFileApi.FileResult;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestRepositoryFileFetch {
+
+    private RepositoryFileApi fileApi;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Before
+    public void setup() throws Exception {
+
+        fileApi = spy(new RepositoryFileApi(mock(GitLabApi.class)));
+        doAnswer(invocation -> {
+
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            Thread.sleep(50);
+            inFlight.decrementAndGet();
+
+            String content = invocation.getArgument(0) + ":" + invocation.getArgument(2) + "@" + invocation.getArgument(1);
+            return (new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+
+        }).when(fileApi).getRawFile(any(), anyString(), anyString());
+    }
+
+    @Test
+    public void testFilesAreFetchedConcurrently() throws Exception {
+
+        List<FileRequest> requests = Arrays.asList(
+                new FileRequest(1, "README.md", "master"),
+                new FileRequest(1, "pom.xml", "master"),
+                new FileRequest("acme/tools", "build.gradle", "v1.0"),
+                new FileRequest(2, "LICENSE", "master"));
+
+        Map<String, String> contents = new ConcurrentHashMap<>();
+        List<FileResult> results = fileApi.getFiles(requests, 2, (request, in) ->
+                contents.put(request.toString(), new String(readAll(in), StandardCharsets.UTF_8)));
+
+        assertEquals(4, results.size());
+        for (int i = 0; i < requests.size(); i++) {
+            assertSame(requests.get(i), results.get(i).getRequest());
+            assertTrue(results.get(i).isSuccess());
+            assertEquals(requests.get(i).toString(), contents.get(requests.get(i).toString()));
+        }
+
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    public void testFailuresAreReported() throws Exception {
+
+        GitLabApiException notFound = new GitLabApiException("404 File Not Found", 404);
+        doThrow(notFound).when(fileApi).getRawFile(eq(1), anyString(), eq("missing.txt"));
+
+        List<FileRequest> requests = Arrays.asList(
+                new FileRequest(1, "missing.txt", "master"),
+                new FileRequest(1, "README.md", "master"),
+                new FileRequest(1, "broken.txt", "master"));
+
+        List<FileResult> results = fileApi.getFiles(requests, 4, (request, in) -> {
+            if ("broken.txt".equals(request.getFilePath())) {
+                throw new IOException("Consumer failed");
+            }
+        });
+
+        assertFalse(results.get(0).isSuccess());
+        assertSame(notFound, results.get(0).getException());
+        assertTrue(results.get(1).isSuccess());
+        assertFalse(results.get(2).isSuccess());
+        assertTrue(results.get(2).getException().getCause() instanceof IOException);
+    }
+
+    @Test
+    public void testProvidedExecutorIsNotShutDown() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+
+            List<FileRequest> requests = Arrays.asList(
+                    new FileRequest(1, "a.txt", "master"),
+                    new FileRequest(1, "b.txt", "master"));
+
+            assertEquals(2, fileApi.getFiles(requests, executor, (request, in) -> readAll(in)).size());
+            assertFalse(executor.isShutdown());
+            assertEquals(1, fileApi.getFiles(requests.subList(0, 1), executor, (request, in) -> readAll(in)).size());
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        for (int n; (n = in.read(buffer)) > 0; ) {
+            out.write(buffer, 0, n);
+        }
+
+        return (out.toByteArray());
+    }
+}
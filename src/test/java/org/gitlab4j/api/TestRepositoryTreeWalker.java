@@ -0,0 +1,142 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.gitlab4j.api.models.TreeItem;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestRepositoryTreeWalker {
+
+    private static final TreeItem README = item("README.md", TreeItem.Type.BLOB, "a1");
+    private static final TreeItem SRC = item("src", TreeItem.Type.TREE, "t1");
+    private static final TreeItem MAIN = item("src/Main.java", TreeItem.Type.BLOB, "b2");
+    private static final TreeItem COPY = item("src/Copy.java", TreeItem.Type.BLOB, "a1");
+    private static final TreeItem VENDOR = item("vendor", TreeItem.Type.TREE, "t2");
+    private static final TreeItem LIB = item("vendor/lib.js", TreeItem.Type.BLOB, "c3");
+
+    private RepositoryApi repositoryApi;
+
+    @Before
+    public void setup() throws Exception {
+
+        repositoryApi = mock(RepositoryApi.class);
+        when(repositoryApi.getDefaultPerPage()).thenReturn(20);
+
+        directory(null, README, SRC, VENDOR);
+        directory("src", MAIN, COPY);
+        directory("vendor", LIB);
+    }
+
+    @Test
+    public void testCrawlWalksWholeTree() throws Exception {
+
+        List<String> paths = walk(new RepositoryTreeWalker(repositoryApi, 1, "master").withMaxConcurrency(2));
+        assertEquals(new TreeSet<>(Arrays.asList("README.md", "src", "src/Copy.java", "src/Main.java", "vendor", "vendor/lib.js")),
+                new TreeSet<>(paths));
+        assertEquals(6, paths.size());
+    }
+
+    @Test
+    public void testCrawlPrunesExcludedSubtrees() throws Exception {
+
+        List<String> paths = walk(new RepositoryTreeWalker(repositoryApi, 1, "master").withExcludePrefix("vendor/"));
+        assertEquals(new TreeSet<>(Arrays.asList("README.md", "src", "src/Copy.java", "src/Main.java")), new TreeSet<>(paths));
+
+        // The excluded directory is never listed
+        verify(repositoryApi, never()).getTree(any(), eq("vendor"), any(), any(), anyInt());
+    }
+
+    @Test
+    public void testCrawlOnlyListsIncludedSubtrees() throws Exception {
+
+        List<String> paths = walk(new RepositoryTreeWalker(repositoryApi, 1, "master").withIncludePrefix("/src"));
+        assertEquals(new TreeSet<>(Arrays.asList("src/Copy.java", "src/Main.java")), new TreeSet<>(paths));
+        verify(repositoryApi, never()).getTree(any(), isNull(), any(), any(), anyInt());
+    }
+
+    @Test
+    public void testCrawlFailure() throws Exception {
+
+        GitLabApiException failure = new GitLabApiException("Server error", 500);
+        when(repositoryApi.getTree(eq(1), eq("src"), eq("master"), eq(false), anyInt())).thenThrow(failure);
+
+        try {
+            walk(new RepositoryTreeWalker(repositoryApi, 1, "master"));
+            fail("Expected a GitLabApiException");
+        } catch (GitLabApiException glae) {
+            assertSame(failure, glae);
+        }
+    }
+
+    @Test
+    public void testListingWithDistinctBlobs() throws Exception {
+
+        listing(null, README, SRC, MAIN, COPY, VENDOR, LIB);
+
+        List<String> paths = walk(new RepositoryTreeWalker(repositoryApi, 1, "master")
+                .withStrategy(RepositoryTreeWalker.Strategy.LISTING)
+                .withDistinctBlobs(true)
+                .withExcludePrefix("vendor"));
+
+        // src/Copy.java has the same blob SHA as README.md
+        assertEquals(Arrays.asList("README.md", "src", "src/Main.java"), paths);
+    }
+
+    @Test
+    public void testListingPassesSingleIncludePrefixToServer() throws Exception {
+
+        listing("src", MAIN, COPY);
+
+        List<String> paths = walk(new RepositoryTreeWalker(repositoryApi, 1, "master")
+                .withStrategy(RepositoryTreeWalker.Strategy.LISTING)
+                .withIncludePrefix("src"));
+        assertEquals(Arrays.asList("src/Main.java", "src/Copy.java"), paths);
+    }
+
+    private static List<String> walk(RepositoryTreeWalker walker) throws GitLabApiException {
+        List<String> paths = Collections.synchronizedList(new ArrayList<>());
+        walker.walk(item -> paths.add(item.getPath()));
+        return (paths);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void directory(String path, TreeItem... items) throws GitLabApiException {
+        Pager<TreeItem> pager = mock(Pager.class);
+        when(pager.hasNext()).thenReturn(true, false);
+        when(pager.next()).thenReturn(Arrays.asList(items));
+        when(repositoryApi.getTree(eq(1), path != null ? eq(path) : isNull(), eq("master"), eq(false), anyInt())).thenReturn(pager);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void listing(String path, TreeItem... items) throws GitLabApiException {
+        Pager<TreeItem> pager = mock(Pager.class);
+        when(pager.lazyStream(anyInt())).thenAnswer(invocation -> Arrays.stream(items));
+        when(repositoryApi.getTree(eq(1), path != null ? eq(path) : isNull(), eq("master"), eq(true), anyInt())).thenReturn(pager);
+    }
+
+    private static TreeItem item(String path, TreeItem.Type type, String id) {
+        TreeItem item = new TreeItem();
+        item.setPath(path);
+        item.setName(path.substring(path.lastIndexOf('/') + 1));
+        item.setType(type);
+        item.setId(id);
+        return (item);
+    }
+}
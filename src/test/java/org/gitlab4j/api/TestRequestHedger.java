@@ -0,0 +1,105 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+
+import javax.ws.rs.core.Response;
+
+import org.junit.Test;
+
+public class TestRequestHedger {
+
+    private static final String ROUTE = "projects/:id/pipelines/:id";
+
+    @Test
+    public void testSlowRequestIsHedged() throws Exception {
+
+        try (RequestHedger hedger = new RequestHedger().withMinSamples(5).withMinDelay(0).withBudget(1.0)) {
+
+            URL url = new URL("https://gitlab.example.com/api/v4/projects/42/pipelines/7");
+            warmUp(hedger, url);
+            assertTrue(hedger.getDelay(ROUTE) >= 0);
+
+            Response slow = mock(Response.class);
+            Response fast = mock(Response.class);
+            CountDownLatch release = new CountDownLatch(1);
+            Response response = hedger.execute(url, () -> {
+
+                // The original attempt is slow and the duplicate is fast, whichever thread runs first
+                if (!RequestHedger.isHedgeAttempt()) {
+                    await(release);
+                    return (slow);
+                }
+
+                return (fast);
+            });
+
+            assertSame(fast, response);
+            assertEquals(1, hedger.getHedgeCount());
+            assertEquals(1, hedger.getHedgeWinCount());
+
+            // The losing response is closed once it arrives
+            release.countDown();
+            verify(slow, timeout(5000)).close();
+        }
+    }
+
+    @Test
+    public void testHedgesAreBoundedByBudget() throws Exception {
+
+        try (RequestHedger hedger = new RequestHedger().withMinSamples(5).withMinDelay(0).withBudget(0.0)) {
+
+            URL url = new URL("https://gitlab.example.com/api/v4/projects/42/pipelines/7");
+            warmUp(hedger, url);
+
+            Response slow = mock(Response.class);
+            Response response = hedger.execute(url, () -> {
+                sleep(200);
+                return (slow);
+            });
+
+            assertSame(slow, response);
+            assertEquals(0, hedger.getHedgeCount());
+        }
+    }
+
+    @Test
+    public void testOnlyConfiguredRoutesAreHedged() throws Exception {
+
+        try (RequestHedger hedger = new RequestHedger().withRoutes("projects/:id/merge_requests/*").withMinSamples(1)) {
+            URL url = new URL("https://gitlab.example.com/api/v4/projects/42/pipelines/7");
+            warmUp(hedger, url);
+            assertEquals(-1, hedger.getDelay(ROUTE));
+        }
+    }
+
+    private static void warmUp(RequestHedger hedger, URL url) {
+        Response response = mock(Response.class);
+        for (int i = 0; i < 5; i++) {
+            hedger.execute(url, () -> response);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
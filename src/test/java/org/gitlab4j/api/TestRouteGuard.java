@@ -0,0 +1,122 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URL;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.Response;
+
+import org.gitlab4j.api.RequestRejectedException.Reason;
+import org.gitlab4j.api.RouteGuard.Group;
+import org.gitlab4j.api.RouteGuard.Group.State;
+import org.junit.Test;
+
+public class TestRouteGuard {
+
+    @Test
+    public void testMostSpecificGroupWins() {
+
+        Group all = new Group("all", "*");
+        Group jobs = new Group("jobs", "projects/:id/jobs/*");
+        Group artifacts = new Group("artifacts", "projects/:id/jobs/:id/artifacts");
+        RouteGuard guard = new RouteGuard().withGroup(all).withGroup(jobs).withGroup(artifacts);
+
+        assertSame(artifacts, guard.getGroup("projects/:id/jobs/:id/artifacts"));
+        assertSame(jobs, guard.getGroup("projects/:id/jobs/:id/trace"));
+        assertSame(jobs, guard.getGroup("projects/:id/jobs"));
+        assertSame(all, guard.getGroup("projects/:id/issues"));
+        assertNull(new RouteGuard().withGroup(jobs).getGroup("projects/:id/jobsx"));
+    }
+
+    @Test
+    public void testBulkheadRejectsWhenFull() {
+
+        Group group = new Group("compare", "projects/:id/repository/compare").withMaxConcurrentCalls(1);
+        group.acquire("projects/:id/repository/compare");
+        assertEquals(1, group.getActiveCalls());
+
+        try {
+            group.acquire("projects/:id/repository/compare");
+            fail("Expected the call to be rejected");
+        } catch (RequestRejectedException rre) {
+            assertEquals(Reason.BULKHEAD_FULL, rre.getReason());
+            assertEquals("compare", rre.getGroupName());
+        }
+
+        group.release(false, false, 0);
+        group.acquire("projects/:id/repository/compare");
+    }
+
+    @Test
+    public void testCircuitBreakerOpensAndCloses() throws Exception {
+
+        Group group = new Group("compare", "projects/:id/repository/compare")
+                .withFailureRateThreshold(50).withMinimumCalls(4).withSlidingWindowSize(4)
+                .withHalfOpenCalls(1).withOpenDuration(500);
+        RouteGuard guard = new RouteGuard().withGroup(group);
+        URL url = new URL("https://gitlab.example.com/api/v4/projects/42/repository/compare?from=a&to=b");
+
+        Response ok = mockResponse(200);
+        guard.execute(url, () -> ok);
+        guard.execute(url, () -> mockResponse(502));
+        guard.execute(url, () -> ok);
+        assertEquals(State.CLOSED, group.getState());
+
+        try {
+            guard.execute(url, () -> { throw new ProcessingException("Read timed out"); });
+            fail("Expected the call to fail");
+        } catch (ProcessingException pe) {
+        }
+
+        assertEquals(State.OPEN, group.getState());
+        try {
+            guard.execute(url, () -> ok);
+            fail("Expected the call to be rejected");
+        } catch (RequestRejectedException rre) {
+            assertEquals(Reason.CIRCUIT_OPEN, rre.getReason());
+        }
+
+        // After the open duration a successful probe closes the circuit
+        Thread.sleep(600);
+        assertEquals(State.HALF_OPEN, group.getState());
+        guard.execute(url, () -> ok);
+        assertEquals(State.CLOSED, group.getState());
+    }
+
+    @Test
+    public void testHalfOpenProbes() {
+
+        Group group = new Group("all", "*").withFailureRateThreshold(100).withMinimumCalls(1)
+                .withHalfOpenCalls(1).withOpenDuration(0);
+        group.release(false, true, 0);
+        assertEquals(State.HALF_OPEN, group.getState());
+
+        // A failed probe opens the circuit again
+        group.release(group.acquire("version"), true, 0);
+        assertEquals(State.HALF_OPEN, group.getState());
+
+        // Only one probe is let through at a time
+        boolean probe = group.acquire("version");
+        try {
+            group.acquire("version");
+            fail("Expected the call to be rejected");
+        } catch (RequestRejectedException rre) {
+            assertEquals(Reason.CIRCUIT_OPEN, rre.getReason());
+        }
+
+        group.release(probe, false, 0);
+        assertEquals(State.CLOSED, group.getState());
+    }
+
+    private static Response mockResponse(int status) {
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        return (response);
+    }
+}
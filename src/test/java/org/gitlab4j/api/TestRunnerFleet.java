@@ -0,0 +1,128 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.gitlab4j.api.models.Runner;
+import org.gitlab4j.api.models.Runner.RunnerStatus;
+import org.gitlab4j.api.models.RunnerDetail;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestRunnerFleet {
+
+    private GitLabApi gitLabApi;
+    private RunnersApi runnersApi;
+
+    @Before
+    public void setup() throws Exception {
+
+        gitLabApi = mock(GitLabApi.class);
+        runnersApi = mock(RunnersApi.class);
+        when(gitLabApi.getRunnersApi()).thenReturn(runnersApi);
+
+        for (int id = 1; id <= 4; id++) {
+            when(runnersApi.getRunnerDetail(id)).thenReturn(detail(id, RunnerStatus.ONLINE, id % 2 == 0 ? "docker" : "shell"));
+        }
+    }
+
+    @Test
+    public void testOnlyChangedRunnersAreRefreshed() throws Exception {
+
+        RunnerFleet fleet = new RunnerFleet(gitLabApi).withParallelism(2);
+
+        listRunners(runner(1, RunnerStatus.ONLINE), runner(2, RunnerStatus.ONLINE), runner(3, RunnerStatus.ONLINE));
+        RunnerFleet.Diff first = fleet.refresh();
+        assertEquals(3, first.getAdded().size());
+        assertEquals(3, first.getDetailRequestCount());
+        assertEquals(3, fleet.getSnapshot().size());
+        assertEquals(1, fleet.getSnapshot().getRunnersWithTag("docker").size());
+
+        // Runner 1 goes offline, 3 is removed and 4 is added
+        when(runnersApi.getRunnerDetail(1)).thenReturn(detail(1, RunnerStatus.OFFLINE, "shell"));
+        listRunners(runner(1, RunnerStatus.OFFLINE), runner(2, RunnerStatus.ONLINE), runner(4, RunnerStatus.ONLINE));
+        RunnerFleet.Diff second = fleet.refresh();
+
+        assertEquals(Collections.singletonList(4), ids(second.getAdded()));
+        assertEquals(Collections.singletonList(3), ids(second.getRemoved()));
+        assertEquals(Collections.singletonList(1), ids(second.getChanged()));
+        assertEquals(2, second.getDetailRequestCount());
+        assertEquals(RunnerStatus.OFFLINE, fleet.getSnapshot().getRunner(1).getStatus());
+        assertSame(first.getCurrent().getRunner(2), second.getCurrent().getRunner(2));
+        assertNull(fleet.getSnapshot().getRunner(3));
+        assertEquals(Arrays.asList(2, 4), ids(fleet.getSnapshot().getRunnersWithTag("docker")));
+
+        verify(runnersApi, times(1)).getRunnerDetail(2);
+
+        // Nothing changed, only the list is fetched
+        RunnerFleet.Diff third = fleet.refresh();
+        assertTrue(third.isEmpty());
+        assertEquals(0, third.getDetailRequestCount());
+    }
+
+    @Test
+    public void testRefetchedUnchangedRunnersAreNotChanged() throws Exception {
+
+        RunnerFleet fleet = new RunnerFleet(gitLabApi).withParallelism(1).withMaxDetailAge(1);
+        listRunners(runner(1, RunnerStatus.ONLINE), runner(2, RunnerStatus.ONLINE));
+        fleet.refresh();
+        Thread.sleep(5);
+
+        // Both runners are fetched again because of their age, only runner 2 has new details
+        when(runnersApi.getRunnerDetail(2)).thenReturn(detail(2, RunnerStatus.ONLINE, "kubernetes"));
+        RunnerFleet.Diff diff = fleet.refresh();
+        assertEquals(2, diff.getDetailRequestCount());
+        assertEquals(Collections.singletonList(2), ids(diff.getChanged()));
+    }
+
+    @Test
+    public void testRunnerRemovedDuringRefreshIsSkipped() throws Exception {
+
+        when(runnersApi.getRunnerDetail(3)).thenThrow(new GitLabApiException("Not Found", 404));
+        listRunners(runner(2, RunnerStatus.ONLINE), runner(3, RunnerStatus.ONLINE));
+
+        RunnerFleet fleet = new RunnerFleet(gitLabApi).withParallelism(1);
+        RunnerFleet.Diff diff = fleet.refresh();
+        assertEquals(Collections.singletonList(2), ids(diff.getAdded()));
+        assertEquals(1, fleet.getSnapshot().size());
+        verify(runnersApi, never()).getRunnerDetail(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void listRunners(Runner... runners) throws GitLabApiException {
+        Pager<Runner> pager = mock(Pager.class);
+        when(pager.lazyStream(anyInt())).thenAnswer(invocation -> Arrays.stream(runners));
+        when(runnersApi.getAllRunners(null, 100)).thenReturn(pager);
+    }
+
+    private static List<Integer> ids(List<? extends Runner> runners) {
+        return (Arrays.asList(runners.stream().map(Runner::getId).toArray(Integer[]::new)));
+    }
+
+    private static Runner runner(int id, RunnerStatus status) {
+        Runner runner = new Runner();
+        runner.setId(id);
+        runner.setStatus(status);
+        return (runner);
+    }
+
+    private static RunnerDetail detail(int id, RunnerStatus status, String tag) {
+        RunnerDetail detail = new RunnerDetail();
+        detail.setId(id);
+        detail.setStatus(status);
+        detail.setTagList(Collections.singletonList(tag));
+        return (detail);
+    }
+}
@@ -105,6 +105,28 @@ public class TestStreams implements Constants {
         }
     }
 
+    @Test
+    public void testPrefetchingLazyStream() throws Exception {
+
+        // Arrange
+        Pager<User> pager = new UserApi(gitLabApi).getUsers(10);
+        Stream<User> stream = pager.lazyStream(2);
+
+        // Assert
+        assertNotNull(stream);
+        List<String> usernames;
+        try {
+            usernames = stream.map(User::getUsername).collect(toList());
+        } finally {
+            stream.close();
+        }
+
+        assertEquals(usernames.size(), sortedUsers.size());
+        for (int i = 0; i < sortedUsers.size(); i++) {
+            assertTrue(usernames.contains(sortedUsers.get(i).getUsername()));
+        }
+    }
+
     @Test
     public void testStreamLazyLimit() throws Exception {
 
@@ -0,0 +1,86 @@
+package org.gitlab4j.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TestTokenPool {
+
+    @Test
+    public void testRotatesUnusedTokens() {
+
+        TokenPool pool = new TokenPool(Arrays.asList("a", "b", "c", "a"));
+        assertEquals(3, pool.size());
+
+        Set<String> used = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            used.add(pool.acquire());
+        }
+
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), used);
+    }
+
+    @Test
+    public void testSteersToTokenWithBudget() {
+
+        TokenPool pool = new TokenPool(Arrays.asList("a", "b"));
+        long reset = System.currentTimeMillis() / 1000 + 60;
+        pool.update("a", 200, "5", Long.toString(reset), null);
+        pool.update("b", 200, "100", Long.toString(reset), null);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("b", pool.acquire());
+        }
+
+        // An exhausted token is skipped until its rate limit resets
+        pool.update("b", 429, "0", Long.toString(reset), "30");
+        assertEquals("a", pool.acquire());
+        assertEquals(5 - 1, pool.getRemaining());
+    }
+
+    @Test
+    public void testConcurrentAcquiresAreAllCounted() throws Exception {
+
+        TokenPool pool = new TokenPool(Arrays.asList("a"));
+        pool.update("a", 200, "10000", Long.toString(System.currentTimeMillis() / 1000 + 60), null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    pool.acquire();
+                }
+            });
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+        assertEquals(10000 - 8000, pool.getRemaining());
+    }
+
+    @Test
+    public void testRevokedTokensAreRemoved() {
+
+        TokenPool pool = new TokenPool(Arrays.asList("a", "b"));
+        pool.update("a", 401, null, null, null);
+        assertEquals(1, pool.getActiveCount());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("b", pool.acquire());
+        }
+
+        pool.update("b", 401, null, null, null);
+        try {
+            pool.acquire();
+            fail("Expected an IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+    }
+}